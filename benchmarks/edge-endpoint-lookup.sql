@@ -0,0 +1,114 @@
+-- =====================================================================
+-- Benchmark: búsqueda de edges por nodo (OR de 4 predicados vs UNION)
+--
+-- Compara el plan de EdgeRepository.findByActivityId antes y después de
+-- los índices de la migración V2, sobre una copia sintética de la tabla edge
+-- con varios millones de filas. Trabaja en un esquema aparte (edge_bench)
+-- y lo elimina al final: no toca los datos de la aplicación.
+--
+-- Uso:
+--   psql -h <host> -U usuariodb -d proyecto -f benchmarks/edge-endpoint-lookup.sql
+--
+-- Parámetros (psql -v): rows (default 3000000), nodes (default 200000)
+--   psql ... -v rows=5000000 -f benchmarks/edge-endpoint-lookup.sql
+-- =====================================================================
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+\set rows 3000000
+\endif
+\if :{?nodes}
+\else
+\set nodes 200000
+\endif
+\timing on
+
+DROP SCHEMA IF EXISTS edge_bench CASCADE;
+CREATE SCHEMA edge_bench;
+SET search_path = edge_bench;
+
+CREATE TABLE edge (
+    id                  BIGINT PRIMARY KEY,
+    label               VARCHAR(255),
+    description         VARCHAR(255),
+    status              VARCHAR(255) NOT NULL,
+    process_id          BIGINT,
+    activity_source_id  BIGINT,
+    activity_destiny_id BIGINT,
+    from_type           VARCHAR(20),
+    from_id             BIGINT,
+    to_type             VARCHAR(20),
+    to_id               BIGINT
+);
+
+-- Distribución parecida a la real: ~60% activity→activity (con columnas
+-- legacy), el resto mezcla gateways; 5% de edges inactivos.
+INSERT INTO edge
+SELECT g,
+       'edge ' || g,
+       NULL,
+       CASE WHEN g % 20 = 0 THEN 'inactive' ELSE 'active' END,
+       1 + (g % 5000),
+       CASE WHEN g % 5 < 3 THEN 1 + (g * 7) % :nodes END,
+       CASE WHEN g % 5 < 3 THEN 1 + (g * 13) % :nodes END,
+       CASE WHEN g % 5 = 3 THEN 'gateway' ELSE 'activity' END,
+       CASE WHEN g % 5 = 3 THEN 1 + (g * 11) % :nodes ELSE 1 + (g * 7) % :nodes END,
+       CASE WHEN g % 5 = 4 THEN 'gateway' ELSE 'activity' END,
+       CASE WHEN g % 5 = 4 THEN 1 + (g * 17) % :nodes ELSE 1 + (g * 13) % :nodes END
+FROM generate_series(1, :rows) AS g;
+
+ANALYZE edge;
+
+-- ---------------------------------------------------------------------
+-- 1. Sin índices: query original (OR de cuatro predicados)
+-- ---------------------------------------------------------------------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM edge e
+WHERE (e.activity_source_id = 4242 OR e.activity_destiny_id = 4242
+       OR (e.from_type = 'activity' AND e.from_id = 4242)
+       OR (e.to_type = 'activity' AND e.to_id = 4242))
+  AND e.status = 'active';
+
+-- ---------------------------------------------------------------------
+-- 2. Índices de db/migration/V2__indices_de_rendimiento.sql
+-- ---------------------------------------------------------------------
+CREATE INDEX idx_edge_from ON edge (from_type, from_id);
+CREATE INDEX idx_edge_to ON edge (to_type, to_id);
+CREATE INDEX idx_edge_activity_source ON edge (activity_source_id);
+CREATE INDEX idx_edge_activity_destiny ON edge (activity_destiny_id);
+CREATE INDEX idx_edge_process_status ON edge (process_id, status);
+ANALYZE edge;
+
+-- Query original con índices (el planner puede o no combinar un BitmapOr)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM edge e
+WHERE (e.activity_source_id = 4242 OR e.activity_destiny_id = 4242
+       OR (e.from_type = 'activity' AND e.from_id = 4242)
+       OR (e.to_type = 'activity' AND e.to_id = 4242))
+  AND e.status = 'active';
+
+-- ---------------------------------------------------------------------
+-- 3. Query nueva (EdgeRepository.ACTIVITY_EDGE_IDS): un índice por rama
+-- ---------------------------------------------------------------------
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM edge
+WHERE id IN (SELECT id FROM edge WHERE activity_source_id IN (4242)
+             UNION SELECT id FROM edge WHERE activity_destiny_id IN (4242)
+             UNION SELECT id FROM edge WHERE from_type = 'activity' AND from_id IN (4242)
+             UNION SELECT id FROM edge WHERE to_type = 'activity' AND to_id IN (4242))
+  AND status = 'active';
+
+-- Gateway (EdgeRepository.GATEWAY_EDGE_IDS)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM edge
+WHERE id IN (SELECT id FROM edge WHERE from_type = 'gateway' AND from_id IN (4242)
+             UNION SELECT id FROM edge WHERE to_type = 'gateway' AND to_id IN (4242))
+  AND status = 'active';
+
+-- Diagrama de un proceso (idx_edge_process_status)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM edge WHERE process_id = 42 AND status = 'active';
+
+RESET search_path;
+DROP SCHEMA edge_bench CASCADE;
@@ -0,0 +1,132 @@
+package com.proyecto.entrega.config;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.proyecto.entrega.security.AuthBulkhead;
+import com.proyecto.entrega.security.JwtClaimsCache;
+import com.proyecto.entrega.security.PasswordHasher;
+import com.proyecto.entrega.security.PrincipalCache;
+import com.proyecto.entrega.security.RateLimiter;
+import com.proyecto.entrega.service.DiagramEventHub;
+import com.proyecto.entrega.service.PositionWriteBehind;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * ApplicationMetrics - Estado interno de la aplicación en Micrometer
+ *
+ * Publica como métricas los contadores que los componentes ya llevan en
+ * memoria: caches de autenticación, límite de peticiones, bulkhead de
+ * login, cola de BCrypt, canal SSE y escritura diferida de posiciones.
+ * Las métricas HTTP, de Hikari y de Hibernate las agrega Spring Boot.
+ *
+ * Los valores se leen al momento de cada scrape; no hay trabajo extra en
+ * el camino de las peticiones.
+ */
+@Component
+public class ApplicationMetrics implements MeterBinder {
+
+    private final JwtClaimsCache jwtClaimsCache;
+    private final PrincipalCache principalCache;
+    private final RateLimiter rateLimiter;
+    private final AuthBulkhead authBulkhead;
+    private final PasswordHasher passwordHasher;
+    private final DiagramEventHub diagramEventHub;
+    private final PositionWriteBehind positionWriteBehind;
+    private final ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+
+    public ApplicationMetrics(JwtClaimsCache jwtClaimsCache, PrincipalCache principalCache,
+            RateLimiter rateLimiter, AuthBulkhead authBulkhead, PasswordHasher passwordHasher,
+            DiagramEventHub diagramEventHub, PositionWriteBehind positionWriteBehind,
+            ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor) {
+        this.jwtClaimsCache = jwtClaimsCache;
+        this.principalCache = principalCache;
+        this.rateLimiter = rateLimiter;
+        this.authBulkhead = authBulkhead;
+        this.passwordHasher = passwordHasher;
+        this.diagramEventHub = diagramEventHub;
+        this.positionWriteBehind = positionWriteBehind;
+        this.pinningMonitor = pinningMonitor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCache(registry, "jwt-claims", jwtClaimsCache, JwtClaimsCache::stats, JwtClaimsCache::size);
+        bindCache(registry, "principal", principalCache, PrincipalCache::stats, PrincipalCache::size);
+
+        for (RateLimiter.Scope scope : RateLimiter.Scope.values()) {
+            String tag = scope.name().toLowerCase();
+            FunctionCounter.builder("app.rate.limit.requests", rateLimiter, limiter -> limiter.allowed(scope))
+                    .description("Peticiones evaluadas por el límite de peticiones")
+                    .tags("scope", tag, "result", "allowed")
+                    .register(registry);
+            FunctionCounter.builder("app.rate.limit.requests", rateLimiter, limiter -> limiter.rejected(scope))
+                    .description("Peticiones evaluadas por el límite de peticiones")
+                    .tags("scope", tag, "result", "rejected")
+                    .register(registry);
+        }
+        Gauge.builder("app.rate.limit.keys", rateLimiter, RateLimiter::trackedKeys)
+                .description("Claves (compañías o IPs) con cubeta en memoria")
+                .register(registry);
+
+        Gauge.builder("app.auth.bulkhead.available", authBulkhead, AuthBulkhead::available)
+                .description("Cupos libres para login y registro")
+                .register(registry);
+        FunctionCounter.builder("app.auth.bulkhead.rejected", authBulkhead, AuthBulkhead::rejected)
+                .description("Logins y registros rechazados con 503 por falta de cupo")
+                .register(registry);
+        Gauge.builder("app.password.hashing.pending", passwordHasher, PasswordHasher::pending)
+                .description("Hash y verificaciones BCrypt en cola o en ejecución")
+                .register(registry);
+
+        Gauge.builder("app.diagram.events.connections", diagramEventHub, DiagramEventHub::connections)
+                .description("Conexiones SSE abiertas")
+                .register(registry);
+        FunctionCounter.builder("app.diagram.events.dropped", diagramEventHub, DiagramEventHub::dropped)
+                .description("Eventos descartados por buffers llenos")
+                .register(registry);
+
+        Gauge.builder("app.positions.pending", positionWriteBehind, PositionWriteBehind::pending)
+                .description("Posiciones en memoria esperando el próximo flush")
+                .register(registry);
+        FunctionCounter.builder("app.positions.written", positionWriteBehind, PositionWriteBehind::written)
+                .description("Posiciones escritas en la base")
+                .register(registry);
+        FunctionCounter.builder("app.positions.coalesced", positionWriteBehind, PositionWriteBehind::coalesced)
+                .description("Posiciones reemplazadas por una más nueva antes del flush")
+                .register(registry);
+        FunctionCounter.builder("app.positions.failed.flushes", positionWriteBehind,
+                PositionWriteBehind::failedFlushes)
+                .description("Flushes de posiciones fallidos")
+                .register(registry);
+
+        pinningMonitor.ifAvailable(monitor -> FunctionCounter
+                .builder("app.virtual.threads.pinned", monitor, VirtualThreadPinningMonitor::pinned)
+                .description("Bloqueos con el hilo virtual fijado a su carrier")
+                .register(registry));
+    }
+
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache,
+            Function<T, CacheStats> stats, ToDoubleFunction<T> size) {
+        FunctionCounter.builder("app.cache.gets", cache, c -> stats.apply(c).hitCount())
+                .description("Lecturas de los caches de autenticación")
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("app.cache.gets", cache, c -> stats.apply(c).missCount())
+                .description("Lecturas de los caches de autenticación")
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+        Gauge.builder("app.cache.size", cache, size)
+                .description("Entradas en los caches de autenticación")
+                .tag("cache", name)
+                .register(registry);
+    }
+}
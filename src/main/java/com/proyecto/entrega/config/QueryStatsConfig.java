@@ -0,0 +1,146 @@
+package com.proyecto.entrega.config;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.BaseStream;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import com.proyecto.entrega.service.QueryStatsService;
+
+/**
+ * QueryStatsConfig - Medición de cada método de repositorio
+ *
+ * Agrega a los proxies de Spring Data un interceptor que mide cada
+ * llamada, cuenta las filas del resultado y la registra en
+ * QueryStatsService con el nombre Repositorio.método. Un StatementInspector
+ * de Hibernate anota en la invocación en curso la última sentencia SQL
+ * preparada, así cada método queda asociado a su SQL sin parsear nada.
+ *
+ * El costo por llamada es un par de System.nanoTime() y unos contadores
+ * atómicos; el SQL se guarda por referencia.
+ */
+@Configuration
+public class QueryStatsConfig {
+
+    /** Invocación de repositorio en curso en este hilo (null fuera de una) */
+    private static final ThreadLocal<Invocation> CURRENT = new ThreadLocal<>();
+
+    @Bean
+    static BeanPostProcessor repositoryQueryStatsPostProcessor(ObjectProvider<QueryStatsService> queryStats) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> {
+                                registerQueries(queryStats.getObject(), information);
+                                proxyFactory.addAdvice(new RepositoryInterceptor(queryStats,
+                                        information.getRepositoryInterface().getSimpleName()));
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer queryStatsStatementInspector() {
+        return (Map<String, Object> properties) -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                (StatementInspector) sql -> {
+                    Invocation invocation = CURRENT.get();
+                    if (invocation != null) {
+                        invocation.sql = sql;
+                    }
+                    return sql;
+                });
+    }
+
+    private static void registerQueries(QueryStatsService queryStats, RepositoryInformation information) {
+        String repository = information.getRepositoryInterface().getSimpleName();
+        for (Method method : information.getQueryMethods()) {
+            Query query = method.getAnnotation(Query.class);
+            if (query != null && !query.value().isEmpty()) {
+                queryStats.registerQuery(query.value(), repository + "." + method.getName());
+            }
+        }
+    }
+
+    private static final class Invocation {
+        String sql;
+    }
+
+    static final class RepositoryInterceptor implements MethodInterceptor {
+
+        private final ObjectProvider<QueryStatsService> queryStats;
+        private final String repository;
+
+        RepositoryInterceptor(ObjectProvider<QueryStatsService> queryStats, String repository) {
+            this.queryStats = queryStats;
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            if (method.getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            Invocation previous = CURRENT.get();
+            Invocation current = new Invocation();
+            CURRENT.set(current);
+            long start = System.nanoTime();
+            Object result = null;
+            try {
+                result = invocation.proceed();
+                return result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                CURRENT.set(previous);
+                if (previous != null && current.sql != null) {
+                    previous.sql = current.sql;
+                }
+                queryStats.getObject().record(repository + "." + method.getName(), elapsed,
+                        rows(method, result), current.sql);
+            }
+        }
+
+        static long rows(Method method, Object result) {
+            if (result == null || result instanceof BaseStream<?, ?>) {
+                return 0;
+            }
+            if (result instanceof Collection<?> collection) {
+                return collection.size();
+            }
+            if (result instanceof Optional<?> optional) {
+                return optional.isPresent() ? 1 : 0;
+            }
+            if (result instanceof Slice<?> slice) {
+                return slice.getNumberOfElements();
+            }
+            if (result.getClass().isArray()) {
+                return Array.getLength(result);
+            }
+            if (result instanceof Number affected && method.isAnnotationPresent(Modifying.class)) {
+                return affected.longValue();
+            }
+            return 1;
+        }
+    }
+}
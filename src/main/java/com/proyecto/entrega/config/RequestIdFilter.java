@@ -0,0 +1,63 @@
+package com.proyecto.entrega.config;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * RequestIdFilter - Contexto de log (MDC) de cada petición
+ *
+ * Corre antes que la seguridad: asigna requestId (el X-Request-Id del
+ * cliente si es válido, o uno nuevo) y lo devuelve en la respuesta.
+ * JwtFilter agrega companyId y userId al validar el token. Todos los
+ * eventos de log de la petición llevan esos campos; al terminar se limpian
+ * para que el hilo no los arrastre a la siguiente.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String REQUEST_ID = "requestId";
+    public static final String COMPANY_ID = "companyId";
+    public static final String USER_ID = "userId";
+
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final Logger log = LoggerFactory.getLogger(RequestIdFilter.class);
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String requestId = request.getHeader(HEADER);
+        if (requestId == null || !VALID_ID.matcher(requestId).matches()) {
+            requestId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        }
+        MDC.put(REQUEST_ID, requestId);
+        response.setHeader(HEADER, requestId);
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            log.debug(SamplingTurboFilter.SAMPLED, "{} {} -> {} en {} ms", request.getMethod(),
+                    request.getRequestURI(), response.getStatus(), (System.nanoTime() - start) / 1_000_000);
+            MDC.remove(REQUEST_ID);
+            MDC.remove(COMPANY_ID);
+            MDC.remove(USER_ID);
+        }
+    }
+}
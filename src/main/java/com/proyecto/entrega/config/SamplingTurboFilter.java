@@ -0,0 +1,50 @@
+package com.proyecto.entrega.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * SamplingTurboFilter - Muestreo de eventos de log de alto volumen
+ *
+ * Los eventos marcados con SAMPLED (una línea por petición, tamaños de
+ * listados, ...) solo se escriben uno de cada "every" por logger, y solo
+ * si el nivel del logger los deja pasar. El resto se descarta antes de
+ * formatear el mensaje o encolarlo en el appender asíncrono.
+ *
+ * Se configura en logback-spring.xml (app.logging.debug-sample-every);
+ * every=1 escribe todos.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private long every = 100;
+
+    public void setEvery(long every) {
+        this.every = Math.max(1, every);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+            Throwable t) {
+        if (marker == null || level == null || !marker.contains(SAMPLED) || every == 1) {
+            return FilterReply.NEUTRAL;
+        }
+        // Sin contar los eventos que el nivel del logger ya descarta
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        long seen = counters.computeIfAbsent(logger.getName(), name -> new AtomicLong()).getAndIncrement();
+        return seen % every == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,160 @@
+package com.proyecto.entrega.config;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.proyecto.entrega.service.QueryStatsService;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * TracingConfig - Spans por capa (OpenTelemetry vía Micrometer Tracing)
+ *
+ * Spring Boot ya abre un span por petición HTTP (http.server.requests).
+ * Debajo de él se abre uno por cada método de controlador (app.controller),
+ * de servicio (app.service) y de repositorio (app.repository), con nombre
+ * Clase.método; JwtFilter abre app.jwt.validation. Así POST /api/edge
+ * muestra por separado findProcessEntity, cada findActivityEntity y el
+ * save, cada uno con sus queries.
+ *
+ * El span de servicio envuelve la transacción, así el commit cuenta dentro
+ * del método que lo provoca. Cada observación también alimenta un timer
+ * con los mismos nombres en /actuator/prometheus.
+ *
+ * Exportación: con app.tracing.file-exporter.enabled (perfil tracing-file)
+ * cada span terminado se escribe como OTLP/JSON en el archivo de trazas de
+ * logback-spring.xml; con management.otlp.tracing.endpoint se envían a un
+ * collector OTLP.
+ */
+@Configuration
+public class TracingConfig {
+
+    static final String CONTROLLER = "app.controller";
+    static final String SERVICE = "app.service";
+    static final String REPOSITORY = "app.repository";
+
+    /** Métodos de controlador */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor controllerTracingAdvisor(ObjectProvider<ObservationRegistry> registry) {
+        return advisor(RestController.class, new ObservedInterceptor(CONTROLLER, registry, null));
+    }
+
+    /**
+     * Métodos de servicio, salvo QueryStatsService (se llama en cada query
+     * y solo suma contadores).
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor serviceTracingAdvisor(ObjectProvider<ObservationRegistry> registry) {
+        return advisor(Service.class, new ObservedInterceptor(SERVICE, registry, null));
+    }
+
+    /** Métodos de repositorio, agregados al proxy que arma Spring Data */
+    @Bean
+    static BeanPostProcessor repositoryTracingPostProcessor(ObjectProvider<ObservationRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(new ObservedInterceptor(
+                                    REPOSITORY, registry, information.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /** Spans terminados como OTLP/JSON por el logger del exportador */
+    @Bean
+    @ConditionalOnProperty(name = "app.tracing.file-exporter.enabled", havingValue = "true")
+    SpanExporter fileSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+
+    private static Advisor advisor(Class<? extends Annotation> stereotype, MethodInterceptor interceptor) {
+        AnnotationMatchingPointcut byStereotype = new AnnotationMatchingPointcut(stereotype, true);
+        ClassFilter classFilter = type -> byStereotype.getClassFilter().matches(type)
+                && !QueryStatsService.class.isAssignableFrom(type);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new ComposablePointcut(classFilter), interceptor);
+        // Antes que cualquier otro advisor (transacciones): el span es el más externo
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    /**
+     * Abre una observación (y con ella un span hijo del actual) alrededor
+     * de la llamada. owner fija el nombre de la clase; si es null se toma
+     * la clase del objeto invocado.
+     */
+    static final class ObservedInterceptor implements MethodInterceptor {
+
+        private final String name;
+        private final ObjectProvider<ObservationRegistry> registry;
+        private final String owner;
+        private volatile ObservationRegistry resolved;
+
+        ObservedInterceptor(String name, ObjectProvider<ObservationRegistry> registry, String owner) {
+            this.name = name;
+            this.registry = registry;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Method method = invocation.getMethod();
+            if (method.getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            String type = owner != null ? owner
+                    : ClassUtils.getUserClass(invocation.getThis().getClass()).getSimpleName();
+            Observation observation = Observation
+                    .createNotStarted(name, registry())
+                    .contextualName(type + "." + method.getName())
+                    .lowCardinalityKeyValue("class", type)
+                    .lowCardinalityKeyValue("method", method.getName())
+                    .start();
+            try (Observation.Scope scope = observation.openScope()) {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                observation.error(e);
+                throw e;
+            } finally {
+                observation.stop();
+            }
+        }
+
+        private ObservationRegistry registry() {
+            ObservationRegistry current = resolved;
+            if (current == null) {
+                current = registry.getIfAvailable(() -> ObservationRegistry.NOOP);
+                resolved = current;
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.proyecto.entrega.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * VirtualThreadPinningMonitor - Hilos virtuales fijados a su carrier
+ *
+ * Un hilo virtual que se bloquea dentro de un bloque synchronized (o en
+ * código nativo) no libera su hilo carrier: con pocos carriers, unos pocos
+ * bloqueos así detienen todas las peticiones. Solo se activa en el modo de
+ * hilos virtuales (spring.threads.virtual.enabled=true, Java 21+).
+ *
+ * Escucha el evento JFR jdk.VirtualThreadPinned en el propio proceso y
+ * cuenta cada bloqueo que supera el umbral, agrupado por el primer frame
+ * de la aplicación en la pila (o el primero de la pila si no hay ninguno).
+ * Complementa -Djdk.tracePinnedThreads=short del perfil Maven, que solo
+ * imprime la pila.
+ */
+@Component
+@ConditionalOnJava(JavaVersion.TWENTY_ONE)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.proyecto.entrega.";
+
+    private final Duration threshold;
+    private final LongAdder pinned = new LongAdder();
+    private final Map<String, LongAdder> pinnedByFrame = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${app.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+    }
+
+    void record(RecordedEvent event) {
+        String frame = frameOf(event);
+        pinned.increment();
+        pinnedByFrame.computeIfAbsent(frame, key -> new LongAdder()).increment();
+        log.warn("Hilo virtual fijado {} ms en {}", event.getDuration().toMillis(), frame);
+    }
+
+    public long pinned() {
+        return pinned.sum();
+    }
+
+    /**
+     * Bloqueos por frame, ordenados por nombre.
+     */
+    public Map<String, Long> pinnedByFrame() {
+        Map<String, Long> result = new TreeMap<>();
+        pinnedByFrame.forEach((frame, count) -> result.put(frame, count.sum()));
+        return result;
+    }
+
+    private static String frameOf(RecordedEvent event) {
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+            return "desconocido";
+        }
+        RecordedFrame first = event.getStackTrace().getFrames().get(0);
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            if (frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return describe(frame);
+            }
+        }
+        return describe(first);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -4,17 +4,28 @@ package com.proyecto.entrega.controladores;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.proyecto.entrega.dto.ActivityDTO;
+import com.proyecto.entrega.dto.CascadeResultDTO;
+import com.proyecto.entrega.dto.PositionDTO;
+import com.proyecto.entrega.service.ChangeVersions;
 import com.proyecto.entrega.service.ActivityService;
+import com.proyecto.entrega.service.PositionWriteBehind;
 
 @RestController 
 @RequestMapping("/api/activity")
@@ -23,29 +34,91 @@ public class ActivityController {
     @Autowired
     private ActivityService activityService;
 
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @Autowired
+    private PositionWriteBehind positionWriteBehind;
+
     @PostMapping()
     public ActivityDTO createActivity(@RequestBody ActivityDTO activity) {
         return activityService.createActivity(activity);
     }
 
     @PutMapping()
-    public ActivityDTO updateActivity(@RequestBody ActivityDTO activity) {
-        return activityService.updateActivity(activity);
+    public ResponseEntity<ActivityDTO> updateActivity(@RequestBody ActivityDTO activity,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expected = EntityVersions.ifMatch(ifMatch);
+        if (expected != null) {
+            activity.setVersion(expected);
+        }
+        ActivityDTO updated = activityService.updateActivity(activity);
+        return EntityVersions.ok(updated, updated.getVersion());
+    }
+
+    /**
+     * Mueve un activity sin pasar por el PUT completo (x, y y opcionalmente width/height).
+     *
+     * Pensado para el arrastre en el editor: las posiciones se combinan en
+     * memoria y se escriben en lote cada pocos cientos de milisegundos, por
+     * eso responde 202 sin cuerpo. La posición final llega a los demás
+     * editores por /api/process/{id}/events.
+     *
+     * Endpoint: PUT /api/activity/{id}/position
+     */
+    @PutMapping(value = "/{id}/position")
+    public ResponseEntity<Void> moveActivity(@PathVariable Long id, @RequestBody PositionDTO position) {
+        positionWriteBehind.moveActivity(id, position);
+        return ResponseEntity.accepted().build();
     }
 
     @DeleteMapping(value = "/{id}")
-    public void deleteActivity(@PathVariable Long id) {
-        activityService.deleteActivity(id);
+    public CascadeResultDTO deleteActivity(@PathVariable Long id) {
+        return activityService.deleteActivity(id);
     }
 
     @GetMapping(value = "/{id}")
-    public ActivityDTO getActivity(@PathVariable Long id) {
-        return activityService.findActivity(id);
+    public ResponseEntity<ActivityDTO> getActivity(@PathVariable Long id) {
+        ActivityDTO activity = activityService.findActivity(id);
+        return EntityVersions.ok(activity, activity.getVersion());
     }
 
     @GetMapping()
-    public List<ActivityDTO> getActivities() {
-        return activityService.findActivities();
+    public ResponseEntity<List<ActivityDTO>> getActivities(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.ALL, cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(activityService.findActivities(cursor, size));
+    }
+
+    /**
+     * Exporta todas las activities activas como NDJSON (una por línea).
+     *
+     * La respuesta se escribe a medida que se leen las filas, así el consumo
+     * de memoria no depende del tamaño de la colección. Pensado para
+     * integraciones que descargan la colección completa.
+     *
+     * Endpoint: GET /api/activity/export
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportActivities() {
+        StreamingResponseBody body = out -> activityService.exportActivities(null, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Exporta las activities activas de una compañía como NDJSON.
+     *
+     * Endpoint: GET /api/activity/company/{companyId}/export
+     *
+     * @param companyId Identificador de la compañía
+     */
+    @GetMapping(value = "/company/{companyId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportActivitiesByCompany(@PathVariable Long companyId) {
+        StreamingResponseBody body = out -> activityService.exportActivities(companyId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
@@ -58,11 +131,19 @@ public class ActivityController {
      * Endpoint: GET /api/activity/process/{processId}
      *
      * @param processId Identificador del proceso
+     * @param cursor Cursor devuelto en X-Next-Cursor por la página anterior (opcional)
+     * @param size Tamaño de página (opcional)
      * @return Lista de activities activas del proceso
      */
     @GetMapping(value = "/process/{processId}")
-    public List<ActivityDTO> getActivitiesByProcess(@PathVariable Long processId) {
-        return activityService.findActivitiesByProcess(processId);
+    public ResponseEntity<List<ActivityDTO>> getActivitiesByProcess(@PathVariable Long processId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.process(processId), cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(activityService.findActivitiesByProcess(processId, cursor, size));
     }
 
     /**
@@ -74,11 +155,19 @@ public class ActivityController {
      * Endpoint: GET /api/activity/process/{processId}/inactive
      *
      * @param processId Identificador del proceso
+     * @param cursor Cursor devuelto en X-Next-Cursor por la página anterior (opcional)
+     * @param size Tamaño de página (opcional)
      * @return Lista de activities inactivas del proceso
      */
     @GetMapping(value = "/process/{processId}/inactive")
-    public List<ActivityDTO> getInactiveActivitiesByProcess(@PathVariable Long processId) {
-        return activityService.findInactiveActivitiesByProcess(processId);
+    public ResponseEntity<List<ActivityDTO>> getInactiveActivitiesByProcess(@PathVariable Long processId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.process(processId), cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(activityService.findInactiveActivitiesByProcess(processId, cursor, size));
     }
 
     /**
@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.proyecto.entrega.dto.AuthorizedDTO;
 import com.proyecto.entrega.security.JwtUtil;
+import com.proyecto.entrega.service.UserService;
 
 /**
  * Controlador para operaciones de autenticación y gestión de tokens JWT.
@@ -20,14 +21,16 @@ import com.proyecto.entrega.security.JwtUtil;
 public class AuthController {
 
     private final JwtUtil jwtUtil;
+    private final UserService userService;
 
-    public AuthController(JwtUtil jwtUtil) {
+    public AuthController(JwtUtil jwtUtil, UserService userService) {
         this.jwtUtil = jwtUtil;
+        this.userService = userService;
     }
 
     @PostMapping("/renew-token")
     public ResponseEntity<AuthorizedDTO> renewToken(Authentication authentication) throws JsonProcessingException {
-        AuthorizedDTO response = jwtUtil.renewToken(authentication);
+        AuthorizedDTO response = jwtUtil.renewToken(authentication, userService::findPrincipal);
         return ResponseEntity.ok(response);
     }
 
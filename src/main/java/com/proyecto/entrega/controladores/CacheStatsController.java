@@ -0,0 +1,23 @@
+package com.proyecto.entrega.controladores;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.proyecto.entrega.dto.CacheRegionStatsDTO;
+import com.proyecto.entrega.service.CacheStatsService;
+
+@RestController
+@RequestMapping("/api/admin")
+public class CacheStatsController {
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @GetMapping(value = "/cache-stats")
+    public List<CacheRegionStatsDTO> getStats() {
+        return cacheStatsService.getStats();
+    }
+}
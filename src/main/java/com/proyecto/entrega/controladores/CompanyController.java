@@ -4,6 +4,7 @@ package com.proyecto.entrega.controladores;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,8 +12,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.proyecto.entrega.dto.CascadeResultDTO;
 import com.proyecto.entrega.dto.CompanyDTO;
 import com.proyecto.entrega.service.CompanyService;
 
@@ -34,8 +37,22 @@ public class CompanyController {
     }
 
     @DeleteMapping(value = "/{id}")
-    public void deleteCompany(@PathVariable Long id) {
-        companyService.deleteCompany(id);
+    public CascadeResultDTO deleteCompany(@PathVariable Long id) {
+        return companyService.deleteCompany(id);
+    }
+
+    /**
+     * Reactiva una compañía marcada como inactiva, junto con sus procesos
+     * y su contenido.
+     *
+     * Endpoint: PUT /api/company/{id}/reactivate
+     *
+     * @param id Identificador de la compañía a reactivar
+     * @return CompanyDTO de la compañía reactivada
+     */
+    @PutMapping(value = "/{id}/reactivate")
+    public CompanyDTO reactivateCompany(@PathVariable Long id) {
+        return companyService.reactivateCompany(id);
     }
 
     @GetMapping(value = "/{id}")
@@ -44,8 +61,9 @@ public class CompanyController {
     }
 
     @GetMapping()
-    public List<CompanyDTO> getCompany() {
-        return companyService.findCompanies();
+    public ResponseEntity<List<CompanyDTO>> getCompany(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return CursorPageResponses.ok(companyService.findCompanies(cursor, size));
     }
 
 }
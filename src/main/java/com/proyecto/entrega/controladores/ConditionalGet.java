@@ -0,0 +1,31 @@
+package com.proyecto.entrega.controladores;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * GET condicional con los ETag de ChangeVersions.
+ *
+ * Spring Security agrega "Cache-Control: no-store" a toda respuesta que no
+ * traiga uno propio, y con eso el navegador nunca guarda la respuesta ni
+ * envía If-None-Match. Aquí se declara "private, no-cache": el navegador
+ * la guarda, pero revalida en cada uso.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Agrega el ETag a la respuesta y devuelve true si coincide con
+     * If-None-Match; en ese caso Spring responde 304 y el controlador
+     * devuelve null sin consultar nada más.
+     */
+    static boolean notModified(WebRequest request, String etag) {
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        return request.checkNotModified(etag);
+    }
+}
@@ -0,0 +1,30 @@
+package com.proyecto.entrega.controladores;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+
+import com.proyecto.entrega.dto.CursorPage;
+
+/**
+ * Respuesta HTTP de los listados paginados.
+ *
+ * El cuerpo sigue siendo el arreglo de elementos, como antes de la
+ * paginación; el cursor de la página siguiente viaja en el header
+ * X-Next-Cursor, que se omite en la última página.
+ */
+final class CursorPageResponses {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private CursorPageResponses() {
+    }
+
+    static <T> ResponseEntity<List<T>> ok(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
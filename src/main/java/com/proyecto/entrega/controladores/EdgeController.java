@@ -3,16 +3,24 @@ package com.proyecto.entrega.controladores;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.proyecto.entrega.dto.EdgeDTO;
+import com.proyecto.entrega.service.ChangeVersions;
 import com.proyecto.entrega.service.EdgeService;
 
 /**
@@ -28,14 +36,23 @@ public class EdgeController {
     @Autowired
     private EdgeService edgeService;
 
+    @Autowired
+    private ChangeVersions changeVersions;
+
     @PostMapping()
     public EdgeDTO createEdge(@RequestBody EdgeDTO edgeDTO) {
         return edgeService.createEdge(edgeDTO);
     }
 
     @PutMapping()
-    public EdgeDTO updateEdge(@RequestBody EdgeDTO edgeDTO) {
-        return edgeService.updateEdge(edgeDTO);
+    public ResponseEntity<EdgeDTO> updateEdge(@RequestBody EdgeDTO edgeDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expected = EntityVersions.ifMatch(ifMatch);
+        if (expected != null) {
+            edgeDTO.setVersion(expected);
+        }
+        EdgeDTO updated = edgeService.updateEdge(edgeDTO);
+        return EntityVersions.ok(updated, updated.getVersion());
     }
 
     @DeleteMapping(value = "/{id}")
@@ -44,13 +61,47 @@ public class EdgeController {
     }
 
     @GetMapping(value = "/{id}")
-    public EdgeDTO getEdge(@PathVariable Long id) {
-        return edgeService.findEdge(id);
+    public ResponseEntity<EdgeDTO> getEdge(@PathVariable Long id) {
+        EdgeDTO edge = edgeService.findEdge(id);
+        return EntityVersions.ok(edge, edge.getVersion());
     }
 
     @GetMapping()
-    public List<EdgeDTO> getEdges() {
-        return edgeService.findEdges();
+    public ResponseEntity<List<EdgeDTO>> getEdges(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.ALL, cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(edgeService.findEdges(cursor, size));
+    }
+
+    /**
+     * Exporta todos los edges activos como NDJSON (uno por línea).
+     *
+     * La respuesta se escribe a medida que se leen las filas, así el consumo
+     * de memoria no depende del tamaño de la colección. Pensado para
+     * integraciones que descargan la colección completa.
+     *
+     * Endpoint: GET /api/edge/export
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEdges() {
+        StreamingResponseBody body = out -> edgeService.exportEdges(null, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Exporta los edges activos de una compañía como NDJSON.
+     *
+     * Endpoint: GET /api/edge/company/{companyId}/export
+     *
+     * @param companyId Identificador de la compañía
+     */
+    @GetMapping(value = "/company/{companyId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEdgesByCompany(@PathVariable Long companyId) {
+        StreamingResponseBody body = out -> edgeService.exportEdges(companyId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
@@ -63,11 +114,19 @@ public class EdgeController {
      * Endpoint: GET /api/edge/process/{processId}
      *
      * @param processId Identificador del proceso
+     * @param cursor Cursor devuelto en X-Next-Cursor por la página anterior (opcional)
+     * @param size Tamaño de página (opcional)
      * @return Lista de edges activos del proceso
      */
     @GetMapping(value = "/process/{processId}")
-    public List<EdgeDTO> getEdgesByProcess(@PathVariable Long processId) {
-        return edgeService.findEdgesByProcess(processId);
+    public ResponseEntity<List<EdgeDTO>> getEdgesByProcess(@PathVariable Long processId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.process(processId), cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(edgeService.findEdgesByProcess(processId, cursor, size));
     }
 
     /**
@@ -79,11 +138,19 @@ public class EdgeController {
      * Endpoint: GET /api/edge/process/{processId}/inactive
      *
      * @param processId Identificador del proceso
+     * @param cursor Cursor devuelto en X-Next-Cursor por la página anterior (opcional)
+     * @param size Tamaño de página (opcional)
      * @return Lista de edges inactivos del proceso
      */
     @GetMapping(value = "/process/{processId}/inactive")
-    public List<EdgeDTO> getInactiveEdgesByProcess(@PathVariable Long processId) {
-        return edgeService.findInactiveEdgesByProcess(processId);
+    public ResponseEntity<List<EdgeDTO>> getInactiveEdgesByProcess(@PathVariable Long processId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.process(processId), cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(edgeService.findInactiveEdgesByProcess(processId, cursor, size));
     }
 
     /**
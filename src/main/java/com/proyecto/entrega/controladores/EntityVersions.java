@@ -0,0 +1,49 @@
+package com.proyecto.entrega.controladores;
+
+import org.springframework.http.ResponseEntity;
+
+import com.proyecto.entrega.exception.ValidationException;
+
+/**
+ * Contrato If-Match / ETag de los elementos del diagrama.
+ *
+ * GET y PUT devuelven la versión del elemento en el header ETag ("3"). Un
+ * PUT con If-Match solo se aplica si el elemento sigue en esa versión; si
+ * otro editor lo cambió antes, la respuesta es 409 con el estado actual.
+ * If-Match: * o ausente no agrega condición (cuenta la version del cuerpo,
+ * si viene).
+ */
+final class EntityVersions {
+
+    private EntityVersions() {
+    }
+
+    /**
+     * Versión esperada según If-Match, o null si el header no impone una.
+     */
+    static Long ifMatch(String header) {
+        if (header == null || header.isBlank() || "*".equals(header.trim())) {
+            return null;
+        }
+        String tag = header.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("If-Match inválido: " + header);
+        }
+    }
+
+    static <T> ResponseEntity<T> ok(T body, Long version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (version != null) {
+            response.eTag(String.valueOf(version));
+        }
+        return response.body(body);
+    }
+}
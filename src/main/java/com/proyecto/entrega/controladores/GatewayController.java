@@ -4,17 +4,28 @@ package com.proyecto.entrega.controladores;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.proyecto.entrega.dto.CascadeResultDTO;
 import com.proyecto.entrega.dto.GatewayDTO;
+import com.proyecto.entrega.dto.PositionDTO;
+import com.proyecto.entrega.service.ChangeVersions;
 import com.proyecto.entrega.service.GatewayService;
+import com.proyecto.entrega.service.PositionWriteBehind;
 
 @RestController
 @RequestMapping("/api/gateway")
@@ -23,29 +34,91 @@ public class GatewayController {
     @Autowired
     private GatewayService gatewayService;
 
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @Autowired
+    private PositionWriteBehind positionWriteBehind;
+
     @PostMapping()
     public GatewayDTO createGateway(@RequestBody GatewayDTO gatewayDTO) {
         return gatewayService.createGateway(gatewayDTO);
     }
 
     @PutMapping()
-    public GatewayDTO updateGateway(@RequestBody GatewayDTO gatewayDTO) {
-        return gatewayService.updateGateway(gatewayDTO);
+    public ResponseEntity<GatewayDTO> updateGateway(@RequestBody GatewayDTO gatewayDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expected = EntityVersions.ifMatch(ifMatch);
+        if (expected != null) {
+            gatewayDTO.setVersion(expected);
+        }
+        GatewayDTO updated = gatewayService.updateGateway(gatewayDTO);
+        return EntityVersions.ok(updated, updated.getVersion());
+    }
+
+    /**
+     * Mueve un gateway sin pasar por el PUT completo (x e y).
+     *
+     * Pensado para el arrastre en el editor: las posiciones se combinan en
+     * memoria y se escriben en lote cada pocos cientos de milisegundos, por
+     * eso responde 202 sin cuerpo. La posición final llega a los demás
+     * editores por /api/process/{id}/events.
+     *
+     * Endpoint: PUT /api/gateway/{id}/position
+     */
+    @PutMapping(value = "/{id}/position")
+    public ResponseEntity<Void> moveGateway(@PathVariable Long id, @RequestBody PositionDTO position) {
+        positionWriteBehind.moveGateway(id, position);
+        return ResponseEntity.accepted().build();
     }
 
     @DeleteMapping(value = "/{id}")
-    public void deleteGateway(@PathVariable Long id) {
-        gatewayService.deleteGateway(id);
+    public CascadeResultDTO deleteGateway(@PathVariable Long id) {
+        return gatewayService.deleteGateway(id);
     }
 
     @GetMapping(value = "/{id}")
-    public GatewayDTO getGateway(@PathVariable Long id) {
-        return gatewayService.findGateway(id);
+    public ResponseEntity<GatewayDTO> getGateway(@PathVariable Long id) {
+        GatewayDTO gateway = gatewayService.findGateway(id);
+        return EntityVersions.ok(gateway, gateway.getVersion());
     }
 
     @GetMapping()
-    public List<GatewayDTO> getGateways() {
-        return gatewayService.findGateways();
+    public ResponseEntity<List<GatewayDTO>> getGateways(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.ALL, cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(gatewayService.findGateways(cursor, size));
+    }
+
+    /**
+     * Exporta todos los gateways activos como NDJSON (uno por línea).
+     *
+     * La respuesta se escribe a medida que se leen las filas, así el consumo
+     * de memoria no depende del tamaño de la colección. Pensado para
+     * integraciones que descargan la colección completa.
+     *
+     * Endpoint: GET /api/gateway/export
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportGateways() {
+        StreamingResponseBody body = out -> gatewayService.exportGateways(null, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Exporta los gateways activos de una compañía como NDJSON.
+     *
+     * Endpoint: GET /api/gateway/company/{companyId}/export
+     *
+     * @param companyId Identificador de la compañía
+     */
+    @GetMapping(value = "/company/{companyId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportGatewaysByCompany(@PathVariable Long companyId) {
+        StreamingResponseBody body = out -> gatewayService.exportGateways(companyId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     /**
@@ -58,11 +131,19 @@ public class GatewayController {
      * Endpoint: GET /api/gateway/process/{processId}
      *
      * @param processId Identificador del proceso
+     * @param cursor Cursor devuelto en X-Next-Cursor por la página anterior (opcional)
+     * @param size Tamaño de página (opcional)
      * @return Lista de gateways activos del proceso
      */
     @GetMapping(value = "/process/{processId}")
-    public List<GatewayDTO> getGatewaysByProcess(@PathVariable Long processId) {
-        return gatewayService.findGatewaysByProcess(processId);
+    public ResponseEntity<List<GatewayDTO>> getGatewaysByProcess(@PathVariable Long processId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.process(processId), cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(gatewayService.findGatewaysByProcess(processId, cursor, size));
     }
 
     /**
@@ -74,11 +155,19 @@ public class GatewayController {
      * Endpoint: GET /api/gateway/process/{processId}/inactive
      *
      * @param processId Identificador del proceso
+     * @param cursor Cursor devuelto en X-Next-Cursor por la página anterior (opcional)
+     * @param size Tamaño de página (opcional)
      * @return Lista de gateways inactivos del proceso
      */
     @GetMapping(value = "/process/{processId}/inactive")
-    public List<GatewayDTO> getInactiveGatewaysByProcess(@PathVariable Long processId) {
-        return gatewayService.findInactiveGatewaysByProcess(processId);
+    public ResponseEntity<List<GatewayDTO>> getInactiveGatewaysByProcess(@PathVariable Long processId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.process(processId), cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(gatewayService.findInactiveGatewaysByProcess(processId, cursor, size));
     }
 
     /**
@@ -6,9 +6,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.proyecto.entrega.dto.AuthorizedDTO;
 import com.proyecto.entrega.dto.LoginDTO;
+import com.proyecto.entrega.security.AuthBulkhead;
 import com.proyecto.entrega.service.LoginService;
 
 
@@ -17,14 +17,16 @@ import com.proyecto.entrega.service.LoginService;
 public class LoginController {
 
     private final LoginService loginService;
+    private final AuthBulkhead authBulkhead;
 
-    public LoginController(LoginService loginService) {
+    public LoginController(LoginService loginService, AuthBulkhead authBulkhead) {
         this.loginService = loginService;
+        this.authBulkhead = authBulkhead;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthorizedDTO> login(@RequestBody LoginDTO request)  throws JsonProcessingException{
-        AuthorizedDTO response = loginService.authenticate(request);
+    public ResponseEntity<AuthorizedDTO> login(@RequestBody LoginDTO request) {
+        AuthorizedDTO response = authBulkhead.call(() -> loginService.authenticate(request));
         return ResponseEntity.ok(response);
     }    
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.proyecto.entrega.controladores;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,10 +12,22 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.proyecto.entrega.dto.CascadeResultDTO;
+import com.proyecto.entrega.dto.CursorPage;
+import com.proyecto.entrega.dto.DiagramChangesetDTO;
+import com.proyecto.entrega.dto.DiagramChangesetResultDTO;
 import com.proyecto.entrega.dto.ProcessDTO;
+import com.proyecto.entrega.dto.ProcessGraphDTO;
 import com.proyecto.entrega.dto.ProcessSummaryDTO;
+import com.proyecto.entrega.service.ChangeVersions;
+import com.proyecto.entrega.service.DiagramChangesetService;
+import com.proyecto.entrega.service.DiagramEventHub;
+import com.proyecto.entrega.service.ProcessGraphService;
 import com.proyecto.entrega.service.ProcessService;
 @RestController
 @RequestMapping("/api/process")
@@ -22,6 +35,18 @@ public class ProcessController {
     @Autowired
     private ProcessService processService;
 
+    @Autowired
+    private ProcessGraphService processGraphService;
+
+    @Autowired
+    private DiagramChangesetService diagramChangesetService;
+
+    @Autowired
+    private DiagramEventHub diagramEventHub;
+
+    @Autowired
+    private ChangeVersions changeVersions;
+
     @PostMapping()
     public ProcessDTO createProcess(@RequestBody ProcessDTO process) {
         return processService.createProcess(process);
@@ -33,29 +58,106 @@ public class ProcessController {
     }
 
     @DeleteMapping(value = "/{id}")
-    public void deleteProcess(@PathVariable Long id) {
-        processService.deleteProcess(id);
+    public CascadeResultDTO deleteProcess(@PathVariable Long id) {
+        return processService.deleteProcess(id);
     }
 
     @GetMapping(value = "/{id}")
-    public ProcessDTO getProcess(@PathVariable Long id) {
+    public ProcessDTO getProcess(@PathVariable Long id, WebRequest request) {
+        if (ConditionalGet.notModified(request, changeVersions.etag(ChangeVersions.process(id)))) {
+            return null;
+        }
         return processService.findProcess(id);
     }
 
+    /**
+     * Obtiene el diagrama completo de un proceso en una sola llamada.
+     *
+     * Devuelve activities, gateways y edges activos del proceso, evitando
+     * las tres consultas secuenciales por tipo de elemento al abrir el editor.
+     * Con If-None-Match y sin cambios desde entonces responde 304 sin leer
+     * la base de datos.
+     *
+     * Endpoint: GET /api/process/{id}/graph
+     *
+     * @param id Identificador del proceso
+     * @return ProcessGraphDTO con los elementos activos del proceso
+     */
+    @GetMapping(value = "/{id}/graph")
+    public ProcessGraphDTO getProcessGraph(@PathVariable Long id, WebRequest request) {
+        if (ConditionalGet.notModified(request, changeVersions.etag(ChangeVersions.process(id), "graph"))) {
+            return null;
+        }
+        return processGraphService.findProcessGraph(id);
+    }
+
+    /**
+     * Aplica en bloque un conjunto de cambios del editor sobre el diagrama.
+     *
+     * Crea, modifica y desactiva activities, gateways y edges del proceso en
+     * una sola transacción. Los ids negativos del changeset son referencias
+     * temporales del cliente; la respuesta indica el id definitivo de cada uno.
+     *
+     * Endpoint: POST /api/process/{id}/changeset
+     *
+     * @param id        Identificador del proceso
+     * @param changeset Cambios a aplicar
+     * @return DiagramChangesetResultDTO con los ids asignados y los contadores
+     */
+    @PostMapping(value = "/{id}/changeset")
+    public DiagramChangesetResultDTO applyChangeset(@PathVariable Long id,
+            @RequestBody DiagramChangesetDTO changeset) {
+        return diagramChangesetService.applyChangeset(id, changeset);
+    }
+
+    /**
+     * Canal en tiempo real de los cambios del diagrama (Server-Sent Events).
+     *
+     * Reemplaza el polling de los endpoints por tipo: el editor abre esta
+     * conexión al cargar el diagrama y aplica cada evento (created, updated,
+     * deleted, restored). Con "changeset" o "resync" recarga /graph.
+     *
+     * Endpoint: GET /api/process/{id}/events
+     *
+     * @param id Identificador del proceso
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToProcessEvents(@PathVariable Long id) {
+        processService.findProcessEntity(id);
+        return diagramEventHub.subscribe(id);
+    }
+
     @GetMapping()
-    public List<ProcessDTO> getProcesses() {
-        return processService.findProcesses();
+    public ResponseEntity<List<ProcessDTO>> getProcesses(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.ALL, cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(processService.findProcesses(cursor, size));
     }
 
     @GetMapping(value = "/company/{id}")
-    public List<ProcessDTO> getProcessesByCompany(@PathVariable Long id){
-        return processService.getProcessesByCompany(id);
+    public ResponseEntity<List<ProcessDTO>> getProcessesByCompany(@PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.company(id), cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(processService.getProcessesByCompany(id, cursor, size));
     }
 
     @GetMapping(value = "/company/{companyId}/summary")
-    public ResponseEntity<List<ProcessSummaryDTO>> getProcessesSummaryByCompany(@PathVariable Long companyId) {
-        List<ProcessSummaryDTO> summaries = processService.getProcessesSummaryByCompany(companyId);
-        return ResponseEntity.ok(summaries);
+    public ResponseEntity<List<ProcessSummaryDTO>> getProcessesSummaryByCompany(@PathVariable Long companyId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.company(companyId), cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        CursorPage<ProcessSummaryDTO> summaries = processService.getProcessesSummaryByCompany(companyId, cursor, size);
+        return CursorPageResponses.ok(summaries);
     }
 
     /**
@@ -83,11 +185,19 @@ public class ProcessController {
      * Endpoint: GET /api/process/company/{companyId}/inactive
      *
      * @param companyId Identificador de la empresa
+     * @param cursor Cursor devuelto en X-Next-Cursor por la página anterior (opcional)
+     * @param size Tamaño de página (opcional)
      * @return Lista de procesos inactivos
      */
     @GetMapping(value = "/company/{companyId}/inactive")
-    public List<ProcessDTO> getInactiveProcessesByCompany(@PathVariable Long companyId) {
-        return processService.getInactiveProcessesByCompany(companyId);
+    public ResponseEntity<List<ProcessDTO>> getInactiveProcessesByCompany(@PathVariable Long companyId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.company(companyId), cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(processService.getInactiveProcessesByCompany(companyId, cursor, size));
     }
 
 }
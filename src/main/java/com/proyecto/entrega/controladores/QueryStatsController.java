@@ -0,0 +1,22 @@
+package com.proyecto.entrega.controladores;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.proyecto.entrega.dto.QueryStatsDTO;
+import com.proyecto.entrega.service.QueryStatsService;
+
+@RestController
+@RequestMapping("/api/admin")
+public class QueryStatsController {
+    @Autowired
+    private QueryStatsService queryStatsService;
+
+    @GetMapping(value = "/query-stats")
+    public QueryStatsDTO getQueryStats(@RequestParam(defaultValue = "10") int top) {
+        return queryStatsService.getReport(top);
+    }
+}
@@ -6,9 +6,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.proyecto.entrega.dto.AuthorizedDTO;
 import com.proyecto.entrega.dto.RegistrationDTO;
+import com.proyecto.entrega.security.AuthBulkhead;
 import com.proyecto.entrega.service.RegistrationService;
 
 @RestController
@@ -16,14 +16,18 @@ import com.proyecto.entrega.service.RegistrationService;
 public class RegistrationController {
 
     private final RegistrationService registrationService;
+    private final AuthBulkhead authBulkhead;
 
-    public RegistrationController(RegistrationService registrationService) {
+    public RegistrationController(RegistrationService registrationService, AuthBulkhead authBulkhead) {
         this.registrationService = registrationService;
+        this.authBulkhead = authBulkhead;
     }
 
     @PostMapping
-    public ResponseEntity<AuthorizedDTO> register(@RequestBody RegistrationDTO request) throws JsonProcessingException {
-        AuthorizedDTO response = registrationService.registerCompanyAndAdmin(request.getCompany(), request.getUser());
+    public ResponseEntity<AuthorizedDTO> register(@RequestBody RegistrationDTO request) {
+        // El cupo se toma antes de abrir la transacción del registro
+        AuthorizedDTO response = authBulkhead.call(
+                () -> registrationService.registerCompanyAndAdmin(request.getCompany(), request.getUser()));
         return ResponseEntity.ok(response);
     }
 }
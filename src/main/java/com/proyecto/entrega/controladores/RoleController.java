@@ -3,6 +3,7 @@ package com.proyecto.entrega.controladores;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -10,9 +11,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.proyecto.entrega.dto.RoleDTO;
+import com.proyecto.entrega.service.ChangeVersions;
 import com.proyecto.entrega.service.RoleService;
 
 @RestController
@@ -21,6 +25,9 @@ public class RoleController {
     @Autowired
     private RoleService roleService;
 
+    @Autowired
+    private ChangeVersions changeVersions;
+
     @PostMapping()
     public RoleDTO createRole(@RequestBody RoleDTO role) {
         return roleService.createRole(role);
@@ -37,18 +44,32 @@ public class RoleController {
     }
 
     @GetMapping(value = "/{id}")
-    public RoleDTO getRole(@PathVariable Long id) {
+    public RoleDTO getRole(@PathVariable Long id, WebRequest request) {
+        if (ConditionalGet.notModified(request, changeVersions.etag(ChangeVersions.ALL, id))) {
+            return null;
+        }
         return roleService.findRole(id);
     }
 
     @GetMapping()
-    public List<RoleDTO> getRoles() {
-        return roleService.findRoles();
+    public ResponseEntity<List<RoleDTO>> getRoles(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.ALL, cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(roleService.findRoles(cursor, size));
     }
 
     @GetMapping(value = "/company/{id}")
-    public List<RoleDTO> getRolesByCompany(@PathVariable Long id) {
-        return roleService.getUsersByCompany(id);
+    public ResponseEntity<List<RoleDTO>> getRolesByCompany(@PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size, WebRequest request) {
+        String etag = changeVersions.etag(ChangeVersions.company(id), cursor, size);
+        if (ConditionalGet.notModified(request, etag)) {
+            return null;
+        }
+        return CursorPageResponses.ok(roleService.getUsersByCompany(id, cursor, size));
     }
 
 }
@@ -0,0 +1,29 @@
+package com.proyecto.entrega.controladores;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.proyecto.entrega.dto.SqlLoggingDTO;
+import com.proyecto.entrega.service.SqlLoggingService;
+
+@RestController
+@RequestMapping("/api/admin/logging")
+public class SqlLoggingController {
+    @Autowired
+    private SqlLoggingService sqlLoggingService;
+
+    @GetMapping(value = "/sql")
+    public SqlLoggingDTO getSqlLogging() {
+        return sqlLoggingService.getState();
+    }
+
+    @PutMapping(value = "/sql")
+    public SqlLoggingDTO setSqlLogging(@RequestParam boolean enabled,
+            @RequestParam(defaultValue = "false") boolean parameters) {
+        return sqlLoggingService.setState(enabled, parameters);
+    }
+}
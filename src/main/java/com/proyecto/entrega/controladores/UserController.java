@@ -4,6 +4,7 @@ package com.proyecto.entrega.controladores;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -46,13 +47,16 @@ public class UserController {
     }
 
     @GetMapping()
-    public List<UserSafeDTO> getUser() {
-        return userService.findAllUsers();
+    public ResponseEntity<List<UserSafeDTO>> getUser(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return CursorPageResponses.ok(userService.findAllUsers(cursor, size));
     }
 
     @GetMapping(value = "/company/{id}/currentUser")
-    public List<UserSafeDTO> getUsersByCompany(@PathVariable Long id, @RequestParam Long currentUserId){
-        return userService.getUsersByCompany(id, currentUserId);
+    public ResponseEntity<List<UserSafeDTO>> getUsersByCompany(@PathVariable Long id, @RequestParam Long currentUserId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size){
+        return CursorPageResponses.ok(userService.getUsersByCompany(id, currentUserId, cursor, size));
     }
 
 }
@@ -26,6 +26,9 @@ public class ActivityDTO {
     private Double height;
     private String status;
 
+    // Versión leída; en un PUT, si viene (o llega en If-Match), el update es condicional
+    private Long version;
+
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Long processId;
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
@@ -0,0 +1,25 @@
+package com.proyecto.entrega.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * CacheRegionStatsDTO - Aciertos y fallos de un cache desde el arranque
+ *
+ * hitRatio = hits / (hits + misses), o 0 si aún no hubo lecturas. size es
+ * el número de entradas en memoria (-1 si el cache no lo informa).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatsDTO {
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRatio;
+    private long size;
+}
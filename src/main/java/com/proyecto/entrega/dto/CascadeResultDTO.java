@@ -0,0 +1,24 @@
+package com.proyecto.entrega.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * CascadeResultDTO - Filas afectadas por un soft delete o restauración en cascada
+ *
+ * Cada contador indica cuántos registros de ese tipo cambiaron de estado
+ * en la operación (los que ya tenían el estado destino no se cuentan).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CascadeResultDTO {
+    private int companies;
+    private int processes;
+    private int activities;
+    private int gateways;
+    private int edges;
+}
@@ -0,0 +1,23 @@
+package com.proyecto.entrega.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * CursorPage - Página de un listado con paginación keyset
+ *
+ * nextCursor es el token que se envía como ?cursor= para pedir la página
+ * siguiente; es null cuando no quedan más elementos.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+}
@@ -0,0 +1,89 @@
+package com.proyecto.entrega.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Edge;
+import com.proyecto.entrega.entity.Gateway;
+import com.proyecto.entrega.entity.Process;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DiagramChangeEvent - Cambio en un elemento del diagrama de un proceso
+ *
+ * Se publica después del commit y se envía por el canal en tiempo real del
+ * proceso (GET /api/process/{id}/events). Es deliberadamente compacto: el
+ * tipo de elemento, la acción, el id y la versión, más la posición de los
+ * nodos o los extremos de los edges. Los campos nulos no se serializan.
+ *
+ * Acciones: created, updated, deleted, restored y changeset (cambios en
+ * bloque; el cliente recarga el diagrama). Borrar un nodo desactiva también
+ * sus edges sin un evento por edge.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DiagramChangeEvent {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String RESTORED = "restored";
+    public static final String CHANGESET = "changeset";
+
+    private Long processId;
+    private String element;
+    private String action;
+    private Long id;
+    private Long version;
+    private Double x;
+    private Double y;
+    private String fromType;
+    private Long fromId;
+    private String toType;
+    private Long toId;
+
+    public static DiagramChangeEvent of(Activity activity, String action) {
+        return new DiagramChangeEvent(processIdOf(activity.getProcess()), "activity", action, activity.getId(),
+                activity.getVersion(), activity.getX(), activity.getY(), null, null, null, null);
+    }
+
+    public static DiagramChangeEvent of(Gateway gateway, String action) {
+        return new DiagramChangeEvent(processIdOf(gateway.getProcess()), "gateway", action, gateway.getId(),
+                gateway.getVersion(), gateway.getX(), gateway.getY(), null, null, null, null);
+    }
+
+    public static DiagramChangeEvent of(Edge edge, String action) {
+        return new DiagramChangeEvent(processIdOf(edge.getProcess()), "edge", action, edge.getId(),
+                edge.getVersion(), null, null, edge.getFromType(), edge.getFromId(), edge.getToType(),
+                edge.getToId());
+    }
+
+    public static DiagramChangeEvent deleted(Long processId, String element, Long id) {
+        return new DiagramChangeEvent(processId, element, DELETED, id, null, null, null, null, null, null, null);
+    }
+
+    public static DiagramChangeEvent changeset(Long processId) {
+        return new DiagramChangeEvent(processId, "diagram", CHANGESET, null, null, null, null, null, null, null,
+                null);
+    }
+
+    /**
+     * Clave para combinar eventos pendientes: un evento nuevo del mismo
+     * elemento reemplaza al anterior que aún no se envió.
+     */
+    @JsonIgnore
+    public String getCoalesceKey() {
+        return element + ":" + id;
+    }
+
+    private static Long processIdOf(Process process) {
+        return process != null ? process.getId() : null;
+    }
+}
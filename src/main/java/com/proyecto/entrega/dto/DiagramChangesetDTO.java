@@ -0,0 +1,38 @@
+package com.proyecto.entrega.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DiagramChangesetDTO - Conjunto de cambios del editor aplicado en bloque
+ *
+ * Permite enviar en una sola petición las altas, modificaciones y bajas
+ * (soft delete) de activities, gateways y edges de un proceso.
+ *
+ * ALTAS Y MODIFICACIONES:
+ * - id positivo: modifica el elemento existente
+ * - id nulo o negativo: crea un elemento nuevo
+ *
+ * IDS TEMPORALES:
+ * Un id negativo funciona como referencia temporal del cliente. Los edges
+ * del mismo changeset pueden apuntar a nodos recién creados usando ese id
+ * negativo en fromId/toId (o activitySourceId/activityDestinyId), y el
+ * backend lo reemplaza por el id definitivo.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiagramChangesetDTO {
+    private List<ActivityDTO> activities;
+    private List<GatewayDTO> gateways;
+    private List<EdgeDTO> edges;
+
+    private List<Long> deletedActivityIds;
+    private List<Long> deletedGatewayIds;
+    private List<Long> deletedEdgeIds;
+}
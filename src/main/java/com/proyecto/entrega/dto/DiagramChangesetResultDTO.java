@@ -0,0 +1,30 @@
+package com.proyecto.entrega.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DiagramChangesetResultDTO - Resultado de aplicar un changeset del editor
+ *
+ * Los mapas relacionan cada id temporal (negativo) enviado por el cliente
+ * con el id definitivo asignado al crear el elemento. Los contadores
+ * indican cuántos elementos se crearon, modificaron y desactivaron.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiagramChangesetResultDTO {
+    private Map<Long, Long> activityIds = new LinkedHashMap<>();
+    private Map<Long, Long> gatewayIds = new LinkedHashMap<>();
+    private Map<Long, Long> edgeIds = new LinkedHashMap<>();
+
+    private int created;
+    private int updated;
+    private int deleted;
+}
@@ -32,6 +32,7 @@ public class EdgeDTO {
     private String label;
     private String description;
     private String status;
+    private Long version;
 
     // Process
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
@@ -1,5 +1,7 @@
 package com.proyecto.entrega.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,5 +21,11 @@ public class ErrorResponse {
     private String message;
     private String path;
     private String errorId;
+    // Traza de la petición (span actual), para buscarla en el exportador
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String traceId;
     private Map<String, String> validationErrors;
+    // Estado actual del recurso en un conflicto de versión (409)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Object current;
 }
@@ -16,6 +16,7 @@ public class GatewayDTO {
     private Long id;
     private String type;
     private String status;
+    private Long version;
     private Double x;
     private Double y;
 
@@ -0,0 +1,25 @@
+package com.proyecto.entrega.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * HibernateQueryStatsDTO - Estadísticas de Hibernate para una query JPQL o nativa
+ *
+ * method es el método de repositorio que declara la query con @Query, o
+ * null para las queries derivadas del nombre del método.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HibernateQueryStatsDTO {
+    private String query;
+    private String method;
+    private long executions;
+    private long totalMs;
+    private long maxMs;
+    private long rows;
+}
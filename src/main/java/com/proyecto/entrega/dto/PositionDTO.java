@@ -0,0 +1,23 @@
+package com.proyecto.entrega.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * PositionDTO - Geometría de un nodo del diagrama (activity o gateway)
+ *
+ * x e y son obligatorios; width y height solo aplican a activities y, si
+ * vienen nulos, se conserva el tamaño actual.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PositionDTO {
+    private Double x;
+    private Double y;
+    private Double width;
+    private Double height;
+}
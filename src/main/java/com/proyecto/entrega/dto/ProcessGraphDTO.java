@@ -0,0 +1,29 @@
+package com.proyecto.entrega.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * ProcessGraphDTO - Diagrama completo de un proceso en una sola respuesta
+ *
+ * Agrupa activities, gateways y edges activos del proceso. Los elementos
+ * no repiten el proceso ni la compañía: ese contexto viaja una sola vez
+ * en el campo process.
+ *
+ * Los edges se describen con el formato tipado (fromType/fromId/toType/toId),
+ * que cubre todas las combinaciones A→A, A→G, G→A y G→G.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessGraphDTO {
+    private ProcessSummaryDTO process;
+    private List<ActivityDTO> activities;
+    private List<GatewayDTO> gateways;
+    private List<EdgeDTO> edges;
+}
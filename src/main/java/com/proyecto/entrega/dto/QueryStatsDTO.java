@@ -0,0 +1,35 @@
+package com.proyecto.entrega.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * QueryStatsDTO - Informe de GET /api/admin/query-stats
+ *
+ * Métodos de repositorio ordenados por tiempo total y por tiempo máximo,
+ * las mismas dos vistas sobre las queries de Hibernate, las invocaciones
+ * lentas más recientes y los aciertos de cache. En caches, la región
+ * persistence-context cuenta las cargas por id resueltas sin ir a la base
+ * dentro de la misma sesión (L1); las demás son del segundo nivel (L2).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryStatsDTO {
+    private Instant since;
+    private long statementsPrepared;
+    private long entityLoads;
+    private long entityFetches;
+    private List<RepositoryQueryStatsDTO> byTotalTime;
+    private List<RepositoryQueryStatsDTO> byMaxTime;
+    private List<HibernateQueryStatsDTO> queriesByTotalTime;
+    private List<HibernateQueryStatsDTO> queriesByMaxTime;
+    private List<SlowQueryDTO> slowQueries;
+    private List<CacheRegionStatsDTO> caches;
+}
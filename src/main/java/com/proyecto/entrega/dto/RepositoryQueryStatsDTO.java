@@ -0,0 +1,28 @@
+package com.proyecto.entrega.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * RepositoryQueryStatsDTO - Tiempos de un método de repositorio desde el arranque
+ *
+ * method es Repositorio.método (p. ej. EdgeRepository.findByProcessId).
+ * Los tiempos incluyen la ejecución en la base y el armado de las
+ * entidades. rows suma las filas devueltas (o afectadas por un UPDATE). sql
+ * es la última sentencia que el método envió a la base.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepositoryQueryStatsDTO {
+    private String method;
+    private long invocations;
+    private double totalMs;
+    private double maxMs;
+    private double meanMs;
+    private long rows;
+    private String sql;
+}
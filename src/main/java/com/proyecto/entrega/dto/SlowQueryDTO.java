@@ -0,0 +1,28 @@
+package com.proyecto.entrega.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * SlowQueryDTO - Invocación de repositorio que superó el umbral de lentitud
+ *
+ * requestId y companyId vienen del contexto de log de la petición (null
+ * fuera de una petición, p. ej. en tareas programadas).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowQueryDTO {
+    private Instant timestamp;
+    private String method;
+    private double durationMs;
+    private long rows;
+    private String sql;
+    private String requestId;
+    private String companyId;
+}
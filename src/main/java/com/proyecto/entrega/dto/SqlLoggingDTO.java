@@ -0,0 +1,21 @@
+package com.proyecto.entrega.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * SqlLoggingDTO - Estado del log de SQL
+ *
+ * enabled indica si se escriben las sentencias (org.hibernate.SQL);
+ * parameters, si además se escriben los valores enlazados.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlLoggingDTO {
+    private boolean enabled;
+    private boolean parameters;
+}
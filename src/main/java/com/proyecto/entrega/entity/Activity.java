@@ -3,16 +3,24 @@ package com.proyecto.entrega.entity;
 
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -25,11 +33,24 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Where(clause = "status = 'active'")
-@SQLDelete(sql = "UPDATE activity SET status = 'inactive' WHERE id = ?")
-
+@SQLDelete(sql = "UPDATE activity SET status = 'inactive' WHERE id = ? AND version = ?")
+@NamedEntityGraph(name = Activity.GRAPH_DTO,
+        attributeNodes = {
+                @NamedAttributeNode(value = "process", subgraph = "process"),
+                @NamedAttributeNode(value = "role", subgraph = "role")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "process", attributeNodes = @NamedAttributeNode("company")),
+                @NamedSubgraph(name = "role", attributeNodes = @NamedAttributeNode("company"))
+        })
+@BatchSize(size = 50)
 public class Activity {
+
+    // Grafo para ActivityDTO: proceso y rol, cada uno con su company
+    public static final String GRAPH_DTO = "Activity.dto";
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_seq")
+    @SequenceGenerator(name = "activity_seq", sequenceName = "activity_seq", allocationSize = 50)
     private Long id;
     private String name;
     private Double x;
@@ -39,11 +60,22 @@ public class Activity {
     private Double height;
     private String status = "active";
 
-    @ManyToOne
+    // Desactivada por una cascada (no eliminada a propósito): la restauración
+    // en cascada solo reactiva las filas marcadas. La escriben únicamente las
+    // queries nativas de SoftDeleteCascadeService
+    @Column(name = "cascade_deleted", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "boolean default false")
+    private boolean cascadeDeleted;
+
+    // Se incrementa en cada UPDATE; el editor la envía en If-Match
+    @Version
+    private Long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "process_id")
     private Process process;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "role_id")
     private Role role;
 
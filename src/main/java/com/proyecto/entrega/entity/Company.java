@@ -4,9 +4,14 @@ package com.proyecto.entrega.entity;
 
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -25,7 +30,9 @@ import lombok.Setter;
 @AllArgsConstructor
 @Where(clause = "status = 'active'")
 @SQLDelete(sql = "UPDATE company SET status = 'inactive' WHERE id = ?")
-
+@BatchSize(size = 50)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "company")
 public class Company{
     
     @Id
@@ -35,7 +42,12 @@ public class Company{
     private String name;
     private String correoContacto;
     private String status = "active";
-    
+
+    // Versión de cambios para los ETag (ver ChangeVersions); solo la escriben
+    // y leen queries nativas
+    @Column(name = "change_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0")
+    private long changeVersion;
 
     @OneToMany(mappedBy = "company")
     private List<Process> processes;
@@ -5,11 +5,17 @@ import org.hibernate.annotations.Where;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -44,11 +50,22 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Where(clause = "status = 'active'")
-@SQLDelete(sql = "UPDATE edge SET status = 'inactive' WHERE id = ?")
+@SQLDelete(sql = "UPDATE edge SET status = 'inactive' WHERE id = ? AND version = ?")
+@NamedEntityGraph(name = Edge.GRAPH_DTO,
+        attributeNodes = {
+                @NamedAttributeNode(value = "process", subgraph = "process"),
+                @NamedAttributeNode("activitySource"),
+                @NamedAttributeNode("activityDestiny")
+        },
+        subgraphs = @NamedSubgraph(name = "process", attributeNodes = @NamedAttributeNode("company")))
 public class Edge {
 
+    // Grafo para EdgeDTO: proceso (con company) y activities legacy en la misma query
+    public static final String GRAPH_DTO = "Edge.dto";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "edge_seq")
+    @SequenceGenerator(name = "edge_seq", sequenceName = "edge_seq", allocationSize = 50)
     private Long id;
 
     private String label;
@@ -56,19 +73,28 @@ public class Edge {
 
     @Column(nullable = false)
     private String status = "active";
+
+    // Marca del soft delete en cascada (ver SoftDeleteCascadeService)
+    @Column(name = "cascade_deleted", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "boolean default false")
+    private boolean cascadeDeleted;
+
+    // Cada UPDATE lleva WHERE version = ? y la incrementa
+    @Version
+    private Long version;
     
     // Relación con Process
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "process_id")
     private Process process;
 
     // ==================== CAMPOS LEGACY (Activity→Activity) ====================
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "activity_source_id")
     private Activity activitySource;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "activity_destiny_id")
     private Activity activityDestiny;
 
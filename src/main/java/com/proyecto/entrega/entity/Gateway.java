@@ -4,12 +4,19 @@ package com.proyecto.entrega.entity;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -22,18 +29,33 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Where(clause = "status = 'active'")
-@SQLDelete(sql = "UPDATE gateway SET status = 'inactive' WHERE id = ?")
-
+@SQLDelete(sql = "UPDATE gateway SET status = 'inactive' WHERE id = ? AND version = ?")
+@NamedEntityGraph(name = Gateway.GRAPH_DTO,
+        attributeNodes = @NamedAttributeNode(value = "process", subgraph = "process"),
+        subgraphs = @NamedSubgraph(name = "process", attributeNodes = @NamedAttributeNode("company")))
 public class Gateway {
+
+    // Grafo para GatewayDTO: proceso con su company
+    public static final String GRAPH_DTO = "Gateway.dto";
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gateway_seq")
+    @SequenceGenerator(name = "gateway_seq", sequenceName = "gateway_seq", allocationSize = 50)
     private Long id;
     private String status = "active"; 
+
+    // Marca del soft delete en cascada (ver SoftDeleteCascadeService)
+    @Column(name = "cascade_deleted", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "boolean default false")
+    private boolean cascadeDeleted;
+
+    // Versión para el control optimista (ver GatewayService.updateGateway)
+    @Version
+    private Long version;
     private String type; 
     private Double x;
     private Double y;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "process_id")
     private Process process;
 }
@@ -2,15 +2,23 @@ package com.proyecto.entrega.entity;
 
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -28,7 +36,14 @@ import lombok.Setter;
 @SQLDelete(sql = "UPDATE process SET status = 'inactive' WHERE id = ?")
 
 @Table(name = "process")
+@NamedEntityGraph(name = Process.GRAPH_DTO, attributeNodes = @NamedAttributeNode("company"))
+@BatchSize(size = 50)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "process")
 public class Process{
+
+    // Grafo para ProcessDTO: company
+    public static final String GRAPH_DTO = "Process.dto";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,7 +52,18 @@ public class Process{
     private String description;
     private String status = "active";
 
-    @ManyToOne
+    // Marca del soft delete en cascada (ver SoftDeleteCascadeService)
+    @Column(name = "cascade_deleted", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "boolean default false")
+    private boolean cascadeDeleted;
+
+    // Versión de cambios para los ETag (ver ChangeVersions); solo la escriben
+    // y leen queries nativas
+    @Column(name = "change_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default 0")
+    private long changeVersion;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id")
     private Company company;
 
@@ -2,15 +2,22 @@ package com.proyecto.entrega.entity;
 
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -25,8 +32,14 @@ import lombok.Setter;
 @AllArgsConstructor
 @Where(clause = "status = 'active'")
 @SQLDelete(sql = "UPDATE role SET status = 'inactive' WHERE id = ?")
-
+@NamedEntityGraph(name = Role.GRAPH_DTO, attributeNodes = @NamedAttributeNode("company"))
+@BatchSize(size = 50)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "role")
 public class Role {
+
+    // Grafo para RoleDTO: company
+    public static final String GRAPH_DTO = "Role.dto";
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -35,7 +48,7 @@ public class Role {
     private String status = "active";
 
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id")
     private Company company;
 
@@ -6,11 +6,14 @@ import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.Where;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -27,7 +30,12 @@ import lombok.Setter;
 @SQLDelete(sql = "UPDATE usuarios SET status = 'inactive' WHERE id = ?")
 
 @Table(name = "usuarios")
+@NamedEntityGraph(name = User.GRAPH_DTO,
+        attributeNodes = { @NamedAttributeNode("company"), @NamedAttributeNode("role") })
 public class User{
+
+    // Grafo para UserDTO/UserSafeDTO: company y rol
+    public static final String GRAPH_DTO = "User.dto";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,11 +45,11 @@ public class User{
     private String contrasena;
     private String status = "active";
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "company_id")
     private Company company;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "role_id")
     private Role role;
 
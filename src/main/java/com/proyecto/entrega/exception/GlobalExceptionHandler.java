@@ -3,8 +3,12 @@ package com.proyecto.entrega.exception;
 import com.proyecto.entrega.dto.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
@@ -12,6 +16,9 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 import java.util.HashMap;
@@ -20,18 +27,23 @@ import java.util.Map;
 /**
  * Manejador global de excepciones para la aplicación.
  * Intercepta todas las excepciones y las convierte en respuestas JSON
- * estructuradas con logging.
+ * estructuradas con logging. Cada respuesta lleva el traceId de la
+ * petición para ubicar sus spans.
  */
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    @Autowired
+    private ObjectProvider<Tracer> tracer;
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgument(IllegalArgumentException ex, WebRequest request) {
         logger.warn("Argumento inválido: {}", ex.getMessage());
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
+                .traceId(traceId())
                 .status(HttpStatus.BAD_REQUEST.value())
                 .error("Bad Request")
                 .message(ex.getMessage())
@@ -45,6 +57,7 @@ public class GlobalExceptionHandler {
         logger.info("Recurso no encontrado: {}", ex.getMessage());
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
+                .traceId(traceId())
                 .status(HttpStatus.NOT_FOUND.value())
                 .error("Not Found")
                 .message(ex.getMessage())
@@ -58,6 +71,7 @@ public class GlobalExceptionHandler {
         logger.warn("Intento de autenticación fallido: {}", ex.getMessage());
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
+                .traceId(traceId())
                 .status(HttpStatus.UNAUTHORIZED.value())
                 .error("Unauthorized")
                 .message(ex.getMessage())
@@ -71,6 +85,7 @@ public class GlobalExceptionHandler {
         logger.warn("Acceso no autorizado: {}", ex.getMessage());
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
+                .traceId(traceId())
                 .status(HttpStatus.FORBIDDEN.value())
                 .error("Forbidden")
                 .message(ex.getMessage())
@@ -84,6 +99,7 @@ public class GlobalExceptionHandler {
         logger.info("Token expirado: {}", ex.getMessage());
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
+                .traceId(traceId())
                 .status(HttpStatus.UNAUTHORIZED.value())
                 .error("Token Expired")
                 .message(ex.getMessage())
@@ -97,6 +113,7 @@ public class GlobalExceptionHandler {
         logger.warn("Token inválido: {}", ex.getMessage());
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
+                .traceId(traceId())
                 .status(HttpStatus.UNAUTHORIZED.value())
                 .error("Invalid Token")
                 .message(ex.getMessage())
@@ -110,6 +127,7 @@ public class GlobalExceptionHandler {
         logger.warn("Error de validación: {} - Errores: {}", ex.getMessage(), ex.getErrors());
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
+                .traceId(traceId())
                 .status(HttpStatus.BAD_REQUEST.value())
                 .error("Validation Error")
                 .message(ex.getMessage())
@@ -124,6 +142,7 @@ public class GlobalExceptionHandler {
         logger.warn("Recurso duplicado: {}", ex.getMessage());
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
+                .traceId(traceId())
                 .status(HttpStatus.CONFLICT.value())
                 .error("Conflict")
                 .message(ex.getMessage())
@@ -132,12 +151,67 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
     }
 
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleVersionConflict(VersionConflictException ex, WebRequest request) {
+        logger.info("Conflicto de versión: {}", ex.getMessage());
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .traceId(traceId())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message(ex.getMessage())
+                .current(ex.getCurrent())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CONFLICT);
+        if (ex.getCurrentVersion() != null) {
+            response.eTag(String.valueOf(ex.getCurrentVersion()));
+        }
+        return response.body(errorResponse);
+    }
+
+    /**
+     * Otro UPDATE confirmó entre la lectura y la escritura (WHERE version = ?
+     * no afectó filas). Sin estado actual: el cliente debe volver a leer.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLocking(ObjectOptimisticLockingFailureException ex,
+            WebRequest request) {
+        logger.info("Conflicto de versión al confirmar: {}", ex.getMessage());
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .traceId(traceId())
+                .status(HttpStatus.CONFLICT.value())
+                .error("Conflict")
+                .message("El recurso fue modificado por otro usuario, vuelva a cargarlo")
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(ServiceUnavailableException ex, WebRequest request) {
+        logger.warn("Servicio saturado: {}", ex.getMessage());
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .traceId(traceId())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("Service Unavailable")
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(CryptographicException.class)
     public ResponseEntity<ErrorResponse> handleCryptographic(CryptographicException ex, WebRequest request) {
         String errorId = UUID.randomUUID().toString();
         logger.error("Error criptográfico [ID: {}]: ", errorId, ex);
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
+                .traceId(traceId())
                 .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
                 .error("Internal Server Error")
                 .message("Error interno del servidor")
@@ -160,6 +234,7 @@ public class GlobalExceptionHandler {
         logger.warn("Error de validación (@Valid): {}", errors);
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
+                .traceId(traceId())
                 .status(HttpStatus.BAD_REQUEST.value())
                 .error("Validation Error")
                 .message("Error de validación en los datos enviados")
@@ -175,6 +250,7 @@ public class GlobalExceptionHandler {
         logger.warn("Error de lectura de mensaje (JSON mal formado): {}", ex.getMessage());
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
+                .traceId(traceId())
                 .status(HttpStatus.BAD_REQUEST.value())
                 .error("Bad Request")
                 .message("Cuerpo de la solicitud mal formado o inválido")
@@ -189,6 +265,7 @@ public class GlobalExceptionHandler {
         logger.error("Error no manejado [ID: {}]: ", errorId, ex);
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
+                .traceId(traceId())
                 .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
                 .error("Internal Server Error")
                 .message("Error interno del servidor")
@@ -197,4 +274,17 @@ public class GlobalExceptionHandler {
                 .build();
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
-}
\ No newline at end of file
+
+    /**
+     * Id de la traza en curso (también si no se muestreó para exportar), o
+     * null si la petición no tiene span.
+     */
+    private String traceId() {
+        Tracer current = tracer.getIfAvailable();
+        Span span = current != null ? current.currentSpan() : null;
+        if (span == null || span.context().traceId().isEmpty()) {
+            return null;
+        }
+        return span.context().traceId();
+    }
+}
@@ -0,0 +1,12 @@
+package com.proyecto.entrega.exception;
+
+/**
+ * Excepción para indicar que el servidor está saturado y no puede atender la
+ * solicitud en este momento (el cliente puede reintentar).
+ * Se mapea a HTTP 503 (Service Unavailable) con Retry-After.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,33 @@
+package com.proyecto.entrega.exception;
+
+/**
+ * Excepción para indicar que el recurso cambió desde que el cliente lo leyó
+ * (la versión enviada en If-Match o en el cuerpo ya no es la actual).
+ *
+ * Se mapea a HTTP 409 (Conflict); la respuesta incluye el estado actual y su
+ * versión en ETag para que el editor pueda fusionar sin recargar todo.
+ */
+public class VersionConflictException extends RuntimeException {
+    private final Object current;
+    private final Long currentVersion;
+
+    /**
+     * @param resourceName   Nombre del recurso (ej: "Actividad", "Edge")
+     * @param id             Identificador del recurso
+     * @param current        Estado actual (DTO), o null si no está disponible
+     * @param currentVersion Versión actual, o null si no está disponible
+     */
+    public VersionConflictException(String resourceName, Long id, Object current, Long currentVersion) {
+        super(String.format("%s con id '%s' fue modificado por otro usuario", resourceName, id));
+        this.current = current;
+        this.currentVersion = currentVersion;
+    }
+
+    public Object getCurrent() {
+        return current;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,495 @@
+package com.proyecto.entrega.mapper;
+
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.proyecto.entrega.dto.ActivityDTO;
+import com.proyecto.entrega.dto.CompanyDTO;
+import com.proyecto.entrega.dto.EdgeDTO;
+import com.proyecto.entrega.dto.GatewayDTO;
+import com.proyecto.entrega.dto.ProcessDTO;
+import com.proyecto.entrega.dto.RoleDTO;
+import com.proyecto.entrega.dto.UserDTO;
+import com.proyecto.entrega.dto.UserSafeDTO;
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.entity.Edge;
+import com.proyecto.entrega.entity.Gateway;
+import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.entity.Role;
+import com.proyecto.entrega.entity.User;
+import com.proyecto.entrega.repository.projection.ActivityRow;
+import com.proyecto.entrega.repository.projection.CompanyColumns;
+import com.proyecto.entrega.repository.projection.EdgeEndpointRow;
+import com.proyecto.entrega.repository.projection.GatewayRow;
+import com.proyecto.entrega.repository.projection.ProcessRow;
+import com.proyecto.entrega.repository.projection.RoleRow;
+import com.proyecto.entrega.repository.projection.UserRow;
+
+/**
+ * DtoMapper - Conversión entre entidades y DTOs
+ *
+ * Mappers escritos a mano, sin reflexión: cada campo se copia con su getter
+ * y setter. Reemplaza a la configuración de ModelMapper y reproduce su
+ * resultado:
+ * - Las listas (processes, users, activities, edges, gateways) nunca se
+ *   mapean, para no recorrer relaciones LAZY ni generar ciclos.
+ * - Las relaciones anidadas se mapean en su versión básica: la company de un
+ *   proceso sin listas, el proceso de las activities de un edge sin company
+ *   y el rol de un usuario sin company.
+ * - De DTO a entidad, las relaciones se representan con una referencia que
+ *   solo tiene el ID y un status nulo no reemplaza el valor por defecto.
+ * - Las proyecciones de los listados (ProcessRow, UserRow, ...) producen el
+ *   mismo DTO que la entidad correspondiente.
+ */
+@Component
+public class DtoMapper {
+
+    // ==================== COMPANY ====================
+
+    public CompanyDTO toCompanyDTO(Company company) {
+        if (company == null) return null;
+
+        CompanyDTO dto = new CompanyDTO();
+        dto.setId(company.getId());
+        dto.setNit(company.getNit());
+        dto.setName(company.getName());
+        dto.setCorreoContacto(company.getCorreoContacto());
+        dto.setStatus(company.getStatus());
+        return dto;
+    }
+
+    public Company toCompany(CompanyDTO dto) {
+        if (dto == null) return null;
+
+        Company company = new Company();
+        company.setId(dto.getId());
+        company.setNit(dto.getNit());
+        company.setName(dto.getName());
+        company.setCorreoContacto(dto.getCorreoContacto());
+        if (dto.getStatus() != null) {
+            company.setStatus(dto.getStatus());
+        }
+        return company;
+    }
+
+    // ==================== PROCESS ====================
+
+    public ProcessDTO toProcessDTO(Process process) {
+        if (process == null) return null;
+
+        ProcessDTO dto = toBasicProcessDTO(process);
+        dto.setCompanyId(process.getCompany() != null ? process.getCompany().getId() : null);
+        dto.setCompany(toCompanyDTO(process.getCompany()));
+        return dto;
+    }
+
+    public Process toProcess(ProcessDTO dto) {
+        if (dto == null) return null;
+
+        Process process = new Process();
+        process.setId(dto.getId());
+        process.setName(dto.getName());
+        process.setDescription(dto.getDescription());
+        if (dto.getStatus() != null) {
+            process.setStatus(dto.getStatus());
+        }
+        process.setCompany(companyRef(dto.getCompanyId()));
+        return process;
+    }
+
+    // ==================== ACTIVITY ====================
+
+    public ActivityDTO toActivityDTO(Activity activity) {
+        if (activity == null) return null;
+
+        ActivityDTO dto = toBasicActivityDTO(activity);
+        dto.setProcessId(activity.getProcess() != null ? activity.getProcess().getId() : null);
+        dto.setProcess(toProcessDTO(activity.getProcess()));
+        dto.setRoleId(activity.getRole() != null ? activity.getRole().getId() : null);
+        dto.setRole(toRoleDTO(activity.getRole()));
+        return dto;
+    }
+
+    public Activity toActivity(ActivityDTO dto) {
+        if (dto == null) return null;
+
+        Activity activity = new Activity();
+        activity.setId(dto.getId());
+        activity.setName(dto.getName());
+        activity.setX(dto.getX());
+        activity.setY(dto.getY());
+        activity.setDescription(dto.getDescription());
+        activity.setWidth(dto.getWidth());
+        activity.setHeight(dto.getHeight());
+        if (dto.getStatus() != null) {
+            activity.setStatus(dto.getStatus());
+        }
+        activity.setProcess(processRef(dto.getProcessId()));
+        activity.setRole(roleRef(dto.getRoleId()));
+        return activity;
+    }
+
+    // ==================== GATEWAY ====================
+
+    public GatewayDTO toGatewayDTO(Gateway gateway) {
+        if (gateway == null) return null;
+
+        GatewayDTO dto = new GatewayDTO();
+        dto.setId(gateway.getId());
+        dto.setType(gateway.getType());
+        dto.setStatus(gateway.getStatus());
+        dto.setVersion(gateway.getVersion());
+        dto.setX(gateway.getX());
+        dto.setY(gateway.getY());
+        dto.setProcessId(gateway.getProcess() != null ? gateway.getProcess().getId() : null);
+        dto.setProcess(toProcessDTO(gateway.getProcess()));
+        return dto;
+    }
+
+    public Gateway toGateway(GatewayDTO dto) {
+        if (dto == null) return null;
+
+        Gateway gateway = new Gateway();
+        gateway.setId(dto.getId());
+        gateway.setType(dto.getType());
+        gateway.setX(dto.getX());
+        gateway.setY(dto.getY());
+        if (dto.getStatus() != null) {
+            gateway.setStatus(dto.getStatus());
+        }
+        gateway.setProcess(processRef(dto.getProcessId()));
+        return gateway;
+    }
+
+    // ==================== EDGE ====================
+
+    public EdgeDTO toEdgeDTO(Edge edge) {
+        if (edge == null) return null;
+
+        // Extremos legacy: activity básica con su proceso sin company
+        EdgeDTO dto = toBasicEdgeDTO(edge);
+        dto.setActivitySource(toEdgeEndpointDTO(edge.getActivitySource()));
+        dto.setActivityDestiny(toEdgeEndpointDTO(edge.getActivityDestiny()));
+        return dto;
+    }
+
+    /**
+     * Edge con sus extremos legacy tomados de endpoints (por id) en lugar de
+     * las asociaciones: los proxies de activitySource / activityDestiny no
+     * se inicializan. Para edges inactivos, cuyos extremos pueden estar
+     * inactivos y el filtro @Where no encontrarlos.
+     */
+    public EdgeDTO toEdgeDTO(Edge edge, Map<Long, EdgeEndpointRow> endpoints) {
+        if (edge == null) return null;
+
+        EdgeDTO dto = toBasicEdgeDTO(edge);
+        dto.setActivitySource(toEdgeEndpointDTO(endpoints.get(dto.getActivitySourceId())));
+        dto.setActivityDestiny(toEdgeEndpointDTO(endpoints.get(dto.getActivityDestinyId())));
+        return dto;
+    }
+
+    private EdgeDTO toBasicEdgeDTO(Edge edge) {
+        EdgeDTO dto = new EdgeDTO();
+        dto.setId(edge.getId());
+        dto.setLabel(edge.getLabel());
+        dto.setDescription(edge.getDescription());
+        dto.setStatus(edge.getStatus());
+        dto.setVersion(edge.getVersion());
+        dto.setProcessId(edge.getProcess() != null ? edge.getProcess().getId() : null);
+        dto.setProcess(toProcessDTO(edge.getProcess()));
+
+        // El id del proxy no lo inicializa
+        Activity source = edge.getActivitySource();
+        Activity destiny = edge.getActivityDestiny();
+        dto.setActivitySourceId(source != null ? source.getId() : null);
+        dto.setActivityDestinyId(destiny != null ? destiny.getId() : null);
+
+        dto.setFromType(edge.getFromType());
+        dto.setFromId(edge.getFromId());
+        dto.setToType(edge.getToType());
+        dto.setToId(edge.getToId());
+        return dto;
+    }
+
+    // ==================== ROLE ====================
+
+    public RoleDTO toRoleDTO(Role role) {
+        if (role == null) return null;
+
+        RoleDTO dto = toBasicRoleDTO(role);
+        dto.setCompanyId(role.getCompany() != null ? role.getCompany().getId() : null);
+        dto.setCompany(toCompanyDTO(role.getCompany()));
+        return dto;
+    }
+
+    public Role toRole(RoleDTO dto) {
+        if (dto == null) return null;
+
+        Role role = new Role();
+        role.setId(dto.getId());
+        role.setNombre(dto.getNombre());
+        role.setDescripcion(dto.getDescripcion());
+        if (dto.getStatus() != null) {
+            role.setStatus(dto.getStatus());
+        }
+        role.setCompany(companyRef(dto.getCompanyId()));
+        return role;
+    }
+
+    // ==================== USER ====================
+
+    public UserDTO toUserDTO(User user) {
+        if (user == null) return null;
+
+        UserDTO dto = new UserDTO();
+        dto.setId(user.getId());
+        dto.setNombre(user.getNombre());
+        dto.setCorreo(user.getCorreo());
+        dto.setContrasena(user.getContrasena());
+        dto.setStatus(user.getStatus());
+        dto.setCompanyId(user.getCompany() != null ? user.getCompany().getId() : null);
+        dto.setRoleId(user.getRole() != null ? user.getRole().getId() : null);
+        dto.setCompany(toCompanyDTO(user.getCompany()));
+        dto.setRole(toBasicRoleDTO(user.getRole()));
+        return dto;
+    }
+
+    /**
+     * Versión del usuario sin contraseña, para listados y consultas.
+     */
+    public UserSafeDTO toUserSafeDTO(User user) {
+        if (user == null) return null;
+
+        UserSafeDTO dto = new UserSafeDTO();
+        dto.setId(user.getId());
+        dto.setNombre(user.getNombre());
+        dto.setCorreo(user.getCorreo());
+        dto.setStatus(user.getStatus());
+        dto.setCompanyId(user.getCompany() != null ? user.getCompany().getId() : null);
+        dto.setRoleId(user.getRole() != null ? user.getRole().getId() : null);
+        dto.setCompany(toCompanyDTO(user.getCompany()));
+        dto.setRole(toBasicRoleDTO(user.getRole()));
+        return dto;
+    }
+
+    public User toUser(UserDTO dto) {
+        if (dto == null) return null;
+
+        User user = new User();
+        user.setId(dto.getId());
+        user.setNombre(dto.getNombre());
+        user.setCorreo(dto.getCorreo());
+        user.setContrasena(dto.getContrasena());
+        if (dto.getStatus() != null) {
+            user.setStatus(dto.getStatus());
+        }
+        user.setCompany(companyRef(dto.getCompanyId()));
+        user.setRole(roleRef(dto.getRoleId()));
+        return user;
+    }
+
+    // ==================== PROYECCIONES ====================
+
+    public ProcessDTO toProcessDTO(ProcessRow row) {
+        if (row == null) return null;
+
+        ProcessDTO dto = new ProcessDTO();
+        dto.setId(row.getId());
+        dto.setName(row.getName());
+        dto.setStatus(row.getStatus());
+        dto.setDescription(row.getDescription());
+        dto.setCompanyId(row.getCompanyId());
+        dto.setCompany(companyOf(row));
+        return dto;
+    }
+
+    public RoleDTO toRoleDTO(RoleRow row) {
+        if (row == null) return null;
+
+        RoleDTO dto = new RoleDTO();
+        dto.setId(row.getId());
+        dto.setNombre(row.getNombre());
+        dto.setDescripcion(row.getDescripcion());
+        dto.setStatus(row.getStatus());
+        dto.setCompanyId(row.getCompanyId());
+        dto.setCompany(companyOf(row));
+        return dto;
+    }
+
+    public UserSafeDTO toUserSafeDTO(UserRow row) {
+        if (row == null) return null;
+
+        UserSafeDTO dto = new UserSafeDTO();
+        dto.setId(row.getId());
+        dto.setNombre(row.getNombre());
+        dto.setCorreo(row.getCorreo());
+        dto.setStatus(row.getStatus());
+        dto.setCompanyId(row.getCompanyId());
+        dto.setRoleId(row.getRoleId());
+        dto.setCompany(companyOf(row));
+        if (row.getRoleId() != null) {
+            dto.setRole(new RoleDTO(row.getRoleId(), row.getRoleNombre(), row.getRoleDescripcion(),
+                    row.getRoleStatus(), null, null, null, null));
+        }
+        return dto;
+    }
+
+    public ActivityDTO toActivityDTO(ActivityRow row) {
+        if (row == null) return null;
+
+        ActivityDTO dto = new ActivityDTO();
+        dto.setId(row.getId());
+        dto.setName(row.getName());
+        dto.setX(row.getX());
+        dto.setY(row.getY());
+        dto.setDescription(row.getDescription());
+        dto.setWidth(row.getWidth());
+        dto.setHeight(row.getHeight());
+        dto.setStatus(row.getStatus());
+        dto.setProcessId(row.getProcessId());
+        dto.setProcess(processOf(row.getProcessId(), row.getProcessName(), row.getProcessStatus(),
+                row.getProcessDescription(), row));
+        dto.setRoleId(row.getRoleId());
+        if (row.getRoleId() != null) {
+            RoleDTO role = new RoleDTO(row.getRoleId(), row.getRoleNombre(), row.getRoleDescripcion(),
+                    row.getRoleStatus(), row.getRoleCompanyId(), null, null, null);
+            if (row.getRoleCompanyId() != null) {
+                role.setCompany(new CompanyDTO(row.getRoleCompanyId(), row.getRoleCompanyNit(),
+                        row.getRoleCompanyName(), row.getRoleCompanyCorreoContacto(),
+                        row.getRoleCompanyStatus(), null, null));
+            }
+            dto.setRole(role);
+        }
+        return dto;
+    }
+
+    public GatewayDTO toGatewayDTO(GatewayRow row) {
+        if (row == null) return null;
+
+        GatewayDTO dto = new GatewayDTO();
+        dto.setId(row.getId());
+        dto.setType(row.getType());
+        dto.setStatus(row.getStatus());
+        dto.setX(row.getX());
+        dto.setY(row.getY());
+        dto.setProcessId(row.getProcessId());
+        dto.setProcess(processOf(row.getProcessId(), row.getProcessName(), row.getProcessStatus(),
+                row.getProcessDescription(), row));
+        return dto;
+    }
+
+    private ProcessDTO processOf(Long id, String name, String status, String description, CompanyColumns company) {
+        if (id == null) return null;
+
+        ProcessDTO dto = new ProcessDTO();
+        dto.setId(id);
+        dto.setName(name);
+        dto.setStatus(status);
+        dto.setDescription(description);
+        dto.setCompanyId(company.getCompanyId());
+        dto.setCompany(companyOf(company));
+        return dto;
+    }
+
+    private CompanyDTO companyOf(CompanyColumns row) {
+        if (row.getCompanyId() == null) return null;
+
+        return new CompanyDTO(row.getCompanyId(), row.getCompanyNit(), row.getCompanyName(),
+                row.getCompanyCorreoContacto(), row.getCompanyStatus(), null, null);
+    }
+
+    // ==================== VERSIONES BÁSICAS ====================
+
+    private ProcessDTO toBasicProcessDTO(Process process) {
+        ProcessDTO dto = new ProcessDTO();
+        dto.setId(process.getId());
+        dto.setName(process.getName());
+        dto.setStatus(process.getStatus());
+        dto.setDescription(process.getDescription());
+        return dto;
+    }
+
+    private ActivityDTO toBasicActivityDTO(Activity activity) {
+        ActivityDTO dto = new ActivityDTO();
+        dto.setId(activity.getId());
+        dto.setName(activity.getName());
+        dto.setX(activity.getX());
+        dto.setY(activity.getY());
+        dto.setDescription(activity.getDescription());
+        dto.setWidth(activity.getWidth());
+        dto.setHeight(activity.getHeight());
+        dto.setStatus(activity.getStatus());
+        dto.setVersion(activity.getVersion());
+        return dto;
+    }
+
+    private ActivityDTO toEdgeEndpointDTO(Activity activity) {
+        if (activity == null) return null;
+
+        ActivityDTO dto = toBasicActivityDTO(activity);
+        if (activity.getProcess() != null) {
+            dto.setProcess(toBasicProcessDTO(activity.getProcess()));
+        }
+        return dto;
+    }
+
+    private ActivityDTO toEdgeEndpointDTO(EdgeEndpointRow row) {
+        if (row == null) return null;
+
+        ActivityDTO dto = new ActivityDTO();
+        dto.setId(row.getId());
+        dto.setName(row.getName());
+        dto.setX(row.getX());
+        dto.setY(row.getY());
+        dto.setDescription(row.getDescription());
+        dto.setWidth(row.getWidth());
+        dto.setHeight(row.getHeight());
+        dto.setStatus(row.getStatus());
+        dto.setVersion(row.getVersion());
+        if (row.getProcessId() != null) {
+            ProcessDTO process = new ProcessDTO();
+            process.setId(row.getProcessId());
+            process.setName(row.getProcessName());
+            process.setStatus(row.getProcessStatus());
+            process.setDescription(row.getProcessDescription());
+            dto.setProcess(process);
+        }
+        return dto;
+    }
+
+    private RoleDTO toBasicRoleDTO(Role role) {
+        if (role == null) return null;
+
+        RoleDTO dto = new RoleDTO();
+        dto.setId(role.getId());
+        dto.setNombre(role.getNombre());
+        dto.setDescripcion(role.getDescripcion());
+        dto.setStatus(role.getStatus());
+        return dto;
+    }
+
+    // ==================== REFERENCIAS POR ID ====================
+
+    private Company companyRef(Long id) {
+        if (id == null) return null;
+        Company company = new Company();
+        company.setId(id);
+        return company;
+    }
+
+    private Process processRef(Long id) {
+        if (id == null) return null;
+        Process process = new Process();
+        process.setId(id);
+        return process;
+    }
+
+    private Role roleRef(Long id) {
+        if (id == null) return null;
+        Role role = new Role();
+        role.setId(id);
+        return role;
+    }
+}
@@ -1,12 +1,24 @@
 package com.proyecto.entrega.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.repository.projection.ActivityRow;
+import com.proyecto.entrega.repository.projection.EdgeEndpointRow;
+
+import jakarta.persistence.QueryHint;
 
 public interface ActivityRepository extends JpaRepository<Activity, Long>{
 
@@ -18,8 +30,21 @@ public interface ActivityRepository extends JpaRepository<Activity, Long>{
      * @param processId Identificador del proceso
      * @return Lista de activities activas del proceso
      */
+    @EntityGraph(Activity.GRAPH_DTO)
     List<Activity> findByProcessId(Long processId);
 
+    /**
+     * Busca las activities activas de un proceso junto con su rol.
+     *
+     * Usado al cargar el diagrama completo: el fetch join trae el rol en la
+     * misma query para no disparar una consulta adicional por activity.
+     *
+     * @param processId Identificador del proceso
+     * @return Lista de activities activas del proceso con su rol cargado
+     */
+    @Query("SELECT a FROM Activity a LEFT JOIN FETCH a.role WHERE a.process.id = :processId")
+    List<Activity> findGraphNodesByProcessId(@Param("processId") Long processId);
+
     /**
      * Busca activities por processId y status específico.
      *
@@ -35,4 +60,151 @@ public interface ActivityRepository extends JpaRepository<Activity, Long>{
     List<Activity> findByProcessIdAndStatus(@Param("processId") Long processId,
                                            @Param("status") String status);
 
+    /**
+     * Busca una activity por ID ignorando el filtro de status.
+     *
+     * Útil para reactivar activities marcadas como 'inactive'.
+     */
+    @Query(value = "SELECT * FROM activity WHERE id = :id", nativeQuery = true)
+    Optional<Activity> findByIdIgnoreStatus(@Param("id") Long id);
+
+    // Proceso del activity sin cargar la entidad ni aplicar el filtro @Where
+    @Query(value = "SELECT process_id FROM activity WHERE id = :id", nativeQuery = true)
+    Long findProcessIdById(@Param("id") Long id);
+
+    /**
+     * Extremos legacy de edges (activitySource / activityDestiny) con su
+     * proceso, sin importar su status (query nativa, ignora el filtro @Where).
+     */
+    @Query(value = "SELECT a.id AS \"id\", a.name AS \"name\", a.x AS \"x\", a.y AS \"y\", " +
+                   "a.description AS \"description\", a.width AS \"width\", a.height AS \"height\", " +
+                   "a.status AS \"status\", a.version AS \"version\", " +
+                   "p.id AS \"processId\", p.name AS \"processName\", p.status AS \"processStatus\", " +
+                   "p.description AS \"processDescription\" " +
+                   "FROM activity a " +
+                   "LEFT JOIN process p ON p.id = a.process_id " +
+                   "WHERE a.id IN (:ids)",
+           nativeQuery = true)
+    List<EdgeEndpointRow> findEndpointRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // ==================== PAGINACIÓN KEYSET ====================
+    //
+    // Páginas ordenadas por id: la siguiente página empieza en id > :afterId.
+    // Ver CursorPagination.
+
+    @EntityGraph(Activity.GRAPH_DTO)
+    List<Activity> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @EntityGraph(Activity.GRAPH_DTO)
+    List<Activity> findByProcessIdAndIdGreaterThanOrderByIdAsc(Long processId, Long afterId, Limit limit);
+
+    /**
+     * Página de activities de un proceso con un status específico (query nativa,
+     * ignora el filtro @Where), proyectada con su proceso y su rol.
+     */
+    @Query(value = "SELECT a.id AS \"id\", a.name AS \"name\", a.x AS \"x\", a.y AS \"y\", " +
+                   "a.description AS \"description\", a.width AS \"width\", a.height AS \"height\", " +
+                   "a.status AS \"status\", " +
+                   "p.id AS \"processId\", p.name AS \"processName\", p.status AS \"processStatus\", " +
+                   "p.description AS \"processDescription\", " +
+                   "c.id AS \"companyId\", c.nit AS \"companyNit\", c.name AS \"companyName\", " +
+                   "c.correo_contacto AS \"companyCorreoContacto\", c.status AS \"companyStatus\", " +
+                   "r.id AS \"roleId\", r.nombre AS \"roleNombre\", r.descripcion AS \"roleDescripcion\", " +
+                   "r.status AS \"roleStatus\", " +
+                   "rc.id AS \"roleCompanyId\", rc.nit AS \"roleCompanyNit\", rc.name AS \"roleCompanyName\", " +
+                   "rc.correo_contacto AS \"roleCompanyCorreoContacto\", rc.status AS \"roleCompanyStatus\" " +
+                   "FROM activity a " +
+                   "LEFT JOIN process p ON p.id = a.process_id " +
+                   "LEFT JOIN company c ON c.id = p.company_id " +
+                   "LEFT JOIN role r ON r.id = a.role_id " +
+                   "LEFT JOIN company rc ON rc.id = r.company_id " +
+                   "WHERE a.process_id = :processId AND a.status = :status " +
+                   "AND a.id > :afterId ORDER BY a.id LIMIT :limit",
+           nativeQuery = true)
+    List<ActivityRow> findRowPageByProcessIdAndStatus(@Param("processId") Long processId,
+                                                      @Param("status") String status,
+                                                      @Param("afterId") Long afterId,
+                                                      @Param("limit") int limit);
+
+    /**
+     * Desactiva las activities activos de los procesos indicados en un UPDATE en
+     * bloque, marcándolos como desactivados por la cascada; afecta como
+     * máximo :chunkSize filas.
+     *
+     * @return Número de filas actualizadas en este lote
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "activity"))
+    @Query(value = "UPDATE activity SET status = 'inactive', cascade_deleted = TRUE WHERE id IN (" +
+                   "SELECT id FROM activity WHERE process_id IN (:processIds) AND status = 'active' " +
+                   "LIMIT :chunkSize)",
+           nativeQuery = true)
+    int deactivateByProcessIds(@Param("processIds") Collection<Long> processIds,
+                               @Param("chunkSize") int chunkSize);
+
+    /**
+     * Reactiva las activities de los procesos indicados que desactivó una cascada
+     * (los eliminados a propósito siguen inactivos); afecta como máximo
+     * :chunkSize filas.
+     *
+     * @return Número de filas actualizadas en este lote
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "activity"))
+    @Query(value = "UPDATE activity SET status = 'active', cascade_deleted = FALSE WHERE id IN (" +
+                   "SELECT id FROM activity WHERE process_id IN (:processIds) AND status = 'inactive' " +
+                   "AND cascade_deleted LIMIT :chunkSize)",
+           nativeQuery = true)
+    int reactivateByProcessIds(@Param("processIds") Collection<Long> processIds,
+                               @Param("chunkSize") int chunkSize);
+
+    /**
+     * Cambia el status de una activity con un UPDATE directo.
+     *
+     * @return 1 si cambió de estado, 0 si ya tenía ese status
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "activity"))
+    @Query(value = "UPDATE activity SET status = :newStatus, cascade_deleted = FALSE " +
+                   "WHERE id = :id AND status <> :newStatus",
+           nativeQuery = true)
+    int updateStatus(@Param("id") Long id, @Param("newStatus") String newStatus);
+
+    /**
+     * Cambia en un solo UPDATE el status de las activities indicadas (eliminación
+     * directa: no quedan marcadas como desactivadas por una cascada).
+     *
+     * @return Número de filas que cambiaron de estado
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "activity"))
+    @Query(value = "UPDATE activity SET status = :newStatus, cascade_deleted = FALSE " +
+                   "WHERE id IN (:ids) AND status <> :newStatus",
+           nativeQuery = true)
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("newStatus") String newStatus);
+
+    // ==================== EXPORTACIÓN (STREAM) ====================
+    //
+    // Cursor JDBC de solo lectura con fetch size 500: las filas se leen por
+    // bloques mientras se escriben (ver NdjsonExport). Requieren una
+    // transacción abierta mientras se consume el Stream.
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Activity a " +
+           "LEFT JOIN FETCH a.process p LEFT JOIN FETCH p.company " +
+           "LEFT JOIN FETCH a.role r LEFT JOIN FETCH r.company ORDER BY a.id")
+    Stream<Activity> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT a FROM Activity a " +
+           "JOIN FETCH a.process p LEFT JOIN FETCH p.company " +
+           "LEFT JOIN FETCH a.role r LEFT JOIN FETCH r.company " +
+           "WHERE p.company.id = :companyId ORDER BY a.id")
+    Stream<Activity> streamByCompanyId(@Param("companyId") Long companyId);
 }
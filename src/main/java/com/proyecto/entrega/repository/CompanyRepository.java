@@ -1,8 +1,21 @@
 package com.proyecto.entrega.repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
 import com.proyecto.entrega.entity.Company;
 
+import jakarta.persistence.QueryHint;
+
 
 public interface CompanyRepository extends JpaRepository<Company, Long>{
 
@@ -10,4 +23,46 @@ public interface CompanyRepository extends JpaRepository<Company, Long>{
 
     boolean existsByCorreoContacto(String correoContacto);
 
+    // Paginación keyset (ver CursorPagination)
+    List<Company> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Busca una compañía por ID ignorando el filtro de status.
+     *
+     * Útil para reactivar compañías marcadas como 'inactive'.
+     */
+    @Query(value = "SELECT * FROM company WHERE id = :id", nativeQuery = true)
+    Optional<Company> findByIdIgnoreStatus(@Param("id") Long id);
+
+    /**
+     * Cambia el status de una compañía con un UPDATE directo.
+     *
+     * @return 1 si cambió de estado, 0 si ya tenía ese status
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "company"))
+    @Query(value = "UPDATE company SET status = :newStatus WHERE id = :id AND status <> :newStatus",
+           nativeQuery = true)
+    int updateStatus(@Param("id") Long id, @Param("newStatus") String newStatus);
+
+    /**
+     * Sube la versión de cambios de la compañía, en la transacción de la
+     * escritura (ver ChangeVersions). Sin desalojar la región "company".
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ProcessRepository.CHANGE_VERSION_SPACE))
+    @Query(value = "UPDATE company SET change_version = change_version + 1 WHERE id = :id", nativeQuery = true)
+    int bumpChangeVersion(@Param("id") Long id);
+
+    /**
+     * Versión de la compañía y suma de las de sus procesos ("compañía.procesos"),
+     * ignorando el filtro @Where. Vacío si la compañía no existe.
+     */
+    @Query(value = "SELECT CONCAT(c.change_version, '.', " +
+                   "(SELECT COALESCE(SUM(p.change_version), 0) FROM process p WHERE p.company_id = c.id)) " +
+                   "FROM company c WHERE c.id = :id",
+           nativeQuery = true)
+    Optional<String> findChangeVersion(@Param("id") Long id);
+
 }
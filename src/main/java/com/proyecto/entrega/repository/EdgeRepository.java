@@ -1,21 +1,67 @@
 package com.proyecto.entrega.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.proyecto.entrega.entity.Edge;
 
+import jakarta.persistence.QueryHint;
+
 public interface EdgeRepository extends JpaRepository<Edge, Long> {
 
+    /**
+     * Condición SQL: ambos extremos del edge (alias e) están activos.
+     *
+     * Los edges legacy sin campos tipados se resuelven por
+     * activity_source_id / activity_destiny_id.
+     */
+    String ENDPOINTS_ACTIVE =
+            "((COALESCE(e.from_type, 'activity') = 'activity' AND EXISTS (SELECT 1 FROM activity a " +
+            "WHERE a.id = COALESCE(e.from_id, e.activity_source_id) AND a.status = 'active')) " +
+            "OR (e.from_type = 'gateway' AND EXISTS (SELECT 1 FROM gateway g " +
+            "WHERE g.id = e.from_id AND g.status = 'active'))) " +
+            "AND ((COALESCE(e.to_type, 'activity') = 'activity' AND EXISTS (SELECT 1 FROM activity a " +
+            "WHERE a.id = COALESCE(e.to_id, e.activity_destiny_id) AND a.status = 'active')) " +
+            "OR (e.to_type = 'gateway' AND EXISTS (SELECT 1 FROM gateway g " +
+            "WHERE g.id = e.to_id AND g.status = 'active')))";
+
+    /**
+     * Subconsulta SQL: ids de los edges conectados a las activities :nodeIds.
+     *
+     * Cada rama del UNION filtra una sola columna (o par tipo/id) y puede
+     * resolverse con su propio índice; con los cuatro predicados unidos por
+     * OR Postgres termina recorriendo la tabla completa.
+     */
+    String ACTIVITY_EDGE_IDS =
+            "SELECT id FROM edge WHERE activity_source_id IN (:nodeIds) " +
+            "UNION SELECT id FROM edge WHERE activity_destiny_id IN (:nodeIds) " +
+            "UNION SELECT id FROM edge WHERE from_type = 'activity' AND from_id IN (:nodeIds) " +
+            "UNION SELECT id FROM edge WHERE to_type = 'activity' AND to_id IN (:nodeIds)";
+
+    /**
+     * Subconsulta SQL: ids de los edges conectados a los gateways :nodeIds.
+     */
+    String GATEWAY_EDGE_IDS =
+            "SELECT id FROM edge WHERE from_type = 'gateway' AND from_id IN (:nodeIds) " +
+            "UNION SELECT id FROM edge WHERE to_type = 'gateway' AND to_id IN (:nodeIds)";
+
     /**
      * Busca edges por processId.
      *
      * El filtro @Where de la entidad asegura que solo se retornen edges activos.
      */
+    @EntityGraph(Edge.GRAPH_DTO)
     List<Edge> findByProcessId(Long processId);
 
     /**
@@ -30,30 +76,46 @@ public interface EdgeRepository extends JpaRepository<Edge, Long> {
                                        @Param("status") String status);
 
     /**
-     * Busca edges conectados a una activity específica (como origen o destino).
+     * Busca edges activos conectados a una activity específica (como origen o destino).
      *
      * Retorna edges donde:
      * - La activity es el origen (activitySource)
      * - La activity es el destino (activityDestiny)
      * - O los campos tipados indican fromType='activity' y fromId=activityId
      * - O los campos tipados indican toType='activity' y toId=activityId
+     *
+     * Query nativa con UNION para usar un índice por rama (ver ACTIVITY_EDGE_IDS).
      */
-    @Query("SELECT e FROM Edge e WHERE e.activitySource.id = :activityId OR e.activityDestiny.id = :activityId " +
-           "OR (e.fromType = 'activity' AND e.fromId = :activityId) " +
-           "OR (e.toType = 'activity' AND e.toId = :activityId)")
-    List<Edge> findByActivityId(@Param("activityId") Long activityId);
+    @Query(value = "SELECT * FROM edge WHERE id IN (" + ACTIVITY_EDGE_IDS + ") AND status = 'active'",
+           nativeQuery = true)
+    List<Edge> findByActivityId(@Param("nodeIds") Long activityId);
 
     /**
-     * Busca edges conectados a un gateway específico (como origen o destino).
+     * Busca edges activos conectados a un gateway específico (como origen o destino).
      *
      * Retorna edges donde:
      * - fromType='gateway' y fromId=gatewayId (gateway es origen)
      * - toType='gateway' y toId=gatewayId (gateway es destino)
      */
-    @Query("SELECT e FROM Edge e WHERE " +
-           "(e.fromType = 'gateway' AND e.fromId = :gatewayId) " +
-           "OR (e.toType = 'gateway' AND e.toId = :gatewayId)")
-    List<Edge> findByGatewayId(@Param("gatewayId") Long gatewayId);
+    @Query(value = "SELECT * FROM edge WHERE id IN (" + GATEWAY_EDGE_IDS + ") AND status = 'active'",
+           nativeQuery = true)
+    List<Edge> findByGatewayId(@Param("nodeIds") Long gatewayId);
+
+    /**
+     * Busca en una sola query los edges activos conectados a cualquiera de
+     * las activities indicadas (como origen o destino, legacy o tipado).
+     */
+    @Query(value = "SELECT * FROM edge WHERE id IN (" + ACTIVITY_EDGE_IDS + ") AND status = 'active'",
+           nativeQuery = true)
+    List<Edge> findByActivityIdIn(@Param("nodeIds") Collection<Long> activityIds);
+
+    /**
+     * Busca en una sola query los edges activos conectados a cualquiera de
+     * los gateways indicados (como origen o destino).
+     */
+    @Query(value = "SELECT * FROM edge WHERE id IN (" + GATEWAY_EDGE_IDS + ") AND status = 'active'",
+           nativeQuery = true)
+    List<Edge> findByGatewayIdIn(@Param("nodeIds") Collection<Long> gatewayIds);
 
     /**
      * Busca un edge por ID ignorando el filtro de status.
@@ -62,4 +124,140 @@ public interface EdgeRepository extends JpaRepository<Edge, Long> {
      */
     @Query(value = "SELECT * FROM edge WHERE id = :id", nativeQuery = true)
     Optional<Edge> findByIdIgnoreStatus(@Param("id") Long id);
+
+    // ==================== PAGINACIÓN KEYSET ====================
+    //
+    // Páginas ordenadas por id: la siguiente página empieza en id > :afterId.
+    // Ver CursorPagination.
+
+    @EntityGraph(Edge.GRAPH_DTO)
+    List<Edge> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @EntityGraph(Edge.GRAPH_DTO)
+    List<Edge> findByProcessIdAndIdGreaterThanOrderByIdAsc(Long processId, Long afterId, Limit limit);
+
+    /**
+     * Página de edges de un proceso con un status específico (query nativa,
+     * ignora el filtro @Where).
+     */
+    @Query(value = "SELECT * FROM edge WHERE process_id = :processId AND status = :status " +
+                   "AND id > :afterId ORDER BY id LIMIT :limit",
+           nativeQuery = true)
+    List<Edge> findPageByProcessIdAndStatus(@Param("processId") Long processId,
+                                            @Param("status") String status,
+                                            @Param("afterId") Long afterId,
+                                            @Param("limit") int limit);
+
+    // ==================== OPERACIONES EN BLOQUE (soft delete en cascada) ====================
+    //
+    // Cada UPDATE afecta como máximo :chunkSize filas; el llamador repite
+    // hasta que un lote vuelve incompleto. Son queries nativas para que el
+    // filtro @Where no oculte las filas inactivas al restaurar. Desactivar
+    // marca cascade_deleted; reactivar solo toma las filas marcadas.
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "edge"))
+    @Query(value = "UPDATE edge SET status = 'inactive', cascade_deleted = TRUE WHERE id IN (" +
+                   "SELECT e.id FROM edge e WHERE e.process_id IN (:processIds) AND e.status = 'active' " +
+                   "LIMIT :chunkSize)",
+           nativeQuery = true)
+    int deactivateByProcessIds(@Param("processIds") Collection<Long> processIds,
+                               @Param("chunkSize") int chunkSize);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "edge"))
+    @Query(value = "UPDATE edge SET status = 'inactive', cascade_deleted = TRUE WHERE id IN (" +
+                   "SELECT e.id FROM edge e WHERE e.id IN (" + ACTIVITY_EDGE_IDS + ") AND e.status = 'active' " +
+                   "LIMIT :chunkSize)",
+           nativeQuery = true)
+    int deactivateByActivityIds(@Param("nodeIds") Collection<Long> activityIds, @Param("chunkSize") int chunkSize);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "edge"))
+    @Query(value = "UPDATE edge SET status = 'inactive', cascade_deleted = TRUE WHERE id IN (" +
+                   "SELECT e.id FROM edge e WHERE e.id IN (" + GATEWAY_EDGE_IDS + ") AND e.status = 'active' " +
+                   "LIMIT :chunkSize)",
+           nativeQuery = true)
+    int deactivateByGatewayIds(@Param("nodeIds") Collection<Long> gatewayIds, @Param("chunkSize") int chunkSize);
+
+    /**
+     * Reactiva los edges de los procesos indicados que desactivó una cascada
+     * y cuyos dos extremos están activos. Los edges eliminados a propósito,
+     * o que apuntan a nodos aún eliminados, permanecen inactivos.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "edge"))
+    @Query(value = "UPDATE edge SET status = 'active', cascade_deleted = FALSE WHERE id IN (" +
+                   "SELECT e.id FROM edge e WHERE e.process_id IN (:processIds) AND e.status = 'inactive' " +
+                   "AND e.cascade_deleted AND " + ENDPOINTS_ACTIVE + " LIMIT :chunkSize)",
+           nativeQuery = true)
+    int reactivateByProcessIds(@Param("processIds") Collection<Long> processIds,
+                               @Param("chunkSize") int chunkSize);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "edge"))
+    @Query(value = "UPDATE edge SET status = 'active', cascade_deleted = FALSE WHERE id IN (" +
+                   "SELECT e.id FROM edge e WHERE e.id IN (" + ACTIVITY_EDGE_IDS + ") AND e.status = 'inactive' " +
+                   "AND e.cascade_deleted AND " + ENDPOINTS_ACTIVE + " LIMIT :chunkSize)",
+           nativeQuery = true)
+    int reactivateByActivityId(@Param("nodeIds") Long activityId, @Param("chunkSize") int chunkSize);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "edge"))
+    @Query(value = "UPDATE edge SET status = 'active', cascade_deleted = FALSE WHERE id IN (" +
+                   "SELECT e.id FROM edge e WHERE e.id IN (" + GATEWAY_EDGE_IDS + ") AND e.status = 'inactive' " +
+                   "AND e.cascade_deleted AND " + ENDPOINTS_ACTIVE + " LIMIT :chunkSize)",
+           nativeQuery = true)
+    int reactivateByGatewayId(@Param("nodeIds") Long gatewayId, @Param("chunkSize") int chunkSize);
+
+    /**
+     * Cambia el status de un edge con un UPDATE directo. Un edge eliminado
+     * o restaurado a propósito deja de estar marcado por la cascada.
+     *
+     * @return 1 si cambió de estado, 0 si ya tenía ese status
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "edge"))
+    @Query(value = "UPDATE edge SET status = :newStatus, cascade_deleted = FALSE " +
+                   "WHERE id = :id AND status <> :newStatus",
+           nativeQuery = true)
+    int updateStatus(@Param("id") Long id, @Param("newStatus") String newStatus);
+
+    /**
+     * Cambia en un solo UPDATE el status de los edges indicados (eliminación
+     * directa, sin marca de cascada).
+     *
+     * @return Número de filas que cambiaron de estado
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "edge"))
+    @Query(value = "UPDATE edge SET status = :newStatus, cascade_deleted = FALSE " +
+                   "WHERE id IN (:ids) AND status <> :newStatus",
+           nativeQuery = true)
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("newStatus") String newStatus);
+
+    // ==================== EXPORTACIÓN (STREAM) ====================
+    //
+    // Cursor JDBC de solo lectura con fetch size 500: las filas se leen por
+    // bloques mientras se escriben (ver NdjsonExport). Requieren una
+    // transacción abierta mientras se consume el Stream.
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Edge e " +
+           "LEFT JOIN FETCH e.process p LEFT JOIN FETCH p.company " +
+           "LEFT JOIN FETCH e.activitySource LEFT JOIN FETCH e.activityDestiny ORDER BY e.id")
+    Stream<Edge> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Edge e " +
+           "JOIN FETCH e.process p LEFT JOIN FETCH p.company " +
+           "LEFT JOIN FETCH e.activitySource LEFT JOIN FETCH e.activityDestiny " +
+           "WHERE p.company.id = :companyId ORDER BY e.id")
+    Stream<Edge> streamByCompanyId(@Param("companyId") Long companyId);
 }
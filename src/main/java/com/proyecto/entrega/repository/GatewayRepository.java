@@ -1,12 +1,23 @@
 package com.proyecto.entrega.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.proyecto.entrega.entity.Gateway;
+import com.proyecto.entrega.repository.projection.GatewayRow;
+
+import jakarta.persistence.QueryHint;
 
 public interface GatewayRepository extends JpaRepository<Gateway, Long>{
 
@@ -18,6 +29,7 @@ public interface GatewayRepository extends JpaRepository<Gateway, Long>{
      * @param processId Identificador del proceso
      * @return Lista de gateways activos del proceso
      */
+    @EntityGraph(Gateway.GRAPH_DTO)
     List<Gateway> findByProcessId(Long processId);
 
     /**
@@ -35,4 +47,125 @@ public interface GatewayRepository extends JpaRepository<Gateway, Long>{
     List<Gateway> findByProcessIdAndStatus(@Param("processId") Long processId,
                                           @Param("status") String status);
 
+    /**
+     * Busca un gateway por ID ignorando el filtro de status.
+     *
+     * Útil para reactivar gateways marcados como 'inactive'.
+     */
+    @Query(value = "SELECT * FROM gateway WHERE id = :id", nativeQuery = true)
+    Optional<Gateway> findByIdIgnoreStatus(@Param("id") Long id);
+
+    // Proceso del gateway sin cargar la entidad ni aplicar el filtro @Where
+    @Query(value = "SELECT process_id FROM gateway WHERE id = :id", nativeQuery = true)
+    Long findProcessIdById(@Param("id") Long id);
+
+    // ==================== PAGINACIÓN KEYSET ====================
+    //
+    // Páginas ordenadas por id: la siguiente página empieza en id > :afterId.
+    // Ver CursorPagination.
+
+    @EntityGraph(Gateway.GRAPH_DTO)
+    List<Gateway> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @EntityGraph(Gateway.GRAPH_DTO)
+    List<Gateway> findByProcessIdAndIdGreaterThanOrderByIdAsc(Long processId, Long afterId, Limit limit);
+
+    /**
+     * Página de gateways de un proceso con un status específico (query nativa,
+     * ignora el filtro @Where), proyectada con su proceso.
+     */
+    @Query(value = "SELECT g.id AS \"id\", g.type AS \"type\", g.status AS \"status\", " +
+                   "g.x AS \"x\", g.y AS \"y\", " +
+                   "p.id AS \"processId\", p.name AS \"processName\", p.status AS \"processStatus\", " +
+                   "p.description AS \"processDescription\", " +
+                   "c.id AS \"companyId\", c.nit AS \"companyNit\", c.name AS \"companyName\", " +
+                   "c.correo_contacto AS \"companyCorreoContacto\", c.status AS \"companyStatus\" " +
+                   "FROM gateway g " +
+                   "LEFT JOIN process p ON p.id = g.process_id " +
+                   "LEFT JOIN company c ON c.id = p.company_id " +
+                   "WHERE g.process_id = :processId AND g.status = :status " +
+                   "AND g.id > :afterId ORDER BY g.id LIMIT :limit",
+           nativeQuery = true)
+    List<GatewayRow> findRowPageByProcessIdAndStatus(@Param("processId") Long processId,
+                                                     @Param("status") String status,
+                                                     @Param("afterId") Long afterId,
+                                                     @Param("limit") int limit);
+
+    /**
+     * Desactiva los gateways activos de los procesos indicados en un UPDATE en
+     * bloque, marcándolos como desactivados por la cascada; afecta como
+     * máximo :chunkSize filas.
+     *
+     * @return Número de filas actualizadas en este lote
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "gateway"))
+    @Query(value = "UPDATE gateway SET status = 'inactive', cascade_deleted = TRUE WHERE id IN (" +
+                   "SELECT id FROM gateway WHERE process_id IN (:processIds) AND status = 'active' " +
+                   "LIMIT :chunkSize)",
+           nativeQuery = true)
+    int deactivateByProcessIds(@Param("processIds") Collection<Long> processIds,
+                               @Param("chunkSize") int chunkSize);
+
+    /**
+     * Reactiva los gateways de los procesos indicados que desactivó una cascada
+     * (los eliminados a propósito siguen inactivos); afecta como máximo
+     * :chunkSize filas.
+     *
+     * @return Número de filas actualizadas en este lote
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "gateway"))
+    @Query(value = "UPDATE gateway SET status = 'active', cascade_deleted = FALSE WHERE id IN (" +
+                   "SELECT id FROM gateway WHERE process_id IN (:processIds) AND status = 'inactive' " +
+                   "AND cascade_deleted LIMIT :chunkSize)",
+           nativeQuery = true)
+    int reactivateByProcessIds(@Param("processIds") Collection<Long> processIds,
+                               @Param("chunkSize") int chunkSize);
+
+    /**
+     * Cambia el status de un gateway con un UPDATE directo.
+     *
+     * @return 1 si cambió de estado, 0 si ya tenía ese status
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "gateway"))
+    @Query(value = "UPDATE gateway SET status = :newStatus, cascade_deleted = FALSE " +
+                   "WHERE id = :id AND status <> :newStatus",
+           nativeQuery = true)
+    int updateStatus(@Param("id") Long id, @Param("newStatus") String newStatus);
+
+    /**
+     * Cambia en un solo UPDATE el status de los gateways indicados (eliminación
+     * directa: no quedan marcados como desactivados por una cascada).
+     *
+     * @return Número de filas que cambiaron de estado
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "gateway"))
+    @Query(value = "UPDATE gateway SET status = :newStatus, cascade_deleted = FALSE " +
+                   "WHERE id IN (:ids) AND status <> :newStatus",
+           nativeQuery = true)
+    int updateStatusByIds(@Param("ids") Collection<Long> ids, @Param("newStatus") String newStatus);
+
+    // ==================== EXPORTACIÓN (STREAM) ====================
+    //
+    // Cursor JDBC de solo lectura con fetch size 500: las filas se leen por
+    // bloques mientras se escriben (ver NdjsonExport). Requieren una
+    // transacción abierta mientras se consume el Stream.
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT g FROM Gateway g LEFT JOIN FETCH g.process p LEFT JOIN FETCH p.company ORDER BY g.id")
+    Stream<Gateway> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT g FROM Gateway g JOIN FETCH g.process p LEFT JOIN FETCH p.company " +
+           "WHERE p.company.id = :companyId ORDER BY g.id")
+    Stream<Gateway> streamByCompanyId(@Param("companyId") Long companyId);
 }
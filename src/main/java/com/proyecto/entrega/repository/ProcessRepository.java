@@ -1,15 +1,49 @@
 package com.proyecto.entrega.repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.proyecto.entrega.dto.ProcessSummaryDTO;
 import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.repository.projection.ProcessRow;
+
+import jakarta.persistence.QueryHint;
 
 public interface ProcessRepository extends JpaRepository<Process, Long> {
 
+    /**
+     * Columnas de ProcessRow en JPQL (proceso y su compañía).
+     */
+    String PROCESS_ROW_JPQL =
+            "SELECT p.id AS id, p.name AS name, p.status AS status, p.description AS description, " +
+            "c.id AS companyId, c.nit AS companyNit, c.name AS companyName, " +
+            "c.correoContacto AS companyCorreoContacto, c.status AS companyStatus " +
+            "FROM Process p LEFT JOIN p.company c ";
+
+    /**
+     * Columnas de ProcessRow en SQL nativo, para las consultas que deben
+     * ignorar el filtro @Where.
+     */
+    String PROCESS_ROW_SQL =
+            "SELECT p.id AS \"id\", p.name AS \"name\", p.status AS \"status\", " +
+            "p.description AS \"description\", " +
+            "c.id AS \"companyId\", c.nit AS \"companyNit\", c.name AS \"companyName\", " +
+            "c.correo_contacto AS \"companyCorreoContacto\", c.status AS \"companyStatus\" " +
+            "FROM process p LEFT JOIN company c ON c.id = p.company_id ";
+
+    // Resultado en el query cache; los ids se resuelven contra la región "process"
+    @EntityGraph(Process.GRAPH_DTO)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Process> findByCompanyId(Long id);
     
     /**
@@ -36,4 +70,136 @@ public interface ProcessRepository extends JpaRepository<Process, Long> {
         */
        boolean existsByNameAndCompanyId(String name, Long companyId);
 
-}
\ No newline at end of file
+    /**
+     * Busca un proceso por ID ignorando el filtro de status.
+     *
+     * Útil para reactivar procesos marcados como 'inactive'.
+     */
+    @Query(value = "SELECT * FROM process WHERE id = :id", nativeQuery = true)
+    Optional<Process> findByIdIgnoreStatus(@Param("id") Long id);
+
+    // ==================== PAGINACIÓN KEYSET ====================
+    //
+    // Páginas ordenadas por id: la siguiente página empieza en id > :afterId.
+    // Ver CursorPagination.
+
+    // Los listados se leen como proyecciones: solo las columnas del DTO, sin
+    // cargar entidades ni pasar por el contexto de persistencia.
+
+    @Query(PROCESS_ROW_JPQL + "WHERE p.id > :afterId ORDER BY p.id")
+    List<ProcessRow> findRowsByIdGreaterThan(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(PROCESS_ROW_JPQL + "WHERE p.company.id = :companyId AND p.id > :afterId ORDER BY p.id")
+    List<ProcessRow> findRowsByCompanyId(@Param("companyId") Long companyId,
+                                         @Param("afterId") Long afterId,
+                                         Limit limit);
+
+    /**
+     * Resumen (id, nombre, descripción) de los procesos de una compañía, sin
+     * el join con company.
+     */
+    @Query("SELECT new com.proyecto.entrega.dto.ProcessSummaryDTO(p.id, p.name, p.description) " +
+           "FROM Process p WHERE p.company.id = :companyId AND p.id > :afterId ORDER BY p.id")
+    List<ProcessSummaryDTO> findSummariesByCompanyId(@Param("companyId") Long companyId,
+                                                     @Param("afterId") Long afterId,
+                                                     Limit limit);
+
+    /**
+     * Página de procesos de una compañía con un status específico (query nativa,
+     * ignora el filtro @Where).
+     */
+    @Query(value = PROCESS_ROW_SQL +
+                   "WHERE p.company_id = :companyId AND p.status = :status " +
+                   "AND p.id > :afterId ORDER BY p.id LIMIT :limit",
+           nativeQuery = true)
+    List<ProcessRow> findRowPageByCompanyIdAndStatus(@Param("companyId") Long companyId,
+                                                     @Param("status") String status,
+                                                     @Param("afterId") Long afterId,
+                                                     @Param("limit") int limit);
+
+    // ==================== VERSIÓN DE CAMBIOS ====================
+    //
+    // change_version solo la tocan estas queries nativas (ver ChangeVersions).
+    // El UPDATE declara su propio espacio para que Hibernate no desaloje la
+    // región "process" del cache de segundo nivel: ninguna columna mapeada cambia.
+
+    String CHANGE_VERSION_SPACE = "change_version";
+
+    /**
+     * Sube la versión de cambios del proceso, en la transacción de la escritura.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = CHANGE_VERSION_SPACE))
+    @Query(value = "UPDATE process SET change_version = change_version + 1 WHERE id = :id", nativeQuery = true)
+    int bumpChangeVersion(@Param("id") Long id);
+
+    /**
+     * Versión del proceso y de su compañía ("proceso.compañía"), ignorando el
+     * filtro @Where. Vacío si el proceso no existe.
+     */
+    @Query(value = "SELECT CONCAT(p.change_version, '.', COALESCE(c.change_version, 0)) " +
+                   "FROM process p LEFT JOIN company c ON c.id = p.company_id WHERE p.id = :id",
+           nativeQuery = true)
+    Optional<String> findChangeVersion(@Param("id") Long id);
+
+    /**
+     * Versión de los listados globales: suma de las versiones de todas las
+     * compañías y de todos los procesos ("compañías.procesos").
+     */
+    @Query(value = "SELECT CONCAT((SELECT COALESCE(SUM(change_version), 0) FROM company), '.', " +
+                   "(SELECT COALESCE(SUM(change_version), 0) FROM process))",
+           nativeQuery = true)
+    String findGlobalChangeVersion();
+
+    /**
+     * Obtiene los ids de todos los procesos de una empresa, sin importar su status.
+     */
+    @Query(value = "SELECT id FROM process WHERE company_id = :companyId", nativeQuery = true)
+    List<Long> findIdsByCompanyId(@Param("companyId") Long companyId);
+
+    /**
+     * Ids de los procesos activos de una empresa.
+     */
+    @Query(value = "SELECT id FROM process WHERE company_id = :companyId AND status = 'active'", nativeQuery = true)
+    List<Long> findActiveIdsByCompanyId(@Param("companyId") Long companyId);
+
+    /**
+     * Desactiva los procesos activos de una empresa en un UPDATE en bloque,
+     * marcándolos como desactivados por la cascada.
+     *
+     * @return Número de procesos que cambiaron de estado
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "process"))
+    @Query(value = "UPDATE process SET status = 'inactive', cascade_deleted = TRUE " +
+                   "WHERE company_id = :companyId AND status = 'active'",
+           nativeQuery = true)
+    int deactivateByCompanyId(@Param("companyId") Long companyId);
+
+    /**
+     * Reactiva los procesos de una empresa que desactivó una cascada; los
+     * eliminados a propósito siguen inactivos.
+     *
+     * @return Número de procesos que cambiaron de estado
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "process"))
+    @Query(value = "UPDATE process SET status = 'active', cascade_deleted = FALSE " +
+                   "WHERE company_id = :companyId AND status = 'inactive' AND cascade_deleted",
+           nativeQuery = true)
+    int reactivateByCompanyId(@Param("companyId") Long companyId);
+
+    /**
+     * Cambia el status de un proceso con un UPDATE directo.
+     *
+     * @return 1 si cambió de estado, 0 si ya tenía ese status
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "process"))
+    @Query(value = "UPDATE process SET status = :newStatus, cascade_deleted = FALSE " +
+                   "WHERE id = :id AND status <> :newStatus",
+           nativeQuery = true)
+    int updateStatus(@Param("id") Long id, @Param("newStatus") String newStatus);
+
+}
@@ -2,10 +2,50 @@ package com.proyecto.entrega.repository;
 
 import java.util.List;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import com.proyecto.entrega.entity.Role;
+import com.proyecto.entrega.repository.projection.RoleRow;
+
+import jakarta.persistence.QueryHint;
 
 
 public interface RoleRepository extends JpaRepository<Role, Long>{
+    // Resultado en el query cache; se invalida con cualquier escritura en role
+    @EntityGraph(Role.GRAPH_DTO)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Role> findByCompanyId(Long id);
+
+    // Paginación keyset (ver CursorPagination)
+    @EntityGraph(Role.GRAPH_DTO)
+    List<Role> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Roles de una compañía como proyección (sin cargar entidades)
+    @Query("SELECT r.id AS id, r.nombre AS nombre, r.descripcion AS descripcion, r.status AS status, " +
+           "c.id AS companyId, c.nit AS companyNit, c.name AS companyName, " +
+           "c.correoContacto AS companyCorreoContacto, c.status AS companyStatus " +
+           "FROM Role r LEFT JOIN r.company c " +
+           "WHERE r.company.id = :companyId AND r.id > :afterId ORDER BY r.id")
+    List<RoleRow> findRowsByCompanyId(@Param("companyId") Long companyId, @Param("afterId") Long afterId,
+                                      Limit limit);
+
+    /**
+     * Cambia el status de un rol con un UPDATE directo. Declara la tabla role
+     * como espacio de la query: Hibernate desaloja solo la región "role" del
+     * cache de segundo nivel, y el rol inactivo no se vuelve a servir desde
+     * ahí saltándose el filtro @Where.
+     *
+     * @return 1 si cambió de estado, 0 si ya tenía ese status
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "role"))
+    @Query(value = "UPDATE role SET status = :newStatus WHERE id = :id AND status <> :newStatus",
+           nativeQuery = true)
+    int updateStatus(@Param("id") Long id, @Param("newStatus") String newStatus);
 }
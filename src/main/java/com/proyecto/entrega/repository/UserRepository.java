@@ -2,16 +2,42 @@ package com.proyecto.entrega.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.proyecto.entrega.entity.User;
+import com.proyecto.entrega.repository.projection.UserRow;
 
 public interface UserRepository extends JpaRepository<User, Long>{
 
     boolean existsByCorreo(String correo);
+    @EntityGraph(User.GRAPH_DTO)
     List<User> findByCompanyIdAndIdNot(Long id, Long excludedUserId);
+
+    @EntityGraph(User.GRAPH_DTO)
     User findByCorreo(String correo);
 
+    // Paginación keyset (ver CursorPagination)
+    @EntityGraph(User.GRAPH_DTO)
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Usuarios de una compañía como proyección (sin contraseña ni entidades)
+    @Query("SELECT u.id AS id, u.nombre AS nombre, u.correo AS correo, u.status AS status, " +
+           "c.id AS companyId, c.nit AS companyNit, c.name AS companyName, " +
+           "c.correoContacto AS companyCorreoContacto, c.status AS companyStatus, " +
+           "r.id AS roleId, r.nombre AS roleNombre, r.descripcion AS roleDescripcion, r.status AS roleStatus " +
+           "FROM User u LEFT JOIN u.company c LEFT JOIN u.role r " +
+           "WHERE u.company.id = :companyId AND u.id <> :excludedUserId AND u.id > :afterId ORDER BY u.id")
+    List<UserRow> findRowsByCompanyIdExcluding(@Param("companyId") Long companyId,
+                                               @Param("excludedUserId") Long excludedUserId,
+                                               @Param("afterId") Long afterId,
+                                               Limit limit);
+
+    // Re-hash de la contraseña tras un login exitoso (solo la columna)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.contrasena = :contrasena WHERE u.id = :id")
+    int updateContrasena(@Param("id") Long id, @Param("contrasena") String contrasena);
 }
-
-
-
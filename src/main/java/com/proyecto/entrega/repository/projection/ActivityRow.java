@@ -0,0 +1,50 @@
+package com.proyecto.entrega.repository.projection;
+
+/**
+ * ActivityRow - Activity con su proceso (y la compañía de este) y su rol
+ * (y la compañía de este), leída como proyección
+ */
+public interface ActivityRow extends CompanyColumns {
+
+    Long getId();
+
+    String getName();
+
+    Double getX();
+
+    Double getY();
+
+    String getDescription();
+
+    Double getWidth();
+
+    Double getHeight();
+
+    String getStatus();
+
+    Long getProcessId();
+
+    String getProcessName();
+
+    String getProcessStatus();
+
+    String getProcessDescription();
+
+    Long getRoleId();
+
+    String getRoleNombre();
+
+    String getRoleDescripcion();
+
+    String getRoleStatus();
+
+    Long getRoleCompanyId();
+
+    Long getRoleCompanyNit();
+
+    String getRoleCompanyName();
+
+    String getRoleCompanyCorreoContacto();
+
+    String getRoleCompanyStatus();
+}
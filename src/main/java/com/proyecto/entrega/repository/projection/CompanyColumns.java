@@ -0,0 +1,19 @@
+package com.proyecto.entrega.repository.projection;
+
+/**
+ * Columnas de la compañía asociada a una fila proyectada.
+ *
+ * Los alias de la query deben llamarse company*, p. ej. "companyName".
+ */
+public interface CompanyColumns {
+
+    Long getCompanyId();
+
+    Long getCompanyNit();
+
+    String getCompanyName();
+
+    String getCompanyCorreoContacto();
+
+    String getCompanyStatus();
+}
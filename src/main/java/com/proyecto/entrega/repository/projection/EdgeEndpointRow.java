@@ -0,0 +1,37 @@
+package com.proyecto.entrega.repository.projection;
+
+/**
+ * EdgeEndpointRow - Activity extremo de un edge legacy con su proceso,
+ * leída como proyección
+ *
+ * Se lee con query nativa, sin el filtro @Where: el extremo de un edge
+ * inactivo puede estar inactivo también.
+ */
+public interface EdgeEndpointRow {
+
+    Long getId();
+
+    String getName();
+
+    Double getX();
+
+    Double getY();
+
+    String getDescription();
+
+    Double getWidth();
+
+    Double getHeight();
+
+    String getStatus();
+
+    Long getVersion();
+
+    Long getProcessId();
+
+    String getProcessName();
+
+    String getProcessStatus();
+
+    String getProcessDescription();
+}
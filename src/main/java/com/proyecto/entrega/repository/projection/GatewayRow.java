@@ -0,0 +1,26 @@
+package com.proyecto.entrega.repository.projection;
+
+/**
+ * GatewayRow - Gateway con su proceso (y la compañía de este), leído como
+ * proyección
+ */
+public interface GatewayRow extends CompanyColumns {
+
+    Long getId();
+
+    String getType();
+
+    String getStatus();
+
+    Double getX();
+
+    Double getY();
+
+    Long getProcessId();
+
+    String getProcessName();
+
+    String getProcessStatus();
+
+    String getProcessDescription();
+}
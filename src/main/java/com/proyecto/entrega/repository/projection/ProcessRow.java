@@ -0,0 +1,18 @@
+package com.proyecto.entrega.repository.projection;
+
+/**
+ * ProcessRow - Proceso con su compañía, leído como proyección
+ *
+ * Solo las columnas que expone ProcessDTO: no se cargan entidades ni pasan
+ * por el contexto de persistencia.
+ */
+public interface ProcessRow extends CompanyColumns {
+
+    Long getId();
+
+    String getName();
+
+    String getStatus();
+
+    String getDescription();
+}
@@ -0,0 +1,15 @@
+package com.proyecto.entrega.repository.projection;
+
+/**
+ * RoleRow - Rol con su compañía, leído como proyección
+ */
+public interface RoleRow extends CompanyColumns {
+
+    Long getId();
+
+    String getNombre();
+
+    String getDescripcion();
+
+    String getStatus();
+}
@@ -0,0 +1,25 @@
+package com.proyecto.entrega.repository.projection;
+
+/**
+ * UserRow - Usuario con su compañía y su rol básico, leído como proyección
+ *
+ * No incluye la contraseña: se mapea a UserSafeDTO.
+ */
+public interface UserRow extends CompanyColumns {
+
+    Long getId();
+
+    String getNombre();
+
+    String getCorreo();
+
+    String getStatus();
+
+    Long getRoleId();
+
+    String getRoleNombre();
+
+    String getRoleDescripcion();
+
+    String getRoleStatus();
+}
@@ -0,0 +1,66 @@
+package com.proyecto.entrega.security;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.entrega.exception.ServiceUnavailableException;
+
+/**
+ * AuthBulkhead - Límite de logins y registros simultáneos
+ *
+ * Login y registro comparten los hilos de Tomcat con el resto de la API y
+ * son las operaciones más costosas (BCrypt, varias escrituras). Con este
+ * límite, una ráfaga de logins ocupa como máximo max-concurrent hilos; el
+ * resto espera hasta max-wait y luego recibe 503.
+ */
+@Component
+public class AuthBulkhead {
+
+    private final Semaphore permits;
+    private final long maxWaitMillis;
+    private final LongAdder rejected = new LongAdder();
+
+    public AuthBulkhead(@Value("${app.auth.bulkhead.max-concurrent:8}") int maxConcurrent,
+            @Value("${app.auth.bulkhead.max-wait:500ms}") Duration maxWait) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitMillis = maxWait.toMillis();
+    }
+
+    /**
+     * Ejecuta action si hay un cupo libre (o se libera dentro de max-wait).
+     *
+     * @throws ServiceUnavailableException si no hay cupo
+     */
+    public <T> T call(Supplier<T> action) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Solicitud interrumpida");
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Demasiados inicios de sesión simultáneos, intente de nuevo en unos segundos");
+        }
+        try {
+            return action.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int available() {
+        return permits.availablePermits();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,65 @@
+package com.proyecto.entrega.security;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BcryptCalibration - Costo de BCrypt según la latencia objetivo
+ *
+ * Mide en el arranque cuánto tarda un hash con el costo mínimo y elige el
+ * mayor costo cuyo tiempo estimado no supera el objetivo. Cada punto de
+ * costo duplica el trabajo, así que basta medir un solo costo y
+ * extrapolar: costo = mínimo + floor(log2(objetivo / medido)).
+ *
+ * El resultado se acota a [minCost, maxCost]; en un equipo lento nunca
+ * baja del mínimo configurado.
+ */
+public final class BcryptCalibration {
+
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibracion-bcrypt";
+
+    private BcryptCalibration() {
+    }
+
+    /**
+     * @param target Tiempo objetivo por hash
+     * @param minCost Costo mínimo aceptado (4..31)
+     * @param maxCost Costo máximo aceptado (minCost..31)
+     * @return Costo de BCrypt elegido
+     */
+    public static int calibrate(Duration target, int minCost, int maxCost) {
+        if (minCost < 4 || maxCost > 31 || minCost > maxCost) {
+            throw new IllegalArgumentException("Rango de costo BCrypt inválido: " + minCost + ".." + maxCost);
+        }
+        long measured = medianNanos(new BCryptPasswordEncoder(minCost));
+        return costFor(target.toNanos(), measured, minCost, maxCost);
+    }
+
+    /**
+     * Costo a partir de una medición con minCost (separado para probarlo sin
+     * depender del equipo).
+     */
+    static int costFor(long targetNanos, long measuredNanos, int minCost, int maxCost) {
+        if (measuredNanos <= 0 || targetNanos <= measuredNanos) {
+            return minCost;
+        }
+        int extra = 63 - Long.numberOfLeadingZeros(targetNanos / measuredNanos);
+        return Math.min(maxCost, minCost + extra);
+    }
+
+    private static long medianNanos(BCryptPasswordEncoder encoder) {
+        // La primera ejecución calienta el JIT y no se cuenta
+        encoder.encode(SAMPLE_PASSWORD);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[SAMPLES / 2];
+    }
+}
@@ -0,0 +1,99 @@
+package com.proyecto.entrega.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.proyecto.entrega.exception.CryptographicException;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * JwtClaimsCache - Claims de tokens ya verificados
+ *
+ * Evita repetir la verificación HMAC y el parseo del JWT en cada petición
+ * de un mismo token. La clave es el SHA-256 del token (no se guarda el
+ * token), cada entrada expira junto con el token y el tamaño está acotado.
+ * Solo se guardan tokens válidos: un token inválido lanza la excepción de
+ * la verificación y no entra al cache.
+ *
+ * Registra aciertos y fallos (stats()).
+ */
+@Component
+public class JwtClaimsCache {
+
+    private final Cache<String, Claims> cache;
+
+    public JwtClaimsCache(@Value("${app.jwt.claims-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiration())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Claims del token: del cache si ya fue verificado, o de verifier si no.
+     *
+     * @param token Token JWT
+     * @param verifier Verificación completa del token (firma y expiración)
+     */
+    public Claims get(String token, Function<String, Claims> verifier) {
+        return cache.get(hash(token), key -> verifier.apply(token));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new CryptographicException("Error al generar hash SHA-256", e);
+        }
+    }
+
+    /**
+     * Cada entrada vive hasta la expiración (exp) de su token; sin exp no se
+     * guarda.
+     */
+    private static final class UntilTokenExpiration implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            long millis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,67 +1,116 @@
 package com.proyecto.entrega.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import com.proyecto.entrega.config.RequestIdFilter;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(JwtFilter.class);
+
+    /**
+     * Authority de los operadores de la plataforma (app.admin.operator-ids).
+     * Sin prefijo ROLE_: ningún rol de compañía puede coincidir con ella.
+     */
+    public static final String PLATFORM_OPERATOR = "PLATFORM_OPERATOR";
+
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    // Ids de usuario (subject del token) de los operadores de la plataforma
+    @Value("${app.admin.operator-ids:}")
+    private Set<String> operatorIds;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
         String path = request.getRequestURI();
         String method = request.getMethod();
 
-        System.out.println("JwtFilter - Request: " + method + " " + path);
+        // Scrape de Prometheus y health checks por el puerto de management:
+        // sin token ni límite
+        if (isManagementRequest(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
         if (path.startsWith("/auth/swagger-ui") || path.equals("/auth/swagger-ui.html")
                 || path.equals("/auth/v3/api-docs") || path.startsWith("/auth/v3/api-docs")
                 || (path.startsWith("/auth/auth") && !path.startsWith("/auth/auth/renew-token"))) {
-            System.out.println("JwtFilter - Bypassing JWT check for path: " + path);
+            if (rateLimited(RateLimiter.Scope.PUBLIC, request.getRemoteAddr(), request, response)) {
+                return;
+            }
             filterChain.doFilter(request, response);
             return;
         }
 
         // Login
         if (path.equals("/api/login") && method.equals("POST")) {
-            System.out.println("JwtFilter - Ruta pública (Login): " + path);
+            if (rateLimited(RateLimiter.Scope.PUBLIC, request.getRemoteAddr(), request, response)) {
+                return;
+            }
             filterChain.doFilter(request, response);
             return;
         }
 
         // Registro
         if (path.startsWith("/api/register")) {
-            System.out.println("JwtFilter - Ruta pública (Registro): " + path);
+            if (rateLimited(RateLimiter.Scope.PUBLIC, request.getRemoteAddr(), request, response)) {
+                return;
+            }
             filterChain.doFilter(request, response);
             return;
         }
 
         // Creación de usuarios
         if (path.equals("/api/user") && method.equals("POST")) {
-            System.out.println("JwtFilter - Ruta pública (Crear usuario): " + path);
+            if (rateLimited(RateLimiter.Scope.PUBLIC, request.getRemoteAddr(), request, response)) {
+                return;
+            }
             filterChain.doFilter(request, response);
             return;
         }
 
-        System.out.println("JwtFilter - Ruta protegida, validando JWT...");
-
         String authHeader = request.getHeader("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.out.println("JwtFilter - No hay token, acceso denegado");
+            log.debug("Sin token, acceso denegado: {} {}", method, path);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
             response.setCharacterEncoding("UTF-8");
@@ -76,8 +125,10 @@ public class JwtFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7);
 
-        if (!jwtUtil.validateToken(token)) {
-            System.out.println("JwtFilter - Token inválido o expirado");
+        Claims claims = verify(token);
+
+        if (claims == null) {
+            log.debug("Token inválido o expirado: {} {}", method, path);
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
             response.setCharacterEncoding("UTF-8");
@@ -90,19 +141,88 @@ public class JwtFilter extends OncePerRequestFilter {
             return;
         }
 
-        // Token válido, establecer autenticación
-        String email = jwtUtil.extractEmail(token);
-        String role = jwtUtil.extractRole(token);
+        // Límite por compañía (tokens anteriores sin cid: por IP)
+        Object companyId = claims.get(JwtUtil.CLAIM_COMPANY);
+        if (companyId != null) {
+            MDC.put(RequestIdFilter.COMPANY_ID, companyId.toString());
+        }
+        MDC.put(RequestIdFilter.USER_ID, claims.getSubject());
+        String limitKey = companyId != null ? companyId.toString() : "ip:" + request.getRemoteAddr();
+        if (rateLimited(RateLimiter.Scope.COMPANY, limitKey, request, response)) {
+            return;
+        }
+
+        // Token válido, establecer autenticación (subject = id del usuario)
+        String userId = claims.getSubject();
+        String role = claims.get("role", String.class);
+
+        List<GrantedAuthority> authorities = new ArrayList<>(2);
+        authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+        if (operatorIds.contains(userId)) {
+            authorities.add(new SimpleGrantedAuthority(PLATFORM_OPERATOR));
+        }
 
         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                email,
+                userId,
                 token,
-                java.util.Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
+                authorities);
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        System.out.println("JwtFilter - Token válido para: " + email);
 
         // Continuar con la petición
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Petición recibida por el puerto de management (actuator). Solo existe
+     * si management.server.port está fijado y es distinto del de la API;
+     * ese puerto no se publica fuera de la red interna.
+     */
+    boolean isManagementRequest(HttpServletRequest request) {
+        return managementPort > 0 && managementPort != serverPort && request.getLocalPort() == managementPort;
+    }
+
+    /**
+     * Valida el token dentro del span app.jwt.validation (valid=true/false).
+     */
+    private Claims verify(String token) {
+        Observation observation = Observation.start("app.jwt.validation", observationRegistry);
+        try (Observation.Scope scope = observation.openScope()) {
+            Claims claims = jwtUtil.verifiedClaims(token);
+            observation.lowCardinalityKeyValue("valid", String.valueOf(claims != null));
+            return claims;
+        } catch (RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * Consume un token del límite de la clave; si no hay, responde 429 con
+     * Retry-After (segundos hasta el próximo token).
+     *
+     * @return true si la petición fue rechazada y ya se respondió
+     */
+    private boolean rateLimited(RateLimiter.Scope scope, String key, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        long waitNanos = rateLimiter.tryAcquire(scope, key);
+        if (waitNanos == 0) {
+            return false;
+        }
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.info("Límite de peticiones excedido ({}): {}", scope, key);
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(retryAfter));
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        String errorJson = String.format(
+                "{\"timestamp\":\"%s\",\"status\":429,\"error\":\"Too Many Requests\",\"message\":\"Límite de peticiones excedido\",\"path\":\"%s\"}",
+                java.time.LocalDateTime.now().toString(),
+                request.getRequestURI());
+        response.getWriter().write(errorJson);
+        return true;
+    }
+}
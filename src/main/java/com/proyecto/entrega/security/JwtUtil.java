@@ -6,6 +6,7 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
+import java.util.function.Function;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
@@ -14,6 +15,7 @@ import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
@@ -27,6 +29,8 @@ import com.proyecto.entrega.exception.InvalidTokenException;
 import com.proyecto.entrega.exception.TokenExpiredException;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.Jwts.SIG;
 
@@ -35,6 +39,24 @@ public class JwtUtil {
     private final SecretKey SECRET_KEY = generateSecretKey();
     private final long EXPIRATION = 1000 * 60 * 60 * 72; // 72 horas
 
+    /**
+     * Versión del formato del token. Los tokens sin el claim "v" son del
+     * formato anterior, con el UserSafeDTO serializado en el subject.
+     */
+    static final int TOKEN_VERSION = 2;
+    static final String CLAIM_VERSION = "v";
+    static final String CLAIM_COMPANY = "cid";
+    static final String CLAIM_ROLE_ID = "rid";
+
+    // Solo para el formato anterior y appAuthorized; ObjectMapper es thread-safe
+    private static final ObjectMapper LEGACY_MAPPER = new ObjectMapper();
+
+    // Parser inmutable y thread-safe: se construye una sola vez
+    private final JwtParser parser = Jwts.parser().verifyWith(SECRET_KEY).build();
+
+    @Autowired
+    private JwtClaimsCache claimsCache;
+
     private static SecretKey generateSecretKey() {
         String secret = System.getenv("JWT_SECRET");
         if (secret == null || secret.trim().isEmpty()) {
@@ -66,6 +88,27 @@ public class JwtUtil {
         return new SecretKeySpec(keyBytes, SIG.HS256.key().build().getAlgorithm());
     }
 
+    /**
+     * Genera un token compacto: subject = id del usuario, más los ids de
+     * compañía y rol y la versión del formato. El UserSafeDTO completo se
+     * resuelve en el servidor (UserService.findPrincipal).
+     *
+     * @param user Usuario autenticado (solo se usan sus ids)
+     * @param role Nombre del rol para las authorities
+     */
+    public String generateToken(UserSafeDTO user, String role) {
+        return Jwts.builder()
+                .subject(String.valueOf(user.getId()))
+                .claim(CLAIM_COMPANY, user.getCompanyId())
+                .claim(CLAIM_ROLE_ID, user.getRoleId())
+                .claim("role", role)
+                .claim(CLAIM_VERSION, TOKEN_VERSION)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + EXPIRATION))
+                .signWith(SECRET_KEY)
+                .compact();
+    }
+
     public String generateToken(String jusuario, String role) {
         return Jwts.builder()
                 .subject(jusuario)
@@ -76,6 +119,25 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Verifica el token una sola vez y devuelve sus claims.
+     *
+     * Camino rápido de JwtFilter: reemplaza a validateToken + extractEmail +
+     * extractRole, que verificaban el mismo token tres veces. Los tokens ya
+     * verificados se toman de JwtClaimsCache hasta que expiran.
+     *
+     * @param token Token JWT
+     * @return Claims del token, o null si es inválido o está expirado
+     */
+    public Claims verifiedClaims(String token) {
+        try {
+            Claims claims = claimsCache.get(token, this::getClaims);
+            return claims.getExpiration().before(new Date()) ? null : claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public String extractEmail(String token) {
         return getClaims(token).getSubject();
     }
@@ -109,10 +171,11 @@ public class JwtUtil {
      * Recibe Authentication, extrae el token JWT del principal, lo valida y genera
      * uno nuevo.
      * 
+     * @param principals Resuelve el usuario a partir de su id
      * @throws JsonProcessingException
      * @throws JsonMappingException
      */
-    public AuthorizedDTO renewToken(Authentication authentication)
+    public AuthorizedDTO renewToken(Authentication authentication, Function<Long, UserSafeDTO> principals)
             throws JsonMappingException, JsonProcessingException {
 
         if (authentication == null || authentication.getPrincipal() == null) {
@@ -131,7 +194,7 @@ public class JwtUtil {
             throw new InvalidTokenException("Token inválido");
         }
 
-        return getAuthorized(token);
+        return getAuthorized(token, principals);
     }
 
     public AuthorizedDTO appAuthorized(String token)
@@ -140,10 +203,9 @@ public class JwtUtil {
         String skey = System.getenv("JWT_SECRET_APP");
         SecretKey SECRET_KEY_APP = generateKeyFromText(skey);
         String susuario = decrypt(token, SECRET_KEY_APP);
-        ObjectMapper objectMapper = new ObjectMapper();
-        UserSafeDTO user = objectMapper.readValue(susuario, UserSafeDTO.class);
+        UserSafeDTO user = LEGACY_MAPPER.readValue(susuario, UserSafeDTO.class);
 
-        String newToken = generateToken(susuario, "APP_USER");
+        String newToken = generateToken(user, "APP_USER");
         return new AuthorizedDTO(user, newToken, "Bearer");
     }
 
@@ -168,13 +230,24 @@ public class JwtUtil {
         return new SecretKeySpec(keyBytes, "AES");
     }
 
-    public AuthorizedDTO getAuthorized(String token) throws JsonMappingException, JsonProcessingException {
+    /**
+     * Emite un token compacto nuevo para el usuario del token recibido.
+     *
+     * Con el formato actual el usuario se resuelve por id con principals
+     * (sin parsear JSON). Los tokens del formato anterior aún vigentes se
+     * leen del subject una última vez y se reemplazan por uno compacto.
+     */
+    public AuthorizedDTO getAuthorized(String token, Function<Long, UserSafeDTO> principals)
+            throws JsonMappingException, JsonProcessingException {
 
-        String jusuario = getClaims(token).getSubject();
-        // String role = (String) getClaims(token).get("role");
-        ObjectMapper objectMapper = new ObjectMapper();
-        UserSafeDTO user = objectMapper.readValue(jusuario, UserSafeDTO.class);
-        String newToken = generateToken(jusuario, "APP_USER");
+        Claims claims = getClaims(token);
+        UserSafeDTO user;
+        if (claims.get(CLAIM_VERSION) != null) {
+            user = principals.apply(Long.valueOf(claims.getSubject()));
+        } else {
+            user = LEGACY_MAPPER.readValue(claims.getSubject(), UserSafeDTO.class);
+        }
+        String newToken = generateToken(user, "APP_USER");
 
         return new AuthorizedDTO(user, newToken, "Bearer");
     }
@@ -249,11 +322,7 @@ public class JwtUtil {
     }
 
     private Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(SECRET_KEY)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public SecretKey generateKey() {
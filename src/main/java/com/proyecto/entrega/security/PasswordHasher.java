@@ -0,0 +1,113 @@
+package com.proyecto.entrega.security;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.entrega.exception.CryptographicException;
+import com.proyecto.entrega.exception.ServiceUnavailableException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * PasswordHasher - Hash y verificación de contraseñas en un pool acotado
+ *
+ * BCrypt consume CPU a propósito; si corre en los hilos de Tomcat, una
+ * ráfaga de logins los ocupa todos y el resto de la API deja de responder.
+ * Aquí cada encode/matches se ejecuta en un pool propio de pocos hilos con
+ * una cola acotada: cuando la cola está llena, o la espera supera el
+ * timeout, se responde 503 (ServiceUnavailableException) en lugar de
+ * acumular peticiones.
+ *
+ * upgradeEncoding no hashea (solo lee el prefijo y el costo) y se ejecuta
+ * en el hilo que llama.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+            @Value("${app.password.hashing.threads:0}") int threads,
+            @Value("${app.password.hashing.queue-size:64}") int queueSize,
+            @Value("${app.password.hashing.timeout:5s}") Duration timeout) {
+        // 0 = la mitad de los núcleos, para dejar CPU libre a la API
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeout.toMillis();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Indica si el hash guardado usa parámetros anteriores (otro algoritmo,
+     * sin prefijo {id} o con menor costo) y debe regenerarse.
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Tareas en cola o en ejecución.
+     */
+    public int pending() {
+        return executor.getQueue().size() + executor.getActiveCount();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Servidor ocupado, intente de nuevo en unos segundos");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceUnavailableException("Servidor ocupado, intente de nuevo en unos segundos");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Solicitud interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new CryptographicException("Error al procesar la contraseña", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
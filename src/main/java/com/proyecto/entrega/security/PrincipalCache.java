@@ -0,0 +1,62 @@
+package com.proyecto.entrega.security;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.proyecto.entrega.dto.UserSafeDTO;
+
+/**
+ * PrincipalCache - Usuarios autenticados resueltos por id
+ *
+ * El token JWT solo lleva ids (usuario, compañía, rol); el UserSafeDTO
+ * completo se resuelve en el servidor y se guarda aquí. UserService
+ * invalida la entrada al actualizar o eliminar el usuario, y cada entrada
+ * expira de todas formas tras un tiempo para acotar datos obsoletos si
+ * el usuario cambia por otro camino (por ejemplo, su compañía o rol).
+ *
+ * Registra aciertos y fallos (stats()).
+ */
+@Component
+public class PrincipalCache {
+
+    private final Cache<Long, UserSafeDTO> cache;
+
+    public PrincipalCache(@Value("${app.jwt.principal-cache.max-size:10000}") long maxSize,
+            @Value("${app.jwt.principal-cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Usuario del cache, o resuelto con loader si no está.
+     *
+     * @param userId Id del usuario (subject del token)
+     * @param loader Consulta del usuario en base de datos
+     */
+    public UserSafeDTO get(Long userId, Function<Long, UserSafeDTO> loader) {
+        return cache.get(userId, loader);
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
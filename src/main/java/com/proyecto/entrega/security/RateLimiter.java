@@ -0,0 +1,93 @@
+package com.proyecto.entrega.security;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * RateLimiter - Límite de peticiones por compañía y por IP
+ *
+ * Una cubeta de tokens (TokenBucket) por clave:
+ *  - COMPANY: rutas protegidas, clave = id de compañía del JWT (claim cid)
+ *  - PUBLIC: rutas públicas (login, registro, ...), clave = IP del cliente
+ *    (detrás del Ingress, la que informa en X-Forwarded-For; ver
+ *    server.forward-headers-strategy)
+ *
+ * Las cubetas viven en un cache acotado y se descartan tras un tiempo sin
+ * uso; una cubeta nueva empieza llena, así que descartarla nunca restringe
+ * de más. Cuenta peticiones permitidas y rechazadas por ámbito
+ * (allowed/rejected).
+ */
+@Component
+public class RateLimiter {
+
+    public enum Scope {
+        COMPANY, PUBLIC
+    }
+
+    private record Limit(long capacity, double refillPerSecond) {
+    }
+
+    private final boolean enabled;
+    private final Map<Scope, Limit> limits = new EnumMap<>(Scope.class);
+    private final Map<Scope, LongAdder> allowed = new EnumMap<>(Scope.class);
+    private final Map<Scope, LongAdder> rejected = new EnumMap<>(Scope.class);
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimiter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.company.capacity:200}") long companyCapacity,
+            @Value("${app.rate-limit.company.refill-per-second:100}") double companyRefill,
+            @Value("${app.rate-limit.public.capacity:20}") long publicCapacity,
+            @Value("${app.rate-limit.public.refill-per-second:5}") double publicRefill,
+            @Value("${app.rate-limit.max-keys:100000}") long maxKeys,
+            @Value("${app.rate-limit.idle-expiration:10m}") Duration idleExpiration) {
+        this.enabled = enabled;
+        limits.put(Scope.COMPANY, new Limit(companyCapacity, companyRefill));
+        limits.put(Scope.PUBLIC, new Limit(publicCapacity, publicRefill));
+        for (Scope scope : Scope.values()) {
+            allowed.put(scope, new LongAdder());
+            rejected.put(scope, new LongAdder());
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleExpiration)
+                .build();
+    }
+
+    /**
+     * Consume un token de la cubeta de la clave.
+     *
+     * @return 0 si la petición puede continuar; si no, nanosegundos a esperar
+     */
+    public long tryAcquire(Scope scope, String key) {
+        if (!enabled) {
+            return 0;
+        }
+        Limit limit = limits.get(scope);
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(scope.name() + ":" + key,
+                k -> new TokenBucket(limit.capacity(), limit.refillPerSecond(), now));
+        long wait = bucket.tryConsume(now);
+        (wait == 0 ? allowed : rejected).get(scope).increment();
+        return wait;
+    }
+
+    public long allowed(Scope scope) {
+        return allowed.get(scope).sum();
+    }
+
+    public long rejected(Scope scope) {
+        return rejected.get(scope).sum();
+    }
+
+    public long trackedKeys() {
+        return buckets.estimatedSize();
+    }
+}
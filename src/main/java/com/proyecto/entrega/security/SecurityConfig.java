@@ -1,27 +1,61 @@
 package com.proyecto.entrega.security;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.http.HttpMethod;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
     
     @Autowired
     private JwtFilter jwtFilter;
 
+    /**
+     * Encoder con prefijo {id}: los hashes nuevos usan BCrypt con el costo
+     * calibrado para app.password.target-latency (o app.password.bcrypt-cost
+     * si se fija); también verifica PBKDF2. Los hashes sin prefijo (BCrypt
+     * anterior) se verifican con BCrypt y upgradeEncoding los marca para
+     * re-hashear en el siguiente login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.password.target-latency:250ms}") Duration targetLatency,
+            @Value("${app.password.bcrypt-cost:0}") int fixedCost,
+            @Value("${app.password.min-cost:10}") int minCost,
+            @Value("${app.password.max-cost:14}") int maxCost) {
+        int cost = fixedCost > 0 ? fixedCost : BcryptCalibration.calibrate(targetLatency, minCost, maxCost);
+        log.info("Costo BCrypt: {} ({})", cost, fixedCost > 0 ? "fijo" : "calibrado para " + targetLatency.toMillis() + " ms");
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(cost);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
     }
 
     @Bean
@@ -30,6 +64,7 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(java.util.List.of("*"));
         configuration.setAllowedMethods(java.util.List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(java.util.List.of("*"));
+        configuration.setExposedHeaders(java.util.List.of("X-Next-Cursor", "Retry-After", "ETag", "X-Request-Id"));
         configuration.setAllowCredentials(true);
         
         org.springframework.web.cors.UrlBasedCorsConfigurationSource source = 
@@ -63,6 +98,18 @@ public class SecurityConfig {
                 .requestMatchers("/auth/swagger-ui.html").permitAll()
                 .requestMatchers("/auth/v3/api-docs/**").permitAll()
                 .requestMatchers("/auth/auth/**").permitAll()
+
+                // Segundo despacho de las respuestas asíncronas (exportaciones
+                // NDJSON): la petición ya se autorizó en el primero, y JwtFilter
+                // no vuelve a correr ni deja la autenticación guardada
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
+                // Métricas (Prometheus) y health: solo por el puerto de management
+                .requestMatchers(jwtFilter::isManagementRequest).permitAll()
+
+                // Diagnóstico de la plataforma (queries lentas): solo operadores.
+                // No un rol de compañía: cada registro crea su "administrador"
+                .requestMatchers("/api/admin/**").hasAuthority(JwtFilter.PLATFORM_OPERATOR)
                 
                 // ========================================
                 // TODAS LAS DEMÁS RUTAS REQUIEREN AUTENTICACIÓN
@@ -0,0 +1,50 @@
+package com.proyecto.entrega.security;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * TokenBucket - Cubeta de tokens sin bloqueos
+ *
+ * Capacidad = ráfaga máxima; se recarga de forma continua a refillPerSecond.
+ * El estado (tokens disponibles y momento de la última recarga) es inmutable
+ * y se reemplaza con compareAndSet, así que varios hilos pueden consumir de
+ * la misma cubeta sin synchronized.
+ */
+final class TokenBucket {
+
+    private record State(double tokens, long refilledAt) {
+    }
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(long capacity, double refillPerSecond, long now) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacidad y recarga deben ser mayores que 0");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    /**
+     * Intenta consumir un token.
+     *
+     * @param now Tiempo actual (System.nanoTime())
+     * @return 0 si se consumió; si no, nanosegundos hasta que haya un token
+     */
+    long tryConsume(long now) {
+        while (true) {
+            State current = state.get();
+            long elapsed = Math.max(0, now - current.refilledAt());
+            double available = Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+            if (available < 1) {
+                return (long) Math.ceil((1 - available) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(available - 1, Math.max(now, current.refilledAt())))) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,37 +1,61 @@
 package com.proyecto.entrega.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.stream.Stream;
 
-import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.proyecto.entrega.config.SamplingTurboFilter;
 import com.proyecto.entrega.dto.ActivityDTO;
+import com.proyecto.entrega.dto.CascadeResultDTO;
+import com.proyecto.entrega.dto.CursorPage;
+import com.proyecto.entrega.dto.DiagramChangeEvent;
 import com.proyecto.entrega.entity.Activity;
-import com.proyecto.entrega.entity.Edge;
 import com.proyecto.entrega.entity.Process;
 import com.proyecto.entrega.exception.ResourceNotFoundException;
 import com.proyecto.entrega.exception.ValidationException;
+import com.proyecto.entrega.exception.VersionConflictException;
+import com.proyecto.entrega.mapper.DtoMapper;
 import com.proyecto.entrega.repository.ActivityRepository;
-import com.proyecto.entrega.repository.EdgeRepository;
-
-import jakarta.persistence.EntityNotFoundException;
+import com.proyecto.entrega.repository.projection.ActivityRow;
 
 @Service
 public class ActivityService {
 
+    private static final Logger log = LoggerFactory.getLogger(ActivityService.class);
+
     @Autowired
-    private ModelMapper modelMapper;
+    private DtoMapper dtoMapper;
+
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    @Autowired
+    private NdjsonExport ndjsonExport;
 
     @Autowired
     private ActivityRepository activityRepository;
 
     @Autowired
-    private EdgeRepository edgeRepository;
+    private SoftDeleteCascadeService softDeleteCascadeService;
 
     @Autowired
     private ProcessService processService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
     public ActivityDTO createActivity(ActivityDTO activityDTO) {
         if (activityDTO.getProcessId() == null) {
             throw new ValidationException("El ID del proceso es requerido");
@@ -40,13 +64,21 @@ public class ActivityService {
         // Validamos que el proceso exista
         Process process = processService.findProcessEntity(activityDTO.getProcessId());
 
-        Activity activity = modelMapper.map(activityDTO, Activity.class);
+        Activity activity = dtoMapper.toActivity(activityDTO);
         activity.setProcess(process);
 
         activity = activityRepository.save(activity);
-        return modelMapper.map(activity, ActivityDTO.class);
+        eventPublisher.publishEvent(DiagramChangeEvent.of(activity, DiagramChangeEvent.CREATED));
+        businessMetrics.elementsCreated("activity", process, 1);
+        return dtoMapper.toActivityDTO(activity);
     }
 
+    /**
+     * Actualiza una activity. Si activityDTO trae version, el update es
+     * condicional: se rechaza con VersionConflictException (409, con el estado
+     * actual) cuando la activity ya cambió. Sin version se sobrescribe, como
+     * hacían los clientes anteriores.
+     */
     public ActivityDTO updateActivity(ActivityDTO activityDTO) {
         if (activityDTO.getId() == null) {
             throw new ValidationException("El ID de la actividad es requerido para actualizar");
@@ -60,6 +92,9 @@ public class ActivityService {
 
         Activity activity = activityRepository.findById(activityDTO.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Actividad", "id", activityDTO.getId()));
+        if (activityDTO.getVersion() != null && !activityDTO.getVersion().equals(activity.getVersion())) {
+            throw conflict(activity);
+        }
 
         // Actualizamos los campos
         activity.setName(activityDTO.getName());
@@ -70,14 +105,25 @@ public class ActivityService {
         activity.setHeight(activityDTO.getHeight());
         activity.setProcess(process);
 
-        activity = activityRepository.save(activity);
-        return modelMapper.map(activity, ActivityDTO.class);
+        try {
+            activity = activityRepository.save(activity);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Otro editor confirmó entre la lectura y el UPDATE
+            throw conflict(findActivityEntity(activityDTO.getId()));
+        }
+        eventPublisher.publishEvent(DiagramChangeEvent.of(activity, DiagramChangeEvent.UPDATED));
+        return dtoMapper.toActivityDTO(activity);
+    }
+
+    private VersionConflictException conflict(Activity current) {
+        return new VersionConflictException("Actividad", current.getId(),
+                dtoMapper.toActivityDTO(current), current.getVersion());
     }
 
     public ActivityDTO findActivity(Long id) {
         Activity activity = activityRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Actividad", "id", id));
-        return modelMapper.map(activity, ActivityDTO.class);
+        return dtoMapper.toActivityDTO(activity);
     }
 
     public Activity findActivityEntity(Long id) {
@@ -85,28 +131,54 @@ public class ActivityService {
                 .orElseThrow(() -> new ResourceNotFoundException("Actividad", "id", id));
     }
 
-    public void deleteActivity(Long id) {
-        Activity activity = activityRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Actividad", "id", id));
+    /**
+     * Desactiva una activity y, en el mismo UPDATE en bloque, los edges conectados.
+     *
+     * @param id Identificador de la activity
+     * @return CascadeResultDTO con la cantidad de activities y edges desactivados
+     */
+    public CascadeResultDTO deleteActivity(Long id) {
+        Long processId = activityRepository.findProcessIdById(id);
+        CascadeResultDTO result = softDeleteCascadeService.deactivateActivity(id);
+        eventPublisher.publishEvent(DiagramChangeEvent.deleted(processId, "activity", id));
 
-        // Eliminar edges conectados en cascada (soft delete)
-        List<Edge> connectedEdges = edgeRepository.findByActivityId(id);
-        for (Edge edge : connectedEdges) {
-            edge.setStatus("inactive");
-            edgeRepository.save(edge);
-        }
+        log.debug("Activity eliminada: id={}, edges afectados={}", id, result.getEdges());
 
-        System.out.println("Activity eliminada: ID=" + id + ", Edges afectados: " + connectedEdges.size());
+        return result;
+    }
 
-        activity.setStatus("inactive");
-        activityRepository.save(activity);
+    /**
+     * Lista las activities activas por páginas (keyset por id).
+     *
+     * @param cursor Cursor devuelto por la página anterior, o null para la primera
+     * @param size Tamaño de página, o null para el valor por defecto
+     * @return Página de ActivityDTO con el cursor de la página siguiente
+     */
+    public CursorPage<ActivityDTO> findActivities(String cursor, Integer size) {
+        List<Activity> activities = activityRepository.findByIdGreaterThanOrderByIdAsc(
+                cursorPagination.afterId(cursor), cursorPagination.limit(size));
+        return cursorPagination.page(activities, size, Activity::getId, dtoMapper::toActivityDTO);
     }
 
-    public List<ActivityDTO> findActivities() {
-        List<Activity> activities = activityRepository.findAll();
-        return activities.stream()
-                .map(activity -> modelMapper.map(activity, ActivityDTO.class))
-                .toList();
+    /**
+     * Exporta como NDJSON las activities activas de una compañía, o de todas si
+     * companyId es null. Las filas se leen con un cursor y se escriben a
+     * medida que llegan, sin armar la lista completa en memoria.
+     *
+     * @param companyId Identificador de la compañía, o null para todas
+     * @param out Salida de la respuesta
+     * @return Número de activities escritas
+     */
+    @Transactional(readOnly = true)
+    public long exportActivities(Long companyId, OutputStream out) throws IOException {
+        Stream<Activity> activities = companyId == null
+                ? activityRepository.streamAll()
+                : activityRepository.streamByCompanyId(companyId);
+        long count = ndjsonExport.write(out, activities, dtoMapper::toActivityDTO);
+
+        log.info("Activities exportadas (compañía {}): {}", companyId, count);
+
+        return count;
     }
 
     /**
@@ -118,16 +190,17 @@ public class ActivityService {
      * entidad.
      *
      * @param processId Identificador del proceso
-     * @return Lista de ActivityDTO de activities activas del proceso
+     * @param cursor Cursor devuelto por la página anterior, o null para la primera
+     * @param size Tamaño de página, o null para el valor por defecto
+     * @return Página de ActivityDTO de activities activas del proceso
      */
-    public List<ActivityDTO> findActivitiesByProcess(Long processId) {
-        List<Activity> activities = activityRepository.findByProcessId(processId);
+    public CursorPage<ActivityDTO> findActivitiesByProcess(Long processId, String cursor, Integer size) {
+        List<Activity> activities = activityRepository.findByProcessIdAndIdGreaterThanOrderByIdAsc(
+                processId, cursorPagination.afterId(cursor), cursorPagination.limit(size));
 
-        System.out.println("Activities activas del proceso " + processId + ": " + activities.size());
+        log.debug(SamplingTurboFilter.SAMPLED, "Activities activas del proceso {}: {}", processId, activities.size());
 
-        return activities.stream()
-                .map(activity -> modelMapper.map(activity, ActivityDTO.class))
-                .toList();
+        return cursorPagination.page(activities, size, Activity::getId, dtoMapper::toActivityDTO);
     }
 
     /**
@@ -138,17 +211,17 @@ public class ActivityService {
      * Utiliza una query personalizada que ignora el filtro @Where de la entidad.
      *
      * @param processId Identificador del proceso
-     * @return Lista de ActivityDTO de activities inactivas del proceso
+     * @param cursor Cursor devuelto por la página anterior, o null para la primera
+     * @param size Tamaño de página, o null para el valor por defecto
+     * @return Página de ActivityDTO de activities inactivas del proceso
      */
-    public List<ActivityDTO> findInactiveActivitiesByProcess(Long processId) {
-        List<Activity> activities = activityRepository.findByProcessIdAndStatus(processId, "inactive");
+    public CursorPage<ActivityDTO> findInactiveActivitiesByProcess(Long processId, String cursor, Integer size) {
+        List<ActivityRow> activities = activityRepository.findRowPageByProcessIdAndStatus(
+                processId, "inactive", cursorPagination.afterId(cursor), cursorPagination.fetchSize(size));
 
-        System.out.println("Activities inactivas del proceso " + processId + ": " + activities.size());
-        activities.forEach(a -> System.out.println("  - ID: " + a.getId() + ", Name: " + a.getName()));
+        log.debug(SamplingTurboFilter.SAMPLED, "Activities inactivas del proceso {}: {}", processId, activities.size());
 
-        return activities.stream()
-                .map(activity -> modelMapper.map(activity, ActivityDTO.class))
-                .toList();
+        return cursorPagination.page(activities, size, ActivityRow::getId, dtoMapper::toActivityDTO);
     }
 
     /**
@@ -157,23 +230,21 @@ public class ActivityService {
      * Este método permite recuperar activities eliminadas cambiando su estado
      * de 'inactive' a 'active'. La activity volverá a ser visible en el proceso.
      *
-     * El método busca la activity por id sin importar su estado usando el
-     * repositorio directamente para evitar el filtro @Where.
+     * Los edges conectados que quedaron inactivos se reactivan junto con ella
+     * siempre que su otro extremo también esté activo.
      *
      * @param id Identificador de la activity a reactivar
      * @return ActivityDTO de la activity reactivada
-     * @throws EntityNotFoundException si la activity no existe
+     * @throws ResourceNotFoundException si la activity no existe
      */
     public ActivityDTO reactivateActivity(Long id) {
-        Activity activity = activityRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Actividad", "id", id));
-
-        activity.setStatus("active");
-        activity = activityRepository.save(activity);
+        softDeleteCascadeService.restoreActivity(id);
+        Activity activity = findActivityEntity(id);
+        eventPublisher.publishEvent(DiagramChangeEvent.of(activity, DiagramChangeEvent.RESTORED));
 
-        System.out.println("Activity reactivada: ID=" + id + ", Name=" + activity.getName());
+        log.debug("Activity reactivada: id={}, nombre={}", id, activity.getName());
 
-        return modelMapper.map(activity, ActivityDTO.class);
+        return dtoMapper.toActivityDTO(activity);
     }
 
 }
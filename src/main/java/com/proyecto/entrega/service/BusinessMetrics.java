@@ -0,0 +1,50 @@
+package com.proyecto.entrega.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.proyecto.entrega.entity.Process;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * BusinessMetrics - Contadores de negocio en Micrometer
+ *
+ * app.diagram.elements.created cuenta activities, gateways y edges creados,
+ * por tipo (element) y por compañía (company). Los servicios llaman aquí
+ * al crear; dentro de una transacción el contador sube recién en el commit,
+ * así un changeset revertido no cuenta.
+ */
+@Component
+public class BusinessMetrics {
+
+    static final String ELEMENTS_CREATED = "app.diagram.elements.created";
+
+    @Autowired
+    private MeterRegistry registry;
+
+    public void elementsCreated(String element, Process process, int count) {
+        if (count <= 0) {
+            return;
+        }
+        Long companyId = process != null && process.getCompany() != null ? process.getCompany().getId() : null;
+        Counter counter = Counter.builder(ELEMENTS_CREATED)
+                .description("Elementos del diagrama creados")
+                .tag("element", element)
+                .tag("company", companyId != null ? companyId.toString() : "none")
+                .register(registry);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counter.increment(count);
+                }
+            });
+        } else {
+            counter.increment(count);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.proyecto.entrega.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.proyecto.entrega.dto.CacheRegionStatsDTO;
+import com.proyecto.entrega.security.JwtClaimsCache;
+import com.proyecto.entrega.security.PrincipalCache;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * CacheStatsService - Estado de los caches de la aplicación
+ *
+ * Reúne las estadísticas del cache de segundo nivel de Hibernate (regiones
+ * company, process y role, y el query cache) con las de los caches de
+ * autenticación. Las de Hibernate requieren generate_statistics=true; sin
+ * ello todos los contadores quedan en 0, igual que las regiones de entidad
+ * con el cache de segundo nivel deshabilitado.
+ */
+@Service
+public class CacheStatsService {
+
+    /** Regiones de entidad declaradas con @Cache(region = ...) */
+    static final List<String> ENTITY_REGIONS = List.of("company", "process", "role");
+
+    static final String QUERY_REGION = "query-results";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JwtClaimsCache jwtClaimsCache;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    public List<CacheRegionStatsDTO> getStats() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        List<CacheRegionStatsDTO> result = new ArrayList<>();
+
+        // Sin cache de segundo nivel las regiones no existen: se informan en 0
+        boolean secondLevel = sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled();
+        for (String region : ENTITY_REGIONS) {
+            if (!secondLevel) {
+                result.add(region(region, 0, 0, 0, 0));
+                continue;
+            }
+            CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+            result.add(region(region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(),
+                    stats.getElementCountInMemory()));
+        }
+        result.add(region(QUERY_REGION, statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount(), -1));
+
+        result.add(caffeine("jwt-claims", jwtClaimsCache.stats(), jwtClaimsCache.size()));
+        result.add(caffeine("principal", principalCache.stats(), principalCache.size()));
+        return result;
+    }
+
+    private static CacheRegionStatsDTO caffeine(String name, CacheStats stats, long size) {
+        return region(name, stats.hitCount(), stats.missCount(), stats.loadCount(), size);
+    }
+
+    static CacheRegionStatsDTO region(String name, long hits, long misses, long puts, long size) {
+        long reads = hits + misses;
+        double hitRatio = reads == 0 ? 0 : (double) hits / reads;
+        return new CacheRegionStatsDTO(name, hits, misses, puts, hitRatio, size);
+    }
+}
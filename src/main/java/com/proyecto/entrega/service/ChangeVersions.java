@@ -0,0 +1,111 @@
+package com.proyecto.entrega.service;
+
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.proyecto.entrega.dto.DiagramChangeEvent;
+import com.proyecto.entrega.repository.CompanyRepository;
+import com.proyecto.entrega.repository.ProcessRepository;
+
+/**
+ * ChangeVersions - Versión de cambios por proceso y por compañía
+ *
+ * Cada escritura sube la columna change_version de la fila que afecta
+ * (process o company) y los ETag de cada ámbito se arman con ellas:
+ *  - process:{id}: versión del proceso y de su compañía (diagrama, datos
+ *    del proceso y roles o compañía embebidos)
+ *  - company:{id}: versión de la compañía y suma de las de sus procesos
+ *    (listados de procesos, resúmenes y roles de la compañía)
+ *  - all: suma de todas las compañías y de todos los procesos (listados
+ *    globales, GET / de cada recurso)
+ *
+ * Los controladores arman con ella un ETag fuerte para sus GET y responden
+ * 304 si coincide con If-None-Match; calcularlo cuesta una consulta de una
+ * fila en lugar de la consulta completa.
+ *
+ * Las versiones viven en la base, así que todas las instancias responden
+ * igual y sobreviven a los reinicios. Suben en la transacción de la
+ * escritura (change_version + 1 bajo el lock de la fila): si se revierte,
+ * la versión tampoco cambia. Las filas nunca se borran (soft delete) y los
+ * contadores solo suben, así que una suma solo baja cuando un proceso se
+ * va a otra compañía, y ProcessService sube entonces la compañía anterior.
+ *
+ * Las escrituras del diagrama sin transacción propia (altas y cambios
+ * sueltos) suben la versión justo después de su commit: en ese intervalo
+ * una revalidación puede recibir 304 con los datos previos, nunca después.
+ */
+@Component
+public class ChangeVersions {
+
+    public static final String ALL = "all";
+
+    private static final String PROCESS = "process:";
+    private static final String COMPANY = "company:";
+
+    @Autowired
+    private ProcessRepository processRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    public static String process(Long processId) {
+        return PROCESS + processId;
+    }
+
+    public static String company(Long companyId) {
+        return COMPANY + companyId;
+    }
+
+    /**
+     * ETag fuerte del ámbito para una variante de la respuesta (cursor, tamaño
+     * de página, ...). Un ámbito que no existe tiene versión 0.
+     */
+    public String etag(String scope, Object... variant) {
+        return "\"" + version(scope) + "-" + Integer.toHexString(Arrays.hashCode(variant)) + "\"";
+    }
+
+    private String version(String scope) {
+        if (scope.startsWith(PROCESS)) {
+            return processRepository.findChangeVersion(Long.valueOf(scope.substring(PROCESS.length())))
+                    .orElse("0");
+        }
+        if (scope.startsWith(COMPANY)) {
+            return companyRepository.findChangeVersion(Long.valueOf(scope.substring(COMPANY.length())))
+                    .orElse("0");
+        }
+        return processRepository.findGlobalChangeVersion();
+    }
+
+    /**
+     * Cambió el proceso (datos, status o diagrama). Su compañía y los
+     * listados globales cambian con él por la suma.
+     */
+    public void processChanged(Long processId) {
+        processRepository.bumpChangeVersion(processId);
+    }
+
+    /**
+     * Cambió la compañía o algo de ella embebido en sus procesos (nombre,
+     * status, roles). Cambia también el ETag de cada uno de sus procesos.
+     */
+    public void companyChanged(Long companyId) {
+        companyRepository.bumpChangeVersion(companyId);
+    }
+
+    /**
+     * Cambios del diagrama (activities, gateways, edges, changesets y
+     * posiciones). Antes del commit, dentro de la transacción del cambio;
+     * sin transacción, en el acto.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onDiagramChange(DiagramChangeEvent event) {
+        // Los elementos del diagrama siempre tienen proceso
+        if (event.getProcessId() != null) {
+            processChanged(event.getProcessId());
+        }
+    }
+}
@@ -2,24 +2,33 @@ package com.proyecto.entrega.service;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.proyecto.entrega.dto.CascadeResultDTO;
 import com.proyecto.entrega.dto.CompanyDTO;
+import com.proyecto.entrega.dto.CursorPage;
 import com.proyecto.entrega.entity.Company;
 import com.proyecto.entrega.exception.DuplicateResourceException;
 import com.proyecto.entrega.exception.ResourceNotFoundException;
 import com.proyecto.entrega.exception.ValidationException;
+import com.proyecto.entrega.mapper.DtoMapper;
 import com.proyecto.entrega.repository.CompanyRepository;
 
 @Service
 public class CompanyService {
 
     @Autowired
-    private ModelMapper modelMapper;
+    private DtoMapper dtoMapper;
     @Autowired
     private CompanyRepository companyRepository;
+    @Autowired
+    private CursorPagination cursorPagination;
+    @Autowired
+    private SoftDeleteCascadeService softDeleteCascadeService;
+    @Autowired
+    private ChangeVersions changeVersions;
 
     public CompanyDTO createCompany(CompanyDTO companyDTO) {
         if (companyRepository.existsByName(companyDTO.getName())) {
@@ -28,11 +37,12 @@ public class CompanyService {
         if (companyRepository.existsByCorreoContacto(companyDTO.getCorreoContacto())) {
             throw new DuplicateResourceException("Compañía", "correo", companyDTO.getCorreoContacto());
         }
-        Company company = modelMapper.map(companyDTO, Company.class);
+        Company company = dtoMapper.toCompany(companyDTO);
         company = companyRepository.save(company);
-        return modelMapper.map(company, CompanyDTO.class);
+        return dtoMapper.toCompanyDTO(company);
     }
 
+    @Transactional
     public CompanyDTO updateCompany(CompanyDTO companyDTO) {
         if (companyDTO.getId() == null) {
             throw new ValidationException("El ID es requerido para actualizar");
@@ -46,13 +56,15 @@ public class CompanyService {
         company.setCorreoContacto(companyDTO.getCorreoContacto());
 
         company = companyRepository.save(company);
-        return modelMapper.map(company, CompanyDTO.class);
+        // La compañía va embebida en sus procesos y roles
+        changeVersions.companyChanged(company.getId());
+        return dtoMapper.toCompanyDTO(company);
     }
 
     public CompanyDTO findCompany(Long id) {
         Company company = companyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Compañía", "id", id));
-        return modelMapper.map(company, CompanyDTO.class);
+        return dtoMapper.toCompanyDTO(company);
     }
 
     public Company findCompanyEntity(Long id) {
@@ -60,19 +72,36 @@ public class CompanyService {
                 .orElseThrow(() -> new ResourceNotFoundException("Compañía", "id", id));
     }
 
-    public void deleteCompany(Long id) {
-        Company company = companyRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Compañía", "id", id));
-        company.setStatus("inactive");
-        companyRepository.save(company);
+    /**
+     * Desactiva una compañía junto con sus procesos y todo su contenido.
+     *
+     * @param id Identificador de la compañía
+     * @return CascadeResultDTO con la cantidad de elementos desactivados por tipo
+     */
+    @Transactional
+    public CascadeResultDTO deleteCompany(Long id) {
+        CascadeResultDTO result = softDeleteCascadeService.deactivateCompany(id);
+        changeVersions.companyChanged(id);
+        return result;
+    }
 
+    /**
+     * Reactiva una compañía junto con sus procesos y su contenido.
+     *
+     * @param id Identificador de la compañía
+     * @return CompanyDTO de la compañía reactivada
+     */
+    @Transactional
+    public CompanyDTO reactivateCompany(Long id) {
+        softDeleteCascadeService.restoreCompany(id);
+        changeVersions.companyChanged(id);
+        return findCompany(id);
     }
 
-    public List<CompanyDTO> findCompanies() {
-        List<Company> companies = companyRepository.findAll();
-        return companies.stream()
-                .map(company -> modelMapper.map(company, CompanyDTO.class))
-                .toList();
+    public CursorPage<CompanyDTO> findCompanies(String cursor, Integer size) {
+        List<Company> companies = companyRepository.findByIdGreaterThanOrderByIdAsc(
+                cursorPagination.afterId(cursor), cursorPagination.limit(size));
+        return cursorPagination.page(companies, size, Company::getId, dtoMapper::toCompanyDTO);
     }
 
 }
\ No newline at end of file
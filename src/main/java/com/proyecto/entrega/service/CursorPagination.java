@@ -0,0 +1,94 @@
+package com.proyecto.entrega.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.proyecto.entrega.dto.CursorPage;
+import com.proyecto.entrega.exception.ValidationException;
+
+/**
+ * CursorPagination - Paginación keyset por id
+ *
+ * Cada página se consulta con id > :afterId ORDER BY id LIMIT :size + 1, así
+ * el costo no depende de la profundidad de la página ni del tamaño de la
+ * tabla (a diferencia de OFFSET, que recorre y descarta las filas previas).
+ * La fila extra solo indica si existe una página siguiente.
+ *
+ * El cursor es el id de la última fila entregada, codificado en Base64 URL
+ * para que el cliente lo trate como un token opaco.
+ */
+@Component
+public class CursorPagination {
+
+    @Value("${app.pagination.default-size:200}")
+    private int defaultSize = 200;
+
+    @Value("${app.pagination.max-size:1000}")
+    private int maxSize = 1000;
+
+    /**
+     * Id desde el cual continuar (exclusivo); 0 para la primera página.
+     *
+     * @throws ValidationException si el cursor no fue generado por la API
+     */
+    public long afterId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            long id = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (id < 0) {
+                throw new ValidationException("Cursor de paginación inválido");
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Cursor de paginación inválido");
+        }
+    }
+
+    /**
+     * Tamaño de página efectivo: el por defecto si no se indica, acotado al máximo.
+     */
+    public int pageSize(Integer size) {
+        if (size == null) {
+            return defaultSize;
+        }
+        if (size < 1) {
+            throw new ValidationException("El tamaño de página debe ser mayor que 0");
+        }
+        return Math.min(size, maxSize);
+    }
+
+    /**
+     * Filas a consultar: tamaño de página + 1 para detectar la página siguiente.
+     */
+    public int fetchSize(Integer size) {
+        return pageSize(size) + 1;
+    }
+
+    public Limit limit(Integer size) {
+        return Limit.of(fetchSize(size));
+    }
+
+    /**
+     * Arma la página a partir de las filas consultadas con fetchSize(size).
+     */
+    public <E, D> CursorPage<D> page(List<E> rows, Integer size, Function<E, Long> idOf, Function<E, D> mapper) {
+        int pageSize = pageSize(size);
+        boolean hasNext = rows.size() > pageSize;
+        List<E> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? encode(idOf.apply(pageRows.get(pageSize - 1))) : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), nextCursor);
+    }
+
+    static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,361 @@
+package com.proyecto.entrega.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.proyecto.entrega.dto.ActivityDTO;
+import com.proyecto.entrega.dto.CascadeResultDTO;
+import com.proyecto.entrega.dto.DiagramChangeEvent;
+import com.proyecto.entrega.dto.DiagramChangesetDTO;
+import com.proyecto.entrega.dto.DiagramChangesetResultDTO;
+import com.proyecto.entrega.dto.EdgeDTO;
+import com.proyecto.entrega.dto.GatewayDTO;
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Edge;
+import com.proyecto.entrega.entity.Gateway;
+import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.exception.ResourceNotFoundException;
+import com.proyecto.entrega.exception.ValidationException;
+import com.proyecto.entrega.exception.VersionConflictException;
+import com.proyecto.entrega.mapper.DtoMapper;
+import com.proyecto.entrega.repository.ActivityRepository;
+import com.proyecto.entrega.repository.EdgeRepository;
+import com.proyecto.entrega.repository.GatewayRepository;
+
+/**
+ * DiagramChangesetService - Aplica en bloque los cambios del editor de diagramas
+ *
+ * Procesa altas, modificaciones y soft deletes de activities, gateways y
+ * edges de un proceso dentro de una única transacción:
+ *
+ * - Los elementos a modificar se cargan con una query por tipo (IN).
+ * - Las altas obtienen su id de la secuencia (pooled) sin esperar al INSERT,
+ *   lo que permite resolver los ids temporales de los edges y agrupar los
+ *   INSERT en lotes JDBC.
+ * - Las modificaciones se escriben por dirty checking, también agrupadas
+ *   en lotes (hibernate.order_updates). Las bajas van al final con UPDATE
+ *   en bloque (SoftDeleteCascadeService), que antes vuelca lo pendiente.
+ * - Un elemento modificado que trae version debe seguir en esa versión; si
+ *   no, el changeset completo se rechaza con 409 (VersionConflictException).
+ * - Los elementos modificados o eliminados y los nodos que unen los edges
+ *   deben existir (404) y ser del proceso (400). Los ids menores o iguales
+ *   a 0 son temporales.
+ */
+@Service
+public class DiagramChangesetService {
+
+    private static final String ACTIVITY = "activity";
+    private static final String GATEWAY = "gateway";
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    @Autowired
+    private ProcessService processService;
+
+    @Autowired
+    private EdgeService edgeService;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private GatewayRepository gatewayRepository;
+
+    @Autowired
+    private EdgeRepository edgeRepository;
+
+    @Autowired
+    private SoftDeleteCascadeService softDeleteCascadeService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
+    /**
+     * Aplica un changeset completo sobre un proceso.
+     *
+     * @param processId Identificador del proceso al que pertenecen los elementos
+     * @param changeset Cambios a aplicar
+     * @return DiagramChangesetResultDTO con los ids asignados y los contadores
+     */
+    @Transactional
+    public DiagramChangesetResultDTO applyChangeset(Long processId, DiagramChangesetDTO changeset) {
+        if (changeset == null) {
+            throw new ValidationException("El changeset es requerido");
+        }
+
+        Process process = processService.findProcessEntity(processId);
+        DiagramChangesetResultDTO result = new DiagramChangesetResultDTO();
+
+        Map<Long, Activity> activities = applyActivities(process, nullToEmpty(changeset.getActivities()), result);
+        Map<Long, Gateway> gateways = applyGateways(process, nullToEmpty(changeset.getGateways()), result);
+        applyEdges(process, nullToEmpty(changeset.getEdges()), activities, gateways, result);
+
+        applyDeletes(process,
+                nullToEmpty(changeset.getDeletedActivityIds()),
+                nullToEmpty(changeset.getDeletedGatewayIds()),
+                nullToEmpty(changeset.getDeletedEdgeIds()),
+                result);
+
+        // Se entrega a los editores conectados solo si la transacción confirma
+        eventPublisher.publishEvent(DiagramChangeEvent.changeset(processId));
+        return result;
+    }
+
+    // ==================== ACTIVITIES ====================
+
+    private Map<Long, Activity> applyActivities(Process process, List<ActivityDTO> dtos,
+            DiagramChangesetResultDTO result) {
+        Map<Long, Activity> existing = loadForUpdate(process,
+                dtos.stream().map(ActivityDTO::getId).filter(DiagramChangesetService::isPersistedId).toList(),
+                activityRepository::findAllById, Activity::getId, Activity::getProcess, "Actividad");
+
+        List<Activity> toCreate = new ArrayList<>();
+        List<Long> tempIds = new ArrayList<>();
+
+        for (ActivityDTO dto : dtos) {
+            Activity activity;
+            if (isPersistedId(dto.getId())) {
+                activity = existing.get(dto.getId());
+                checkVersion(dto.getVersion(), activity, Activity::getVersion, dtoMapper::toActivityDTO,
+                        "Actividad", dto.getId());
+                result.setUpdated(result.getUpdated() + 1);
+            } else {
+                activity = new Activity();
+                activity.setProcess(process);
+                toCreate.add(activity);
+                tempIds.add(dto.getId());
+            }
+            activity.setName(dto.getName());
+            activity.setX(dto.getX());
+            activity.setY(dto.getY());
+            activity.setDescription(dto.getDescription());
+            activity.setWidth(dto.getWidth());
+            activity.setHeight(dto.getHeight());
+        }
+
+        List<Activity> created = activityRepository.saveAll(toCreate);
+        for (int i = 0; i < created.size(); i++) {
+            Activity activity = created.get(i);
+            existing.put(activity.getId(), activity);
+            if (tempIds.get(i) != null) {
+                result.getActivityIds().put(tempIds.get(i), activity.getId());
+            }
+        }
+        result.setCreated(result.getCreated() + created.size());
+        businessMetrics.elementsCreated("activity", process, created.size());
+        return existing;
+    }
+
+    // ==================== GATEWAYS ====================
+
+    private Map<Long, Gateway> applyGateways(Process process, List<GatewayDTO> dtos,
+            DiagramChangesetResultDTO result) {
+        Map<Long, Gateway> existing = loadForUpdate(process,
+                dtos.stream().map(GatewayDTO::getId).filter(DiagramChangesetService::isPersistedId).toList(),
+                gatewayRepository::findAllById, Gateway::getId, Gateway::getProcess, "Gateway");
+
+        List<Gateway> toCreate = new ArrayList<>();
+        List<Long> tempIds = new ArrayList<>();
+
+        for (GatewayDTO dto : dtos) {
+            Gateway gateway;
+            if (isPersistedId(dto.getId())) {
+                gateway = existing.get(dto.getId());
+                checkVersion(dto.getVersion(), gateway, Gateway::getVersion, dtoMapper::toGatewayDTO,
+                        "Gateway", dto.getId());
+                result.setUpdated(result.getUpdated() + 1);
+            } else {
+                gateway = new Gateway();
+                gateway.setStatus("active");
+                gateway.setProcess(process);
+                toCreate.add(gateway);
+                tempIds.add(dto.getId());
+            }
+            gateway.setType(dto.getType());
+            gateway.setX(dto.getX());
+            gateway.setY(dto.getY());
+        }
+
+        List<Gateway> created = gatewayRepository.saveAll(toCreate);
+        for (int i = 0; i < created.size(); i++) {
+            Gateway gateway = created.get(i);
+            existing.put(gateway.getId(), gateway);
+            if (tempIds.get(i) != null) {
+                result.getGatewayIds().put(tempIds.get(i), gateway.getId());
+            }
+        }
+        result.setCreated(result.getCreated() + created.size());
+        businessMetrics.elementsCreated("gateway", process, created.size());
+        return existing;
+    }
+
+    // ==================== EDGES ====================
+
+    private void applyEdges(Process process, List<EdgeDTO> dtos, Map<Long, Activity> knownActivities,
+            Map<Long, Gateway> knownGateways, DiagramChangesetResultDTO result) {
+        // 1. Reemplazar ids temporales por los definitivos
+        for (EdgeDTO dto : dtos) {
+            dto.setFromId(resolveNodeId(dto.getFromType(), dto.getFromId(), result));
+            dto.setToId(resolveNodeId(dto.getToType(), dto.getToId(), result));
+            dto.setActivitySourceId(resolveNodeId(ACTIVITY, dto.getActivitySourceId(), result));
+            dto.setActivityDestinyId(resolveNodeId(ACTIVITY, dto.getActivityDestinyId(), result));
+        }
+
+        // 2. Cargar en una query por tipo los nodos referenciados que aún no
+        //    conocemos, validando que existan y sean de este proceso
+        Set<Long> missingActivities = new LinkedHashSet<>();
+        Set<Long> missingGateways = new LinkedHashSet<>();
+        for (EdgeDTO dto : dtos) {
+            if (ACTIVITY.equals(dto.getFromType())) missingActivities.add(dto.getFromId());
+            if (ACTIVITY.equals(dto.getToType())) missingActivities.add(dto.getToId());
+            if (GATEWAY.equals(dto.getFromType())) missingGateways.add(dto.getFromId());
+            if (GATEWAY.equals(dto.getToType())) missingGateways.add(dto.getToId());
+            missingActivities.add(dto.getActivitySourceId());
+            missingActivities.add(dto.getActivityDestinyId());
+        }
+        missingActivities.remove(null);
+        missingActivities.removeAll(knownActivities.keySet());
+        knownActivities.putAll(loadForUpdate(process, missingActivities, activityRepository::findAllById,
+                Activity::getId, Activity::getProcess, "Actividad"));
+        missingGateways.remove(null);
+        missingGateways.removeAll(knownGateways.keySet());
+        loadForUpdate(process, missingGateways, gatewayRepository::findAllById, Gateway::getId,
+                Gateway::getProcess, "Gateway");
+        Function<Long, Activity> activityResolver = id -> {
+            Activity activity = knownActivities.get(id);
+            if (activity == null) {
+                throw new ResourceNotFoundException("Actividad", "id", id);
+            }
+            return activity;
+        };
+
+        // 3. Aplicar altas y modificaciones
+        Map<Long, Edge> existing = loadForUpdate(process,
+                dtos.stream().map(EdgeDTO::getId).filter(DiagramChangesetService::isPersistedId).toList(),
+                edgeRepository::findAllById, Edge::getId, Edge::getProcess, "Edge");
+
+        List<Edge> toCreate = new ArrayList<>();
+        List<Long> tempIds = new ArrayList<>();
+
+        for (EdgeDTO dto : dtos) {
+            Edge edge;
+            if (isPersistedId(dto.getId())) {
+                edge = existing.get(dto.getId());
+                checkVersion(dto.getVersion(), edge, Edge::getVersion, dtoMapper::toEdgeDTO, "Edge", dto.getId());
+                result.setUpdated(result.getUpdated() + 1);
+            } else {
+                edge = new Edge();
+                edge.setStatus("active");
+                edge.setProcess(process);
+                toCreate.add(edge);
+                tempIds.add(dto.getId());
+            }
+            edge.setLabel(dto.getLabel());
+            edge.setDescription(dto.getDescription());
+            edgeService.normalizeEndpoints(edge, dto, activityResolver);
+        }
+
+        List<Edge> created = edgeRepository.saveAll(toCreate);
+        for (int i = 0; i < created.size(); i++) {
+            if (tempIds.get(i) != null) {
+                result.getEdgeIds().put(tempIds.get(i), created.get(i).getId());
+            }
+        }
+        result.setCreated(result.getCreated() + created.size());
+        businessMetrics.elementsCreated("edge", process, created.size());
+    }
+
+    private Long resolveNodeId(String type, Long id, DiagramChangesetResultDTO result) {
+        if (id == null || isPersistedId(id)) {
+            return id;
+        }
+        Map<Long, Long> ids = GATEWAY.equals(type) ? result.getGatewayIds() : result.getActivityIds();
+        Long resolved = ids.get(id);
+        if (resolved == null) {
+            throw new ValidationException("El id temporal " + id + " no corresponde a ningún "
+                    + (GATEWAY.equals(type) ? "gateway" : "activity") + " creado en el changeset");
+        }
+        return resolved;
+    }
+
+    // ==================== SOFT DELETES ====================
+
+    private void applyDeletes(Process process, List<Long> activityIds, List<Long> gatewayIds, List<Long> edgeIds,
+            DiagramChangesetResultDTO result) {
+        // Solo validan que existan y sean del proceso; el cambio de status va
+        // en UPDATE en bloque, que marca los edges desactivados en cascada
+        loadForUpdate(process, activityIds, activityRepository::findAllById, Activity::getId,
+                Activity::getProcess, "Actividad");
+        loadForUpdate(process, gatewayIds, gatewayRepository::findAllById, Gateway::getId,
+                Gateway::getProcess, "Gateway");
+        loadForUpdate(process, edgeIds, edgeRepository::findAllById, Edge::getId, Edge::getProcess, "Edge");
+
+        if (activityIds.isEmpty() && gatewayIds.isEmpty() && edgeIds.isEmpty()) {
+            return;
+        }
+        CascadeResultDTO deleted = softDeleteCascadeService.deactivateDiagramElements(activityIds, gatewayIds,
+                edgeIds);
+        result.setDeleted(result.getDeleted() + deleted.getActivities() + deleted.getGateways()
+                + deleted.getEdges());
+    }
+
+    // ==================== UTILIDADES ====================
+
+    /**
+     * Carga con una sola query los elementos indicados y valida que existan
+     * y que pertenezcan al proceso del changeset.
+     */
+    private <T> Map<Long, T> loadForUpdate(Process process, Collection<Long> ids,
+            Function<Iterable<Long>, List<T>> finder, Function<T, Long> idOf, Function<T, Process> processOf,
+            String resourceName) {
+        Map<Long, T> loaded = new HashMap<>();
+        if (ids.isEmpty()) {
+            return loaded;
+        }
+        for (T element : finder.apply(ids)) {
+            Process owner = processOf.apply(element);
+            if (owner == null || !process.getId().equals(owner.getId())) {
+                throw new ValidationException(resourceName + " con id '" + idOf.apply(element)
+                        + "' no pertenece al proceso " + process.getId());
+            }
+            loaded.put(idOf.apply(element), element);
+        }
+        for (Long id : ids) {
+            if (!loaded.containsKey(id)) {
+                throw new ResourceNotFoundException(resourceName, "id", id);
+            }
+        }
+        return loaded;
+    }
+
+    private static <T> void checkVersion(Long expected, T element, Function<T, Long> versionOf,
+            Function<T, ?> toDTO, String resourceName, Long id) {
+        Long current = versionOf.apply(element);
+        if (expected != null && !expected.equals(current)) {
+            throw new VersionConflictException(resourceName, id, toDTO.apply(element), current);
+        }
+    }
+
+    private static boolean isPersistedId(Long id) {
+        return id != null && id > 0;
+    }
+
+    private static <T> List<T> nullToEmpty(List<T> list) {
+        return list != null ? list : List.of();
+    }
+}
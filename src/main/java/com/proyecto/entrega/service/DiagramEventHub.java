@@ -0,0 +1,229 @@
+package com.proyecto.entrega.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.proyecto.entrega.dto.DiagramChangeEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * DiagramEventHub - Canal en tiempo real de los cambios de cada proceso
+ *
+ * Cada editor abierto se suscribe al proceso con Server-Sent Events y
+ * recibe los DiagramChangeEvent que publican ActivityService,
+ * GatewayService, EdgeService y DiagramChangesetService. Los eventos se
+ * reciben después del commit (o de inmediato si no hay transacción, cuando
+ * el repositorio ya confirmó), así nunca se anuncia un cambio que luego se
+ * revierte.
+ *
+ * Quien publica nunca escribe en la red: el evento se deja en el buffer de
+ * cada suscripción y un pool pequeño de hilos lo envía. El buffer está
+ * acotado (buffer-size) y combina eventos del mismo elemento (un nodo
+ * arrastrado solo envía su última posición). Si un cliente lento lo llena,
+ * se descartan sus eventos pendientes y recibe un único evento "resync"
+ * para que recargue el diagrama. Cada suscripción tiene a lo sumo una tarea
+ * en el pool, así que la cola del pool no crece más que el número de
+ * conexiones.
+ */
+@Service
+public class DiagramEventHub {
+
+    static final String RESYNC = "resync";
+
+    private final Map<Long, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final LongAdder dropped = new LongAdder();
+
+    public DiagramEventHub(@Value("${app.diagram-events.buffer-size:256}") int bufferSize,
+            @Value("${app.diagram-events.timeout:30m}") Duration timeout,
+            @Value("${app.diagram-events.heartbeat:25s}") Duration heartbeatInterval,
+            @Value("${app.diagram-events.dispatch-threads:2}") int dispatchThreads) {
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        AtomicInteger counter = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "diagram-events-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "diagram-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = heartbeatInterval.toMillis();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre una suscripción a los cambios de un proceso.
+     */
+    public SseEmitter subscribe(Long processId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(processId, emitter, bufferSize, dropped);
+        subscriptions.computeIfAbsent(processId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(DiagramChangeEvent event) {
+        if (event.getProcessId() == null) {
+            return;
+        }
+        Set<Subscription> listeners = subscriptions.get(event.getProcessId());
+        if (listeners == null) {
+            return;
+        }
+        for (Subscription subscription : listeners) {
+            if (subscription.offer(event)) {
+                schedule(subscription);
+            }
+        }
+    }
+
+    public int connections() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Eventos descartados por clientes lentos desde el arranque.
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    private void schedule(Subscription subscription) {
+        if (subscription.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            for (Object event : subscription.takePending()) {
+                String name = event instanceof DiagramChangeEvent change ? change.getAction() : RESYNC;
+                subscription.emitter.send(SseEmitter.event().name(name).data(event));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Conexión cerrada por el cliente
+            remove(subscription);
+            subscription.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscription.scheduled.set(false);
+        }
+        if (subscription.hasPending()) {
+            schedule(subscription);
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Set<Subscription> listeners : subscriptions.values()) {
+            for (Subscription subscription : listeners) {
+                try {
+                    // Comentario SSE: mantiene viva la conexión a través de proxies
+                    subscription.emitter.send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException e) {
+                    remove(subscription);
+                }
+            }
+        }
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.processId, (id, listeners) -> {
+            listeners.remove(subscription);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        subscriptions.values().forEach(listeners -> listeners.forEach(s -> s.emitter.complete()));
+        subscriptions.clear();
+    }
+
+    /**
+     * Suscripción de un editor con su buffer de eventos pendientes.
+     */
+    static final class Subscription {
+
+        private final Long processId;
+        private final SseEmitter emitter;
+        private final int bufferSize;
+        private final LongAdder dropped;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final LinkedHashMap<String, DiagramChangeEvent> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+
+        Subscription(Long processId, SseEmitter emitter, int bufferSize, LongAdder dropped) {
+            this.processId = processId;
+            this.emitter = emitter;
+            this.bufferSize = bufferSize;
+            this.dropped = dropped;
+        }
+
+        /**
+         * @return true si hay algo nuevo que enviar
+         */
+        synchronized boolean offer(DiagramChangeEvent event) {
+            if (overflowed) {
+                dropped.increment();
+                return false;
+            }
+            String key = event.getCoalesceKey();
+            // remove + put: el evento combinado pasa al final, en orden de llegada
+            if (pending.remove(key) == null && pending.size() >= bufferSize) {
+                dropped.add(pending.size() + 1L);
+                pending.clear();
+                overflowed = true;
+                return true;
+            }
+            pending.put(key, event);
+            return true;
+        }
+
+        synchronized List<Object> takePending() {
+            List<Object> events;
+            if (overflowed) {
+                events = List.of(Map.of("action", RESYNC, "processId", processId));
+                overflowed = false;
+            } else {
+                events = new ArrayList<>(pending.values());
+            }
+            pending.clear();
+            return events;
+        }
+
+        synchronized boolean hasPending() {
+            return overflowed || !pending.isEmpty();
+        }
+    }
+}
@@ -1,11 +1,26 @@
 package com.proyecto.entrega.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashSet;
 import java.util.List;
-
-import org.modelmapper.ModelMapper;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.proyecto.entrega.config.SamplingTurboFilter;
+import com.proyecto.entrega.dto.CursorPage;
+import com.proyecto.entrega.dto.DiagramChangeEvent;
 import com.proyecto.entrega.dto.EdgeDTO;
 import com.proyecto.entrega.entity.Edge;
 import com.proyecto.entrega.entity.Activity;
@@ -13,7 +28,11 @@ import com.proyecto.entrega.entity.Gateway;
 import com.proyecto.entrega.entity.Process;
 import com.proyecto.entrega.exception.ResourceNotFoundException;
 import com.proyecto.entrega.exception.ValidationException;
+import com.proyecto.entrega.exception.VersionConflictException;
+import com.proyecto.entrega.mapper.DtoMapper;
+import com.proyecto.entrega.repository.ActivityRepository;
 import com.proyecto.entrega.repository.EdgeRepository;
+import com.proyecto.entrega.repository.projection.EdgeEndpointRow;
 
 //comentario
 /**
@@ -37,12 +56,23 @@ import com.proyecto.entrega.repository.EdgeRepository;
 @Service
 public class EdgeService {
 
+    private static final Logger log = LoggerFactory.getLogger(EdgeService.class);
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
+    @Autowired
+    private CursorPagination cursorPagination;
+
     @Autowired
-    private ModelMapper modelMapper;
+    private NdjsonExport ndjsonExport;
 
     @Autowired
     private EdgeRepository edgeRepository;
 
+    @Autowired
+    private ActivityRepository activityRepository;
+
     @Autowired
     private ProcessService processService;
 
@@ -52,6 +82,15 @@ public class EdgeService {
     @Autowired
     private GatewayService gatewayService;
 
+    @Autowired
+    private SoftDeleteCascadeService softDeleteCascadeService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
     /**
      * Crea un nuevo Edge normalizando automáticamente el formato de entrada.
      *
@@ -93,20 +132,27 @@ public class EdgeService {
         normalizeEndpoints(edge, edgeDTO);
 
         edge = edgeRepository.save(edge);
+        eventPublisher.publishEvent(DiagramChangeEvent.of(edge, DiagramChangeEvent.CREATED));
+        businessMetrics.elementsCreated("edge", process, 1);
 
-        System.out.println("Edge creado: ID=" + edge.getId() +
-                ", " + edge.getFromType() + ":" + edge.getFromId() +
-                " → " + edge.getToType() + ":" + edge.getToId());
+        log.debug("Edge creado: id={}, {}:{} -> {}:{}", edge.getId(),
+                edge.getFromType(), edge.getFromId(), edge.getToType(), edge.getToId());
 
-        return modelMapper.map(edge, EdgeDTO.class);
+        return dtoMapper.toEdgeDTO(edge);
     }
 
     /**
      * Actualiza un Edge existente normalizando los endpoints.
+     *
+     * Si edgeDTO trae version y no coincide con la actual se lanza
+     * VersionConflictException con el edge vigente.
      */
     public EdgeDTO updateEdge(EdgeDTO edgeDTO) {
         Edge existing = edgeRepository.findById(edgeDTO.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Edge", "id", edgeDTO.getId()));
+        if (edgeDTO.getVersion() != null && !edgeDTO.getVersion().equals(existing.getVersion())) {
+            throw conflict(existing);
+        }
 
         Process process = processService.findProcessEntity(edgeDTO.getProcessId());
 
@@ -116,8 +162,18 @@ public class EdgeService {
 
         normalizeEndpoints(existing, edgeDTO);
 
-        existing = edgeRepository.save(existing);
-        return modelMapper.map(existing, EdgeDTO.class);
+        try {
+            existing = edgeRepository.save(existing);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw conflict(findEdgeEntity(edgeDTO.getId()));
+        }
+        eventPublisher.publishEvent(DiagramChangeEvent.of(existing, DiagramChangeEvent.UPDATED));
+        return dtoMapper.toEdgeDTO(existing);
+    }
+
+    private VersionConflictException conflict(Edge current) {
+        return new VersionConflictException("Edge", current.getId(),
+                dtoMapper.toEdgeDTO(current), current.getVersion());
     }
 
     /**
@@ -139,6 +195,16 @@ public class EdgeService {
      * compatibilidad.
      */
     private void normalizeEndpoints(Edge edge, EdgeDTO dto) {
+        normalizeEndpoints(edge, dto, activityService::findActivityEntity);
+    }
+
+    /**
+     * Normaliza los endpoints resolviendo las activities con el resolver indicado.
+     *
+     * Permite a las operaciones en bloque (changeset del diagrama) reutilizar
+     * la normalización con activities ya cargadas, sin una query por endpoint.
+     */
+    void normalizeEndpoints(Edge edge, EdgeDTO dto, Function<Long, Activity> activityResolver) {
         boolean hasTipado = dto.getFromType() != null && dto.getToType() != null;
         boolean hasLegacy = dto.getActivitySourceId() != null && dto.getActivityDestinyId() != null;
 
@@ -149,8 +215,8 @@ public class EdgeService {
             edge.setToId(dto.getToId());
 
             if ("activity".equals(dto.getFromType()) && "activity".equals(dto.getToType())) {
-                Activity source = activityService.findActivityEntity(dto.getFromId());
-                Activity destiny = activityService.findActivityEntity(dto.getToId());
+                Activity source = activityResolver.apply(dto.getFromId());
+                Activity destiny = activityResolver.apply(dto.getToId());
                 edge.setActivitySource(source);
                 edge.setActivityDestiny(destiny);
             } else {
@@ -164,8 +230,8 @@ public class EdgeService {
             edge.setToType("activity");
             edge.setToId(dto.getActivityDestinyId());
 
-            Activity source = activityService.findActivityEntity(dto.getActivitySourceId());
-            Activity destiny = activityService.findActivityEntity(dto.getActivityDestinyId());
+            Activity source = activityResolver.apply(dto.getActivitySourceId());
+            Activity destiny = activityResolver.apply(dto.getActivityDestinyId());
             edge.setActivitySource(source);
             edge.setActivityDestiny(destiny);
 
@@ -179,7 +245,7 @@ public class EdgeService {
     public EdgeDTO findEdge(Long id) {
         Edge edge = edgeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Edge", "id", id));
-        return modelMapper.map(edge, EdgeDTO.class);
+        return dtoMapper.toEdgeDTO(edge);
     }
 
     public Edge findEdgeEntity(Long id) {
@@ -190,15 +256,38 @@ public class EdgeService {
     public void deleteEdge(Long id) {
         Edge edge = edgeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Edge", "id", id));
-        edge.setStatus("inactive");
-        edgeRepository.save(edge);
+        softDeleteCascadeService.deactivateEdge(id);
+        eventPublisher.publishEvent(DiagramChangeEvent.of(edge, DiagramChangeEvent.DELETED));
     }
 
-    public List<EdgeDTO> findEdges() {
-        List<Edge> edges = edgeRepository.findAll();
-        return edges.stream()
-                .map(edge -> modelMapper.map(edge, EdgeDTO.class))
-                .toList();
+    /**
+     * Lista los edges activos por páginas (keyset por id).
+     */
+    public CursorPage<EdgeDTO> findEdges(String cursor, Integer size) {
+        List<Edge> edges = edgeRepository.findByIdGreaterThanOrderByIdAsc(
+                cursorPagination.afterId(cursor), cursorPagination.limit(size));
+        return cursorPagination.page(edges, size, Edge::getId, dtoMapper::toEdgeDTO);
+    }
+
+    /**
+     * Exporta como NDJSON los edges activos de una compañía, o de todas si
+     * companyId es null. Las filas se leen con un cursor y se escriben a
+     * medida que llegan, sin armar la lista completa en memoria.
+     *
+     * @param companyId Identificador de la compañía, o null para todas
+     * @param out Salida de la respuesta
+     * @return Número de edges escritos
+     */
+    @Transactional(readOnly = true)
+    public long exportEdges(Long companyId, OutputStream out) throws IOException {
+        Stream<Edge> edges = companyId == null
+                ? edgeRepository.streamAll()
+                : edgeRepository.streamByCompanyId(companyId);
+        long count = ndjsonExport.write(out, edges, dtoMapper::toEdgeDTO);
+
+        log.info("Edges exportados (compañía {}): {}", companyId, count);
+
+        return count;
     }
 
     /**
@@ -207,13 +296,13 @@ public class EdgeService {
      * Este método permite filtrar edges por el proceso al que pertenecen,
      * facilitando la visualización de conexiones específicas de cada proceso.
      * Solo retorna edges con status='active' debido al filtro @Where de la entidad.
+     * Paginado por id (ver CursorPagination).
      */
-    public List<EdgeDTO> findEdgesByProcess(Long processId) {
-        List<Edge> edges = edgeRepository.findByProcessId(processId);
-        System.out.println("Edges activos del proceso " + processId + ": " + edges.size());
-        return edges.stream()
-                .map(edge -> modelMapper.map(edge, EdgeDTO.class))
-                .toList();
+    public CursorPage<EdgeDTO> findEdgesByProcess(Long processId, String cursor, Integer size) {
+        List<Edge> edges = edgeRepository.findByProcessIdAndIdGreaterThanOrderByIdAsc(
+                processId, cursorPagination.afterId(cursor), cursorPagination.limit(size));
+        log.debug(SamplingTurboFilter.SAMPLED, "Edges activos del proceso {}: {}", processId, edges.size());
+        return cursorPagination.page(edges, size, Edge::getId, dtoMapper::toEdgeDTO);
     }
 
     /**
@@ -221,13 +310,32 @@ public class EdgeService {
      *
      * Este método permite visualizar edges eliminados mediante soft delete
      * de un proceso específico, útil para decidir cuáles reactivar.
+     * Paginado por id (ver CursorPagination).
+     */
+    public CursorPage<EdgeDTO> findInactiveEdgesByProcess(Long processId, String cursor, Integer size) {
+        List<Edge> edges = edgeRepository.findPageByProcessIdAndStatus(
+                processId, "inactive", cursorPagination.afterId(cursor), cursorPagination.fetchSize(size));
+        log.debug(SamplingTurboFilter.SAMPLED, "Edges inactivos del proceso {}: {}", processId, edges.size());
+        Map<Long, EdgeEndpointRow> endpoints = legacyEndpoints(edges);
+        return cursorPagination.page(edges, size, Edge::getId, edge -> dtoMapper.toEdgeDTO(edge, endpoints));
+    }
+
+    /**
+     * Extremos legacy de los edges, en una query y sin importar su status:
+     * un edge inactivo puede apuntar a una activity eliminada, y su proxy
+     * (filtrado por @Where) fallaría al inicializarse.
      */
-    public List<EdgeDTO> findInactiveEdgesByProcess(Long processId) {
-        List<Edge> edges = edgeRepository.findByProcessIdAndStatus(processId, "inactive");
-        System.out.println("Edges inactivos del proceso " + processId + ": " + edges.size());
-        return edges.stream()
-                .map(edge -> modelMapper.map(edge, EdgeDTO.class))
-                .toList();
+    private Map<Long, EdgeEndpointRow> legacyEndpoints(List<Edge> edges) {
+        Set<Long> ids = new HashSet<>();
+        for (Edge edge : edges) {
+            if (edge.getActivitySource() != null) ids.add(edge.getActivitySource().getId());
+            if (edge.getActivityDestiny() != null) ids.add(edge.getActivityDestiny().getId());
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return activityRepository.findEndpointRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(EdgeEndpointRow::getId, Function.identity()));
     }
 
     /**
@@ -248,10 +356,9 @@ public class EdgeService {
      * Reactiva un edge marcado como inactive.
      */
     public EdgeDTO reactivateEdge(Long id) {
-        Edge edge = edgeRepository.findByIdIgnoreStatus(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Edge", "id", id));
-        edge.setStatus("active");
-        edge = edgeRepository.save(edge);
-        return modelMapper.map(edge, EdgeDTO.class);
+        softDeleteCascadeService.restoreEdge(id);
+        Edge edge = findEdgeEntity(id);
+        eventPublisher.publishEvent(DiagramChangeEvent.of(edge, DiagramChangeEvent.RESTORED));
+        return dtoMapper.toEdgeDTO(edge);
     }
 }
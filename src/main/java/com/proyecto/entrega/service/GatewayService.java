@@ -1,47 +1,72 @@
 package com.proyecto.entrega.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.stream.Stream;
 
-import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.proyecto.entrega.config.SamplingTurboFilter;
+import com.proyecto.entrega.dto.CascadeResultDTO;
+import com.proyecto.entrega.dto.CursorPage;
+import com.proyecto.entrega.dto.DiagramChangeEvent;
 import com.proyecto.entrega.dto.GatewayDTO;
-import com.proyecto.entrega.entity.Edge;
 import com.proyecto.entrega.entity.Gateway;
 import com.proyecto.entrega.entity.Process;
 import com.proyecto.entrega.exception.ResourceNotFoundException;
 import com.proyecto.entrega.exception.ValidationException;
-import com.proyecto.entrega.repository.EdgeRepository;
+import com.proyecto.entrega.exception.VersionConflictException;
+import com.proyecto.entrega.mapper.DtoMapper;
 import com.proyecto.entrega.repository.GatewayRepository;
-
-import jakarta.persistence.EntityNotFoundException;
+import com.proyecto.entrega.repository.projection.GatewayRow;
 
 @Service
 public class GatewayService {
 
+    private static final Logger log = LoggerFactory.getLogger(GatewayService.class);
+
+    @Autowired
+    private DtoMapper dtoMapper;
+
     @Autowired
-    private ModelMapper modelMapper;
+    private CursorPagination cursorPagination;
+
+    @Autowired
+    private NdjsonExport ndjsonExport;
 
     @Autowired
     private GatewayRepository gatewayRepository;
 
     @Autowired
-    private EdgeRepository edgeRepository;
+    private SoftDeleteCascadeService softDeleteCascadeService;
 
     @Autowired
     private ProcessService processService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BusinessMetrics businessMetrics;
+
     // Crear Gateway
     public GatewayDTO createGateway(GatewayDTO gatewayDTO) {
-        Gateway gateway = modelMapper.map(gatewayDTO, Gateway.class);
+        Gateway gateway = dtoMapper.toGateway(gatewayDTO);
 
         if (gateway.getStatus() == null) {
             gateway.setStatus("active");
         }
 
+        Process process = null;
         if (gatewayDTO.getProcessId() != null) {
-            Process process = processService.findProcessEntity(gatewayDTO.getProcessId());
+            process = processService.findProcessEntity(gatewayDTO.getProcessId());
             gateway.setProcess(process);
         }
 
@@ -49,16 +74,16 @@ public class GatewayService {
         gateway.setY(gatewayDTO.getY());
 
         gateway = gatewayRepository.save(gateway);
+        eventPublisher.publishEvent(DiagramChangeEvent.of(gateway, DiagramChangeEvent.CREATED));
+        businessMetrics.elementsCreated("gateway", process, 1);
 
-        System.out.println("Gateway guardado en BD: " + gateway.getId() +
-                ", tipo: " + gateway.getType() +
-                ", x: " + gateway.getX() +
-                ", y: " + gateway.getY());
+        log.debug("Gateway creado: id={}, tipo={}, x={}, y={}",
+                gateway.getId(), gateway.getType(), gateway.getX(), gateway.getY());
 
-        return modelMapper.map(gateway, GatewayDTO.class);
+        return dtoMapper.toGatewayDTO(gateway);
     }
 
-    // Actualizar Gateway
+    // Actualizar Gateway (condicional si gatewayDTO trae version; 409 si ya cambió)
     public GatewayDTO updateGateway(GatewayDTO gatewayDTO) {
         if (gatewayDTO.getId() == null) {
             throw new ValidationException("El ID del gateway es requerido para actualizar");
@@ -67,6 +92,9 @@ public class GatewayService {
         // Verificar que el gateway exista
         Gateway existingGateway = gatewayRepository.findById(gatewayDTO.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Gateway", "id", gatewayDTO.getId()));
+        if (gatewayDTO.getVersion() != null && !gatewayDTO.getVersion().equals(existingGateway.getVersion())) {
+            throw conflict(existingGateway);
+        }
 
         existingGateway.setType(gatewayDTO.getType());
         existingGateway.setX(gatewayDTO.getX());
@@ -77,20 +105,29 @@ public class GatewayService {
             existingGateway.setProcess(process);
         }
 
-        existingGateway = gatewayRepository.save(existingGateway);
+        try {
+            existingGateway = gatewayRepository.save(existingGateway);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw conflict(findGatewayEntity(gatewayDTO.getId()));
+        }
+        eventPublisher.publishEvent(DiagramChangeEvent.of(existingGateway, DiagramChangeEvent.UPDATED));
+
+        log.debug("Gateway actualizado: id={}, x={}, y={}",
+                existingGateway.getId(), existingGateway.getX(), existingGateway.getY());
 
-        System.out.println("Gateway actualizado: " + existingGateway.getId() +
-                ", x: " + existingGateway.getX() +
-                ", y: " + existingGateway.getY());
+        return dtoMapper.toGatewayDTO(existingGateway);
+    }
 
-        return modelMapper.map(existingGateway, GatewayDTO.class);
+    private VersionConflictException conflict(Gateway current) {
+        return new VersionConflictException("Gateway", current.getId(),
+                dtoMapper.toGatewayDTO(current), current.getVersion());
     }
 
     // Buscar Gateway por ID
     public GatewayDTO findGateway(Long id) {
         Gateway gateway = gatewayRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Gateway", "id", id));
-        return modelMapper.map(gateway, GatewayDTO.class);
+        return dtoMapper.toGatewayDTO(gateway);
     }
 
     public Gateway findGatewayEntity(Long id) {
@@ -98,35 +135,43 @@ public class GatewayService {
                 .orElseThrow(() -> new ResourceNotFoundException("Gateway", "id", id));
     }
 
-    // Eliminar Gateway
-    public void deleteGateway(Long id) {
-        Gateway gateway = gatewayRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Gateway", "id", id));
+    // Eliminar Gateway (y sus edges en el mismo UPDATE en bloque)
+    public CascadeResultDTO deleteGateway(Long id) {
+        Long processId = gatewayRepository.findProcessIdById(id);
+        CascadeResultDTO result = softDeleteCascadeService.deactivateGateway(id);
+        eventPublisher.publishEvent(DiagramChangeEvent.deleted(processId, "gateway", id));
 
-        // Eliminar edges conectados en cascada (soft delete)
-        List<Edge> connectedEdges = edgeRepository.findByGatewayId(id);
-        for (Edge edge : connectedEdges) {
-            edge.setStatus("inactive");
-            edgeRepository.save(edge);
-        }
+        log.debug("Gateway eliminado: id={}, edges afectados={}", id, result.getEdges());
 
-        System.out.println("Gateway eliminado: ID=" + id + ", Edges afectados: " + connectedEdges.size());
+        return result;
+    }
 
-        gateway.setStatus("inactive");
-        gatewayRepository.save(gateway);
+    // Listar los Gateways por páginas (keyset por id)
+    public CursorPage<GatewayDTO> findGateways(String cursor, Integer size) {
+        List<Gateway> gateways = gatewayRepository.findByIdGreaterThanOrderByIdAsc(
+                cursorPagination.afterId(cursor), cursorPagination.limit(size));
+        return cursorPagination.page(gateways, size, Gateway::getId, dtoMapper::toGatewayDTO);
     }
 
-    // Listar todos los Gateways
-    public List<GatewayDTO> findGateways() {
-        List<Gateway> gateways = gatewayRepository.findAll();
+    /**
+     * Exporta como NDJSON los gateways activos de una compañía, o de todas si
+     * companyId es null. Las filas se leen con un cursor y se escriben a
+     * medida que llegan, sin armar la lista completa en memoria.
+     *
+     * @param companyId Identificador de la compañía, o null para todas
+     * @param out Salida de la respuesta
+     * @return Número de gateways escritos
+     */
+    @Transactional(readOnly = true)
+    public long exportGateways(Long companyId, OutputStream out) throws IOException {
+        Stream<Gateway> gateways = companyId == null
+                ? gatewayRepository.streamAll()
+                : gatewayRepository.streamByCompanyId(companyId);
+        long count = ndjsonExport.write(out, gateways, dtoMapper::toGatewayDTO);
 
-        System.out.println("Gateways en BD: " + gateways.size());
-        gateways.forEach(g -> System.out
-                .println("  - ID: " + g.getId() + ", tipo: " + g.getType() + ", x: " + g.getX() + ", y: " + g.getY()));
+        log.info("Gateways exportados (compañía {}): {}", companyId, count);
 
-        return gateways.stream()
-                .map(gateway -> modelMapper.map(gateway, GatewayDTO.class))
-                .toList();
+        return count;
     }
 
     /**
@@ -138,16 +183,17 @@ public class GatewayService {
      * entidad.
      *
      * @param processId Identificador del proceso
-     * @return Lista de GatewayDTO de gateways activos del proceso
+     * @param cursor Cursor devuelto por la página anterior, o null para la primera
+     * @param size Tamaño de página, o null para el valor por defecto
+     * @return Página de GatewayDTO de gateways activos del proceso
      */
-    public List<GatewayDTO> findGatewaysByProcess(Long processId) {
-        List<Gateway> gateways = gatewayRepository.findByProcessId(processId);
+    public CursorPage<GatewayDTO> findGatewaysByProcess(Long processId, String cursor, Integer size) {
+        List<Gateway> gateways = gatewayRepository.findByProcessIdAndIdGreaterThanOrderByIdAsc(
+                processId, cursorPagination.afterId(cursor), cursorPagination.limit(size));
 
-        System.out.println("Gateways activos del proceso " + processId + ": " + gateways.size());
+        log.debug(SamplingTurboFilter.SAMPLED, "Gateways activos del proceso {}: {}", processId, gateways.size());
 
-        return gateways.stream()
-                .map(gateway -> modelMapper.map(gateway, GatewayDTO.class))
-                .toList();
+        return cursorPagination.page(gateways, size, Gateway::getId, dtoMapper::toGatewayDTO);
     }
 
     /**
@@ -158,17 +204,17 @@ public class GatewayService {
      * Utiliza una query personalizada que ignora el filtro @Where de la entidad.
      *
      * @param processId Identificador del proceso
-     * @return Lista de GatewayDTO de gateways inactivos del proceso
+     * @param cursor Cursor devuelto por la página anterior, o null para la primera
+     * @param size Tamaño de página, o null para el valor por defecto
+     * @return Página de GatewayDTO de gateways inactivos del proceso
      */
-    public List<GatewayDTO> findInactiveGatewaysByProcess(Long processId) {
-        List<Gateway> gateways = gatewayRepository.findByProcessIdAndStatus(processId, "inactive");
+    public CursorPage<GatewayDTO> findInactiveGatewaysByProcess(Long processId, String cursor, Integer size) {
+        List<GatewayRow> gateways = gatewayRepository.findRowPageByProcessIdAndStatus(
+                processId, "inactive", cursorPagination.afterId(cursor), cursorPagination.fetchSize(size));
 
-        System.out.println("Gateways inactivos del proceso " + processId + ": " + gateways.size());
-        gateways.forEach(g -> System.out.println("  - ID: " + g.getId() + ", Type: " + g.getType()));
+        log.debug(SamplingTurboFilter.SAMPLED, "Gateways inactivos del proceso {}: {}", processId, gateways.size());
 
-        return gateways.stream()
-                .map(gateway -> modelMapper.map(gateway, GatewayDTO.class))
-                .toList();
+        return cursorPagination.page(gateways, size, GatewayRow::getId, dtoMapper::toGatewayDTO);
     }
 
     /**
@@ -177,22 +223,20 @@ public class GatewayService {
      * Este método permite recuperar gateways eliminados cambiando su estado
      * de 'inactive' a 'active'. El gateway volverá a ser visible en el proceso.
      *
-     * El método busca el gateway por id sin importar su estado usando el
-     * repositorio directamente para evitar el filtro @Where.
+     * Los edges conectados que quedaron inactivos se reactivan junto con él
+     * siempre que su otro extremo también esté activo.
      *
      * @param id Identificador del gateway a reactivar
      * @return GatewayDTO del gateway reactivado
-     * @throws EntityNotFoundException si el gateway no existe
+     * @throws ResourceNotFoundException si el gateway no existe
      */
     public GatewayDTO reactivateGateway(Long id) {
-        Gateway gateway = gatewayRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Gateway", "id", id));
-
-        gateway.setStatus("active");
-        gateway = gatewayRepository.save(gateway);
+        softDeleteCascadeService.restoreGateway(id);
+        Gateway gateway = findGatewayEntity(id);
+        eventPublisher.publishEvent(DiagramChangeEvent.of(gateway, DiagramChangeEvent.RESTORED));
 
-        System.out.println("Gateway reactivado: ID=" + id + ", Type=" + gateway.getType());
+        log.debug("Gateway reactivado: id={}, tipo={}", id, gateway.getType());
 
-        return modelMapper.map(gateway, GatewayDTO.class);
+        return dtoMapper.toGatewayDTO(gateway);
     }
 }
\ No newline at end of file
@@ -1,11 +1,10 @@
 package com.proyecto.entrega.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.proyecto.entrega.dto.AuthorizedDTO;
 import com.proyecto.entrega.dto.LoginDTO;
 import com.proyecto.entrega.dto.UserDTO;
@@ -14,27 +13,27 @@ import com.proyecto.entrega.exception.InvalidCredentialsException;
 import com.proyecto.entrega.exception.ResourceNotFoundException;
 import com.proyecto.entrega.exception.ValidationException;
 import com.proyecto.entrega.security.JwtUtil;
+import com.proyecto.entrega.security.PasswordHasher;
 
 @Service
 public class LoginService {
 
+    private static final Logger log = LoggerFactory.getLogger(LoginService.class);
+
     private final UserService userService;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private JwtUtil jwtUtil;
 
-    @Autowired
-    private ObjectMapper objectMapper;
-
     public LoginService(UserService userService, CompanyService companyService,
             RoleService roleService) {
         this.userService = userService;
     }
 
-    public AuthorizedDTO authenticate(LoginDTO loginDTO) throws JsonProcessingException {
+    public AuthorizedDTO authenticate(LoginDTO loginDTO) {
         // 0. Validar formato de datos
         if (loginDTO.getCorreo() == null || loginDTO.getCorreo().trim().isEmpty()) {
             throw new ValidationException("El correo electrónico es requerido");
@@ -51,8 +50,8 @@ public class LoginService {
             throw new InvalidCredentialsException("Credenciales inválidas");
         }
 
-        // 2. Verificar contraseña con BCrypt
-        boolean contrasenaCorrecta = passwordEncoder.matches(
+        // 2. Verificar contraseña (en el pool de hashing, ver PasswordHasher)
+        boolean contrasenaCorrecta = passwordHasher.matches(
                 loginDTO.getContrasena(),
                 user.getContrasena());
 
@@ -60,6 +59,11 @@ public class LoginService {
             throw new InvalidCredentialsException("Credenciales inválidas");
         }
 
+        // 2.1 Re-hashear si el hash guardado usa parámetros anteriores
+        if (passwordHasher.upgradeEncoding(user.getContrasena())) {
+            rehash(user.getId(), loginDTO.getContrasena());
+        }
+
         // 3. Crear UserSafeDTO (sin contraseña)
         UserSafeDTO userSafe = new UserSafeDTO();
         userSafe.setId(user.getId());
@@ -71,11 +75,23 @@ public class LoginService {
         userSafe.setRole(user.getRole());
 
         // 4. Generar JWT token
-        String userJson = objectMapper.writeValueAsString(userSafe);
         String role = user.getRole().getNombre();
-        String token = jwtUtil.generateToken(userJson, role);
+        String token = jwtUtil.generateToken(userSafe, role);
 
         // 5. Retornar AuthorizedDTO con usuario, token y tipo
         return new AuthorizedDTO(userSafe, token, "Bearer");
     }
-}
\ No newline at end of file
+
+    /**
+     * El login ya fue exitoso: si el re-hash falla (p. ej. pool saturado) se
+     * deja el hash anterior y se reintenta en el próximo login.
+     */
+    private void rehash(Long userId, String contrasena) {
+        try {
+            userService.updatePasswordHash(userId, passwordHasher.encode(contrasena));
+            log.info("Contraseña re-hasheada para usuario {}", userId);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo re-hashear la contraseña del usuario {}: {}", userId, e.getMessage());
+        }
+    }
+}
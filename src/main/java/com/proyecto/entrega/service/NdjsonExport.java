@@ -0,0 +1,70 @@
+package com.proyecto.entrega.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * NdjsonExport - Escritura de colecciones completas como NDJSON
+ *
+ * Recorre un Stream del repositorio (cursor JDBC con fetch size) y escribe
+ * cada fila como una línea JSON apenas llega, sin armar la lista completa.
+ * Cada CLEAR_EVERY filas vacía el contexto de persistencia y hace flush de
+ * la salida, así el heap no crece con el número de filas.
+ *
+ * Debe llamarse dentro de una transacción de solo lectura: el Stream solo
+ * es válido mientras la transacción siga abierta.
+ */
+@Component
+public class NdjsonExport {
+
+    /**
+     * Filas entre cada clear del contexto; coincide con el fetch size de las
+     * queries stream* de los repositorios.
+     */
+    static final int CLEAR_EVERY = 500;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Escribe las filas del stream en out, una por línea.
+     *
+     * @return Número de filas escritas
+     */
+    public <E, D> long write(OutputStream out, Stream<E> rows, Function<E, D> mapper) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+
+        try (rows; JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+
+            for (Iterator<E> it = rows.iterator(); it.hasNext();) {
+                writer.writeValue(json, mapper.apply(it.next()));
+                json.writeRaw('\n');
+                if (++count % CLEAR_EVERY == 0) {
+                    json.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,245 @@
+package com.proyecto.entrega.service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.proyecto.entrega.dto.DiagramChangeEvent;
+import com.proyecto.entrega.dto.PositionDTO;
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Gateway;
+import com.proyecto.entrega.exception.ResourceNotFoundException;
+import com.proyecto.entrega.exception.ValidationException;
+import com.proyecto.entrega.repository.ActivityRepository;
+import com.proyecto.entrega.repository.GatewayRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * PositionWriteBehind - Escritura diferida de la posición de los nodos
+ *
+ * Al arrastrar un nodo el editor envía su posición varias veces por
+ * segundo. En lugar de cargar y guardar la entidad en cada llamada, la
+ * posición se guarda en memoria por elemento (la última gana) y cada
+ * flush-interval se escriben todas juntas en una transacción: una query
+ * IN por tipo para cargar los nodos y los UPDATE agrupados en lotes JDBC,
+ * como en DiagramChangesetService.
+ *
+ * Cada escritura incrementa la version del nodo (un PUT con If-Match
+ * anterior recibe 409) y se anuncia por el canal en tiempo real del
+ * proceso. Si el flush falla, las posiciones vuelven a la cola salvo que
+ * ya haya llegado una más nueva. Al apagar se hace un último flush; ante
+ * una caída se pierde como máximo la última ventana.
+ */
+@Service
+public class PositionWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(PositionWriteBehind.class);
+
+    enum Element {
+        ACTIVITY, GATEWAY
+    }
+
+    private record Key(Element element, Long id) {
+    }
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private GatewayRepository gatewayRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Key, PositionDTO> pending = new ConcurrentHashMap<>();
+    private final long flushIntervalMillis;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    // Lock y no synchronized: el flush hace JDBC y con hilos virtuales
+    // synchronized fijaría el hilo a su carrier durante toda la escritura
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private ScheduledExecutorService scheduler;
+
+    public PositionWriteBehind(@Value("${app.positions.flush-interval:250ms}") Duration flushInterval) {
+        this.flushIntervalMillis = flushInterval.toMillis();
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "position-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void moveActivity(Long id, PositionDTO position) {
+        submit(new Key(Element.ACTIVITY, id), position, "Actividad");
+    }
+
+    public void moveGateway(Long id, PositionDTO position) {
+        submit(new Key(Element.GATEWAY, id), position, "Gateway");
+    }
+
+    private void submit(Key key, PositionDTO position, String resourceName) {
+        if (position == null || position.getX() == null || position.getY() == null) {
+            throw new ValidationException("x e y son requeridos");
+        }
+        // Solo se consulta la base la primera vez en cada ventana
+        if (!pending.containsKey(key) && !exists(key)) {
+            throw new ResourceNotFoundException(resourceName, "id", key.id());
+        }
+        if (pending.put(key, position) != null) {
+            coalesced.increment();
+        }
+    }
+
+    private boolean exists(Key key) {
+        return key.element() == Element.ACTIVITY
+                ? activityRepository.existsById(key.id())
+                : gatewayRepository.existsById(key.id());
+    }
+
+    /**
+     * Escribe las posiciones pendientes en una transacción.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Key, PositionDTO> batch = new HashMap<>();
+        for (Key key : pending.keySet()) {
+            PositionDTO position = pending.remove(key);
+            if (position != null) {
+                batch.put(key, position);
+            }
+        }
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                writeActivities(byId(batch, Element.ACTIVITY));
+                writeGateways(byId(batch, Element.GATEWAY));
+            });
+            written.add(batch.size());
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            batch.forEach(pending::putIfAbsent);
+            throw e;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Error al escribir posiciones pendientes", e);
+        }
+    }
+
+    private void writeActivities(Map<Long, PositionDTO> positions) {
+        if (positions.isEmpty()) {
+            return;
+        }
+        List<Activity> activities = activityRepository.findAllById(positions.keySet());
+        for (Activity activity : activities) {
+            PositionDTO position = positions.get(activity.getId());
+            activity.setX(position.getX());
+            activity.setY(position.getY());
+            if (position.getWidth() != null) {
+                activity.setWidth(position.getWidth());
+            }
+            if (position.getHeight() != null) {
+                activity.setHeight(position.getHeight());
+            }
+        }
+        // flush antes de publicar: los eventos llevan la versión ya incrementada
+        activityRepository.flush();
+        activities.forEach(a -> eventPublisher.publishEvent(DiagramChangeEvent.of(a, DiagramChangeEvent.UPDATED)));
+    }
+
+    private void writeGateways(Map<Long, PositionDTO> positions) {
+        if (positions.isEmpty()) {
+            return;
+        }
+        List<Gateway> gateways = gatewayRepository.findAllById(positions.keySet());
+        for (Gateway gateway : gateways) {
+            PositionDTO position = positions.get(gateway.getId());
+            gateway.setX(position.getX());
+            gateway.setY(position.getY());
+        }
+        gatewayRepository.flush();
+        gateways.forEach(g -> eventPublisher.publishEvent(DiagramChangeEvent.of(g, DiagramChangeEvent.UPDATED)));
+    }
+
+    private static Map<Long, PositionDTO> byId(Map<Key, PositionDTO> batch, Element element) {
+        Map<Long, PositionDTO> positions = new HashMap<>();
+        batch.forEach((key, position) -> {
+            if (key.element() == element) {
+                positions.put(key.id(), position);
+            }
+        });
+        return positions;
+    }
+
+    public int pending() {
+        return pending.size();
+    }
+
+    public long written() {
+        return written.sum();
+    }
+
+    /**
+     * Posiciones reemplazadas en memoria antes de escribirse.
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    public long failedFlushes() {
+        return failedFlushes.sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(flushIntervalMillis * 4, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+}
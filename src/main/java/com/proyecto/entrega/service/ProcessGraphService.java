@@ -0,0 +1,132 @@
+package com.proyecto.entrega.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.proyecto.entrega.dto.ActivityDTO;
+import com.proyecto.entrega.dto.EdgeDTO;
+import com.proyecto.entrega.dto.GatewayDTO;
+import com.proyecto.entrega.dto.ProcessGraphDTO;
+import com.proyecto.entrega.dto.ProcessSummaryDTO;
+import com.proyecto.entrega.dto.RoleDTO;
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Edge;
+import com.proyecto.entrega.entity.Gateway;
+import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.entity.Role;
+import com.proyecto.entrega.repository.ActivityRepository;
+import com.proyecto.entrega.repository.EdgeRepository;
+import com.proyecto.entrega.repository.GatewayRepository;
+
+/**
+ * ProcessGraphService - Carga el diagrama completo de un proceso
+ *
+ * Reemplaza las tres llamadas secuenciales del editor
+ * (/api/activity/process, /api/gateway/process y /api/edge/process)
+ * por una sola lectura con un número fijo de queries:
+ *
+ * 1. Proceso (con su compañía)
+ * 2. Activities del proceso con su rol (fetch join)
+ * 3. Gateways del proceso
+ * 4. Edges del proceso
+ *
+ * Todo corre en una única transacción de solo lectura, de modo que el
+ * proceso y las activities ya cargadas se resuelven desde el contexto de
+ * persistencia al armar gateways y edges, sin queries adicionales por fila.
+ */
+@Service
+public class ProcessGraphService {
+
+    @Autowired
+    private ProcessService processService;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private GatewayRepository gatewayRepository;
+
+    @Autowired
+    private EdgeRepository edgeRepository;
+
+    /**
+     * Obtiene el diagrama activo de un proceso.
+     *
+     * @param processId Identificador del proceso
+     * @return ProcessGraphDTO con activities, gateways y edges activos
+     */
+    @Transactional(readOnly = true)
+    public ProcessGraphDTO findProcessGraph(Long processId) {
+        Process process = processService.findProcessEntity(processId);
+
+        List<ActivityDTO> activities = activityRepository.findGraphNodesByProcessId(processId).stream()
+                .map(this::toActivityDTO)
+                .toList();
+
+        List<GatewayDTO> gateways = gatewayRepository.findByProcessId(processId).stream()
+                .map(this::toGatewayDTO)
+                .toList();
+
+        List<EdgeDTO> edges = edgeRepository.findByProcessId(processId).stream()
+                .map(this::toEdgeDTO)
+                .toList();
+
+        ProcessSummaryDTO summary = new ProcessSummaryDTO(
+                process.getId(),
+                process.getName(),
+                process.getDescription());
+
+        return new ProcessGraphDTO(summary, activities, gateways, edges);
+    }
+
+    // ========== MAPEO COMPACTO (sin proceso ni compañía por elemento) ==========
+
+    private ActivityDTO toActivityDTO(Activity source) {
+        ActivityDTO dto = new ActivityDTO();
+        dto.setId(source.getId());
+        dto.setName(source.getName());
+        dto.setX(source.getX());
+        dto.setY(source.getY());
+        dto.setDescription(source.getDescription());
+        dto.setWidth(source.getWidth());
+        dto.setHeight(source.getHeight());
+        dto.setStatus(source.getStatus());
+
+        Role role = source.getRole();
+        if (role != null) {
+            RoleDTO roleDTO = new RoleDTO();
+            roleDTO.setId(role.getId());
+            roleDTO.setNombre(role.getNombre());
+            roleDTO.setDescripcion(role.getDescripcion());
+            roleDTO.setStatus(role.getStatus());
+            dto.setRole(roleDTO);
+        }
+        return dto;
+    }
+
+    private GatewayDTO toGatewayDTO(Gateway source) {
+        GatewayDTO dto = new GatewayDTO();
+        dto.setId(source.getId());
+        dto.setType(source.getType());
+        dto.setStatus(source.getStatus());
+        dto.setX(source.getX());
+        dto.setY(source.getY());
+        return dto;
+    }
+
+    private EdgeDTO toEdgeDTO(Edge source) {
+        EdgeDTO dto = new EdgeDTO();
+        dto.setId(source.getId());
+        dto.setLabel(source.getLabel());
+        dto.setDescription(source.getDescription());
+        dto.setStatus(source.getStatus());
+        dto.setFromType(source.getFromType());
+        dto.setFromId(source.getFromId());
+        dto.setToType(source.getToType());
+        dto.setToId(source.getToId());
+        return dto;
+    }
+}
@@ -2,10 +2,15 @@ package com.proyecto.entrega.service;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.proyecto.entrega.config.SamplingTurboFilter;
+import com.proyecto.entrega.dto.CascadeResultDTO;
+import com.proyecto.entrega.dto.CursorPage;
 import com.proyecto.entrega.dto.ProcessDTO;
 import com.proyecto.entrega.dto.ProcessSummaryDTO;
 import com.proyecto.entrega.entity.Company;
@@ -13,13 +18,15 @@ import com.proyecto.entrega.entity.Process;
 import com.proyecto.entrega.exception.DuplicateResourceException;
 import com.proyecto.entrega.exception.ResourceNotFoundException;
 import com.proyecto.entrega.exception.ValidationException;
+import com.proyecto.entrega.mapper.DtoMapper;
 import com.proyecto.entrega.repository.ProcessRepository;
-
-import jakarta.persistence.EntityNotFoundException;
+import com.proyecto.entrega.repository.projection.ProcessRow;
 
 @Service
 public class ProcessService {
 
+    private static final Logger log = LoggerFactory.getLogger(ProcessService.class);
+
     @Autowired
     private ProcessRepository processRepository;
 
@@ -27,8 +34,18 @@ public class ProcessService {
     private CompanyService companyService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private DtoMapper dtoMapper;
 
+    @Autowired
+    private CursorPagination cursorPagination;
+
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @Autowired
+    private SoftDeleteCascadeService softDeleteCascadeService;
+
+    @Transactional
     public ProcessDTO createProcess(ProcessDTO processDTO) {
 
         if (processDTO.getCompanyId() == null) {
@@ -40,17 +57,19 @@ public class ProcessService {
             throw new DuplicateResourceException("Proceso", "nombre", processDTO.getName());
         }
 
-        Process process = modelMapper.map(processDTO, Process.class);
+        Process process = dtoMapper.toProcess(processDTO);
 
         Company company = companyService.findCompanyEntity(processDTO.getCompanyId());
 
         process.setCompany(company);
 
         process = processRepository.save(process);
+        changeVersions.processChanged(process.getId());
 
-        return modelMapper.map(process, ProcessDTO.class);
+        return dtoMapper.toProcessDTO(process);
     }
 
+    @Transactional
     public ProcessDTO updateProcess(ProcessDTO processDTO) {
 
         if (processDTO.getId() == null) {
@@ -77,6 +96,7 @@ public class ProcessService {
         }
 
         Company company = companyService.findCompanyEntity(processDTO.getCompanyId());
+        Long previousCompanyId = process.getCompany() != null ? process.getCompany().getId() : null;
 
         // Actualizar valores
         process.setName(processDTO.getName());
@@ -84,15 +104,20 @@ public class ProcessService {
         process.setCompany(company);
 
         process = processRepository.save(process);
+        changeVersions.processChanged(process.getId());
+        // Si cambió de compañía, la suma de versiones de la anterior baja: se sube su versión
+        if (previousCompanyId != null && !previousCompanyId.equals(company.getId())) {
+            changeVersions.companyChanged(previousCompanyId);
+        }
 
-        return modelMapper.map(process, ProcessDTO.class);
+        return dtoMapper.toProcessDTO(process);
     }
 
     public ProcessDTO findProcess(Long id) {
         Process process = processRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Proceso", "id", id));
 
-        return modelMapper.map(process, ProcessDTO.class);
+        return dtoMapper.toProcessDTO(process);
     }
 
     public Process findProcessEntity(Long id) {
@@ -100,41 +125,36 @@ public class ProcessService {
                 .orElseThrow(() -> new ResourceNotFoundException("Proceso", "id", id));
     }
 
-    public void deleteProcess(Long id) {
-        Process process = processRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Proceso", "id", id));
-        process.setStatus("inactive");
-        processRepository.save(process);
+    /**
+     * Desactiva un proceso junto con sus activities, gateways y edges.
+     *
+     * @param id Identificador del proceso
+     * @return CascadeResultDTO con la cantidad de elementos desactivados por tipo
+     */
+    @Transactional
+    public CascadeResultDTO deleteProcess(Long id) {
+        CascadeResultDTO result = softDeleteCascadeService.deactivateProcess(id);
+        changeVersions.processChanged(id);
+        return result;
     }
 
-    public List<ProcessDTO> findProcesses() {
-        List<Process> processes = processRepository.findAll();
-        return processes.stream()
-                .map(process -> modelMapper.map(process, ProcessDTO.class))
-                .toList();
+    public CursorPage<ProcessDTO> findProcesses(String cursor, Integer size) {
+        List<ProcessRow> processes = processRepository.findRowsByIdGreaterThan(
+                cursorPagination.afterId(cursor), cursorPagination.limit(size));
+        return cursorPagination.page(processes, size, ProcessRow::getId, dtoMapper::toProcessDTO);
     }
 
-    public List<ProcessDTO> getProcessesByCompany(Long id) {
-        List<Process> processes = processRepository.findByCompanyId(id);
-        return processes.stream()
-                .map(process -> modelMapper.map(process, ProcessDTO.class))
-                .toList();
+    public CursorPage<ProcessDTO> getProcessesByCompany(Long id, String cursor, Integer size) {
+        List<ProcessRow> processes = processRepository.findRowsByCompanyId(
+                id, cursorPagination.afterId(cursor), cursorPagination.limit(size));
+        return cursorPagination.page(processes, size, ProcessRow::getId, dtoMapper::toProcessDTO);
     }
 
     // Para listar procesos
-    public List<ProcessSummaryDTO> getProcessesSummaryByCompany(Long id) {
-        List<Process> processes = processRepository.findByCompanyId(id);
-
-        System.out.println("Procesos resumidos enviados al frontend:");
-        processes.forEach(p -> System.out.println(
-                "ID: " + p.getId() + ", Name: " + p.getName() + ", Description: " + p.getDescription()));
-
-        return processes.stream()
-                .map(process -> new ProcessSummaryDTO(
-                        process.getId(),
-                        process.getName(),
-                        process.getDescription()))
-                .toList();
+    public CursorPage<ProcessSummaryDTO> getProcessesSummaryByCompany(Long id, String cursor, Integer size) {
+        List<ProcessSummaryDTO> summaries = processRepository.findSummariesByCompanyId(
+                id, cursorPagination.afterId(cursor), cursorPagination.limit(size));
+        return cursorPagination.page(summaries, size, ProcessSummaryDTO::getId, summary -> summary);
     }
 
     /**
@@ -144,23 +164,22 @@ public class ProcessService {
      * de 'inactive' a 'active'. El proceso y todos sus elementos asociados
      * volverán a ser visibles en el sistema.
      *
-     * El método busca el proceso por id sin importar su estado (activo o inactivo)
-     * usando el repositorio directamente para evitar el filtro @Where.
+     * Los elementos del proceso se reactivan en cascada; los edges solo si
+     * sus dos extremos quedaron activos.
      *
      * @param id Identificador del proceso a reactivar
      * @return ProcessDTO del proceso reactivado
-     * @throws EntityNotFoundException si el proceso no existe
+     * @throws ResourceNotFoundException si el proceso no existe
      */
+    @Transactional
     public ProcessDTO reactivateProcess(Long id) {
-        Process process = processRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Proceso", "id", id));
-
-        process.setStatus("active");
-        process = processRepository.save(process);
+        softDeleteCascadeService.restoreProcess(id);
+        Process process = findProcessEntity(id);
+        changeVersions.processChanged(id);
 
-        System.out.println("Proceso reactivado: ID=" + id + ", Name=" + process.getName());
+        log.debug("Proceso reactivado: id={}, nombre={}", id, process.getName());
 
-        return modelMapper.map(process, ProcessDTO.class);
+        return dtoMapper.toProcessDTO(process);
     }
 
     /**
@@ -171,17 +190,17 @@ public class ProcessService {
      * que ignora el filtro @Where(clause = "status = 'active'") de la entidad.
      *
      * @param companyId Identificador de la empresa
-     * @return Lista de ProcessDTO de procesos inactivos
+     * @param cursor Cursor devuelto por la página anterior, o null para la primera
+     * @param size Tamaño de página, o null para el valor por defecto
+     * @return Página de ProcessDTO de procesos inactivos
      */
-    public List<ProcessDTO> getInactiveProcessesByCompany(Long companyId) {
-        List<Process> processes = processRepository.findByCompanyIdAndStatus(companyId, "inactive");
+    public CursorPage<ProcessDTO> getInactiveProcessesByCompany(Long companyId, String cursor, Integer size) {
+        List<ProcessRow> processes = processRepository.findRowPageByCompanyIdAndStatus(
+                companyId, "inactive", cursorPagination.afterId(cursor), cursorPagination.fetchSize(size));
 
-        System.out.println("Procesos inactivos encontrados: " + processes.size());
-        processes.forEach(p -> System.out.println("  - ID: " + p.getId() + ", Name: " + p.getName()));
+        log.debug(SamplingTurboFilter.SAMPLED, "Procesos inactivos de la compañía {}: {}", companyId, processes.size());
 
-        return processes.stream()
-                .map(process -> modelMapper.map(process, ProcessDTO.class))
-                .toList();
+        return cursorPagination.page(processes, size, ProcessRow::getId, dtoMapper::toProcessDTO);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,212 @@
+package com.proyecto.entrega.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.proyecto.entrega.config.RequestIdFilter;
+import com.proyecto.entrega.dto.CacheRegionStatsDTO;
+import com.proyecto.entrega.dto.HibernateQueryStatsDTO;
+import com.proyecto.entrega.dto.QueryStatsDTO;
+import com.proyecto.entrega.dto.RepositoryQueryStatsDTO;
+import com.proyecto.entrega.dto.SlowQueryDTO;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * QueryStatsService - Queries lentas y estadísticas de Hibernate
+ *
+ * Acumula, por método de repositorio, invocaciones, tiempo total, tiempo
+ * máximo y filas devueltas (QueryStatsConfig mide cada llamada y anota la
+ * última sentencia SQL que emitió). Las invocaciones que superan
+ * slow-threshold se guardan en un buffer circular de slow-buffer-size
+ * entradas: escribir es un incremento atómico y un set, sin locks, y las
+ * más viejas se pisan.
+ *
+ * A eso suma las estadísticas por query de Hibernate (generate_statistics),
+ * etiquetadas con el método que declara la query, y los aciertos del
+ * contexto de persistencia (L1), del segundo nivel (L2) y del query cache.
+ * El L1 solo cuenta cargas por id (find, getReference, asociaciones
+ * lazy); las queries siempre van a la base.
+ */
+@Service
+public class QueryStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatsService.class);
+
+    static final String PERSISTENCE_CONTEXT = "persistence-context";
+    static final String SECOND_LEVEL = "second-level";
+    static final String QUERY_CACHE = "query-results";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final long slowThresholdNanos;
+    private final AtomicReferenceArray<SlowQueryDTO> slowQueries;
+    private final AtomicLong slowCursor = new AtomicLong();
+    private final Map<String, MethodStats> byMethod = new ConcurrentHashMap<>();
+    private final Map<String, String> methodByQuery = new ConcurrentHashMap<>();
+    private final LongAdder contextHits = new LongAdder();
+    private final LongAdder contextMisses = new LongAdder();
+    private final Instant since = Instant.now();
+
+    public QueryStatsService(
+            @Value("${app.query-stats.slow-threshold:100ms}") Duration slowThreshold,
+            @Value("${app.query-stats.slow-buffer-size:200}") int slowBufferSize) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowQueries = new AtomicReferenceArray<>(Math.max(1, slowBufferSize));
+    }
+
+    /**
+     * Antepone un listener de LOAD que mira si la entidad ya está en el
+     * contexto de persistencia antes de que Hibernate la busque.
+     */
+    @PostConstruct
+    void registerLoadListener() {
+        try {
+            entityManagerFactory.unwrap(SessionFactoryImplementor.class).getServiceRegistry()
+                    .getService(EventListenerRegistry.class)
+                    .prependListeners(EventType.LOAD, (LoadEventListener) this::onLoad);
+        } catch (RuntimeException e) {
+            log.warn("Sin estadísticas del contexto de persistencia: {}", e.getMessage());
+        }
+    }
+
+    private void onLoad(LoadEvent event, LoadEventListener.LoadType loadType) {
+        try {
+            EventSource session = event.getSession();
+            EntityPersister persister = session.getFactory().getMappingMetamodel()
+                    .getEntityDescriptor(event.getEntityClassName());
+            recordLoad(session.getPersistenceContextInternal()
+                    .getEntity(session.generateEntityKey(event.getEntityId(), persister)) != null);
+        } catch (RuntimeException e) {
+            // Solo estadística: nunca interrumpir la carga
+        }
+    }
+
+    void recordLoad(boolean inContext) {
+        (inContext ? contextHits : contextMisses).increment();
+    }
+
+    /** Asocia una query declarada con @Query al método que la declara */
+    public void registerQuery(String query, String method) {
+        methodByQuery.putIfAbsent(query, method);
+    }
+
+    /**
+     * Registra una invocación de repositorio. Se llama en cada consulta:
+     * solo contadores atómicos, y el buffer de lentas cuando corresponde.
+     */
+    public void record(String method, long durationNanos, long rows, String sql) {
+        MethodStats stats = byMethod.computeIfAbsent(method, key -> new MethodStats());
+        stats.invocations.increment();
+        stats.totalNanos.add(durationNanos);
+        stats.maxNanos.accumulate(durationNanos);
+        stats.rows.add(rows);
+        if (sql != null) {
+            stats.sql = sql;
+        }
+        if (durationNanos >= slowThresholdNanos) {
+            int slot = (int) (slowCursor.getAndIncrement() % slowQueries.length());
+            slowQueries.set(slot, new SlowQueryDTO(Instant.now(), method, millis(durationNanos), rows, sql,
+                    MDC.get(RequestIdFilter.REQUEST_ID), MDC.get(RequestIdFilter.COMPANY_ID)));
+        }
+    }
+
+    public QueryStatsDTO getReport(int top) {
+        int limit = Math.max(1, top);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getStatistics();
+
+        List<RepositoryQueryStatsDTO> methods = new ArrayList<>();
+        byMethod.forEach((method, stats) -> methods.add(stats.toDto(method)));
+
+        List<HibernateQueryStatsDTO> queries = new ArrayList<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics stats = statistics.getQueryStatistics(query);
+            queries.add(new HibernateQueryStatsDTO(query, methodByQuery.get(query), stats.getExecutionCount(),
+                    stats.getExecutionTotalTime(), stats.getExecutionMaxTime(), stats.getExecutionRowCount()));
+        }
+
+        List<CacheRegionStatsDTO> caches = List.of(
+                CacheStatsService.region(PERSISTENCE_CONTEXT, contextHits.sum(), contextMisses.sum(), 0, -1),
+                CacheStatsService.region(SECOND_LEVEL, statistics.getSecondLevelCacheHitCount(),
+                        statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount(), -1),
+                CacheStatsService.region(QUERY_CACHE, statistics.getQueryCacheHitCount(),
+                        statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount(), -1));
+
+        return new QueryStatsDTO(since, statistics.getPrepareStatementCount(), statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(),
+                top(methods, RepositoryQueryStatsDTO::getTotalMs, limit),
+                top(methods, RepositoryQueryStatsDTO::getMaxMs, limit),
+                top(queries, q -> (double) q.getTotalMs(), limit),
+                top(queries, q -> (double) q.getMaxMs(), limit),
+                slowQueries(),
+                caches);
+    }
+
+    /** Invocaciones lentas en el buffer, la más reciente primero */
+    List<SlowQueryDTO> slowQueries() {
+        long end = slowCursor.get();
+        long start = Math.max(0, end - slowQueries.length());
+        List<SlowQueryDTO> result = new ArrayList<>();
+        for (long i = end - 1; i >= start; i--) {
+            SlowQueryDTO entry = slowQueries.get((int) (i % slowQueries.length()));
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private static <T> List<T> top(List<T> items, Function<T, Double> key, int limit) {
+        return items.stream()
+                .sorted(Comparator.comparing(key).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class MethodStats {
+        final LongAdder invocations = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder rows = new LongAdder();
+        volatile String sql;
+
+        RepositoryQueryStatsDTO toDto(String method) {
+            long count = invocations.sum();
+            long total = totalNanos.sum();
+            return new RepositoryQueryStatsDTO(method, count, millis(total), millis(maxNanos.get()),
+                    count == 0 ? 0 : millis(total / count), rows.sum(), sql);
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package com.proyecto.entrega.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.proyecto.entrega.dto.AuthorizedDTO;
 import com.proyecto.entrega.dto.CompanyDTO;
 import com.proyecto.entrega.dto.ProcessDTO;
@@ -17,21 +17,21 @@ import jakarta.transaction.Transactional;
 @Service
 public class RegistrationService {
 
+    private static final Logger log = LoggerFactory.getLogger(RegistrationService.class);
+
     private final CompanyService companyService;
     private final UserService userService;
     private final RoleService roleService;
     private final ProcessService processService;
     private final JwtUtil jwtUtil;
-    private final ObjectMapper objectMapper;
 
     public RegistrationService(CompanyService companyService, UserService userService,
-            RoleService roleService, ProcessService processService, JwtUtil jwtUtil, ObjectMapper objectMapper) {
+            RoleService roleService, ProcessService processService, JwtUtil jwtUtil) {
         this.companyService = companyService;
         this.userService = userService;
         this.roleService = roleService;
         this.processService = processService;
         this.jwtUtil = jwtUtil;
-        this.objectMapper = objectMapper;
     }
 
     /**
@@ -45,7 +45,7 @@ public class RegistrationService {
      * @return UserDTO del usuario administrador creado
      */
     @Transactional
-    public AuthorizedDTO registerCompanyAndAdmin(CompanyDTO companyDTO, UserDTO userDTO) throws JsonProcessingException {
+    public AuthorizedDTO registerCompanyAndAdmin(CompanyDTO companyDTO, UserDTO userDTO) {
         // 1. Crear la compañía
         CompanyDTO createdCompany = companyService.createCompany(companyDTO);
 
@@ -80,10 +80,9 @@ public class RegistrationService {
         userSafe.setRole(createdRole);
 
         // 6. Generar JWT token
-        String userJson = objectMapper.writeValueAsString(userSafe);
         String roleName = createdRole.getNombre();
-        String token = jwtUtil.generateToken(userJson, roleName);
-        System.out.println("usuario compañia: "+ userSafe.getCompanyId()+ ", usuario role: "+ userSafe.getRoleId());
+        String token = jwtUtil.generateToken(userSafe, roleName);
+        log.info("Compañía registrada: companyId={}, roleId={}", userSafe.getCompanyId(), userSafe.getRoleId());
 
         // 7. Retornar AuthorizedDTO con usuario, token y tipo
         return new AuthorizedDTO(userSafe, token, "Bearer");
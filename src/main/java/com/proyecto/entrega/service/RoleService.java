@@ -2,22 +2,28 @@ package com.proyecto.entrega.service;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.proyecto.entrega.dto.CursorPage;
 import com.proyecto.entrega.dto.RoleDTO;
 import com.proyecto.entrega.entity.Company;
 import com.proyecto.entrega.entity.Role;
 import com.proyecto.entrega.exception.ResourceNotFoundException;
 import com.proyecto.entrega.exception.ValidationException;
+import com.proyecto.entrega.mapper.DtoMapper;
 import com.proyecto.entrega.repository.RoleRepository;
+import com.proyecto.entrega.repository.projection.RoleRow;
 
 @Service
 public class RoleService {
 
     @Autowired
-    private ModelMapper modelMapper;
+    private DtoMapper dtoMapper;
+
+    @Autowired
+    private CursorPagination cursorPagination;
 
     @Autowired
     private RoleRepository roleRepository;
@@ -25,21 +31,27 @@ public class RoleService {
     @Autowired
     private CompanyService companyService;
 
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @Transactional
     public RoleDTO createRole(RoleDTO roleDTO) {
 
         if (roleDTO.getCompanyId() == null) {
             throw new ValidationException("El ID de la compañía es requerido para crear");
         }
-        Role role = modelMapper.map(roleDTO, Role.class);
+        Role role = dtoMapper.toRole(roleDTO);
 
         Company company = companyService.findCompanyEntity(roleDTO.getCompanyId());
 
         role.setCompany(company);
 
         role = roleRepository.save(role);
-        return modelMapper.map(role, RoleDTO.class);
+        changeVersions.companyChanged(company.getId());
+        return dtoMapper.toRoleDTO(role);
     }
 
+    @Transactional
     public RoleDTO updateRole(RoleDTO roleDTO) {
 
         if (roleDTO.getId() == null) {
@@ -54,6 +66,7 @@ public class RoleService {
                 .orElseThrow(() -> new ResourceNotFoundException("Rol", "id", roleDTO.getId()));
 
         Company company = companyService.findCompanyEntity(roleDTO.getCompanyId());
+        Long previousCompanyId = role.getCompany() != null ? role.getCompany().getId() : null;
 
         // Actualizar campos
         role.setNombre(roleDTO.getNombre());
@@ -61,13 +74,18 @@ public class RoleService {
         role.setCompany(company);
 
         role = roleRepository.save(role);
-        return modelMapper.map(role, RoleDTO.class);
+        // El rol va embebido en las activities de los procesos de la compañía
+        changeVersions.companyChanged(company.getId());
+        if (previousCompanyId != null && !previousCompanyId.equals(company.getId())) {
+            changeVersions.companyChanged(previousCompanyId);
+        }
+        return dtoMapper.toRoleDTO(role);
     }
 
     public RoleDTO findRole(Long id) {
         Role role = roleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Rol", "id", id));
-        return modelMapper.map(role, RoleDTO.class);
+        return dtoMapper.toRoleDTO(role);
     }
 
     public Role findRoleEntity(Long id) {
@@ -75,25 +93,26 @@ public class RoleService {
                 .orElseThrow(() -> new ResourceNotFoundException("Rol", "id", id));
     }
 
+    @Transactional
     public void deleteRole(Long id) {
         Role role = roleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Rol", "id", id));
-        role.setStatus("inactive");
-        roleRepository.save(role);
+        // UPDATE nativo: desaloja el rol del cache de segundo nivel
+        roleRepository.updateStatus(id, "inactive");
+        if (role.getCompany() != null) {
+            changeVersions.companyChanged(role.getCompany().getId());
+        }
     }
 
-    public List<RoleDTO> findRoles() {
-        List<Role> roles = roleRepository.findAll();
-        return roles.stream()
-                .map(role -> modelMapper.map(role, RoleDTO.class))
-                .toList();
+    public CursorPage<RoleDTO> findRoles(String cursor, Integer size) {
+        List<Role> roles = roleRepository.findByIdGreaterThanOrderByIdAsc(
+                cursorPagination.afterId(cursor), cursorPagination.limit(size));
+        return cursorPagination.page(roles, size, Role::getId, dtoMapper::toRoleDTO);
     }
 
-    public List<RoleDTO> getUsersByCompany(Long id) {
-        List<Role> roles = roleRepository.findByCompanyId(id);
-        return roles.stream()
-                .map(role -> modelMapper.map(role, RoleDTO.class))
-                .toList();
-
+    public CursorPage<RoleDTO> getUsersByCompany(Long id, String cursor, Integer size) {
+        List<RoleRow> roles = roleRepository.findRowsByCompanyId(
+                id, cursorPagination.afterId(cursor), cursorPagination.limit(size));
+        return cursorPagination.page(roles, size, RoleRow::getId, dtoMapper::toRoleDTO);
     }
 }
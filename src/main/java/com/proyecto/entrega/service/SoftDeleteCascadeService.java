@@ -0,0 +1,258 @@
+package com.proyecto.entrega.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.proyecto.entrega.dto.CascadeResultDTO;
+import com.proyecto.entrega.exception.ResourceNotFoundException;
+import com.proyecto.entrega.repository.ActivityRepository;
+import com.proyecto.entrega.repository.CompanyRepository;
+import com.proyecto.entrega.repository.EdgeRepository;
+import com.proyecto.entrega.repository.GatewayRepository;
+import com.proyecto.entrega.repository.ProcessRepository;
+
+/**
+ * SoftDeleteCascadeService - Soft delete y restauración en cascada
+ *
+ * Desactiva y reactiva la jerarquía Company → Process → Activity/Gateway → Edge
+ * con UPDATE en bloque dentro de una única transacción, en lugar de cargar
+ * y guardar cada fila por separado.
+ *
+ * LOTES:
+ * Las tablas que pueden crecer mucho (activity, gateway, edge) se actualizan
+ * en lotes de app.soft-delete.chunk-size filas: cada UPDATE toma como máximo
+ * ese número de filas que aún no tienen el estado destino, y se repite hasta
+ * que un lote vuelve incompleto.
+ *
+ * RESTAURACIÓN:
+ * Cada fila que desactiva una cascada queda marcada (cascade_deleted); al
+ * restaurar el padre solo se reactivan las marcadas, así lo que se eliminó
+ * a propósito antes (un nodo, un edge, un proceso) sigue eliminado. El
+ * elemento que se elimina o restaura directamente se cambia con un UPDATE
+ * que borra la marca, así nunca vuelve con la restauración de otro.
+ *
+ * Se reactivan primero los nodos y después los edges, y solo aquellos edges
+ * cuyos dos extremos quedaron activos. Un edge que apunta a un nodo que
+ * sigue eliminado permanece inactivo (y marcado, para cuando se restaure).
+ */
+@Service
+public class SoftDeleteCascadeService {
+
+    private static final String ACTIVE = "active";
+    private static final String INACTIVE = "inactive";
+
+    @Value("${app.soft-delete.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ProcessRepository processRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private GatewayRepository gatewayRepository;
+
+    @Autowired
+    private EdgeRepository edgeRepository;
+
+    // ==================== COMPANY ====================
+
+    @Transactional
+    public CascadeResultDTO deactivateCompany(Long companyId) {
+        companyRepository.findById(companyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Compañía", "id", companyId));
+
+        CascadeResultDTO result = new CascadeResultDTO();
+        deactivateProcessContent(processRepository.findIdsByCompanyId(companyId), result);
+        result.setProcesses(processRepository.deactivateByCompanyId(companyId));
+        result.setCompanies(companyRepository.updateStatus(companyId, INACTIVE));
+        return result;
+    }
+
+    @Transactional
+    public CascadeResultDTO restoreCompany(Long companyId) {
+        companyRepository.findByIdIgnoreStatus(companyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Compañía", "id", companyId));
+
+        CascadeResultDTO result = new CascadeResultDTO();
+        result.setCompanies(companyRepository.updateStatus(companyId, ACTIVE));
+        result.setProcesses(processRepository.reactivateByCompanyId(companyId));
+        // Solo el contenido de los procesos que quedaron activos
+        restoreProcessContent(processRepository.findActiveIdsByCompanyId(companyId), result);
+        return result;
+    }
+
+    // ==================== PROCESS ====================
+
+    @Transactional
+    public CascadeResultDTO deactivateProcess(Long processId) {
+        processRepository.findById(processId)
+                .orElseThrow(() -> new ResourceNotFoundException("Proceso", "id", processId));
+
+        CascadeResultDTO result = new CascadeResultDTO();
+        deactivateProcessContent(List.of(processId), result);
+        result.setProcesses(processRepository.updateStatus(processId, INACTIVE));
+        return result;
+    }
+
+    @Transactional
+    public CascadeResultDTO restoreProcess(Long processId) {
+        processRepository.findByIdIgnoreStatus(processId)
+                .orElseThrow(() -> new ResourceNotFoundException("Proceso", "id", processId));
+
+        CascadeResultDTO result = new CascadeResultDTO();
+        result.setProcesses(processRepository.updateStatus(processId, ACTIVE));
+        restoreProcessContent(List.of(processId), result);
+        return result;
+    }
+
+    // ==================== ACTIVITY ====================
+
+    @Transactional
+    public CascadeResultDTO deactivateActivity(Long activityId) {
+        activityRepository.findById(activityId)
+                .orElseThrow(() -> new ResourceNotFoundException("Actividad", "id", activityId));
+
+        CascadeResultDTO result = new CascadeResultDTO();
+        result.setEdges(inChunks(() -> edgeRepository.deactivateByActivityIds(List.of(activityId), chunkSize)));
+        result.setActivities(activityRepository.updateStatus(activityId, INACTIVE));
+        return result;
+    }
+
+    @Transactional
+    public CascadeResultDTO restoreActivity(Long activityId) {
+        activityRepository.findByIdIgnoreStatus(activityId)
+                .orElseThrow(() -> new ResourceNotFoundException("Actividad", "id", activityId));
+
+        CascadeResultDTO result = new CascadeResultDTO();
+        result.setActivities(activityRepository.updateStatus(activityId, ACTIVE));
+        result.setEdges(inChunks(() -> edgeRepository.reactivateByActivityId(activityId, chunkSize)));
+        return result;
+    }
+
+    // ==================== GATEWAY ====================
+
+    @Transactional
+    public CascadeResultDTO deactivateGateway(Long gatewayId) {
+        gatewayRepository.findById(gatewayId)
+                .orElseThrow(() -> new ResourceNotFoundException("Gateway", "id", gatewayId));
+
+        CascadeResultDTO result = new CascadeResultDTO();
+        result.setEdges(inChunks(() -> edgeRepository.deactivateByGatewayIds(List.of(gatewayId), chunkSize)));
+        result.setGateways(gatewayRepository.updateStatus(gatewayId, INACTIVE));
+        return result;
+    }
+
+    @Transactional
+    public CascadeResultDTO restoreGateway(Long gatewayId) {
+        gatewayRepository.findByIdIgnoreStatus(gatewayId)
+                .orElseThrow(() -> new ResourceNotFoundException("Gateway", "id", gatewayId));
+
+        CascadeResultDTO result = new CascadeResultDTO();
+        result.setGateways(gatewayRepository.updateStatus(gatewayId, ACTIVE));
+        result.setEdges(inChunks(() -> edgeRepository.reactivateByGatewayId(gatewayId, chunkSize)));
+        return result;
+    }
+
+    // ==================== EDGE ====================
+
+    @Transactional
+    public CascadeResultDTO deactivateEdge(Long edgeId) {
+        edgeRepository.findById(edgeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Edge", "id", edgeId));
+
+        CascadeResultDTO result = new CascadeResultDTO();
+        result.setEdges(edgeRepository.updateStatus(edgeId, INACTIVE));
+        return result;
+    }
+
+    @Transactional
+    public CascadeResultDTO restoreEdge(Long edgeId) {
+        edgeRepository.findByIdIgnoreStatus(edgeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Edge", "id", edgeId));
+
+        CascadeResultDTO result = new CascadeResultDTO();
+        result.setEdges(edgeRepository.updateStatus(edgeId, ACTIVE));
+        return result;
+    }
+
+    // ==================== ELEMENTOS DE UN DIAGRAMA ====================
+
+    /**
+     * Elimina en bloque elementos de un diagrama que el llamador ya validó
+     * (DiagramChangesetService). Los edges indicados se eliminan a propósito;
+     * los conectados a las activities y gateways, en cascada. Los directos
+     * van primero: un edge eliminado a propósito no vuelve al restaurar su nodo.
+     */
+    @Transactional
+    public CascadeResultDTO deactivateDiagramElements(Collection<Long> activityIds, Collection<Long> gatewayIds,
+            Collection<Long> edgeIds) {
+        CascadeResultDTO result = new CascadeResultDTO();
+        if (!edgeIds.isEmpty()) {
+            result.setEdges(edgeRepository.updateStatusByIds(edgeIds, INACTIVE));
+        }
+        if (!activityIds.isEmpty()) {
+            result.setEdges(result.getEdges()
+                    + inChunks(() -> edgeRepository.deactivateByActivityIds(activityIds, chunkSize)));
+            result.setActivities(activityRepository.updateStatusByIds(activityIds, INACTIVE));
+        }
+        if (!gatewayIds.isEmpty()) {
+            result.setEdges(result.getEdges()
+                    + inChunks(() -> edgeRepository.deactivateByGatewayIds(gatewayIds, chunkSize)));
+            result.setGateways(gatewayRepository.updateStatusByIds(gatewayIds, INACTIVE));
+        }
+        return result;
+    }
+
+    // ==================== CONTENIDO DE PROCESOS ====================
+
+    private void deactivateProcessContent(Collection<Long> processIds, CascadeResultDTO result) {
+        if (processIds.isEmpty()) {
+            return;
+        }
+        result.setEdges(result.getEdges()
+                + inChunks(() -> edgeRepository.deactivateByProcessIds(processIds, chunkSize)));
+        result.setActivities(result.getActivities()
+                + inChunks(() -> activityRepository.deactivateByProcessIds(processIds, chunkSize)));
+        result.setGateways(result.getGateways()
+                + inChunks(() -> gatewayRepository.deactivateByProcessIds(processIds, chunkSize)));
+    }
+
+    private void restoreProcessContent(Collection<Long> processIds, CascadeResultDTO result) {
+        if (processIds.isEmpty()) {
+            return;
+        }
+        // Los nodos van antes que los edges: la reactivación de edges
+        // comprueba que ambos extremos estén activos
+        result.setActivities(result.getActivities()
+                + inChunks(() -> activityRepository.reactivateByProcessIds(processIds, chunkSize)));
+        result.setGateways(result.getGateways()
+                + inChunks(() -> gatewayRepository.reactivateByProcessIds(processIds, chunkSize)));
+        result.setEdges(result.getEdges()
+                + inChunks(() -> edgeRepository.reactivateByProcessIds(processIds, chunkSize)));
+    }
+
+    /**
+     * Repite un UPDATE por lotes hasta que un lote afecta menos filas que
+     * el tamaño máximo, y devuelve el total de filas afectadas.
+     */
+    private int inChunks(IntSupplier chunk) {
+        int total = 0;
+        int affected;
+        do {
+            affected = chunk.getAsInt();
+            total += affected;
+        } while (affected >= chunkSize);
+        return total;
+    }
+}
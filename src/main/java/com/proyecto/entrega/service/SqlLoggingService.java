@@ -0,0 +1,73 @@
+package com.proyecto.entrega.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.stereotype.Service;
+
+import com.proyecto.entrega.dto.SqlLoggingDTO;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * SqlLoggingService - Log de SQL activable en caliente
+ *
+ * Reemplaza show-sql (que escribe directo a stdout) por los loggers de
+ * Hibernate 6: org.hibernate.SQL para las sentencias y
+ * org.hibernate.orm.jdbc.bind para los parámetros. Arranca según
+ * app.logging.sql y un operador de la plataforma lo cambia con
+ * PUT /api/admin/logging/sql sin reiniciar; los eventos pasan por el mismo
+ * appender asíncrono que el resto.
+ */
+@Service
+public class SqlLoggingService {
+
+    static final String SQL_LOGGER = "org.hibernate.SQL";
+    static final String BIND_LOGGER = "org.hibernate.orm.jdbc.bind";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlLoggingService.class);
+
+    @Autowired
+    private LoggingSystem loggingSystem;
+
+    @Value("${app.logging.sql:false}")
+    private boolean enabledAtStartup;
+
+    @Value("${app.logging.sql-parameters:false}")
+    private boolean parametersAtStartup;
+
+    @PostConstruct
+    void applyStartupState() {
+        apply(enabledAtStartup, parametersAtStartup);
+    }
+
+    public SqlLoggingDTO getState() {
+        return new SqlLoggingDTO(isEnabled(SQL_LOGGER, LogLevel.DEBUG), isEnabled(BIND_LOGGER, LogLevel.TRACE));
+    }
+
+    /**
+     * @param parameters Valores enlazados; solo aplica con enabled=true
+     */
+    public SqlLoggingDTO setState(boolean enabled, boolean parameters) {
+        apply(enabled, parameters);
+        log.info("Log de SQL {}{}", enabled ? "activado" : "desactivado",
+                enabled && parameters ? " con parámetros" : "");
+        return getState();
+    }
+
+    private void apply(boolean enabled, boolean parameters) {
+        // null vuelve al nivel heredado (INFO): la sentencia ni se formatea
+        loggingSystem.setLogLevel(SQL_LOGGER, enabled ? LogLevel.DEBUG : null);
+        loggingSystem.setLogLevel(BIND_LOGGER, enabled && parameters ? LogLevel.TRACE : null);
+    }
+
+    private boolean isEnabled(String logger, LogLevel level) {
+        LoggerConfiguration configuration = loggingSystem.getLoggerConfiguration(logger);
+        return configuration != null && configuration.getEffectiveLevel() != null
+                && configuration.getEffectiveLevel().ordinal() <= level.ordinal();
+    }
+}
@@ -2,11 +2,11 @@ package com.proyecto.entrega.service;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.proyecto.entrega.dto.CursorPage;
 import com.proyecto.entrega.dto.UserDTO;
 import com.proyecto.entrega.dto.UserSafeDTO;
 import com.proyecto.entrega.entity.Company;
@@ -15,17 +15,24 @@ import com.proyecto.entrega.entity.User;
 import com.proyecto.entrega.exception.DuplicateResourceException;
 import com.proyecto.entrega.exception.ResourceNotFoundException;
 import com.proyecto.entrega.exception.ValidationException;
+import com.proyecto.entrega.mapper.DtoMapper;
 import com.proyecto.entrega.repository.UserRepository;
+import com.proyecto.entrega.repository.projection.UserRow;
+import com.proyecto.entrega.security.PasswordHasher;
+import com.proyecto.entrega.security.PrincipalCache;
 
 @Service
 public class UserService {
 
     @Autowired
-    private ModelMapper modelMapper;
+    private DtoMapper dtoMapper;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CursorPagination cursorPagination;
+
     @Autowired
     private CompanyService companyService;
 
@@ -33,7 +40,10 @@ public class UserService {
     private RoleService roleService;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private PrincipalCache principalCache;
 
     public UserDTO createUser(UserDTO userDTO) {
         // Validación de datos
@@ -53,7 +63,7 @@ public class UserService {
             throw new DuplicateResourceException("Usuario", "correo", userDTO.getCorreo());
         }
 
-        User user = modelMapper.map(userDTO, User.class);
+        User user = dtoMapper.toUser(userDTO);
 
         Company company = companyService.findCompanyEntity(userDTO.getCompanyId());
         Role role = roleService.findRoleEntity(userDTO.getRoleId());
@@ -61,11 +71,11 @@ public class UserService {
         user.setCompany(company);
         user.setRole(role);
 
-        String contrasenaEncriptada = passwordEncoder.encode(userDTO.getContrasena());
+        String contrasenaEncriptada = passwordHasher.encode(userDTO.getContrasena());
         user.setContrasena(contrasenaEncriptada);
 
         user = userRepository.save(user);
-        return modelMapper.map(user, UserDTO.class);
+        return dtoMapper.toUserDTO(user);
     }
 
     public UserDTO updateUser(UserDTO userDTO) {
@@ -86,18 +96,19 @@ public class UserService {
         user.setCorreo(userDTO.getCorreo());
 
         if (userDTO.getContrasena() != null && !userDTO.getContrasena().isBlank()) {
-            String contrasenaEncriptada = passwordEncoder.encode(userDTO.getContrasena());
+            String contrasenaEncriptada = passwordHasher.encode(userDTO.getContrasena());
             user.setContrasena(contrasenaEncriptada);
         }
 
         user = userRepository.save(user);
-        return modelMapper.map(user, UserDTO.class);
+        principalCache.invalidate(user.getId());
+        return dtoMapper.toUserDTO(user);
     }
 
     public UserSafeDTO findUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario", "id", id));
-        return modelMapper.map(user, UserSafeDTO.class);
+        return dtoMapper.toUserSafeDTO(user);
     }
 
     public User findUserEntity(Long id) {
@@ -110,20 +121,39 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario", "id", id));
         user.setStatus("inactive");
         userRepository.save(user);
+        principalCache.invalidate(id);
+    }
+
+    /**
+     * Reemplaza el hash de la contraseña (re-hash con los parámetros
+     * actuales tras un login exitoso). No modifica ningún otro dato.
+     */
+    @Transactional
+    public void updatePasswordHash(Long id, String contrasenaEncriptada) {
+        userRepository.updateContrasena(id, contrasenaEncriptada);
+    }
+
+    /**
+     * Usuario autenticado a partir del id del token JWT.
+     *
+     * Se resuelve desde PrincipalCache; solo consulta la base de datos si
+     * el usuario no está en el cache (o fue invalidado por updateUser o
+     * deleteUser).
+     */
+    public UserSafeDTO findPrincipal(Long id) {
+        return principalCache.get(id, this::findUser);
     }
 
-    public List<UserSafeDTO> getUsersByCompany(Long id, Long excludedUserId) {
-        List<User> users = userRepository.findByCompanyIdAndIdNot(id, excludedUserId);
-        return users.stream()
-                .map(user -> modelMapper.map(user, UserSafeDTO.class))
-                .toList();
+    public CursorPage<UserSafeDTO> getUsersByCompany(Long id, Long excludedUserId, String cursor, Integer size) {
+        List<UserRow> users = userRepository.findRowsByCompanyIdExcluding(
+                id, excludedUserId, cursorPagination.afterId(cursor), cursorPagination.limit(size));
+        return cursorPagination.page(users, size, UserRow::getId, dtoMapper::toUserSafeDTO);
     }
 
-    public List<UserSafeDTO> findAllUsers() {
-        List<User> users = userRepository.findAll();
-        return users.stream()
-                .map(user -> modelMapper.map(user, UserSafeDTO.class))
-                .toList();
+    public CursorPage<UserSafeDTO> findAllUsers(String cursor, Integer size) {
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(
+                cursorPagination.afterId(cursor), cursorPagination.limit(size));
+        return cursorPagination.page(users, size, User::getId, dtoMapper::toUserSafeDTO);
     }
 
     // ========================================
@@ -143,13 +173,13 @@ public class UserService {
         if (user == null) {
             throw new ResourceNotFoundException("Usuario", "correo", correo);
         }
-        return modelMapper.map(user, UserDTO.class);
+        return dtoMapper.toUserDTO(user);
     }
 
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario", "id", id));
-        return modelMapper.map(user, UserDTO.class);
+        return dtoMapper.toUserDTO(user);
     }
 
     private void validateCompanyAndRole(UserDTO userDTO) {
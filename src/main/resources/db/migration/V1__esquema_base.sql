@@ -0,0 +1,93 @@
+-- =====================================================================
+-- V1 - Esquema base
+--
+-- Equivale al esquema que generaba Hibernate con ddl-auto=update. Las
+-- bases existentes se marcan como versión 1 (spring.flyway.baseline-on-migrate)
+-- y no ejecutan este script; solo las bases nuevas lo aplican.
+-- =====================================================================
+
+CREATE TABLE company (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nit             BIGINT,
+    name            VARCHAR(255),
+    correo_contacto VARCHAR(255),
+    status          VARCHAR(255)
+);
+
+CREATE TABLE role (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nombre      VARCHAR(255),
+    descripcion VARCHAR(255),
+    status      VARCHAR(255),
+    company_id  BIGINT,
+    CONSTRAINT fk_role_company FOREIGN KEY (company_id) REFERENCES company (id)
+);
+
+CREATE TABLE usuarios (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nombre     VARCHAR(255),
+    correo     VARCHAR(255),
+    contrasena VARCHAR(255),
+    status     VARCHAR(255),
+    company_id BIGINT,
+    role_id    BIGINT,
+    CONSTRAINT fk_usuarios_company FOREIGN KEY (company_id) REFERENCES company (id),
+    CONSTRAINT fk_usuarios_role FOREIGN KEY (role_id) REFERENCES role (id)
+);
+
+CREATE TABLE process (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255),
+    description VARCHAR(255),
+    status      VARCHAR(255),
+    company_id  BIGINT,
+    CONSTRAINT fk_process_company FOREIGN KEY (company_id) REFERENCES company (id)
+);
+
+-- activity, gateway y edge toman su id de secuencias con incremento 50
+-- (allocationSize de las entidades) para poder agrupar los INSERT en lotes.
+CREATE SEQUENCE activity_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE gateway_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE edge_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE activity (
+    id          BIGINT PRIMARY KEY,
+    name        VARCHAR(255),
+    x           DOUBLE PRECISION,
+    y           DOUBLE PRECISION,
+    description VARCHAR(255),
+    width       DOUBLE PRECISION,
+    height      DOUBLE PRECISION,
+    status      VARCHAR(255),
+    process_id  BIGINT,
+    role_id     BIGINT,
+    CONSTRAINT fk_activity_process FOREIGN KEY (process_id) REFERENCES process (id),
+    CONSTRAINT fk_activity_role FOREIGN KEY (role_id) REFERENCES role (id)
+);
+
+CREATE TABLE gateway (
+    id         BIGINT PRIMARY KEY,
+    status     VARCHAR(255),
+    type       VARCHAR(255),
+    x          DOUBLE PRECISION,
+    y          DOUBLE PRECISION,
+    process_id BIGINT,
+    CONSTRAINT fk_gateway_process FOREIGN KEY (process_id) REFERENCES process (id)
+);
+
+CREATE TABLE edge (
+    id                  BIGINT PRIMARY KEY,
+    label               VARCHAR(255),
+    description         VARCHAR(255),
+    status              VARCHAR(255) NOT NULL,
+    process_id          BIGINT,
+    activity_source_id  BIGINT,
+    activity_destiny_id BIGINT,
+    from_type           VARCHAR(20),
+    from_id             BIGINT,
+    to_type             VARCHAR(20),
+    to_id               BIGINT,
+    CONSTRAINT fk_edge_process FOREIGN KEY (process_id) REFERENCES process (id),
+    CONSTRAINT fk_edge_activity_source FOREIGN KEY (activity_source_id) REFERENCES activity (id),
+    CONSTRAINT fk_edge_activity_destiny FOREIGN KEY (activity_destiny_id) REFERENCES activity (id)
+);
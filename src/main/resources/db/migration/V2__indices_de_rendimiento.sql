@@ -0,0 +1,38 @@
+-- =====================================================================
+-- V2 - Índices de rendimiento
+--
+-- Crea las secuencias de ids de activity, gateway y edge, y los índices
+-- de las búsquedas frecuentes: extremos de los edges, diagrama por
+-- proceso, listados por compañía, login y validaciones de duplicados.
+-- IF NOT EXISTS: una base marcada con baseline puede tener alguno creado
+-- a mano.
+-- =====================================================================
+
+-- Secuencias de activity/gateway/edge: en bases marcadas con baseline
+-- pueden no existir si nunca arrancó una versión con ids por secuencia.
+CREATE SEQUENCE IF NOT EXISTS activity_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS gateway_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS edge_seq START WITH 1 INCREMENT BY 50;
+
+-- Extremos polimórficos del edge: cada rama de las búsquedas por nodo
+-- (EdgeRepository.ACTIVITY_EDGE_IDS / GATEWAY_EDGE_IDS) usa uno de estos índices.
+CREATE INDEX IF NOT EXISTS idx_edge_from ON edge (from_type, from_id);
+CREATE INDEX IF NOT EXISTS idx_edge_to ON edge (to_type, to_id);
+CREATE INDEX IF NOT EXISTS idx_edge_activity_source ON edge (activity_source_id);
+CREATE INDEX IF NOT EXISTS idx_edge_activity_destiny ON edge (activity_destiny_id);
+
+-- Diagrama por proceso y soft delete en cascada
+CREATE INDEX IF NOT EXISTS idx_edge_process_status ON edge (process_id, status);
+CREATE INDEX IF NOT EXISTS idx_activity_process_status ON activity (process_id, status);
+CREATE INDEX IF NOT EXISTS idx_gateway_process_status ON gateway (process_id, status);
+
+-- Listados por compañía y restauración en cascada
+CREATE INDEX IF NOT EXISTS idx_process_company_status ON process (company_id, status);
+CREATE INDEX IF NOT EXISTS idx_role_company_status ON role (company_id, status);
+CREATE INDEX IF NOT EXISTS idx_usuarios_company_status ON usuarios (company_id, status);
+
+-- Login (UserRepository.findByCorreo) y validaciones de duplicados
+CREATE INDEX IF NOT EXISTS idx_usuarios_correo ON usuarios (correo);
+CREATE INDEX IF NOT EXISTS idx_company_name ON company (name);
+CREATE INDEX IF NOT EXISTS idx_company_correo_contacto ON company (correo_contacto);
+CREATE INDEX IF NOT EXISTS idx_process_name_company ON process (name, company_id);
@@ -0,0 +1,12 @@
+-- =====================================================================
+-- V3 - Alinea las secuencias de ids con los datos existentes
+--
+-- Las tablas activity, gateway y edge usaban IDENTITY; al pasar a
+-- secuencias (allocationSize = 50) el siguiente bloque reservado debe
+-- quedar por encima del mayor id actual. GREATEST evita retroceder la
+-- secuencia si otro nodo ya reservó bloques.
+-- =====================================================================
+
+SELECT setval('activity_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM activity) + 50, (SELECT last_value FROM activity_seq)));
+SELECT setval('gateway_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM gateway) + 50, (SELECT last_value FROM gateway_seq)));
+SELECT setval('edge_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM edge) + 50, (SELECT last_value FROM edge_seq)));
@@ -0,0 +1,23 @@
+-- =====================================================================
+-- V4 - Índices para paginación keyset
+--
+-- Los listados por proceso/compañía filtran por (padre, status) y
+-- avanzan con id > :afterId ORDER BY id LIMIT :size. Con id al final del
+-- índice cada página es un rango contiguo, sin ordenar ni descartar filas.
+-- Reemplazan a los índices (padre, status) de V2, que quedan cubiertos
+-- por el prefijo.
+-- =====================================================================
+
+CREATE INDEX IF NOT EXISTS idx_edge_process_status_id ON edge (process_id, status, id);
+CREATE INDEX IF NOT EXISTS idx_activity_process_status_id ON activity (process_id, status, id);
+CREATE INDEX IF NOT EXISTS idx_gateway_process_status_id ON gateway (process_id, status, id);
+CREATE INDEX IF NOT EXISTS idx_process_company_status_id ON process (company_id, status, id);
+CREATE INDEX IF NOT EXISTS idx_role_company_status_id ON role (company_id, status, id);
+CREATE INDEX IF NOT EXISTS idx_usuarios_company_status_id ON usuarios (company_id, status, id);
+
+DROP INDEX IF EXISTS idx_edge_process_status;
+DROP INDEX IF EXISTS idx_activity_process_status;
+DROP INDEX IF EXISTS idx_gateway_process_status;
+DROP INDEX IF EXISTS idx_process_company_status;
+DROP INDEX IF EXISTS idx_role_company_status;
+DROP INDEX IF EXISTS idx_usuarios_company_status;
@@ -0,0 +1,11 @@
+-- =====================================================================
+-- V5 - Control de concurrencia optimista en los elementos del diagrama
+--
+-- Cada UPDATE de activity, gateway o edge incrementa version y solo se
+-- aplica si la fila sigue en la versión que leyó el editor
+-- (WHERE id = ? AND version = ?). Las filas existentes empiezan en 0.
+-- =====================================================================
+
+ALTER TABLE activity ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE gateway ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE edge ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
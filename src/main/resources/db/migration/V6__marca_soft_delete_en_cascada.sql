@@ -0,0 +1,13 @@
+-- =====================================================================
+-- V6 - Marca del soft delete en cascada
+--
+-- cascade_deleted distingue las filas que desactivó una cascada (al
+-- eliminar su compañía, proceso o nodo) de las eliminadas a propósito.
+-- Restaurar el padre reactiva solo las marcadas y limpia la marca.
+-- Las filas ya inactivas quedan sin marca: no se restauran en cascada.
+-- =====================================================================
+
+ALTER TABLE process ADD COLUMN IF NOT EXISTS cascade_deleted BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE activity ADD COLUMN IF NOT EXISTS cascade_deleted BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE gateway ADD COLUMN IF NOT EXISTS cascade_deleted BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE edge ADD COLUMN IF NOT EXISTS cascade_deleted BOOLEAN NOT NULL DEFAULT FALSE;
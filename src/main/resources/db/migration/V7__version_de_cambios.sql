@@ -0,0 +1,11 @@
+-- =====================================================================
+-- V7 - Versión de cambios de procesos y compañías
+--
+-- change_version sube en la misma transacción que cada escritura que
+-- cambia lo que devuelve un GET del proceso (o de la compañía). Los ETag
+-- de ChangeVersions se arman con estos contadores, así todas las
+-- instancias ven la misma versión. Solo suben: nunca se reinician.
+-- =====================================================================
+
+ALTER TABLE process ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE company ADD COLUMN IF NOT EXISTS change_version BIGINT NOT NULL DEFAULT 0;
@@ -3,7 +3,9 @@ package com.proyecto.entrega.Controladores;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.proyecto.entrega.controladores.ActivityController;
 import com.proyecto.entrega.dto.ActivityDTO;
+import com.proyecto.entrega.dto.CursorPage;
 import com.proyecto.entrega.service.ActivityService;
+import com.proyecto.entrega.service.ChangeVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -24,17 +26,22 @@ class ActivityControllerTest {
 
     private MockMvc mockMvc;
     private ActivityService activityService;
+    private ChangeVersions changeVersions;
     private final ObjectMapper om = new ObjectMapper();
 
     @BeforeEach
     void setup() {
         activityService = mock(ActivityService.class);
+        changeVersions = mock(ChangeVersions.class);
         ActivityController controller = new ActivityController();
         // Inyección manual del mock
         try {
             var f = ActivityController.class.getDeclaredField("activityService");
             f.setAccessible(true);
             f.set(controller, activityService);
+            var versions = ActivityController.class.getDeclaredField("changeVersions");
+            versions.setAccessible(true);
+            versions.set(controller, changeVersions);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -86,11 +93,12 @@ class ActivityControllerTest {
         b.setDescription("d2"); b.setWidth(7.0); b.setHeight(8.0); b.setStatus("inactive");
         b.setProcessId(20L); b.setRoleId(200L);
 
-        when(activityService.findActivities()).thenReturn(List.of(a, b));
+        when(activityService.findActivities("MA", 2)).thenReturn(new CursorPage<>(List.of(a, b), "Mg"));
 
-        mockMvc.perform(get("/api/activity"))
+        mockMvc.perform(get("/api/activity").param("cursor", "MA").param("size", "2"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(APPLICATION_JSON))
+                .andExpect(header().string("X-Next-Cursor", "Mg"))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].name", is("A")))
@@ -104,6 +112,30 @@ class ActivityControllerTest {
                 .andExpect(jsonPath("$[1].roleId").doesNotExist());
     }
 
+    @Test
+    void getActivitiesByProcess_ifNoneMatch_respondeNotModifiedSinConsultarElServicio() throws Exception {
+        // La tercera consulta ve el proceso con otra versión
+        when(changeVersions.etag(eq(ChangeVersions.process(7L)), any(), any()))
+                .thenReturn("\"1.1-3c1\"", "\"1.1-3c1\"", "\"2.1-3c1\"");
+        when(activityService.findActivitiesByProcess(7L, null, null))
+                .thenReturn(new CursorPage<>(List.of(new ActivityDTO()), null));
+
+        String etag = mockMvc.perform(get("/api/activity/process/{processId}", 7L))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/activity/process/{processId}", 7L).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Tras un cambio en el proceso el ETag ya no coincide
+        mockMvc.perform(get("/api/activity/process/{processId}", 7L).header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        verify(activityService, times(2)).findActivitiesByProcess(7L, null, null);
+    }
+
     @Test
     void createActivity_returnsOk_andCallsService_enviandoIdsComoLong() throws Exception {
         ActivityDTO payload = new ActivityDTO();
@@ -171,6 +203,30 @@ class ActivityControllerTest {
         org.assertj.core.api.Assertions.assertThat(captor.getValue().getRoleId()).isEqualTo(7L);
     }
 
+    @Test
+    void updateActivity_ifMatch_pasaLaVersionAlServicio_yDevuelveEtag() throws Exception {
+        ActivityDTO payload = new ActivityDTO();
+        payload.setId(10L);
+        payload.setName("Editada");
+        payload.setProcessId(77L);
+
+        ActivityDTO updated = new ActivityDTO();
+        updated.setId(10L);
+        updated.setVersion(4L);
+        when(activityService.updateActivity(any(ActivityDTO.class))).thenReturn(updated);
+
+        mockMvc.perform(put("/api/activity")
+                        .header("If-Match", "\"3\"")
+                        .contentType(APPLICATION_JSON)
+                        .content(om.writeValueAsString(payload)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""));
+
+        ArgumentCaptor<ActivityDTO> captor = ArgumentCaptor.forClass(ActivityDTO.class);
+        verify(activityService).updateActivity(captor.capture());
+        org.assertj.core.api.Assertions.assertThat(captor.getValue().getVersion()).isEqualTo(3L);
+    }
+
     @Test
     void deleteActivity_returnsOk_andCallsService() throws Exception {
         mockMvc.perform(delete("/api/activity/{id}", 5L))
@@ -3,6 +3,7 @@ package com.proyecto.entrega.Controladores;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.proyecto.entrega.controladores.CompanyController;
 import com.proyecto.entrega.dto.CompanyDTO;
+import com.proyecto.entrega.dto.CursorPage;
 import com.proyecto.entrega.service.CompanyService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -68,10 +69,11 @@ class CompanyControllerTest {
         CompanyDTO b = new CompanyDTO();
         b.setId(2L); b.setNit(456L); b.setName("B"); b.setCorreoContacto("b@co.com"); b.setStatus("inactive");
 
-        Mockito.when(companyService.findCompanies()).thenReturn(List.of(a, b));
+        Mockito.when(companyService.findCompanies(null, null)).thenReturn(new CursorPage<>(List.of(a, b), null));
 
         mockMvc.perform(get("/api/company"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].NIT").value(123))
                 .andExpect(jsonPath("$[0].name").value("A"))
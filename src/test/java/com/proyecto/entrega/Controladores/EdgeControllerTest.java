@@ -2,14 +2,20 @@ package com.proyecto.entrega.Controladores;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.proyecto.entrega.controladores.EdgeController;
+import com.proyecto.entrega.dto.CursorPage;
 import com.proyecto.entrega.dto.EdgeDTO;
+import com.proyecto.entrega.service.ChangeVersions;
 import com.proyecto.entrega.service.EdgeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -36,6 +42,9 @@ class EdgeControllerTest {
             var f = EdgeController.class.getDeclaredField("edgeService");
             f.setAccessible(true);
             f.set(controller, edgeService);
+            var versions = EdgeController.class.getDeclaredField("changeVersions");
+            versions.setAccessible(true);
+            versions.set(controller, mock(ChangeVersions.class));
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -78,7 +87,7 @@ class EdgeControllerTest {
         b.setId(2L); b.setDescription("B->C"); b.setStatus("inactive");
         b.setProcessId(20L); b.setActivitySourceId(200L); b.setActivityDestinyId(300L);
 
-        when(edgeService.findEdges()).thenReturn(List.of(a, b));
+        when(edgeService.findEdges(null, null)).thenReturn(new CursorPage<>(List.of(a, b), null));
 
         mockMvc.perform(get("/api/edge"))
                 .andExpect(status().isOk())
@@ -164,4 +173,24 @@ class EdgeControllerTest {
 
         verify(edgeService).deleteEdge(9L);
     }
+
+    @Test
+    void exportEdgesByCompany_escribeNdjsonEnStreaming() throws Exception {
+        when(edgeService.exportEdges(eq(3L), any(OutputStream.class))).thenAnswer(inv -> {
+            OutputStream out = inv.getArgument(1);
+            out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/edge/company/{companyId}/export", 3L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+
+        verify(edgeService).exportEdges(eq(3L), any(OutputStream.class));
+    }
 }
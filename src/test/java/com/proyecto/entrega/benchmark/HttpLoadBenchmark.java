@@ -0,0 +1,202 @@
+package com.proyecto.entrega.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HttpLoadBenchmark - Carga con muchos clientes concurrentes contra la API
+ *
+ * Compara el modo por defecto (hilos de plataforma de Tomcat) con el modo
+ * de hilos virtuales (perfil virtual-threads). Cada cliente repite GET a
+ * las rutas indicadas, una petición a la vez, durante duration; las
+ * peticiones de warmup no se cuentan.
+ *
+ * Reporta peticiones por segundo, errores y latencias p50/p95/p99. Con
+ * --pid (Linux) muestrea además la memoria residente (VmRSS) y la cantidad
+ * de hilos del servidor, que es donde los dos modos se diferencian: con
+ * 1000 clientes los hilos de plataforma se quedan esperando el pool de
+ * Hikari y cada uno reserva su pila.
+ *
+ * Ejecución (el servidor corriendo aparte):
+ *   mvn spring-boot:run                      (hilos de plataforma)
+ *   mvn -Pvirtual-threads spring-boot:run    (hilos virtuales, Java 21+)
+ *
+ *   mvn -Ploadtest test-compile exec:exec -Dload.args="--token eyJ... --pid 12345
+ *       --paths /api/process/1/graph,/api/activity/process/1 --clients 1000 --duration 60s"
+ */
+public class HttpLoadBenchmark {
+
+    private final URI base;
+    private final String token;
+    private final List<String> paths;
+    private final int clients;
+    private final Duration warmup;
+    private final Duration duration;
+    private final long pid;
+
+    private final HttpClient client;
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+    private final AtomicLong peakRssKb = new AtomicLong();
+    private final AtomicLong peakThreads = new AtomicLong();
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    HttpLoadBenchmark(Map<String, String> args) {
+        this.base = URI.create(args.getOrDefault("url", "http://localhost:8080"));
+        this.token = args.get("token");
+        this.paths = Arrays.asList(args.getOrDefault("paths", "/api/process").split(","));
+        this.clients = Integer.parseInt(args.getOrDefault("clients", "1000"));
+        this.warmup = parseDuration(args.getOrDefault("warmup", "10s"));
+        this.duration = parseDuration(args.getOrDefault("duration", "60s"));
+        this.pid = Long.parseLong(args.getOrDefault("pid", "0"));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] argv) throws Exception {
+        new HttpLoadBenchmark(parseArgs(argv)).run();
+    }
+
+    void run() throws InterruptedException {
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        if (pid > 0) {
+            sampler.scheduleAtFixedRate(this::sampleServer, 0, 500, TimeUnit.MILLISECONDS);
+        }
+
+        List<CompletableFuture<Void>> loops = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            loops.add(done);
+            next(i, done);
+        }
+
+        Thread.sleep(warmup.toMillis());
+        measuring = true;
+        long start = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        measuring = false;
+        long elapsed = System.nanoTime() - start;
+        running = false;
+
+        CompletableFuture.allOf(loops.toArray(new CompletableFuture[0]))
+                .completeOnTimeout(null, 30, TimeUnit.SECONDS)
+                .join();
+        sampler.shutdownNow();
+        report(elapsed);
+    }
+
+    // Un cliente: la siguiente petición sale cuando llega la respuesta anterior
+    private void next(int sequence, CompletableFuture<Void> done) {
+        if (!running) {
+            done.complete(null);
+            return;
+        }
+        String path = paths.get(sequence % paths.size());
+        HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(path))
+                .timeout(Duration.ofSeconds(60))
+                .GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        long sent = System.nanoTime();
+        client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (measuring) {
+                        latencies.add(System.nanoTime() - sent);
+                        if (error == null && response.statusCode() < 400) {
+                            ok.increment();
+                        } else {
+                            errors.increment();
+                        }
+                    }
+                    next(sequence + 1, done);
+                });
+    }
+
+    private void sampleServer() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    peakRssKb.accumulateAndGet(firstNumber(line), Math::max);
+                } else if (line.startsWith("Threads:")) {
+                    peakThreads.accumulateAndGet(firstNumber(line), Math::max);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // El proceso no existe o no es Linux: se omite la memoria
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        double seconds = elapsedNanos / 1_000_000_000d;
+        System.out.printf("clientes=%d duración=%.1fs%n", clients, seconds);
+        System.out.printf("ok=%d errores=%d throughput=%.1f req/s%n",
+                ok.sum(), errors.sum(), (ok.sum() + errors.sum()) / seconds);
+        System.out.printf("latencia p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                percentile(sorted, 1.0));
+        if (pid > 0) {
+            System.out.printf("servidor pid=%d rss máx=%d MB hilos máx=%d%n",
+                    pid, peakRssKb.get() / 1024, peakThreads.get());
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000d;
+    }
+
+    private static long firstNumber(String line) {
+        return Long.parseLong(line.replaceAll("\\D+", " ").trim().split(" ")[0]);
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static Map<String, String> parseArgs(String[] argv) {
+        Map<String, String> args = new HashMap<>();
+        for (int i = 0; i + 1 < argv.length; i += 2) {
+            if (!argv[i].startsWith("--")) {
+                throw new IllegalArgumentException("Argumento inválido: " + argv[i]);
+            }
+            args.put(argv[i].substring(2), argv[i + 1]);
+        }
+        return args;
+    }
+}
@@ -1,20 +1,24 @@
-package com.proyecto.entrega.config;
+package com.proyecto.entrega.benchmark;
 
 import org.modelmapper.Converter;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
 
 import com.proyecto.entrega.dto.*;
 import com.proyecto.entrega.entity.*;
 import com.proyecto.entrega.entity.Process;
 
-@Configuration
-public class ModelMapperConfig {
+/**
+ * Configuración de ModelMapper que usaba la aplicación antes de DtoMapper.
+ *
+ * Se conserva sin cambios solo como referencia para MapperBenchmark.
+ */
+final class LegacyModelMapper {
 
-    @Bean
-    public ModelMapper modelMapper() {
+    private LegacyModelMapper() {
+    }
+
+    static ModelMapper create() {
         ModelMapper modelMapper = new ModelMapper();
         
         modelMapper.getConfiguration()
@@ -81,7 +85,7 @@ public class ModelMapperConfig {
 
     // ========== CONVERTERS PERSONALIZADOS ==========
     
-    private Converter<Company, CompanyDTO> companyConverter() {
+    private static Converter<Company, CompanyDTO> companyConverter() {
         return context -> {
             Company source = context.getSource();
             if (source == null) return null;
@@ -97,7 +101,7 @@ public class ModelMapperConfig {
         };
     }
 
-    private Converter<Process, ProcessDTO> processConverter() {
+    private static Converter<Process, ProcessDTO> processConverter() {
         return context -> {
             Process source = context.getSource();
             if (source == null) return null;
@@ -123,7 +127,7 @@ public class ModelMapperConfig {
         };
     }
 
-    private Converter<Activity, ActivityDTO> activityConverter() {
+    private static Converter<Activity, ActivityDTO> activityConverter() {
         return context -> {
             Activity source = context.getSource();
             if (source == null) return null;
@@ -152,7 +156,7 @@ public class ModelMapperConfig {
         };
     }
 
-    private Converter<Role, RoleDTO> roleConverter() {
+    private static Converter<Role, RoleDTO> roleConverter() {
         return context -> {
             Role source = context.getSource();
             if (source == null) return null;
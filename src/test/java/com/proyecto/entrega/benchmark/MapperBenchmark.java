@@ -0,0 +1,156 @@
+package com.proyecto.entrega.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.proyecto.entrega.dto.ActivityDTO;
+import com.proyecto.entrega.dto.EdgeDTO;
+import com.proyecto.entrega.dto.UserSafeDTO;
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.entity.Edge;
+import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.entity.Role;
+import com.proyecto.entrega.entity.User;
+import com.proyecto.entrega.mapper.DtoMapper;
+
+/**
+ * MapperBenchmark - ModelMapper vs DtoMapper sobre listas grandes
+ *
+ * Mapea listas de activities, edges y usuarios (10.000 elementos por
+ * defecto) con la configuración anterior de ModelMapper y con DtoMapper.
+ *
+ * Ejecución:
+ *   mvn -Pbenchmark test-compile exec:exec
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="MapperBenchmark -p size=1000 -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"10000"})
+    private int size;
+
+    private ModelMapper modelMapper;
+    private DtoMapper dtoMapper;
+
+    private List<Activity> activities;
+    private List<Edge> edges;
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        modelMapper = LegacyModelMapper.create();
+        dtoMapper = new DtoMapper();
+
+        Company company = new Company();
+        company.setId(1L);
+        company.setNit(900123456L);
+        company.setName("Acme");
+        company.setCorreoContacto("contacto@acme.com");
+
+        Role role = new Role();
+        role.setId(1L);
+        role.setNombre("Analista");
+        role.setDescripcion("Modela procesos");
+        role.setCompany(company);
+
+        Process process = new Process();
+        process.setId(1L);
+        process.setName("Proceso");
+        process.setDescription("Proceso de prueba");
+        process.setCompany(company);
+
+        activities = new ArrayList<>(size);
+        edges = new ArrayList<>(size);
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Activity activity = new Activity();
+            activity.setId((long) i);
+            activity.setName("Actividad " + i);
+            activity.setDescription("Descripción " + i);
+            activity.setX(i * 10.0);
+            activity.setY(i * 5.0);
+            activity.setWidth(120.0);
+            activity.setHeight(60.0);
+            activity.setProcess(process);
+            activity.setRole(role);
+            activities.add(activity);
+
+            Edge edge = new Edge();
+            edge.setId((long) i);
+            edge.setLabel("e" + i);
+            edge.setProcess(process);
+            edge.setActivitySource(activity);
+            edge.setActivityDestiny(i > 0 ? activities.get(i - 1) : activity);
+            edge.setFromType("activity");
+            edge.setFromId(activity.getId());
+            edge.setToType("activity");
+            edge.setToId(edge.getActivityDestiny().getId());
+            edges.add(edge);
+
+            User user = new User();
+            user.setId((long) i);
+            user.setNombre("Usuario " + i);
+            user.setCorreo("usuario" + i + "@acme.com");
+            user.setContrasena("$2a$10$hash");
+            user.setCompany(company);
+            user.setRole(role);
+            users.add(user);
+        }
+    }
+
+    // ==================== ACTIVITY ====================
+
+    @Benchmark
+    public List<ActivityDTO> activitiesModelMapper() {
+        return activities.stream().map(a -> modelMapper.map(a, ActivityDTO.class)).toList();
+    }
+
+    @Benchmark
+    public List<ActivityDTO> activitiesDtoMapper() {
+        return activities.stream().map(dtoMapper::toActivityDTO).toList();
+    }
+
+    // ==================== EDGE ====================
+
+    @Benchmark
+    public List<EdgeDTO> edgesModelMapper() {
+        return edges.stream().map(e -> modelMapper.map(e, EdgeDTO.class)).toList();
+    }
+
+    @Benchmark
+    public List<EdgeDTO> edgesDtoMapper() {
+        return edges.stream().map(dtoMapper::toEdgeDTO).toList();
+    }
+
+    // ==================== USER ====================
+
+    @Benchmark
+    public List<UserSafeDTO> usersModelMapper() {
+        return users.stream().map(u -> modelMapper.map(u, UserSafeDTO.class)).toList();
+    }
+
+    @Benchmark
+    public List<UserSafeDTO> usersDtoMapper() {
+        return users.stream().map(dtoMapper::toUserSafeDTO).toList();
+    }
+}
@@ -0,0 +1,64 @@
+package com.proyecto.entrega.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    LoggerContext context = new LoggerContext();
+    SamplingTurboFilter filter = new SamplingTurboFilter();
+    Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        filter.setEvery(10);
+        logger = context.getLogger("com.proyecto.entrega.service.EdgeService");
+        logger.setLevel(Level.DEBUG);
+    }
+
+    @Test
+    void marcados_pasaUnoDeCadaN() {
+        long passed = IntStream.range(0, 100)
+                .filter(i -> decide(logger, Level.DEBUG, SamplingTurboFilter.SAMPLED) == FilterReply.NEUTRAL)
+                .count();
+
+        assertThat(passed).isEqualTo(10);
+    }
+
+    @Test
+    void sinMarca_noSeMuestrea() {
+        IntStream.range(0, 20).forEach(i ->
+                assertThat(decide(logger, Level.DEBUG, null)).isEqualTo(FilterReply.NEUTRAL));
+    }
+
+    @Test
+    void cadaLoggerLlevaSuPropioContador() {
+        Logger other = context.getLogger("com.proyecto.entrega.service.GatewayService");
+        other.setLevel(Level.DEBUG);
+
+        assertThat(decide(logger, Level.DEBUG, SamplingTurboFilter.SAMPLED)).isEqualTo(FilterReply.NEUTRAL);
+        assertThat(decide(logger, Level.DEBUG, SamplingTurboFilter.SAMPLED)).isEqualTo(FilterReply.DENY);
+        assertThat(decide(other, Level.DEBUG, SamplingTurboFilter.SAMPLED)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    @Test
+    void nivelDeshabilitado_noConsumeMuestras() {
+        logger.setLevel(Level.INFO);
+        IntStream.range(0, 5).forEach(i -> decide(logger, Level.DEBUG, SamplingTurboFilter.SAMPLED));
+
+        logger.setLevel(Level.DEBUG);
+        assertThat(decide(logger, Level.DEBUG, SamplingTurboFilter.SAMPLED)).isEqualTo(FilterReply.NEUTRAL);
+    }
+
+    private FilterReply decide(Logger target, Level level, org.slf4j.Marker marker) {
+        return filter.decide(marker, target, level, "evento", null, null);
+    }
+}
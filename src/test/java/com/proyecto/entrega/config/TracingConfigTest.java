@@ -0,0 +1,108 @@
+package com.proyecto.entrega.config;
+
+import com.proyecto.entrega.exception.ResourceNotFoundException;
+import com.proyecto.entrega.service.EdgeService;
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TracingConfigTest {
+
+    ObservationRegistry registry = ObservationRegistry.create();
+    List<Observation.Context> started = new ArrayList<>();
+    List<Observation.Context> stopped = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    ObjectProvider<ObservationRegistry> provider = mock(ObjectProvider.class);
+
+    @BeforeEach
+    void setUp() {
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStart(Observation.Context context) {
+                started.add(context);
+            }
+
+            @Override
+            public void onStop(Observation.Context context) {
+                stopped.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        when(provider.getIfAvailable(any())).thenReturn(registry);
+    }
+
+    private MethodInvocation invocation(Object target, String method, Object result) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(target.getClass().getMethod(method, Long.class));
+        when(invocation.getThis()).thenReturn(target);
+        when(invocation.proceed()).thenReturn(result);
+        return invocation;
+    }
+
+    @Test
+    void invoke_abreUnSpanConClaseYMetodo() throws Throwable {
+        var interceptor = new TracingConfig.ObservedInterceptor(TracingConfig.SERVICE, provider, null);
+        MethodInvocation invocation = invocation(mock(EdgeService.class), "findEdge", "ok");
+
+        assertThat(interceptor.invoke(invocation)).isEqualTo("ok");
+
+        assertThat(stopped).hasSize(1);
+        Observation.Context context = stopped.get(0);
+        assertThat(context.getName()).isEqualTo("app.service");
+        assertThat(context.getContextualName()).isEqualTo("EdgeService.findEdge");
+        assertThat(context.getLowCardinalityKeyValues())
+                .contains(KeyValue.of("class", "EdgeService"), KeyValue.of("method", "findEdge"));
+    }
+
+    @Test
+    void invoke_repositorioUsaElNombreDeLaInterfaz() throws Throwable {
+        var interceptor = new TracingConfig.ObservedInterceptor(TracingConfig.REPOSITORY, provider,
+                "EdgeRepository");
+        MethodInvocation invocation = invocation(mock(EdgeService.class), "findEdge", null);
+
+        interceptor.invoke(invocation);
+
+        assertThat(stopped.get(0).getContextualName()).isEqualTo("EdgeRepository.findEdge");
+    }
+
+    @Test
+    void invoke_conExcepcion_registraElErrorYCierraElSpan() throws Throwable {
+        var interceptor = new TracingConfig.ObservedInterceptor(TracingConfig.CONTROLLER, provider, null);
+        MethodInvocation invocation = invocation(mock(EdgeService.class), "findEdge", null);
+        ResourceNotFoundException error = new ResourceNotFoundException("Edge no encontrado");
+        when(invocation.proceed()).thenThrow(error);
+
+        assertThatThrownBy(() -> interceptor.invoke(invocation)).isSameAs(error);
+
+        assertThat(stopped).hasSize(1);
+        assertThat(stopped.get(0).getError()).isSameAs(error);
+    }
+
+    @Test
+    void invoke_metodosDeObject_sinSpan() throws Throwable {
+        var interceptor = new TracingConfig.ObservedInterceptor(TracingConfig.SERVICE, provider, null);
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(Object.class.getMethod("toString"));
+        when(invocation.proceed()).thenReturn("EdgeService");
+
+        assertThat(interceptor.invoke(invocation)).isEqualTo("EdgeService");
+        assertThat(started).isEmpty();
+    }
+}
@@ -0,0 +1,164 @@
+package com.proyecto.entrega.mapper;
+
+import com.proyecto.entrega.dto.ActivityDTO;
+import com.proyecto.entrega.dto.EdgeDTO;
+import com.proyecto.entrega.dto.UserDTO;
+import com.proyecto.entrega.dto.UserSafeDTO;
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.entity.Edge;
+import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.entity.Role;
+import com.proyecto.entrega.entity.User;
+import com.proyecto.entrega.repository.projection.ActivityRow;
+import com.proyecto.entrega.repository.projection.UserRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DtoMapperTest {
+
+    private final DtoMapper dtoMapper = new DtoMapper();
+
+    private Company company;
+    private Role role;
+    private Process process;
+
+    @BeforeEach
+    void setup() {
+        company = new Company();
+        company.setId(1L); company.setName("Acme"); company.setNit(900L);
+
+        role = new Role();
+        role.setId(2L); role.setNombre("Analista"); role.setCompany(company);
+
+        process = new Process();
+        process.setId(3L); process.setName("Proc"); process.setCompany(company);
+    }
+
+    @Test
+    void toActivityDTO_mapeaRelacionesSinListas() {
+        Activity a = new Activity();
+        a.setId(10L); a.setName("A"); a.setX(1.0); a.setY(2.0);
+        a.setProcess(process); a.setRole(role);
+
+        ActivityDTO dto = dtoMapper.toActivityDTO(a);
+
+        assertThat(dto.getId()).isEqualTo(10L);
+        assertThat(dto.getStatus()).isEqualTo("active");
+        assertThat(dto.getProcessId()).isEqualTo(3L);
+        assertThat(dto.getProcess().getCompany().getName()).isEqualTo("Acme");
+        assertThat(dto.getRoleId()).isEqualTo(2L);
+        assertThat(dto.getRole().getCompanyId()).isEqualTo(1L);
+        assertThat(dto.getOutgoingEdges()).isNull();
+        assertThat(dto.getProcess().getActivities()).isNull();
+    }
+
+    @Test
+    void toEdgeDTO_extremosConProcesoBasico() {
+        Activity src = new Activity(); src.setId(10L); src.setProcess(process);
+        Activity dst = new Activity(); dst.setId(11L); dst.setProcess(process);
+        Edge e = new Edge();
+        e.setId(20L); e.setLabel("sí"); e.setProcess(process);
+        e.setActivitySource(src); e.setActivityDestiny(dst);
+        e.setFromType("activity"); e.setFromId(10L); e.setToType("activity"); e.setToId(11L);
+
+        EdgeDTO dto = dtoMapper.toEdgeDTO(e);
+
+        assertThat(dto.getProcessId()).isEqualTo(3L);
+        assertThat(dto.getProcess().getCompany()).isNotNull();
+        assertThat(dto.getActivitySourceId()).isEqualTo(10L);
+        assertThat(dto.getActivityDestinyId()).isEqualTo(11L);
+        assertThat(dto.getActivitySource().getProcess().getId()).isEqualTo(3L);
+        // El proceso de los extremos no incluye company
+        assertThat(dto.getActivitySource().getProcess().getCompany()).isNull();
+        assertThat(dto.getFromId()).isEqualTo(10L);
+        assertThat(dto.getToType()).isEqualTo("activity");
+    }
+
+    @Test
+    void toEdgeDTO_sinExtremosLegacy() {
+        Edge e = new Edge();
+        e.setId(21L); e.setFromType("gateway"); e.setFromId(5L);
+
+        EdgeDTO dto = dtoMapper.toEdgeDTO(e);
+
+        assertThat(dto.getProcessId()).isNull();
+        assertThat(dto.getActivitySourceId()).isNull();
+        assertThat(dto.getActivitySource()).isNull();
+        assertThat(dto.getFromType()).isEqualTo("gateway");
+    }
+
+    @Test
+    void toUserSafeDTO_sinContrasenaYRolBasico() {
+        User u = new User();
+        u.setId(7L); u.setNombre("Ana"); u.setCorreo("ana@acme.com"); u.setContrasena("hash");
+        u.setCompany(company); u.setRole(role);
+
+        UserSafeDTO safe = dtoMapper.toUserSafeDTO(u);
+        UserDTO full = dtoMapper.toUserDTO(u);
+
+        assertThat(safe.getCompanyId()).isEqualTo(1L);
+        assertThat(safe.getRoleId()).isEqualTo(2L);
+        assertThat(safe.getRole().getCompany()).isNull();
+        assertThat(full.getContrasena()).isEqualTo("hash");
+    }
+
+    @Test
+    void toActivity_referenciasPorIdYStatusPorDefecto() {
+        ActivityDTO dto = new ActivityDTO();
+        dto.setName("Nueva"); dto.setProcessId(3L); dto.setRoleId(2L);
+
+        Activity a = dtoMapper.toActivity(dto);
+
+        assertThat(a.getName()).isEqualTo("Nueva");
+        assertThat(a.getStatus()).isEqualTo("active");
+        assertThat(a.getProcess().getId()).isEqualTo(3L);
+        assertThat(a.getRole().getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void toActivityDTO_desdeProyeccion_mismaFormaQueLaEntidad() {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("id", 10L); columns.put("name", "A"); columns.put("status", "inactive");
+        columns.put("processId", 3L); columns.put("processName", "Proc");
+        columns.put("companyId", 1L); columns.put("companyName", "Acme");
+        columns.put("roleId", 2L); columns.put("roleNombre", "Analista"); columns.put("roleCompanyId", 1L);
+        ActivityRow row = new SpelAwareProxyProjectionFactory().createProjection(ActivityRow.class, columns);
+
+        ActivityDTO dto = dtoMapper.toActivityDTO(row);
+
+        assertThat(dto.getId()).isEqualTo(10L);
+        assertThat(dto.getStatus()).isEqualTo("inactive");
+        assertThat(dto.getProcessId()).isEqualTo(3L);
+        assertThat(dto.getProcess().getCompany().getName()).isEqualTo("Acme");
+        assertThat(dto.getRole().getNombre()).isEqualTo("Analista");
+        assertThat(dto.getRole().getCompanyId()).isEqualTo(1L);
+    }
+
+    @Test
+    void toUserSafeDTO_desdeProyeccionSinRol() {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("id", 7L); columns.put("nombre", "Ana"); columns.put("companyId", 1L);
+        UserRow row = new SpelAwareProxyProjectionFactory().createProjection(UserRow.class, columns);
+
+        UserSafeDTO dto = dtoMapper.toUserSafeDTO(row);
+
+        assertThat(dto.getCompany().getId()).isEqualTo(1L);
+        assertThat(dto.getRoleId()).isNull();
+        assertThat(dto.getRole()).isNull();
+    }
+
+    @Test
+    void nulos_devuelvenNull() {
+        assertThat(dtoMapper.toActivityDTO((Activity) null)).isNull();
+        assertThat(dtoMapper.toEdgeDTO(null)).isNull();
+        assertThat(dtoMapper.toUser(null)).isNull();
+        assertThat(dtoMapper.toUserSafeDTO((UserRow) null)).isNull();
+    }
+}
@@ -0,0 +1,44 @@
+package com.proyecto.entrega.querycount;
+
+import com.proyecto.entrega.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Sentencias por petición de ActivityController. Cada ActivityDTO lleva
+ * proceso, rol y sus compañías.
+ */
+class ActivityControllerQueryCountTest extends QueryCountTest {
+
+    @Test
+    void activitiesPorProceso() throws Exception {
+        assertStatementsIndependentOf(moreDiagramRows("active"),
+                () -> get("/api/activity/process/{id}", processId), 2);
+    }
+
+    @Test
+    void activitiesInactivasPorProceso() throws Exception {
+        addDiagramRows(ROWS, "inactive");
+
+        // Proyección nativa con proceso, rol y compañías en la misma fila
+        assertStatementsIndependentOf(moreDiagramRows("inactive"),
+                () -> get("/api/activity/process/{id}/inactive", processId), 2);
+    }
+
+    @Test
+    void todasLasActivities() throws Exception {
+        assertStatementsIndependentOf(moreDiagramRows("active"), () -> get("/api/activity"), 2);
+    }
+
+    @Test
+    void exportarPorCompania() throws Exception {
+        assertStatementsIndependentOf(moreDiagramRows("active"),
+                () -> get("/api/activity/company/{id}/export", companyId), 2);
+    }
+
+    @Test
+    void activityPorId() throws Exception {
+        assertStatements(get("/api/activity/{id}", activityIds.get(0)), 4);
+    }
+}
@@ -0,0 +1,42 @@
+package com.proyecto.entrega.querycount;
+
+import com.proyecto.entrega.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Sentencias de los flujos de autenticación (AuthController, LoginController
+ * y RegistrationController). Validar un token no toca la base de datos.
+ */
+class AuthControllerQueryCountTest extends QueryCountTest {
+
+    @Test
+    void validarToken_sinQueries() throws Exception {
+        assertThat(statements(get("/api/auth/validate"))).isZero();
+    }
+
+    @Test
+    void renovarToken() throws Exception {
+        // Usuario con compañía y rol (luego desde PrincipalCache)
+        assertStatements(post("/api/auth/renew-token"), 3);
+    }
+
+    @Test
+    void login() throws Exception {
+        String body = "{\"correo\":\"" + userEmail + "\",\"contrasena\":\"" + PASSWORD + "\"}";
+
+        assertStatements(post("/api/login").contentType(MediaType.APPLICATION_JSON).content(body), 3);
+    }
+
+    @Test
+    void registro() throws Exception {
+        String body = "{\"company\":{\"name\":\"Nueva\",\"nit\":901,\"correoContacto\":\"nueva@acme.com\"},"
+                + "\"user\":{\"nombre\":\"Admin\",\"correo\":\"admin@nueva.com\",\"contrasena\":\"" + PASSWORD + "\"}}";
+
+        // Validaciones de duplicados, secuencias e inserts de compañía, proceso, rol y usuario
+        assertStatements(post("/api/register").contentType(MediaType.APPLICATION_JSON).content(body), 16);
+    }
+}
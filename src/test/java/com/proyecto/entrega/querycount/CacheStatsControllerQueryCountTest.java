@@ -0,0 +1,38 @@
+package com.proyecto.entrega.querycount;
+
+import com.proyecto.entrega.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Endpoints de operación (CacheStatsController y SqlLoggingController):
+ * leen estado en memoria, sin queries.
+ */
+class CacheStatsControllerQueryCountTest extends QueryCountTest {
+
+    @Test
+    void estadisticasDeCache_sinQueries() throws Exception {
+        asOperator();
+
+        assertThat(statements(get("/api/admin/cache-stats"))).isZero();
+    }
+
+    @Test
+    void estadisticasDeCache_administradorDeCompania_prohibido() throws Exception {
+        assertThat(status(get("/api/admin/cache-stats"))).isEqualTo(403);
+    }
+
+    @Test
+    void estadoDelLogDeSql_sinQueries() throws Exception {
+        asOperator();
+
+        assertThat(statements(get("/api/admin/logging/sql"))).isZero();
+    }
+
+    @Test
+    void cambiarLogDeSql_administradorDeCompania_prohibido() throws Exception {
+        assertThat(status(put("/api/admin/logging/sql").param("enabled", "true"))).isEqualTo(403);
+    }
+}
@@ -0,0 +1,34 @@
+package com.proyecto.entrega.querycount;
+
+import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Sentencias por petición de CompanyController.
+ */
+class CompanyControllerQueryCountTest extends QueryCountTest {
+
+    private void moreCompanies() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            for (int i = 0; i < MORE_ROWS; i++) {
+                Company company = new Company();
+                company.setName("Otra " + i); company.setNit(1000L + i);
+                company.setCorreoContacto("otra" + i + "@acme.com");
+                em.persist(company);
+            }
+        });
+    }
+
+    @Test
+    void companiaPorId() throws Exception {
+        assertStatements(get("/api/company/{id}", companyId), 1);
+    }
+
+    @Test
+    void todasLasCompanias() throws Exception {
+        assertStatementsIndependentOf(this::moreCompanies, () -> get("/api/company"), 1);
+    }
+}
@@ -0,0 +1,56 @@
+package com.proyecto.entrega.querycount;
+
+import com.proyecto.entrega.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Sentencias por petición de EdgeController. Cada EdgeDTO lleva proceso,
+ * compañía y activities legacy: deben llegar en la misma query o en lotes,
+ * nunca una por edge.
+ */
+class EdgeControllerQueryCountTest extends QueryCountTest {
+
+    @Test
+    void edgesPorProceso() throws Exception {
+        assertStatementsIndependentOf(moreDiagramRows("active"),
+                () -> get("/api/edge/process/{id}", processId), 2);
+    }
+
+    @Test
+    void edgesInactivosPorProceso() throws Exception {
+        addDiagramRows(ROWS, "inactive");
+
+        // Query nativa (ignora @Where) + proceso, compañía y activities por lotes
+        assertStatementsIndependentOf(moreDiagramRows("inactive"),
+                () -> get("/api/edge/process/{id}/inactive", processId), 5);
+    }
+
+    @Test
+    void todosLosEdges() throws Exception {
+        assertStatementsIndependentOf(moreDiagramRows("active"), () -> get("/api/edge"), 2);
+    }
+
+    @Test
+    void exportarPorCompania() throws Exception {
+        assertStatementsIndependentOf(moreDiagramRows("active"),
+                () -> get("/api/edge/company/{id}/export", companyId), 2);
+    }
+
+    @Test
+    void edgePorId() throws Exception {
+        assertStatements(get("/api/edge/{id}", edgeIds.get(0)), 5);
+    }
+
+    @Test
+    void crearEdge() throws Exception {
+        String body = "{\"processId\":" + processId
+                + ",\"fromType\":\"activity\",\"fromId\":" + activityIds.get(0)
+                + ",\"toType\":\"activity\",\"toId\":" + activityIds.get(1) + "}";
+
+        // proceso, dos activities, secuencia, insert y versión de cambios del proceso
+        assertStatements(post("/api/edge").contentType(MediaType.APPLICATION_JSON).content(body), 8);
+    }
+}
@@ -0,0 +1,42 @@
+package com.proyecto.entrega.querycount;
+
+import com.proyecto.entrega.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Sentencias por petición de GatewayController.
+ */
+class GatewayControllerQueryCountTest extends QueryCountTest {
+
+    @Test
+    void gatewaysPorProceso() throws Exception {
+        assertStatementsIndependentOf(moreDiagramRows("active"),
+                () -> get("/api/gateway/process/{id}", processId), 2);
+    }
+
+    @Test
+    void gatewaysInactivosPorProceso() throws Exception {
+        addDiagramRows(ROWS, "inactive");
+
+        assertStatementsIndependentOf(moreDiagramRows("inactive"),
+                () -> get("/api/gateway/process/{id}/inactive", processId), 2);
+    }
+
+    @Test
+    void todosLosGateways() throws Exception {
+        assertStatementsIndependentOf(moreDiagramRows("active"), () -> get("/api/gateway"), 2);
+    }
+
+    @Test
+    void exportarPorCompania() throws Exception {
+        assertStatementsIndependentOf(moreDiagramRows("active"),
+                () -> get("/api/gateway/company/{id}/export", companyId), 2);
+    }
+
+    @Test
+    void gatewayPorId() throws Exception {
+        assertStatements(get("/api/gateway/{id}", gatewayIds.get(0)), 3);
+    }
+}
@@ -0,0 +1,65 @@
+package com.proyecto.entrega.querycount;
+
+import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Sentencias por petición de ProcessController: listados de la compañía
+ * (proyecciones) y el diagrama completo.
+ */
+class ProcessControllerQueryCountTest extends QueryCountTest {
+
+    private Runnable moreProcesses(String status) {
+        return () -> transactionTemplate.executeWithoutResult(tx -> {
+            Company company = em.getReference(Company.class, companyId);
+            for (int i = 0; i < MORE_ROWS; i++) {
+                Process process = new Process();
+                process.setName("Proceso " + status + " " + i);
+                process.setCompany(company);
+                process.setStatus(status);
+                em.persist(process);
+            }
+        });
+    }
+
+    @Test
+    void procesoPorId() throws Exception {
+        assertStatements(get("/api/process/{id}", processId), 3);
+    }
+
+    @Test
+    void diagramaCompleto() throws Exception {
+        // proceso, activities con rol, gateways y edges: una query por tipo
+        assertStatementsIndependentOf(moreDiagramRows("active"),
+                () -> get("/api/process/{id}/graph", processId), 5);
+    }
+
+    @Test
+    void procesosPorCompania() throws Exception {
+        assertStatementsIndependentOf(moreProcesses("active"),
+                () -> get("/api/process/company/{id}", companyId), 2);
+    }
+
+    @Test
+    void resumenPorCompania() throws Exception {
+        assertStatementsIndependentOf(moreProcesses("active"),
+                () -> get("/api/process/company/{id}/summary", companyId), 2);
+    }
+
+    @Test
+    void procesosInactivosPorCompania() throws Exception {
+        moreProcesses("inactive").run();
+
+        assertStatementsIndependentOf(moreProcesses("inactive"),
+                () -> get("/api/process/company/{id}/inactive", companyId), 2);
+    }
+
+    @Test
+    void todosLosProcesos() throws Exception {
+        assertStatementsIndependentOf(moreProcesses("active"), () -> get("/api/process"), 2);
+    }
+}
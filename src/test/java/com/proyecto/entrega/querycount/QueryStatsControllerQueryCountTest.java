@@ -0,0 +1,26 @@
+package com.proyecto.entrega.querycount;
+
+import com.proyecto.entrega.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Diagnóstico de la plataforma (/api/admin/**): solo operadores, y sin
+ * queries propias (el informe sale de contadores en memoria).
+ */
+class QueryStatsControllerQueryCountTest extends QueryCountTest {
+
+    @Test
+    void estadisticasDeQueries_operador_sinQueries() throws Exception {
+        asOperator();
+
+        assertThat(statements(get("/api/admin/query-stats"))).isZero();
+    }
+
+    @Test
+    void estadisticasDeQueries_administradorDeCompania_prohibido() throws Exception {
+        assertThat(status(get("/api/admin/query-stats"))).isEqualTo(403);
+    }
+}
@@ -0,0 +1,40 @@
+package com.proyecto.entrega.querycount;
+
+import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.entity.Role;
+import com.proyecto.entrega.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Sentencias por petición de RoleController. Cada RoleDTO lleva su compañía.
+ */
+class RoleControllerQueryCountTest extends QueryCountTest {
+
+    private void moreRoles() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            Company company = em.getReference(Company.class, companyId);
+            for (int i = 0; i < MORE_ROWS; i++) {
+                Role role = new Role();
+                role.setNombre("Rol " + i); role.setCompany(company);
+                em.persist(role);
+            }
+        });
+    }
+
+    @Test
+    void rolPorId() throws Exception {
+        assertStatements(get("/api/role/{id}", roleId), 3);
+    }
+
+    @Test
+    void rolesPorCompania() throws Exception {
+        assertStatementsIndependentOf(this::moreRoles, () -> get("/api/role/company/{id}", companyId), 2);
+    }
+
+    @Test
+    void todosLosRoles() throws Exception {
+        assertStatementsIndependentOf(this::moreRoles, () -> get("/api/role"), 2);
+    }
+}
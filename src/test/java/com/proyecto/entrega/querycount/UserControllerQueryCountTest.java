@@ -0,0 +1,46 @@
+package com.proyecto.entrega.querycount;
+
+import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.entity.Role;
+import com.proyecto.entrega.entity.User;
+import com.proyecto.entrega.support.QueryCountTest;
+import org.junit.jupiter.api.Test;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Sentencias por petición de UserController. Cada usuario lleva compañía y
+ * rol.
+ */
+class UserControllerQueryCountTest extends QueryCountTest {
+
+    private void moreUsers() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            Company company = em.getReference(Company.class, companyId);
+            Role role = em.getReference(Role.class, roleId);
+            for (int i = 0; i < MORE_ROWS; i++) {
+                User user = new User();
+                user.setNombre("U" + i); user.setCorreo("u" + i + "@acme.com"); user.setContrasena("hash");
+                user.setCompany(company); user.setRole(role);
+                em.persist(user);
+            }
+        });
+    }
+
+    @Test
+    void usuarioPorId() throws Exception {
+        assertStatements(get("/api/user/{id}", userId), 3);
+    }
+
+    @Test
+    void usuariosDeLaCompania() throws Exception {
+        assertStatementsIndependentOf(this::moreUsers,
+                () -> get("/api/user/company/{id}/currentUser", companyId).param("currentUserId", userId.toString()),
+                1);
+    }
+
+    @Test
+    void todosLosUsuarios() throws Exception {
+        assertStatementsIndependentOf(this::moreUsers, () -> get("/api/user"), 2);
+    }
+}
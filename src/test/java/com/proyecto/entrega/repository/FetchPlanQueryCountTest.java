@@ -0,0 +1,196 @@
+package com.proyecto.entrega.repository;
+
+import com.proyecto.entrega.dto.EdgeDTO;
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.entity.Edge;
+import com.proyecto.entrega.entity.Gateway;
+import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.entity.Role;
+import com.proyecto.entrega.entity.User;
+import com.proyecto.entrega.mapper.DtoMapper;
+import com.proyecto.entrega.repository.projection.EdgeEndpointRow;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Planes de carga de las relaciones LAZY: cada listado mapeado a DTO debe
+ * ejecutar un número fijo de queries, sin importar cuántas filas devuelve.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class FetchPlanQueryCountTest {
+
+    private static final int ROWS = 20;
+
+    @Autowired TestEntityManager em;
+    @Autowired EntityManagerFactory emf;
+    @Autowired EdgeRepository edgeRepository;
+    @Autowired ActivityRepository activityRepository;
+    @Autowired GatewayRepository gatewayRepository;
+    @Autowired ProcessRepository processRepository;
+    @Autowired UserRepository userRepository;
+
+    private final DtoMapper dtoMapper = new DtoMapper();
+    private Statistics statistics;
+    private Long companyId;
+    private Long processId;
+    private Long edgeId;
+
+    @BeforeEach
+    void seed() {
+        Company company = new Company();
+        company.setName("Acme"); company.setNit(900L);
+        em.persist(company);
+
+        Role role = new Role();
+        role.setNombre("Analista"); role.setCompany(company);
+        em.persist(role);
+
+        Process process = new Process();
+        process.setName("Proc"); process.setCompany(company);
+        em.persist(process);
+
+        List<Activity> activities = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Activity a = new Activity();
+            a.setName("A" + i); a.setProcess(process); a.setRole(role);
+            em.persist(a);
+            activities.add(a);
+
+            Gateway g = new Gateway();
+            g.setType("exclusive"); g.setProcess(process);
+            em.persist(g);
+
+            User u = new User();
+            u.setNombre("U" + i); u.setCorreo("u" + i + "@acme.com"); u.setContrasena("hash");
+            u.setCompany(company); u.setRole(role);
+            em.persist(u);
+        }
+        for (int i = 0; i < ROWS; i++) {
+            Edge e = new Edge();
+            e.setProcess(process);
+            e.setActivitySource(activities.get(i));
+            e.setActivityDestiny(activities.get((i + 1) % ROWS));
+            e.setFromType("activity"); e.setFromId(activities.get(i).getId());
+            e.setToType("activity"); e.setToId(activities.get((i + 1) % ROWS).getId());
+            em.persist(e);
+            edgeId = e.getId();
+        }
+        em.flush();
+        em.clear();
+
+        companyId = company.getId();
+        processId = process.getId();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private long queries() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void edgesPorProceso_grafo_unaQuery() {
+        List<Edge> edges = edgeRepository.findByProcessId(processId);
+        edges.forEach(dtoMapper::toEdgeDTO);
+
+        assertThat(edges).hasSize(ROWS);
+        assertThat(queries()).isEqualTo(1);
+    }
+
+    @Test
+    void edgesPorStatus_nativa_cargaRelacionesPorLotes() {
+        List<Edge> edges = edgeRepository.findByProcessIdAndStatus(processId, "active");
+        edges.forEach(dtoMapper::toEdgeDTO);
+
+        // edges + procesos + compañías + activities (@BatchSize), no una por fila
+        assertThat(edges).hasSize(ROWS);
+        assertThat(queries()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void edgesInactivos_extremosEliminados_sinInicializarProxies() {
+        // Edges y activities eliminados por soft delete (fuera del filtro @Where)
+        em.getEntityManager().createNativeQuery("UPDATE edge SET status = 'inactive'").executeUpdate();
+        em.getEntityManager().createNativeQuery("UPDATE activity SET status = 'inactive'").executeUpdate();
+        statistics.clear();
+
+        List<Edge> edges = edgeRepository.findPageByProcessIdAndStatus(processId, "inactive", 0L, ROWS + 1);
+        List<Long> ids = edges.stream()
+                .flatMap(e -> Stream.of(e.getActivitySource().getId(), e.getActivityDestiny().getId()))
+                .distinct().toList();
+        Map<Long, EdgeEndpointRow> endpoints = activityRepository.findEndpointRowsByIdIn(ids).stream()
+                .collect(Collectors.toMap(EdgeEndpointRow::getId, Function.identity()));
+        List<EdgeDTO> dtos = edges.stream().map(e -> dtoMapper.toEdgeDTO(e, endpoints)).toList();
+
+        assertThat(dtos).hasSize(ROWS);
+        assertThat(dtos.get(0).getActivitySource().getStatus()).isEqualTo("inactive");
+        assertThat(dtos.get(0).getActivitySource().getProcess().getId()).isEqualTo(processId);
+        assertThat(edges).noneMatch(e -> Hibernate.isInitialized(e.getActivitySource()));
+        // edges + extremos + proceso + compañía, no una por fila
+        assertThat(queries()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void activitiesPorProceso_grafo_unaQuery() {
+        List<Activity> activities = activityRepository.findByProcessId(processId);
+        activities.forEach(dtoMapper::toActivityDTO);
+
+        assertThat(activities).hasSize(ROWS);
+        assertThat(queries()).isEqualTo(1);
+    }
+
+    @Test
+    void gatewaysPaginaKeyset_grafo_unaQuery() {
+        List<Gateway> gateways = gatewayRepository.findByProcessIdAndIdGreaterThanOrderByIdAsc(
+                processId, 0L, Limit.of(ROWS + 1));
+        gateways.forEach(dtoMapper::toGatewayDTO);
+
+        assertThat(gateways).hasSize(ROWS);
+        assertThat(queries()).isEqualTo(1);
+    }
+
+    @Test
+    void procesosYUsuariosPorCompania_grafo_unaQueryCadaUno() {
+        processRepository.findByCompanyId(companyId).forEach(dtoMapper::toProcessDTO);
+        assertThat(queries()).isEqualTo(1);
+
+        userRepository.findByCompanyIdAndIdNot(companyId, -1L).forEach(dtoMapper::toUserSafeDTO);
+        assertThat(queries()).isEqualTo(2);
+    }
+
+    @Test
+    void findById_noCargaRelaciones() {
+        Edge edge = edgeRepository.findById(edgeId).orElseThrow();
+
+        assertThat(queries()).isEqualTo(1);
+        assertThat(Hibernate.isInitialized(edge.getProcess())).isFalse();
+        assertThat(Hibernate.isInitialized(edge.getActivitySource())).isFalse();
+        // El id del proxy no requiere query
+        assertThat(edge.getProcess().getId()).isEqualTo(processId);
+        assertThat(queries()).isEqualTo(1);
+    }
+}
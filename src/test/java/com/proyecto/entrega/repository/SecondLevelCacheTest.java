@@ -0,0 +1,122 @@
+package com.proyecto.entrega.repository;
+
+import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.entity.Role;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Cache de segundo nivel de Company, Process y Role. Sin transacción de test:
+ * cada llamada al repositorio abre su propia sesión, como en una petición, y
+ * solo lo que se confirma llega al cache.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired EntityManagerFactory emf;
+    @Autowired CompanyRepository companyRepository;
+    @Autowired RoleRepository roleRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Long companyId;
+    private Long roleId;
+
+    @BeforeEach
+    void seed() {
+        Company company = new Company();
+        company.setName("Acme"); company.setNit(900L);
+        company = companyRepository.save(company);
+
+        Role role = new Role();
+        role.setNombre("Analista"); role.setCompany(company);
+        role = roleRepository.save(role);
+
+        companyId = company.getId();
+        roleId = role.getId();
+        emf.getCache().evictAll();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM role");
+        jdbcTemplate.update("DELETE FROM company");
+        emf.getCache().evictAll();
+    }
+
+    private long queries() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void companyPorId_segundaLecturaDesdeCache() {
+        assertThat(companyRepository.findById(companyId)).isPresent();
+        assertThat(queries()).isEqualTo(1);
+
+        assertThat(companyRepository.findById(companyId)).isPresent();
+        assertThat(queries()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics("company").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rolesPorCompania_querycache_sinQueryEnLaSegundaLlamada() {
+        assertThat(roleRepository.findByCompanyId(companyId)).hasSize(1);
+        assertThat(queries()).isEqualTo(1);
+
+        assertThat(roleRepository.findByCompanyId(companyId)).hasSize(1);
+        assertThat(queries()).isEqualTo(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void rolInactivo_seDesalojaDelCache() {
+        assertThat(roleRepository.findById(roleId)).isPresent();
+        assertThat(roleRepository.findByCompanyId(companyId)).hasSize(1);
+
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> roleRepository.updateStatus(roleId, "inactive"));
+
+        // El UPDATE nativo invalida la región role y el query cache: el filtro
+        // @Where vuelve a aplicarse en la base
+        assertThat(roleRepository.findById(roleId)).isEmpty();
+        assertThat(roleRepository.findByCompanyId(companyId)).isEmpty();
+    }
+
+    @Test
+    void versionDeCambios_subeSinDesalojarLaCompania() {
+        assertThat(companyRepository.findChangeVersion(companyId)).contains("0.0");
+        assertThat(companyRepository.findById(companyId)).isPresent();
+
+        companyRepository.bumpChangeVersion(companyId);
+
+        // El UPDATE declara su propio espacio: la región company sigue válida
+        assertThat(companyRepository.findById(companyId)).isPresent();
+        assertThat(statistics.getDomainDataRegionStatistics("company").getHitCount()).isEqualTo(1);
+        assertThat(companyRepository.findChangeVersion(companyId)).contains("1.0");
+    }
+}
@@ -0,0 +1,189 @@
+package com.proyecto.entrega.repository;
+
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.entity.Edge;
+import com.proyecto.entrega.entity.Gateway;
+import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.service.SoftDeleteCascadeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Restauración en cascada contra la base (queries nativas de
+ * SoftDeleteCascadeService): solo vuelve lo que desactivó la cascada, no lo
+ * que se había eliminado a propósito antes.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import(SoftDeleteCascadeService.class)
+class SoftDeleteCascadeRestoreTest {
+
+    @Autowired TestEntityManager em;
+    @Autowired SoftDeleteCascadeService softDeleteCascadeService;
+
+    private Long companyId;
+    private Long processId;
+    private Long otherProcessId;
+    private Long a1;
+    private Long a2;
+    private Long gatewayId;
+    private Long a1ToA2;
+    private Long a1ToGateway;
+    private Long a2ToGateway;
+
+    @BeforeEach
+    void seed() {
+        Company company = new Company();
+        company.setName("Acme"); company.setNit(900L);
+        em.persist(company);
+
+        Process process = new Process();
+        process.setName("Proc"); process.setCompany(company);
+        em.persist(process);
+
+        Process other = new Process();
+        other.setName("Otro"); other.setCompany(company);
+        em.persist(other);
+
+        Activity first = activity("A1", process);
+        Activity second = activity("A2", process);
+        Gateway gateway = new Gateway();
+        gateway.setType("exclusive"); gateway.setProcess(process);
+        em.persist(gateway);
+
+        companyId = company.getId();
+        processId = process.getId();
+        otherProcessId = other.getId();
+        a1 = first.getId();
+        a2 = second.getId();
+        gatewayId = gateway.getId();
+        a1ToA2 = edge(process, "activity", a1, "activity", a2);
+        a1ToGateway = edge(process, "activity", a1, "gateway", gatewayId);
+        a2ToGateway = edge(process, "activity", a2, "gateway", gatewayId);
+        em.flush();
+        em.clear();
+    }
+
+    private Activity activity(String name, Process process) {
+        Activity a = new Activity();
+        a.setName(name); a.setProcess(process);
+        em.persist(a);
+        return a;
+    }
+
+    private Long edge(Process process, String fromType, Long fromId, String toType, Long toId) {
+        Edge e = new Edge();
+        e.setProcess(process);
+        e.setFromType(fromType); e.setFromId(fromId);
+        e.setToType(toType); e.setToId(toId);
+        em.persist(e);
+        return e.getId();
+    }
+
+    private String status(String table, Long id) {
+        return (String) em.getEntityManager()
+                .createNativeQuery("SELECT status FROM " + table + " WHERE id = :id")
+                .setParameter("id", id)
+                .getSingleResult();
+    }
+
+    @Test
+    void restoreProcess_noReactivaLoEliminadoAntesAProposito() {
+        // A2 (con sus edges) y el edge A1 → gateway se eliminan antes que el proceso
+        softDeleteCascadeService.deactivateActivity(a2);
+        softDeleteCascadeService.deactivateEdge(a1ToGateway);
+
+        softDeleteCascadeService.deactivateProcess(processId);
+        softDeleteCascadeService.restoreProcess(processId);
+
+        assertThat(status("process", processId)).isEqualTo("active");
+        assertThat(status("activity", a1)).isEqualTo("active");
+        assertThat(status("gateway", gatewayId)).isEqualTo("active");
+        assertThat(status("activity", a2)).isEqualTo("inactive");
+        assertThat(status("edge", a1ToGateway)).isEqualTo("inactive");
+        // Desactivados por la cascada de A2, que sigue eliminada
+        assertThat(status("edge", a1ToA2)).isEqualTo("inactive");
+        assertThat(status("edge", a2ToGateway)).isEqualTo("inactive");
+
+        // Al restaurar A2 vuelven sus edges, no el eliminado a propósito
+        softDeleteCascadeService.restoreActivity(a2);
+
+        assertThat(status("edge", a1ToA2)).isEqualTo("active");
+        assertThat(status("edge", a2ToGateway)).isEqualTo("active");
+        assertThat(status("edge", a1ToGateway)).isEqualTo("inactive");
+    }
+
+    @Test
+    void restoreGateway_noReactivaEdgesEliminadosAntes() {
+        softDeleteCascadeService.deactivateEdge(a1ToGateway);
+
+        softDeleteCascadeService.deactivateGateway(gatewayId);
+        softDeleteCascadeService.restoreGateway(gatewayId);
+
+        assertThat(status("edge", a2ToGateway)).isEqualTo("active");
+        assertThat(status("edge", a1ToGateway)).isEqualTo("inactive");
+    }
+
+    @Test
+    void restoreCompany_noReactivaProcesosEliminadosAntesNiSuContenido() {
+        softDeleteCascadeService.deactivateProcess(processId);
+
+        softDeleteCascadeService.deactivateCompany(companyId);
+        softDeleteCascadeService.restoreCompany(companyId);
+
+        assertThat(status("company", companyId)).isEqualTo("active");
+        assertThat(status("process", otherProcessId)).isEqualTo("active");
+        assertThat(status("process", processId)).isEqualTo("inactive");
+        assertThat(status("activity", a1)).isEqualTo("inactive");
+        assertThat(status("edge", a1ToA2)).isEqualTo("inactive");
+
+        // Restaurar el proceso trae el contenido que desactivó su cascada
+        softDeleteCascadeService.restoreProcess(processId);
+
+        assertThat(status("activity", a1)).isEqualTo("active");
+        assertThat(status("edge", a1ToA2)).isEqualTo("active");
+    }
+
+    @Test
+    void restoreGateway_edgeRestauradoYEliminadoAProposito_noVuelve() {
+        // La cascada lo marca; restaurarlo y eliminarlo a mano le quita la marca
+        softDeleteCascadeService.deactivateGateway(gatewayId);
+        softDeleteCascadeService.restoreGateway(gatewayId);
+        softDeleteCascadeService.deactivateActivity(a1);
+        softDeleteCascadeService.restoreEdge(a1ToA2);
+        softDeleteCascadeService.deactivateEdge(a1ToA2);
+        softDeleteCascadeService.restoreActivity(a1);
+
+        assertThat(status("edge", a1ToGateway)).isEqualTo("active");
+        assertThat(status("edge", a1ToA2)).isEqualTo("inactive");
+    }
+
+    @Test
+    void deactivateDiagramElements_restaurarElNodoTraeSoloLosEdgesDeLaCascada() {
+        // Changeset: elimina A2 y, a propósito, el edge A1 → A2
+        softDeleteCascadeService.deactivateDiagramElements(List.of(a2), List.of(),
+                List.of(a1ToA2));
+
+        assertThat(status("activity", a2)).isEqualTo("inactive");
+        assertThat(status("edge", a1ToA2)).isEqualTo("inactive");
+        assertThat(status("edge", a2ToGateway)).isEqualTo("inactive");
+
+        softDeleteCascadeService.restoreActivity(a2);
+
+        assertThat(status("edge", a2ToGateway)).isEqualTo("active");
+        assertThat(status("edge", a1ToA2)).isEqualTo("inactive");
+    }
+}
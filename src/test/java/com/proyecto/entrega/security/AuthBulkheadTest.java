@@ -0,0 +1,59 @@
+package com.proyecto.entrega.security;
+
+import com.proyecto.entrega.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AuthBulkheadTest {
+
+    @Test
+    void conCupo_ejecutaYLiberaElPermiso() {
+        AuthBulkhead bulkhead = new AuthBulkhead(1, Duration.ofMillis(10));
+
+        assertThat(bulkhead.call(() -> "ok")).isEqualTo("ok");
+        assertThat(bulkhead.available()).isEqualTo(1);
+    }
+
+    @Test
+    void accionConError_tambienLiberaElPermiso() {
+        AuthBulkhead bulkhead = new AuthBulkhead(1, Duration.ofMillis(10));
+
+        assertThatThrownBy(() -> bulkhead.call(() -> { throw new IllegalStateException("x"); }))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(bulkhead.available()).isEqualTo(1);
+    }
+
+    @Test
+    void sinCupo_lanzaServiceUnavailable() throws Exception {
+        AuthBulkhead bulkhead = new AuthBulkhead(1, Duration.ofMillis(20));
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            pool.submit(() -> bulkhead.call(() -> {
+                inside.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            assertThat(inside.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> bulkhead.call(() -> "no"))
+                    .isInstanceOf(ServiceUnavailableException.class);
+            assertThat(bulkhead.rejected()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+}
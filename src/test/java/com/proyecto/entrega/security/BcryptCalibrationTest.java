@@ -0,0 +1,40 @@
+package com.proyecto.entrega.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BcryptCalibrationTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void costFor_cadaDuplicacionDelObjetivoSubeUnPunto() {
+        // 10 ms con costo 10 -> 250 ms permite 24x -> 4 duplicaciones
+        assertThat(BcryptCalibration.costFor(250 * MS, 10 * MS, 10, 14)).isEqualTo(14);
+        assertThat(BcryptCalibration.costFor(250 * MS, 60 * MS, 10, 14)).isEqualTo(12);
+        assertThat(BcryptCalibration.costFor(250 * MS, 130 * MS, 10, 14)).isEqualTo(10);
+    }
+
+    @Test
+    void costFor_acotadoAlRango() {
+        assertThat(BcryptCalibration.costFor(1000 * MS, 1 * MS, 10, 12)).isEqualTo(12);
+        // Equipo más lento que el objetivo: nunca baja del mínimo
+        assertThat(BcryptCalibration.costFor(250 * MS, 400 * MS, 10, 14)).isEqualTo(10);
+    }
+
+    @Test
+    void calibrate_rangoInvalido_lanzaIAE() {
+        assertThatThrownBy(() -> BcryptCalibration.calibrate(Duration.ofMillis(250), 12, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void calibrate_conCostoMinimo_devuelveValorEnRango() {
+        int cost = BcryptCalibration.calibrate(Duration.ofMillis(5), 4, 6);
+
+        assertThat(cost).isBetween(4, 6);
+    }
+}
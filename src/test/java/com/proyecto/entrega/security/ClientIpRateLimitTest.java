@@ -0,0 +1,68 @@
+package com.proyecto.entrega.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Límite de las rutas públicas detrás del Ingress: la cubeta es la del
+ * cliente que informa el proxy de confianza en X-Forwarded-For, no la del
+ * proxy. Pasa por Tomcat real (RemoteIpValve), no por MockMvc; el proxy de
+ * confianza es 127.0.0.1.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:clientip;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "app.password.bcrypt-cost=4",
+        "app.rate-limit.public.capacity=2",
+        "app.rate-limit.public.refill-per-second=0.001",
+        "server.tomcat.remoteip.internal-proxies=127\\.0\\.0\\.1"
+})
+class ClientIpRateLimitTest {
+
+    @LocalServerPort
+    int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private int login(String forwardedFor) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/login"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"correo\":\"nadie@x.com\",\"contrasena\":\"x\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Test
+    void login_clientesDistintosDetrasDelProxy_tienenCubetasSeparadas() throws Exception {
+        login("203.0.113.1");
+        login("203.0.113.1");
+        assertThat(login("203.0.113.1")).isEqualTo(429);
+
+        assertThat(login("203.0.113.2")).isNotEqualTo(429);
+    }
+
+    @Test
+    void login_xForwardedForInventadoPorElCliente_noCambiaLaCubeta() throws Exception {
+        // El proxy agrega la IP real a la derecha; lo que el cliente puso antes no cuenta
+        login("198.51.100.7, 203.0.113.3");
+        login("198.51.100.8, 203.0.113.3");
+
+        assertThat(login("198.51.100.9, 203.0.113.3")).isEqualTo(429);
+    }
+}
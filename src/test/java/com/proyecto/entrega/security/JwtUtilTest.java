@@ -0,0 +1,113 @@
+package com.proyecto.entrega.security;
+
+import com.proyecto.entrega.dto.AuthorizedDTO;
+import com.proyecto.entrega.dto.UserSafeDTO;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+    private JwtClaimsCache claimsCache;
+
+    @BeforeEach
+    void setup() {
+        jwtUtil = new JwtUtil();
+        claimsCache = new JwtClaimsCache(100);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCache", claimsCache);
+    }
+
+    @Test
+    void verifiedClaims_tokenValido_devuelveSubjectYRol() {
+        String token = jwtUtil.generateToken("{\"correo\":\"ana@acme.com\"}", "ADMIN");
+
+        Claims claims = jwtUtil.verifiedClaims(token);
+
+        assertThat(claims).isNotNull();
+        assertThat(claims.getSubject()).isEqualTo("{\"correo\":\"ana@acme.com\"}");
+        assertThat(claims.get("role", String.class)).isEqualTo("ADMIN");
+    }
+
+    @Test
+    void verifiedClaims_segundaLlamada_usaElCache() {
+        String token = jwtUtil.generateToken("ana", "ADMIN");
+
+        jwtUtil.verifiedClaims(token);
+        jwtUtil.verifiedClaims(token);
+
+        assertThat(claimsCache.stats().missCount()).isEqualTo(1);
+        assertThat(claimsCache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void verifiedClaims_tokenAlterado_devuelveNullYNoSeCachea() {
+        String token = jwtUtil.generateToken("ana", "ADMIN");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThat(jwtUtil.verifiedClaims(tampered)).isNull();
+        assertThat(jwtUtil.verifiedClaims("no-es-un-jwt")).isNull();
+        assertThat(claimsCache.size()).isZero();
+    }
+
+    @Test
+    void validateToken_sigueFuncionandoSinCache() {
+        String token = jwtUtil.generateToken("ana", "USER");
+
+        assertThat(jwtUtil.validateToken(token)).isTrue();
+        assertThat(jwtUtil.extractRole(token)).isEqualTo("USER");
+    }
+
+    private UserSafeDTO ana() {
+        UserSafeDTO user = new UserSafeDTO();
+        user.setId(7L); user.setCorreo("ana@acme.com"); user.setCompanyId(1L); user.setRoleId(2L);
+        return user;
+    }
+
+    @Test
+    void generateToken_compacto_soloIdsYVersion() {
+        String token = jwtUtil.generateToken(ana(), "ADMIN");
+
+        Claims claims = jwtUtil.verifiedClaims(token);
+
+        assertThat(claims.getSubject()).isEqualTo("7");
+        assertThat(claims.get(JwtUtil.CLAIM_COMPANY, Long.class)).isEqualTo(1L);
+        assertThat(claims.get(JwtUtil.CLAIM_ROLE_ID, Long.class)).isEqualTo(2L);
+        assertThat(claims.get(JwtUtil.CLAIM_VERSION, Integer.class)).isEqualTo(JwtUtil.TOKEN_VERSION);
+        assertThat(token).doesNotContain("ana");
+    }
+
+    @Test
+    void getAuthorized_tokenCompacto_resuelveElUsuarioPorId() throws Exception {
+        String token = jwtUtil.generateToken(ana(), "ADMIN");
+        AtomicInteger lookups = new AtomicInteger();
+
+        AuthorizedDTO result = jwtUtil.getAuthorized(token, id -> {
+            lookups.incrementAndGet();
+            assertThat(id).isEqualTo(7L);
+            return ana();
+        });
+
+        assertThat(lookups).hasValue(1);
+        assertThat(result.getUser().getCorreo()).isEqualTo("ana@acme.com");
+        assertThat(jwtUtil.verifiedClaims(result.getToken()).getSubject()).isEqualTo("7");
+    }
+
+    @Test
+    void getAuthorized_tokenAnterior_seReemplazaPorUnoCompacto() throws Exception {
+        String legacy = jwtUtil.generateToken("{\"id\":7,\"correo\":\"ana@acme.com\",\"companyId\":1,\"roleId\":2}", "ADMIN");
+
+        AuthorizedDTO result = jwtUtil.getAuthorized(legacy, id -> {
+            throw new AssertionError("No debe consultar el usuario");
+        });
+
+        Claims claims = jwtUtil.verifiedClaims(result.getToken());
+        assertThat(claims.getSubject()).isEqualTo("7");
+        assertThat(claims.get(JwtUtil.CLAIM_VERSION, Integer.class)).isEqualTo(JwtUtil.TOKEN_VERSION);
+    }
+}
@@ -0,0 +1,118 @@
+package com.proyecto.entrega.security;
+
+import com.proyecto.entrega.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    private PasswordEncoder delegating(int cost) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(cost);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    @Test
+    void encodeYMatches_enElPoolPropio() {
+        hasher = new PasswordHasher(delegating(4), 1, 4, Duration.ofSeconds(5));
+
+        String hash = hasher.encode("secreta");
+
+        assertThat(hash).startsWith("{bcrypt}");
+        assertThat(hasher.matches("secreta", hash)).isTrue();
+        assertThat(hasher.matches("otra", hash)).isFalse();
+    }
+
+    @Test
+    void upgradeEncoding_hashSinPrefijoOConMenorCosto() {
+        hasher = new PasswordHasher(delegating(5), 1, 4, Duration.ofSeconds(5));
+        String legacy = new BCryptPasswordEncoder(5).encode("secreta");
+        String lowerCost = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secreta");
+
+        assertThat(hasher.matches("secreta", legacy)).isTrue();
+        assertThat(hasher.upgradeEncoding(legacy)).isTrue();
+        assertThat(hasher.upgradeEncoding(lowerCost)).isTrue();
+        assertThat(hasher.upgradeEncoding(hasher.encode("secreta"))).isFalse();
+    }
+
+    @Test
+    void colaLlena_lanzaServiceUnavailable() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence raw, String encoded) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        hasher = new PasswordHasher(blocking, 1, 1, Duration.ofSeconds(5));
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> hasher.matches("a", "x"));   // ocupa el único hilo
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            callers.submit(() -> hasher.matches("b", "x"));   // ocupa la cola
+            await(() -> hasher.pending() == 2);
+
+            assertThatThrownBy(() -> hasher.matches("c", "x"))
+                    .isInstanceOf(ServiceUnavailableException.class);
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    void esperaMayorAlTimeout_lanzaServiceUnavailable() {
+        PasswordEncoder slow = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence raw) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "x";
+            }
+        };
+        hasher = new PasswordHasher(slow, 1, 1, Duration.ofMillis(50));
+
+        assertThatThrownBy(() -> hasher.encode("secreta"))
+                .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    private static void await(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,49 @@
+package com.proyecto.entrega.security;
+
+import com.proyecto.entrega.security.RateLimiter.Scope;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private RateLimiter limiter(boolean enabled) {
+        return new RateLimiter(enabled, 2, 0.01, 1, 0.01, 1000, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void cubetasIndependientesPorCompania() {
+        RateLimiter limiter = limiter(true);
+
+        assertThat(limiter.tryAcquire(Scope.COMPANY, "1")).isZero();
+        assertThat(limiter.tryAcquire(Scope.COMPANY, "1")).isZero();
+        assertThat(limiter.tryAcquire(Scope.COMPANY, "1")).isPositive();
+        // Otra compañía no se ve afectada
+        assertThat(limiter.tryAcquire(Scope.COMPANY, "2")).isZero();
+
+        assertThat(limiter.allowed(Scope.COMPANY)).isEqualTo(3);
+        assertThat(limiter.rejected(Scope.COMPANY)).isEqualTo(1);
+    }
+
+    @Test
+    void ambitosSeparados_mismaClave() {
+        RateLimiter limiter = limiter(true);
+
+        assertThat(limiter.tryAcquire(Scope.PUBLIC, "10.0.0.1")).isZero();
+        assertThat(limiter.tryAcquire(Scope.PUBLIC, "10.0.0.1")).isPositive();
+        assertThat(limiter.tryAcquire(Scope.COMPANY, "10.0.0.1")).isZero();
+        assertThat(limiter.trackedKeys()).isEqualTo(2);
+    }
+
+    @Test
+    void deshabilitado_siemprePermite() {
+        RateLimiter limiter = limiter(false);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire(Scope.PUBLIC, "10.0.0.1")).isZero();
+        }
+        assertThat(limiter.trackedKeys()).isZero();
+    }
+}
@@ -0,0 +1,69 @@
+package com.proyecto.entrega.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void rafagaHastaLaCapacidad_luegoIndicaLaEspera() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isZero();
+
+        long wait = bucket.tryConsume(0);
+        assertThat(wait).isBetween(SECOND - 10, SECOND + 10);
+    }
+
+    @Test
+    void seRecargaConElTiempo_sinSuperarLaCapacidad() {
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        // 0,6 s a 2 tokens/s = 1,2 tokens
+        assertThat(bucket.tryConsume(SECOND * 6 / 10)).isZero();
+        assertThat(bucket.tryConsume(SECOND * 6 / 10)).isPositive();
+
+        // Mucho tiempo después: como máximo la capacidad
+        assertThat(bucket.tryConsume(100 * SECOND)).isZero();
+        assertThat(bucket.tryConsume(100 * SECOND)).isZero();
+        assertThat(bucket.tryConsume(100 * SECOND)).isPositive();
+    }
+
+    @Test
+    void concurrente_nuncaEntregaMasTokensQueLaCapacidad() throws Exception {
+        TokenBucket bucket = new TokenBucket(1000, 0.001, 0);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            pool.submit(() -> {
+                for (int j = 0; j < 500; j++) {
+                    if (bucket.tryConsume(0) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(granted).hasValue(1000);
+    }
+
+    @Test
+    void parametrosInvalidos_lanzaIAE() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
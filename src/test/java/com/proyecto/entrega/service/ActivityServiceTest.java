@@ -1,17 +1,26 @@
 package com.proyecto.entrega.service;
 
 import com.proyecto.entrega.dto.ActivityDTO;
+import com.proyecto.entrega.dto.CascadeResultDTO;
+import com.proyecto.entrega.dto.CursorPage;
+import com.proyecto.entrega.dto.DiagramChangeEvent;
 import com.proyecto.entrega.entity.Activity;
 import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.exception.ResourceNotFoundException;
+import com.proyecto.entrega.exception.VersionConflictException;
+import com.proyecto.entrega.mapper.DtoMapper;
 import com.proyecto.entrega.repository.ActivityRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.modelmapper.ModelMapper;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,8 +33,12 @@ import static org.mockito.Mockito.*;
 class ActivityServiceTest {
 
     @Mock ActivityRepository activityRepository;
-    @Mock ModelMapper modelMapper;
+    @Spy DtoMapper dtoMapper = new DtoMapper();
+    @Spy CursorPagination cursorPagination = new CursorPagination();
     @Mock ProcessService processService;
+    @Mock SoftDeleteCascadeService softDeleteCascadeService;
+    @Mock ApplicationEventPublisher eventPublisher;
+    @Mock BusinessMetrics businessMetrics;
 
     @InjectMocks ActivityService activityService;
 
@@ -54,14 +67,10 @@ class ActivityServiceTest {
 
         Process proc = new Process(); proc.setId(5L);
 
-        Activity entityBefore = ent(null, "A1", 10.0, 20.0, "desc", 100.0, 50.0, null, null);
-        Activity entitySaved  = ent(1L,   "A1", 10.0, 20.0, "desc", 100.0, 50.0, "active", proc);
-        ActivityDTO outDto    = dto(1L, "A1", 10.0, 20.0, "desc", 100.0, 50.0, "active", 5L);
+        Activity entitySaved = ent(1L, "A1", 10.0, 20.0, "desc", 100.0, 50.0, "active", proc);
 
         when(processService.findProcessEntity(5L)).thenReturn(proc);
-        when(modelMapper.map(inDto, Activity.class)).thenReturn(entityBefore);
         when(activityRepository.save(any(Activity.class))).thenReturn(entitySaved);
-        when(modelMapper.map(entitySaved, ActivityDTO.class)).thenReturn(outDto);
 
         ActivityDTO result = activityService.createActivity(inDto);
 
@@ -73,6 +82,8 @@ class ActivityServiceTest {
         Activity saved = captor.getValue();
         assertThat(saved.getProcess()).isSameAs(proc);
         assertThat(saved.getName()).isEqualTo("A1");
+
+        verify(businessMetrics).elementsCreated("activity", proc, 1);
     }
 
     @Test
@@ -83,7 +94,7 @@ class ActivityServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("ProcessId is required");
 
-        verifyNoInteractions(processService, activityRepository, modelMapper);
+        verifyNoInteractions(processService, activityRepository, dtoMapper);
     }
 
     @Test
@@ -99,7 +110,7 @@ class ActivityServiceTest {
 
         // Ojo: como falla antes del map, no se usa el mapper ni el repo
         verify(processService).findProcessEntity(999L);
-        verifyNoInteractions(activityRepository, modelMapper);
+        verifyNoInteractions(activityRepository, dtoMapper);
     }
 
     // ================= UPDATE =================
@@ -112,12 +123,10 @@ class ActivityServiceTest {
 
         Activity existing = ent(5L, "Old", 9.0, 8.0, "old", 7.0, 6.0, "active", null);
         Activity saved    = ent(5L, "Edit", 1.0, 2.0, "d", 3.0, 4.0, "active", proc);
-        ActivityDTO out   = dto(5L, "Edit", 1.0, 2.0, "d", 3.0, 4.0, "active", 7L);
 
         when(processService.findProcessEntity(7L)).thenReturn(proc);
         when(activityRepository.findById(5L)).thenReturn(Optional.of(existing));
         when(activityRepository.save(existing)).thenReturn(saved);
-        when(modelMapper.map(saved, ActivityDTO.class)).thenReturn(out);
 
         ActivityDTO result = activityService.updateActivity(inDto);
 
@@ -131,6 +140,11 @@ class ActivityServiceTest {
         assertThat(existing.getProcess()).isSameAs(proc);
 
         verify(activityRepository).save(existing);
+        ArgumentCaptor<DiagramChangeEvent> event = ArgumentCaptor.forClass(DiagramChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getAction()).isEqualTo(DiagramChangeEvent.UPDATED);
+        assertThat(event.getValue().getProcessId()).isEqualTo(7L);
+        assertThat(event.getValue().getX()).isEqualTo(1.0);
     }
 
     @Test
@@ -141,7 +155,7 @@ class ActivityServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("ActivityId is required");
 
-        verifyNoInteractions(processService, activityRepository, modelMapper);
+        verifyNoInteractions(processService, activityRepository, dtoMapper);
     }
 
     @Test
@@ -152,7 +166,7 @@ class ActivityServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("ProcessId is required");
 
-        verifyNoInteractions(processService, activityRepository, modelMapper);
+        verifyNoInteractions(processService, activityRepository, dtoMapper);
     }
 
     @Test
@@ -172,22 +186,84 @@ class ActivityServiceTest {
         verifyNoMoreInteractions(activityRepository);
     }
 
+    @Test
+    void updateActivity_versionCoincide_guarda() {
+        Process proc = new Process(); proc.setId(7L);
+        Activity existing = ent(5L, "Old", 9.0, 8.0, "old", 7.0, 6.0, "active", proc);
+        existing.setVersion(3L);
+
+        when(processService.findProcessEntity(7L)).thenReturn(proc);
+        when(activityRepository.findById(5L)).thenReturn(Optional.of(existing));
+        when(activityRepository.save(existing)).thenReturn(existing);
+
+        ActivityDTO inDto = dto(5L, "Edit", 1.0, 2.0, "d", 3.0, 4.0, "active", 7L);
+        inDto.setVersion(3L);
+
+        ActivityDTO result = activityService.updateActivity(inDto);
+
+        assertThat(result.getName()).isEqualTo("Edit");
+        verify(activityRepository).save(existing);
+    }
+
+    @Test
+    void updateActivity_versionDesactualizada_conflictoConEstadoActual() {
+        Process proc = new Process(); proc.setId(7L);
+        Activity existing = ent(5L, "Otro editor", 9.0, 8.0, "old", 7.0, 6.0, "active", proc);
+        existing.setVersion(4L);
+
+        when(processService.findProcessEntity(7L)).thenReturn(proc);
+        when(activityRepository.findById(5L)).thenReturn(Optional.of(existing));
+
+        ActivityDTO inDto = dto(5L, "Edit", 1.0, 2.0, "d", 3.0, 4.0, "active", 7L);
+        inDto.setVersion(3L);
+
+        assertThatThrownBy(() -> activityService.updateActivity(inDto))
+                .isInstanceOfSatisfying(VersionConflictException.class, e -> {
+                    assertThat(e.getCurrentVersion()).isEqualTo(4L);
+                    assertThat(((ActivityDTO) e.getCurrent()).getName()).isEqualTo("Otro editor");
+                });
+
+        assertThat(existing.getName()).isEqualTo("Otro editor");
+        verify(activityRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateActivity_otroCommitAntesDelUpdate_conflictoConEstadoReleido() {
+        Process proc = new Process(); proc.setId(7L);
+        Activity existing = ent(5L, "Old", 9.0, 8.0, "old", 7.0, 6.0, "active", proc);
+        existing.setVersion(3L);
+        Activity reloaded = ent(5L, "Ganador", 9.0, 8.0, "old", 7.0, 6.0, "active", proc);
+        reloaded.setVersion(4L);
+
+        when(processService.findProcessEntity(7L)).thenReturn(proc);
+        when(activityRepository.findById(5L)).thenReturn(Optional.of(existing), Optional.of(reloaded));
+        when(activityRepository.save(existing))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Activity.class, 5L));
+
+        ActivityDTO inDto = dto(5L, "Edit", 1.0, 2.0, "d", 3.0, 4.0, "active", 7L);
+        inDto.setVersion(3L);
+
+        assertThatThrownBy(() -> activityService.updateActivity(inDto))
+                .isInstanceOfSatisfying(VersionConflictException.class,
+                        e -> assertThat(e.getCurrentVersion()).isEqualTo(4L));
+    }
+
     // ================= FIND =================
 
     @Test
     void findActivity_found() {
         Process p = new Process(); p.setId(3L);
         Activity entity = ent(2L, "A2", 1.0, 2.0, "d", 10.0, 20.0, "active", p);
-        ActivityDTO dto = dto(2L, "A2", 1.0, 2.0, "d", 10.0, 20.0, "active", 3L);
 
         when(activityRepository.findById(2L)).thenReturn(Optional.of(entity));
-        when(modelMapper.map(entity, ActivityDTO.class)).thenReturn(dto);
 
         ActivityDTO result = activityService.findActivity(2L);
 
         assertThat(result.getId()).isEqualTo(2L);
         assertThat(result.getName()).isEqualTo("A2");
         assertThat(result.getStatus()).isEqualTo("active");
+        assertThat(result.getProcessId()).isEqualTo(3L);
     }
 
     @Test
@@ -205,27 +281,34 @@ class ActivityServiceTest {
     // ================= DELETE (soft) =================
 
     @Test
-    void deleteActivity_ok_softDelete() {
-        Activity entity = ent(7L, "A", 1.0, 2.0, "d", 3.0, 4.0, "active", null);
-        when(activityRepository.findById(7L)).thenReturn(Optional.of(entity));
-        when(activityRepository.save(entity)).thenReturn(entity);
+    void deleteActivity_ok_cascadaEnBloque() {
+        when(activityRepository.findProcessIdById(7L)).thenReturn(2L);
+        when(softDeleteCascadeService.deactivateActivity(7L)).thenReturn(new CascadeResultDTO(0, 0, 1, 0, 3));
+
+        CascadeResultDTO result = activityService.deleteActivity(7L);
 
-        activityService.deleteActivity(7L);
+        assertThat(result.getActivities()).isEqualTo(1);
+        assertThat(result.getEdges()).isEqualTo(3);
+        verify(softDeleteCascadeService).deactivateActivity(7L);
+        // Solo el process_id para el evento; la activity no se carga
+        verify(activityRepository).findProcessIdById(7L);
+        verifyNoMoreInteractions(activityRepository);
 
-        assertThat(entity.getStatus()).isEqualTo("inactive");
-        verify(activityRepository).save(entity);
+        ArgumentCaptor<DiagramChangeEvent> event = ArgumentCaptor.forClass(DiagramChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getProcessId()).isEqualTo(2L);
+        assertThat(event.getValue().getAction()).isEqualTo(DiagramChangeEvent.DELETED);
+        assertThat(event.getValue().getId()).isEqualTo(7L);
     }
 
     @Test
-    void deleteActivity_notFound_entityNotFound() {
-        when(activityRepository.findById(404L)).thenReturn(Optional.empty());
+    void deleteActivity_notFound() {
+        when(softDeleteCascadeService.deactivateActivity(404L))
+                .thenThrow(new ResourceNotFoundException("Actividad", "id", 404L));
 
         assertThatThrownBy(() -> activityService.deleteActivity(404L))
-                .isInstanceOf(EntityNotFoundException.class)
+                .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("404");
-
-        verify(activityRepository).findById(404L);
-        verifyNoMoreInteractions(activityRepository);
     }
 
     // ================= LIST =================
@@ -234,17 +317,16 @@ class ActivityServiceTest {
     void findActivities_ok() {
         Process p = new Process(); p.setId(2L);
         Activity a = ent(1L, "A", 1.0, 2.0, "d", 3.0, 4.0, "active", p);
-        when(activityRepository.findAll()).thenReturn(List.of(a));
-
-        ActivityDTO dto = dto(1L, "A", 1.0, 2.0, "d", 3.0, 4.0, "active", 2L);
-        when(modelMapper.map(a, ActivityDTO.class)).thenReturn(dto);
+        when(activityRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(a));
 
-        List<ActivityDTO> result = activityService.findActivities();
+        CursorPage<ActivityDTO> page = activityService.findActivities(null, null);
+        List<ActivityDTO> result = page.getItems();
 
         assertThat(result).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
         assertThat(result.get(0).getName()).isEqualTo("A");
         assertThat(result.get(0).getStatus()).isEqualTo("active");
-        verify(activityRepository).findAll();
-        verify(modelMapper, atLeastOnce()).map(any(Activity.class), eq(ActivityDTO.class));
+        verify(activityRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(201));
+        verify(dtoMapper, atLeastOnce()).toActivityDTO(any(Activity.class));
     }
 }
@@ -0,0 +1,87 @@
+package com.proyecto.entrega.service;
+
+import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.entity.Process;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BusinessMetricsTest {
+
+    MeterRegistry registry = new SimpleMeterRegistry();
+    BusinessMetrics businessMetrics = new BusinessMetrics();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(businessMetrics, "registry", registry);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void elementsCreated_cuentaPorElementoYCompania() {
+        businessMetrics.elementsCreated("activity", process(9L), 1);
+        businessMetrics.elementsCreated("activity", process(9L), 3);
+        businessMetrics.elementsCreated("edge", process(9L), 2);
+
+        assertThat(count("activity", "9")).isEqualTo(4);
+        assertThat(count("edge", "9")).isEqualTo(2);
+    }
+
+    @Test
+    void elementsCreated_sinCompania_usaNone() {
+        businessMetrics.elementsCreated("gateway", new Process(), 1);
+
+        assertThat(count("gateway", "none")).isEqualTo(1);
+    }
+
+    @Test
+    void dentroDeTransaccion_cuentaRecienEnElCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        businessMetrics.elementsCreated("activity", process(9L), 2);
+        assertThat(count("activity", "9")).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(count("activity", "9")).isEqualTo(2);
+    }
+
+    @Test
+    void rollback_noCuenta() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        businessMetrics.elementsCreated("edge", process(9L), 5);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(count("edge", "9")).isZero();
+    }
+
+    private double count(String element, String company) {
+        return registry.get(BusinessMetrics.ELEMENTS_CREATED)
+                .tag("element", element)
+                .tag("company", company)
+                .counter()
+                .count();
+    }
+
+    private static Process process(Long companyId) {
+        Company company = new Company();
+        company.setId(companyId);
+        Process process = new Process();
+        process.setCompany(company);
+        return process;
+    }
+}
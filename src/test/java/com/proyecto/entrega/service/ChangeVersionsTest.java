@@ -0,0 +1,77 @@
+package com.proyecto.entrega.service;
+
+import com.proyecto.entrega.dto.DiagramChangeEvent;
+import com.proyecto.entrega.repository.CompanyRepository;
+import com.proyecto.entrega.repository.ProcessRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeVersionsTest {
+
+    @Mock ProcessRepository processRepository;
+    @Mock CompanyRepository companyRepository;
+
+    @InjectMocks ChangeVersions changeVersions;
+
+    @Test
+    void etag_sinCambios_esEstable_yDependeDeLaVariante() {
+        when(processRepository.findChangeVersion(1L)).thenReturn(Optional.of("4.2"));
+
+        String first = changeVersions.etag(ChangeVersions.process(1L), null, 20);
+
+        assertThat(changeVersions.etag(ChangeVersions.process(1L), null, 20)).isEqualTo(first);
+        assertThat(changeVersions.etag(ChangeVersions.process(1L), "MA", 20)).isNotEqualTo(first);
+        assertThat(first).startsWith("\"4.2-").endsWith("\"").doesNotStartWith("W/");
+    }
+
+    @Test
+    void etag_cambiaConLaVersionDeLaBase() {
+        when(companyRepository.findChangeVersion(9L)).thenReturn(Optional.of("1.5"), Optional.of("1.6"));
+
+        String before = changeVersions.etag(ChangeVersions.company(9L));
+
+        assertThat(changeVersions.etag(ChangeVersions.company(9L))).isNotEqualTo(before);
+    }
+
+    @Test
+    void etag_global_sumaDeTodasLasVersiones() {
+        when(processRepository.findGlobalChangeVersion()).thenReturn("3.12");
+
+        assertThat(changeVersions.etag(ChangeVersions.ALL, null, 20)).startsWith("\"3.12-");
+        verifyNoInteractions(companyRepository);
+    }
+
+    @Test
+    void etag_procesoInexistente_versionCero() {
+        when(processRepository.findChangeVersion(404L)).thenReturn(Optional.empty());
+
+        assertThat(changeVersions.etag(ChangeVersions.process(404L))).startsWith("\"0-");
+    }
+
+    @Test
+    void processChanged_yCompanyChanged_subenSuFila() {
+        changeVersions.processChanged(1L);
+        changeVersions.companyChanged(9L);
+
+        verify(processRepository).bumpChangeVersion(1L);
+        verify(companyRepository).bumpChangeVersion(9L);
+    }
+
+    @Test
+    void onDiagramChange_subeElProceso() {
+        changeVersions.onDiagramChange(DiagramChangeEvent.changeset(5L));
+        changeVersions.onDiagramChange(DiagramChangeEvent.deleted(5L, "edge", 3L));
+
+        verify(processRepository, times(2)).bumpChangeVersion(5L);
+        verifyNoInteractions(companyRepository);
+    }
+}
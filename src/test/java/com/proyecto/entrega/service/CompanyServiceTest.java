@@ -1,16 +1,20 @@
 package com.proyecto.entrega.service;
 
+import com.proyecto.entrega.dto.CascadeResultDTO;
 import com.proyecto.entrega.dto.CompanyDTO;
 import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.exception.ResourceNotFoundException;
+import com.proyecto.entrega.mapper.DtoMapper;
 import com.proyecto.entrega.repository.CompanyRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.modelmapper.ModelMapper;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -25,7 +29,10 @@ import static org.mockito.Mockito.*;
 class CompanyServiceTest {
 
     @Mock CompanyRepository companyRepository;
-    @Mock ModelMapper modelMapper;
+    @Spy DtoMapper dtoMapper = new DtoMapper();
+    @Spy CursorPagination cursorPagination = new CursorPagination();
+    @Mock SoftDeleteCascadeService softDeleteCascadeService;
+    @Mock ChangeVersions changeVersions;
 
     @InjectMocks CompanyService companyService;
 
@@ -55,21 +62,21 @@ class CompanyServiceTest {
     @Test
     void createCompany_ok() {
         CompanyDTO inDto = dto(null, 900123456L, "Acme", "contacto@acme.com", null);
-        Company toPersist = company(null, 900123456L, "Acme", "contacto@acme.com", "active");
         Company persisted = company(1L, 900123456L, "Acme", "contacto@acme.com", "active");
-        CompanyDTO outDto = dto(1L, 900123456L, "Acme", "contacto@acme.com", "active");
 
         when(companyRepository.existsByName("Acme")).thenReturn(false);
         when(companyRepository.existsByCorreoContacto("contacto@acme.com")).thenReturn(false);
-        when(modelMapper.map(inDto, Company.class)).thenReturn(toPersist);
-        when(companyRepository.save(toPersist)).thenReturn(persisted);
-        when(modelMapper.map(persisted, CompanyDTO.class)).thenReturn(outDto);
+        when(companyRepository.save(any(Company.class))).thenReturn(persisted);
 
         CompanyDTO result = companyService.createCompany(inDto);
 
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getStatus()).isEqualTo("active");
-        verify(companyRepository).save(toPersist);
+
+        ArgumentCaptor<Company> captor = ArgumentCaptor.forClass(Company.class);
+        verify(companyRepository).save(captor.capture());
+        assertThat(captor.getValue().getName()).isEqualTo("Acme");
+        assertThat(captor.getValue().getStatus()).isEqualTo("active");
     }
 
     @Test
@@ -87,7 +94,7 @@ class CompanyServiceTest {
 
         verify(companyRepository).existsByName("Repetida");
         verifyNoMoreInteractions(companyRepository);
-        verifyNoInteractions(modelMapper);
+        verifyNoInteractions(dtoMapper);
     }
 
     @Test
@@ -107,7 +114,7 @@ class CompanyServiceTest {
         verify(companyRepository).existsByName("OkName");
         verify(companyRepository).existsByCorreoContacto("dup@co.com");
         verifyNoMoreInteractions(companyRepository);
-        verifyNoInteractions(modelMapper);
+        verifyNoInteractions(dtoMapper);
     }
 
     // =================== UPDATE ===================
@@ -121,7 +128,6 @@ class CompanyServiceTest {
 
         when(companyRepository.findById(5L)).thenReturn(Optional.of(existing));
         when(companyRepository.save(existing)).thenReturn(saved);
-        when(modelMapper.map(saved, CompanyDTO.class)).thenReturn(inDto);
 
         CompanyDTO result = companyService.updateCompany(inDto);
 
@@ -140,7 +146,7 @@ class CompanyServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Id is required for update");
 
-        verifyNoInteractions(companyRepository, modelMapper);
+        verifyNoInteractions(companyRepository, dtoMapper);
     }
 
     @Test
@@ -154,7 +160,7 @@ class CompanyServiceTest {
 
         verify(companyRepository).findById(77L);
         verifyNoMoreInteractions(companyRepository);
-        verifyNoInteractions(modelMapper);
+        verifyNoInteractions(dtoMapper);
     }
 
     // =================== FIND (DTO & ENTITY) ===================
@@ -162,10 +168,8 @@ class CompanyServiceTest {
     @Test
     void findCompany_found() {
         Company entity = company(2L, 777L, "Comp2", "c2@co.com", "active");
-        CompanyDTO dto = dto(2L, 777L, "Comp2", "c2@co.com", "active");
 
         when(companyRepository.findById(2L)).thenReturn(Optional.of(entity));
-        when(modelMapper.map(entity, CompanyDTO.class)).thenReturn(dto);
 
         CompanyDTO result = companyService.findCompany(2L);
 
@@ -204,29 +208,26 @@ class CompanyServiceTest {
     // =================== DELETE (soft) ===================
 
     @Test
-    void deleteCompany_ok_softDelete() {
-        Company entity = company(7L, 111L, "Empresa", "correo@test.com", "active");
-        when(companyRepository.findById(7L)).thenReturn(Optional.of(entity));
-        when(companyRepository.save(entity)).thenReturn(entity);
+    void deleteCompany_ok_cascadaEnBloque() {
+        when(softDeleteCascadeService.deactivateCompany(7L)).thenReturn(new CascadeResultDTO(1, 3, 40, 5, 60));
 
-        companyService.deleteCompany(7L);
+        CascadeResultDTO result = companyService.deleteCompany(7L);
 
-        assertThat(entity.getStatus()).isEqualTo("inactive");
-        ArgumentCaptor<Company> captor = ArgumentCaptor.forClass(Company.class);
-        verify(companyRepository).save(captor.capture());
-        assertThat(captor.getValue().getStatus()).isEqualTo("inactive");
+        assertThat(result.getCompanies()).isEqualTo(1);
+        assertThat(result.getProcesses()).isEqualTo(3);
+        verify(softDeleteCascadeService).deactivateCompany(7L);
+        verify(changeVersions).companyChanged(7L);
+        verifyNoInteractions(companyRepository);
     }
 
     @Test
     void deleteCompany_notFound() {
-        when(companyRepository.findById(123L)).thenReturn(Optional.empty());
+        when(softDeleteCascadeService.deactivateCompany(123L))
+                .thenThrow(new ResourceNotFoundException("Compañía", "id", 123L));
 
         assertThatThrownBy(() -> companyService.deleteCompany(123L))
-                .isInstanceOf(EntityNotFoundException.class)
+                .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("123");
-
-        verify(companyRepository).findById(123L);
-        verifyNoMoreInteractions(companyRepository);
     }
 
     // =================== LIST ===================
@@ -235,19 +236,14 @@ class CompanyServiceTest {
     void findCompanies_ok() {
         Company a = company(1L, 1L, "A", "a@co.com", "active");
         Company b = company(2L, 2L, "B", "b@co.com", "active");
-        when(companyRepository.findAll()).thenReturn(List.of(a, b));
-
-        CompanyDTO da = dto(1L, 1L, "A", "a@co.com", "active");
-        CompanyDTO db = dto(2L, 2L, "B", "b@co.com", "active");
-        when(modelMapper.map(a, CompanyDTO.class)).thenReturn(da);
-        when(modelMapper.map(b, CompanyDTO.class)).thenReturn(db);
+        when(companyRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(a, b));
 
-        List<CompanyDTO> result = companyService.findCompanies();
+        List<CompanyDTO> result = companyService.findCompanies(null, null).getItems();
 
         assertThat(result).hasSize(2);
         assertThat(result.get(0).getName()).isEqualTo("A");
         assertThat(result.get(1).getName()).isEqualTo("B");
-        verify(companyRepository).findAll();
-        verify(modelMapper, atLeastOnce()).map(any(Company.class), eq(CompanyDTO.class));
+        verify(companyRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(201));
+        verify(dtoMapper, atLeastOnce()).toCompanyDTO(any(Company.class));
     }
 }
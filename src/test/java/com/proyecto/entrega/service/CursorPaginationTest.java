@@ -0,0 +1,60 @@
+package com.proyecto.entrega.service;
+
+import com.proyecto.entrega.dto.CursorPage;
+import com.proyecto.entrega.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CursorPaginationTest {
+
+    private final CursorPagination cursorPagination = new CursorPagination();
+
+    @Test
+    void afterId_sinCursor_empiezaDesdeCero() {
+        assertThat(cursorPagination.afterId(null)).isZero();
+        assertThat(cursorPagination.afterId(" ")).isZero();
+    }
+
+    @Test
+    void afterId_decodificaElCursorGenerado() {
+        assertThat(cursorPagination.afterId(CursorPagination.encode(4242L))).isEqualTo(4242L);
+    }
+
+    @Test
+    void afterId_cursorInvalido_lanzaValidationException() {
+        assertThatThrownBy(() -> cursorPagination.afterId("no-es-un-cursor"))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> cursorPagination.afterId(CursorPagination.encode(-1L)))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void pageSize_porDefectoYAcotadoAlMaximo() {
+        assertThat(cursorPagination.pageSize(null)).isEqualTo(200);
+        assertThat(cursorPagination.pageSize(50)).isEqualTo(50);
+        assertThat(cursorPagination.pageSize(5000)).isEqualTo(1000);
+        assertThat(cursorPagination.limit(50)).isEqualTo(Limit.of(51));
+        assertThatThrownBy(() -> cursorPagination.pageSize(0))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void page_conFilaExtra_devuelveCursorDeLaUltimaFila() {
+        CursorPage<String> page = cursorPagination.page(List.of(1L, 2L, 3L), 2, id -> id, id -> "n" + id);
+
+        assertThat(page.getItems()).containsExactly("n1", "n2");
+        assertThat(cursorPagination.afterId(page.getNextCursor())).isEqualTo(2L);
+    }
+
+    @Test
+    void page_ultimaPagina_sinCursor() {
+        CursorPage<String> page = cursorPagination.page(List.of(1L, 2L), 2, id -> id, id -> "n" + id);
+
+        assertThat(page.getItems()).containsExactly("n1", "n2");
+        assertThat(page.getNextCursor()).isNull();
+    }
+}
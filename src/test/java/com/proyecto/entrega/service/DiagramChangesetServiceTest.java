@@ -0,0 +1,253 @@
+package com.proyecto.entrega.service;
+
+import com.proyecto.entrega.dto.ActivityDTO;
+import com.proyecto.entrega.dto.CascadeResultDTO;
+import com.proyecto.entrega.dto.DiagramChangesetDTO;
+import com.proyecto.entrega.dto.DiagramChangesetResultDTO;
+import com.proyecto.entrega.dto.EdgeDTO;
+import com.proyecto.entrega.dto.GatewayDTO;
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Edge;
+import com.proyecto.entrega.entity.Gateway;
+import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.exception.ResourceNotFoundException;
+import com.proyecto.entrega.exception.ValidationException;
+import com.proyecto.entrega.exception.VersionConflictException;
+import com.proyecto.entrega.mapper.DtoMapper;
+import com.proyecto.entrega.repository.ActivityRepository;
+import com.proyecto.entrega.repository.EdgeRepository;
+import com.proyecto.entrega.repository.GatewayRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.mockito.stubbing.Answer;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DiagramChangesetServiceTest {
+
+    @Mock ProcessService processService;
+    @Mock ActivityRepository activityRepository;
+    @Mock GatewayRepository gatewayRepository;
+    @Mock EdgeRepository edgeRepository;
+    @Spy EdgeService edgeService = new EdgeService();
+    @Spy DtoMapper dtoMapper = new DtoMapper();
+    @Mock ApplicationEventPublisher eventPublisher;
+    @Mock BusinessMetrics businessMetrics;
+    @Mock SoftDeleteCascadeService softDeleteCascadeService;
+
+    @InjectMocks DiagramChangesetService diagramChangesetService;
+
+    private final AtomicLong sequence = new AtomicLong(100);
+    private Process proc;
+
+    @BeforeEach
+    void setup() {
+        proc = new Process();
+        proc.setId(5L);
+        when(processService.findProcessEntity(5L)).thenReturn(proc);
+    }
+
+    // Simula la asignación de ids por secuencia al persistir
+    private <T> Answer<List<T>> assignIds(BiConsumer<T, Long> setId) {
+        return inv -> {
+            List<T> entities = inv.getArgument(0);
+            entities.forEach(e -> setId.accept(e, sequence.incrementAndGet()));
+            return entities;
+        };
+    }
+
+    @Test
+    void applyChangeset_creaNodosYEdgeConIdsTemporales() {
+        when(activityRepository.saveAll(anyList())).thenAnswer(assignIds(Activity::setId));
+        when(gatewayRepository.saveAll(anyList())).thenAnswer(assignIds(Gateway::setId));
+        when(edgeRepository.saveAll(anyList())).thenAnswer(assignIds(Edge::setId));
+
+        ActivityDTO newActivity = new ActivityDTO();
+        newActivity.setId(-1L); newActivity.setName("Nueva"); newActivity.setX(1.0); newActivity.setY(2.0);
+
+        GatewayDTO newGateway = new GatewayDTO();
+        newGateway.setId(-2L); newGateway.setType("exclusive");
+
+        EdgeDTO newEdge = new EdgeDTO();
+        newEdge.setId(-3L);
+        newEdge.setFromType("activity"); newEdge.setFromId(-1L);
+        newEdge.setToType("gateway"); newEdge.setToId(-2L);
+
+        DiagramChangesetDTO changeset = new DiagramChangesetDTO(
+                List.of(newActivity), List.of(newGateway), List.of(newEdge), null, null, null);
+
+        DiagramChangesetResultDTO result = diagramChangesetService.applyChangeset(5L, changeset);
+
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(result.getUpdated()).isZero();
+        Long activityId = result.getActivityIds().get(-1L);
+        Long gatewayId = result.getGatewayIds().get(-2L);
+        assertThat(activityId).isNotNull();
+        assertThat(gatewayId).isNotNull();
+        assertThat(result.getEdgeIds()).containsKey(-3L);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Edge>> captor = ArgumentCaptor.forClass(List.class);
+        verify(edgeRepository).saveAll(captor.capture());
+        Edge saved = captor.getValue().get(0);
+        assertThat(saved.getFromId()).isEqualTo(activityId);
+        assertThat(saved.getToId()).isEqualTo(gatewayId);
+        assertThat(saved.getProcess()).isSameAs(proc);
+        // Las activities del changeset se reutilizan: no se consultan una por una
+        verify(activityRepository, never()).findById(any());
+    }
+
+    @Test
+    void applyChangeset_modificaYDesactivaConUnaQueryPorTipo() {
+        Activity existing = new Activity(); existing.setId(10L); existing.setProcess(proc); existing.setName("Vieja");
+        Activity toDelete = new Activity(); toDelete.setId(11L); toDelete.setProcess(proc);
+        CascadeResultDTO deleted = new CascadeResultDTO();
+        deleted.setActivities(1); deleted.setEdges(1);
+
+        when(activityRepository.findAllById(List.of(10L))).thenReturn(List.of(existing));
+        when(activityRepository.findAllById(List.of(11L))).thenReturn(List.of(toDelete));
+        when(activityRepository.saveAll(anyList())).thenReturn(List.of());
+        when(gatewayRepository.saveAll(anyList())).thenReturn(List.of());
+        when(edgeRepository.saveAll(anyList())).thenReturn(List.of());
+        when(softDeleteCascadeService.deactivateDiagramElements(List.of(11L), List.of(), List.of()))
+                .thenReturn(deleted);
+
+        ActivityDTO update = new ActivityDTO();
+        update.setId(10L); update.setName("Editada"); update.setX(5.0); update.setY(6.0);
+
+        DiagramChangesetDTO changeset = new DiagramChangesetDTO(
+                List.of(update), null, null, List.of(11L), null, null);
+
+        DiagramChangesetResultDTO result = diagramChangesetService.applyChangeset(5L, changeset);
+
+        assertThat(existing.getName()).isEqualTo("Editada");
+        assertThat(existing.getX()).isEqualTo(5.0);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getDeleted()).isEqualTo(2);
+        // Las bajas van por el UPDATE en bloque, que marca los edges de la cascada
+        verify(edgeRepository, never()).findByActivityIdIn(any());
+        verify(edgeRepository, never()).save(any());
+    }
+
+    @Test
+    void applyChangeset_versionDesactualizada_rechazaElChangeset() {
+        Activity existing = new Activity(); existing.setId(10L); existing.setProcess(proc);
+        existing.setName("Actual"); existing.setVersion(2L);
+        when(activityRepository.findAllById(List.of(10L))).thenReturn(List.of(existing));
+
+        ActivityDTO update = new ActivityDTO();
+        update.setId(10L); update.setName("Editada"); update.setVersion(1L);
+
+        assertThatThrownBy(() -> diagramChangesetService.applyChangeset(5L,
+                new DiagramChangesetDTO(List.of(update), null, null, null, null, null)))
+                .isInstanceOfSatisfying(VersionConflictException.class,
+                        e -> assertThat(e.getCurrentVersion()).isEqualTo(2L));
+
+        assertThat(existing.getName()).isEqualTo("Actual");
+        verify(activityRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void applyChangeset_elementoDeOtroProceso_lanzaValidation() {
+        Process other = new Process(); other.setId(99L);
+        Activity foreign = new Activity(); foreign.setId(10L); foreign.setProcess(other);
+        when(activityRepository.findAllById(List.of(10L))).thenReturn(List.of(foreign));
+
+        ActivityDTO update = new ActivityDTO();
+        update.setId(10L);
+
+        assertThatThrownBy(() -> diagramChangesetService.applyChangeset(5L,
+                new DiagramChangesetDTO(List.of(update), null, null, null, null, null)))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("no pertenece");
+    }
+
+    @Test
+    void applyChangeset_elementoNoExiste_lanzaResourceNotFound() {
+        when(gatewayRepository.findAllById(List.of(77L))).thenReturn(List.of());
+        when(activityRepository.saveAll(anyList())).thenReturn(List.of());
+
+        GatewayDTO update = new GatewayDTO();
+        update.setId(77L);
+
+        assertThatThrownBy(() -> diagramChangesetService.applyChangeset(5L,
+                new DiagramChangesetDTO(null, List.of(update), null, null, null, null)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("77");
+    }
+
+    @Test
+    void applyChangeset_edgeHaciaActividadDeOtroProceso_lanzaValidation() {
+        Process other = new Process(); other.setId(99L);
+        Activity own = new Activity(); own.setId(10L); own.setProcess(proc);
+        Activity foreign = new Activity(); foreign.setId(30L); foreign.setProcess(other);
+        when(activityRepository.saveAll(anyList())).thenReturn(List.of());
+        when(gatewayRepository.saveAll(anyList())).thenReturn(List.of());
+        when(activityRepository.findAllById(Set.of(10L, 30L))).thenReturn(List.of(own, foreign));
+
+        EdgeDTO edge = new EdgeDTO();
+        edge.setFromType("activity"); edge.setFromId(10L);
+        edge.setToType("activity"); edge.setToId(30L);
+
+        assertThatThrownBy(() -> diagramChangesetService.applyChangeset(5L,
+                new DiagramChangesetDTO(null, null, List.of(edge), null, null, null)))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("30");
+        verify(edgeRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void applyChangeset_edgeHaciaGatewayInexistente_lanzaResourceNotFound() {
+        Activity own = new Activity(); own.setId(10L); own.setProcess(proc);
+        when(activityRepository.saveAll(anyList())).thenReturn(List.of());
+        when(gatewayRepository.saveAll(anyList())).thenReturn(List.of());
+        when(activityRepository.findAllById(Set.of(10L))).thenReturn(List.of(own));
+        when(gatewayRepository.findAllById(Set.of(88L))).thenReturn(List.of());
+
+        EdgeDTO edge = new EdgeDTO();
+        edge.setFromType("activity"); edge.setFromId(10L);
+        edge.setToType("gateway"); edge.setToId(88L);
+
+        assertThatThrownBy(() -> diagramChangesetService.applyChangeset(5L,
+                new DiagramChangesetDTO(null, null, List.of(edge), null, null, null)))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("88");
+    }
+
+    @Test
+    void applyChangeset_idCero_seTrataComoTemporal() {
+        when(activityRepository.saveAll(anyList())).thenAnswer(assignIds(Activity::setId));
+        when(gatewayRepository.saveAll(anyList())).thenAnswer(assignIds(Gateway::setId));
+        when(edgeRepository.saveAll(anyList())).thenAnswer(assignIds(Edge::setId));
+
+        ActivityDTO newActivity = new ActivityDTO();
+        newActivity.setId(0L); newActivity.setName("Nueva");
+        GatewayDTO newGateway = new GatewayDTO();
+        newGateway.setId(-1L); newGateway.setType("exclusive");
+
+        EdgeDTO edge = new EdgeDTO();
+        edge.setFromType("activity"); edge.setFromId(0L);
+        edge.setToType("gateway"); edge.setToId(-1L);
+
+        DiagramChangesetResultDTO result = diagramChangesetService.applyChangeset(5L,
+                new DiagramChangesetDTO(List.of(newActivity), List.of(newGateway), List.of(edge), null, null, null));
+
+        assertThat(edge.getFromId()).isEqualTo(result.getActivityIds().get(0L));
+        verify(activityRepository, never()).findAllById(any());
+    }
+}
@@ -0,0 +1,60 @@
+package com.proyecto.entrega.service;
+
+import com.proyecto.entrega.dto.DiagramChangeEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DiagramEventHubTest {
+
+    private final LongAdder dropped = new LongAdder();
+
+    private DiagramEventHub.Subscription subscription(int bufferSize) {
+        return new DiagramEventHub.Subscription(5L, new SseEmitter(), bufferSize, dropped);
+    }
+
+    private DiagramChangeEvent moved(long id, double x) {
+        return new DiagramChangeEvent(5L, "activity", DiagramChangeEvent.UPDATED, id, 1L, x, 0.0,
+                null, null, null, null);
+    }
+
+    @Test
+    void offer_mismoElemento_seCombinaYConservaElUltimo() {
+        DiagramEventHub.Subscription subscription = subscription(10);
+
+        subscription.offer(moved(1L, 10.0));
+        subscription.offer(moved(2L, 5.0));
+        subscription.offer(moved(1L, 30.0));
+
+        List<Object> pending = subscription.takePending();
+        assertThat(pending).hasSize(2);
+        assertThat(((DiagramChangeEvent) pending.get(0)).getId()).isEqualTo(2L);
+        assertThat(((DiagramChangeEvent) pending.get(1)).getX()).isEqualTo(30.0);
+        assertThat(subscription.hasPending()).isFalse();
+    }
+
+    @Test
+    void offer_bufferLleno_descartaYPideResync() {
+        DiagramEventHub.Subscription subscription = subscription(2);
+
+        subscription.offer(moved(1L, 1.0));
+        subscription.offer(moved(2L, 1.0));
+        subscription.offer(moved(3L, 1.0));
+        // Mientras el resync está pendiente no se acumula nada más
+        assertThat(subscription.offer(moved(4L, 1.0))).isFalse();
+
+        List<Object> pending = subscription.takePending();
+        assertThat(pending).hasSize(1);
+        assertThat(pending.get(0)).isEqualTo(Map.of("action", DiagramEventHub.RESYNC, "processId", 5L));
+        assertThat(dropped.sum()).isEqualTo(4);
+
+        // Después del resync vuelve a acumular normalmente
+        subscription.offer(moved(5L, 1.0));
+        assertThat(subscription.takePending()).hasSize(1);
+    }
+}
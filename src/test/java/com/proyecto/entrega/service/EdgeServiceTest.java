@@ -4,17 +4,20 @@ import com.proyecto.entrega.dto.EdgeDTO;
 import com.proyecto.entrega.entity.Activity;
 import com.proyecto.entrega.entity.Edge;
 import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.mapper.DtoMapper;
 import com.proyecto.entrega.repository.ActivityRepository;
 import com.proyecto.entrega.repository.EdgeRepository;
 import com.proyecto.entrega.repository.ProcessRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.modelmapper.ModelMapper;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
@@ -29,7 +32,11 @@ class EdgeServiceTest {
     @Mock EdgeRepository edgeRepository;
     @Mock ProcessRepository processRepository;
     @Mock ActivityRepository activityRepository;
-    @Mock ModelMapper modelMapper;
+    @Spy DtoMapper dtoMapper = new DtoMapper();
+    @Spy CursorPagination cursorPagination = new CursorPagination();
+    @Mock ApplicationEventPublisher eventPublisher;
+    @Mock BusinessMetrics businessMetrics;
+    @Mock SoftDeleteCascadeService softDeleteCascadeService;
 
     @InjectMocks EdgeService edgeService;
 
@@ -66,17 +73,13 @@ class EdgeServiceTest {
         Activity aSrc = new Activity(); aSrc.setId(10L);
         Activity aDst = new Activity(); aDst.setId(11L);
 
-        Edge mappedFromDto = edge(null, "nuevo enlace", "active", null, null, null); // status por defecto
-        Edge persisted      = edge(1L, "nuevo enlace", "active", proc, aSrc, aDst);
-        EdgeDTO outDto      = dto(1L, "nuevo enlace", "active", 100L, 10L, 11L);
+        Edge persisted = edge(1L, "nuevo enlace", "active", proc, aSrc, aDst);
 
         when(processRepository.findById(100L)).thenReturn(Optional.of(proc));
         when(activityRepository.findById(10L)).thenReturn(Optional.of(aSrc));
         when(activityRepository.findById(11L)).thenReturn(Optional.of(aDst));
 
-        when(modelMapper.map(inDto, Edge.class)).thenReturn(mappedFromDto);
         when(edgeRepository.save(any(Edge.class))).thenReturn(persisted);
-        when(modelMapper.map(persisted, EdgeDTO.class)).thenReturn(outDto);
 
         EdgeDTO result = edgeService.createEdge(inDto);
 
@@ -106,7 +109,7 @@ class EdgeServiceTest {
                 .hasMessageContaining("process");
 
         verify(processRepository).findById(999L);
-        verifyNoInteractions(edgeRepository, modelMapper);
+        verifyNoInteractions(edgeRepository, dtoMapper);
     }
 
     @Test
@@ -121,7 +124,7 @@ class EdgeServiceTest {
                 .hasMessageContaining("source");
 
         verify(activityRepository).findById(999L);
-        verifyNoInteractions(edgeRepository, modelMapper);
+        verifyNoInteractions(edgeRepository, dtoMapper);
     }
 
     @Test
@@ -138,7 +141,7 @@ class EdgeServiceTest {
                 .hasMessageContaining("destiny");
 
         verify(activityRepository).findById(999L);
-        verifyNoInteractions(edgeRepository, modelMapper);
+        verifyNoInteractions(edgeRepository, dtoMapper);
     }
 
     // =================== UPDATE ===================
@@ -153,14 +156,12 @@ class EdgeServiceTest {
 
         Edge existing = edge(10L, "viejo", "active", null, null, null);
         Edge saved    = edge(10L, "editado", "active", proc, aSrc, aDst);
-        EdgeDTO outDto = dto(10L, "editado", "active", 200L, 20L, 21L);
 
         when(edgeRepository.findById(10L)).thenReturn(Optional.of(existing));
         when(processRepository.findById(200L)).thenReturn(Optional.of(proc));
         when(activityRepository.findById(20L)).thenReturn(Optional.of(aSrc));
         when(activityRepository.findById(21L)).thenReturn(Optional.of(aDst));
         when(edgeRepository.save(existing)).thenReturn(saved);
-        when(modelMapper.map(saved, EdgeDTO.class)).thenReturn(outDto);
 
         EdgeDTO result = edgeService.updateEdge(inDto);
 
@@ -194,11 +195,12 @@ class EdgeServiceTest {
 
     @Test
     void findEdge_found() {
-        Edge entity = edge(2L, "flujo principal", "active", null, null, null);
-        EdgeDTO dto = dto(2L, "flujo principal", "active", 50L, 5L, 6L);
+        Process proc = new Process(); proc.setId(50L);
+        Activity src = new Activity(); src.setId(5L); src.setProcess(proc);
+        Activity dst = new Activity(); dst.setId(6L); dst.setProcess(proc);
+        Edge entity = edge(2L, "flujo principal", "active", proc, src, dst);
 
         when(edgeRepository.findById(2L)).thenReturn(Optional.of(entity));
-        when(modelMapper.map(entity, EdgeDTO.class)).thenReturn(dto);
 
         EdgeDTO result = edgeService.findEdge(2L);
 
@@ -206,6 +208,8 @@ class EdgeServiceTest {
         assertThat(result.getDescription()).isEqualTo("flujo principal");
         assertThat(result.getStatus()).isEqualTo("active");
         assertThat(result.getProcessId()).isEqualTo(50L);
+        assertThat(result.getActivitySourceId()).isEqualTo(5L);
+        assertThat(result.getActivityDestiny().getProcess().getId()).isEqualTo(50L);
     }
 
     @Test
@@ -226,14 +230,12 @@ class EdgeServiceTest {
     void deleteEdge_ok_softDelete() {
         Edge existing = edge(7L, "a borrar", "active", null, null, null);
         when(edgeRepository.findById(7L)).thenReturn(Optional.of(existing));
-        when(edgeRepository.save(existing)).thenReturn(existing);
 
         edgeService.deleteEdge(7L);
 
-        assertThat(existing.getStatus()).isEqualTo("inactive");
-        ArgumentCaptor<Edge> captor = ArgumentCaptor.forClass(Edge.class);
-        verify(edgeRepository).save(captor.capture());
-        assertThat(captor.getValue().getStatus()).isEqualTo("inactive");
+        // UPDATE directo que también limpia la marca de cascada
+        verify(softDeleteCascadeService).deactivateEdge(7L);
+        verify(edgeRepository, never()).save(any());
     }
 
     @Test
@@ -246,26 +248,25 @@ class EdgeServiceTest {
 
         verify(edgeRepository).findById(404L);
         verifyNoMoreInteractions(edgeRepository);
+        verifyNoInteractions(softDeleteCascadeService);
     }
 
     // =================== LIST ===================
 
     @Test
     void findEdges_ok() {
-        Edge a = edge(1L, "A→B", "active", null, null, null);
-        when(edgeRepository.findAll()).thenReturn(List.of(a));
-
-        EdgeDTO dto = dto(1L, "A→B", "active", 10L, 2L, 3L);
-        when(modelMapper.map(a, EdgeDTO.class)).thenReturn(dto);
+        Process proc = new Process(); proc.setId(10L);
+        Edge a = edge(1L, "A→B", "active", proc, null, null);
+        when(edgeRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(a));
 
-        List<EdgeDTO> result = edgeService.findEdges();
+        List<EdgeDTO> result = edgeService.findEdges(null, null).getItems();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getDescription()).isEqualTo("A→B");
         assertThat(result.get(0).getStatus()).isEqualTo("active");
         assertThat(result.get(0).getProcessId()).isEqualTo(10L);
 
-        verify(edgeRepository).findAll();
-        verify(modelMapper, atLeastOnce()).map(any(Edge.class), eq(EdgeDTO.class));
+        verify(edgeRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(201));
+        verify(dtoMapper, atLeastOnce()).toEdgeDTO(any(Edge.class));
     }
 }
@@ -1,17 +1,22 @@
 package com.proyecto.entrega.service;
 
+import com.proyecto.entrega.dto.CascadeResultDTO;
 import com.proyecto.entrega.dto.GatewayDTO;
 import com.proyecto.entrega.entity.Gateway;
 import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.exception.ResourceNotFoundException;
+import com.proyecto.entrega.mapper.DtoMapper;
 import com.proyecto.entrega.repository.GatewayRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.modelmapper.ModelMapper;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,9 +28,13 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class GatewayServiceTest {
 
-    @Mock ModelMapper modelMapper;
+    @Spy DtoMapper dtoMapper = new DtoMapper();
+    @Spy CursorPagination cursorPagination = new CursorPagination();
     @Mock GatewayRepository gatewayRepository;
     @Mock ProcessService processService; // <- ahora el service depende de ProcessService
+    @Mock SoftDeleteCascadeService softDeleteCascadeService;
+    @Mock ApplicationEventPublisher eventPublisher;
+    @Mock BusinessMetrics businessMetrics;
 
     @InjectMocks GatewayService gatewayService;
 
@@ -60,14 +69,10 @@ class GatewayServiceTest {
 
         Process proc = new Process(); proc.setId(99L);
 
-        Gateway mapped = gw(null, null, "exclusive", null, null, null); // ModelMapper pone campos básicos
-        Gateway saved  = gw(1L, "active", "exclusive", 12.5, 34.5, proc);
-        GatewayDTO out = dto(1L, "exclusive", "active", 12.5, 34.5, 99L);
+        Gateway saved = gw(1L, "active", "exclusive", 12.5, 34.5, proc);
 
-        when(modelMapper.map(inDto, Gateway.class)).thenReturn(mapped);
         when(processService.findProcessEntity(99L)).thenReturn(proc);
         when(gatewayRepository.save(any(Gateway.class))).thenReturn(saved);
-        when(modelMapper.map(saved, GatewayDTO.class)).thenReturn(out);
 
         GatewayDTO result = gatewayService.createGateway(inDto);
 
@@ -91,13 +96,9 @@ class GatewayServiceTest {
     void createGateway_ok_sinProcessId_noRevienta() {
         GatewayDTO inDto = dto(null, "inclusive", null, 1.0, 2.0, null);
 
-        Gateway mapped = gw(null, null, "inclusive", null, null, null);
-        Gateway saved  = gw(2L, "active", "inclusive", 1.0, 2.0, null);
-        GatewayDTO out = dto(2L, "inclusive", "active", 1.0, 2.0, null);
+        Gateway saved = gw(2L, "active", "inclusive", 1.0, 2.0, null);
 
-        when(modelMapper.map(inDto, Gateway.class)).thenReturn(mapped);
         when(gatewayRepository.save(any(Gateway.class))).thenReturn(saved);
-        when(modelMapper.map(saved, GatewayDTO.class)).thenReturn(out);
 
         GatewayDTO result = gatewayService.createGateway(inDto);
 
@@ -115,12 +116,10 @@ class GatewayServiceTest {
         Process proc = new Process(); proc.setId(77L);
         Gateway existing = gw(10L, "active", "oldType", 0.0, 0.0, null);
         Gateway saved    = gw(10L, "active", "parallel", 5.5, 6.5, proc);
-        GatewayDTO out   = dto(10L, "parallel", "active", 5.5, 6.5, 77L);
 
         when(gatewayRepository.findById(10L)).thenReturn(Optional.of(existing));
         when(processService.findProcessEntity(77L)).thenReturn(proc);
         when(gatewayRepository.save(existing)).thenReturn(saved);
-        when(modelMapper.map(saved, GatewayDTO.class)).thenReturn(out);
 
         GatewayDTO result = gatewayService.updateGateway(inDto);
 
@@ -140,7 +139,7 @@ class GatewayServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("id del Gateway");
 
-        verifyNoInteractions(gatewayRepository, processService, modelMapper);
+        verifyNoInteractions(gatewayRepository, processService, dtoMapper);
     }
 
     @Test
@@ -154,18 +153,17 @@ class GatewayServiceTest {
 
         verify(gatewayRepository).findById(99L);
         verifyNoMoreInteractions(gatewayRepository);
-        verifyNoInteractions(processService, modelMapper);
+        verifyNoInteractions(processService, dtoMapper);
     }
 
     // =================== FIND ===================
 
     @Test
     void findGateway_found() {
-        Gateway entity = gw(3L, "active", "inclusive", 7.0, 8.0, null);
-        GatewayDTO dto = dto(3L, "inclusive", "active", 7.0, 8.0, 50L);
+        Process proc = new Process(); proc.setId(50L);
+        Gateway entity = gw(3L, "active", "inclusive", 7.0, 8.0, proc);
 
         when(gatewayRepository.findById(3L)).thenReturn(Optional.of(entity));
-        when(modelMapper.map(entity, GatewayDTO.class)).thenReturn(dto);
 
         GatewayDTO result = gatewayService.findGateway(3L);
 
@@ -201,29 +199,27 @@ class GatewayServiceTest {
     // =================== DELETE (soft) ===================
 
     @Test
-    void deleteGateway_ok_softDelete() {
-        Gateway existing = gw(7L, "active", "exclusive", 1.0, 2.0, null);
-        when(gatewayRepository.findById(7L)).thenReturn(Optional.of(existing));
-        when(gatewayRepository.save(existing)).thenReturn(existing);
+    void deleteGateway_ok_cascadaEnBloque() {
+        when(softDeleteCascadeService.deactivateGateway(7L)).thenReturn(new CascadeResultDTO(0, 0, 0, 1, 2));
 
-        gatewayService.deleteGateway(7L);
+        CascadeResultDTO result = gatewayService.deleteGateway(7L);
 
-        assertThat(existing.getStatus()).isEqualTo("inactive");
-        ArgumentCaptor<Gateway> captor = ArgumentCaptor.forClass(Gateway.class);
-        verify(gatewayRepository).save(captor.capture());
-        assertThat(captor.getValue().getStatus()).isEqualTo("inactive");
+        assertThat(result.getGateways()).isEqualTo(1);
+        assertThat(result.getEdges()).isEqualTo(2);
+        verify(softDeleteCascadeService).deactivateGateway(7L);
+        verify(gatewayRepository).findProcessIdById(7L);
+        verifyNoMoreInteractions(gatewayRepository);
+        verify(eventPublisher).publishEvent(any(Object.class));
     }
 
     @Test
     void deleteGateway_notFound() {
-        when(gatewayRepository.findById(123L)).thenReturn(Optional.empty());
+        when(softDeleteCascadeService.deactivateGateway(123L))
+                .thenThrow(new ResourceNotFoundException("Gateway", "id", 123L));
 
         assertThatThrownBy(() -> gatewayService.deleteGateway(123L))
-                .isInstanceOf(EntityNotFoundException.class)
+                .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("123");
-
-        verify(gatewayRepository).findById(123L);
-        verifyNoMoreInteractions(gatewayRepository);
     }
 
     // =================== LIST ===================
@@ -232,21 +228,16 @@ class GatewayServiceTest {
     void findGateways_ok() {
         Gateway a = gw(1L, "active", "exclusive", 10.0, 20.0, null);
         Gateway b = gw(2L, "active", "parallel", 30.0, 40.0, null);
-        when(gatewayRepository.findAll()).thenReturn(List.of(a, b));
-
-        GatewayDTO da = dto(1L, "exclusive", "active", 10.0, 20.0, null);
-        GatewayDTO db = dto(2L, "parallel", "active", 30.0, 40.0, null);
-        when(modelMapper.map(a, GatewayDTO.class)).thenReturn(da);
-        when(modelMapper.map(b, GatewayDTO.class)).thenReturn(db);
+        when(gatewayRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(a, b));
 
-        List<GatewayDTO> result = gatewayService.findGateways();
+        List<GatewayDTO> result = gatewayService.findGateways(null, null).getItems();
 
         assertThat(result).hasSize(2);
         assertThat(result.get(0).getType()).isEqualTo("exclusive");
         assertThat(result.get(0).getX()).isEqualTo(10.0);
         assertThat(result.get(1).getY()).isEqualTo(40.0);
 
-        verify(gatewayRepository).findAll();
-        verify(modelMapper, atLeast(2)).map(any(Gateway.class), eq(GatewayDTO.class));
+        verify(gatewayRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(201));
+        verify(dtoMapper, atLeast(2)).toGatewayDTO(any(Gateway.class));
     }
 }
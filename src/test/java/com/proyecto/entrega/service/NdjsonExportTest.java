@@ -0,0 +1,66 @@
+package com.proyecto.entrega.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.proyecto.entrega.dto.ProcessSummaryDTO;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NdjsonExportTest {
+
+    @Spy ObjectMapper objectMapper = new ObjectMapper();
+    @Mock EntityManager entityManager;
+
+    @InjectMocks NdjsonExport ndjsonExport;
+
+    @Test
+    void write_unaLineaPorFila() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = ndjsonExport.write(out, Stream.of(1L, 2L),
+                id -> new ProcessSummaryDTO(id, "P" + id, null));
+
+        assertThat(count).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"id\":1,\"name\":\"P1\",\"description\":null}\n" +
+                "{\"id\":2,\"name\":\"P2\",\"description\":null}\n");
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void write_vaciaElContextoPorBloquesYCierraElStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Long> rows = LongStream.rangeClosed(1, 1200).boxed().onClose(() -> closed.set(true));
+
+        long count = ndjsonExport.write(new ByteArrayOutputStream(), rows,
+                id -> new ProcessSummaryDTO(id, null, null));
+
+        assertThat(count).isEqualTo(1200);
+        assertThat(closed).isTrue();
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void write_streamVacio_noEscribeNada() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = ndjsonExport.write(out, Stream.<Long>empty(), id -> id);
+
+        assertThat(count).isZero();
+        assertThat(out.size()).isZero();
+    }
+}
@@ -0,0 +1,128 @@
+package com.proyecto.entrega.service;
+
+import com.proyecto.entrega.dto.DiagramChangeEvent;
+import com.proyecto.entrega.dto.PositionDTO;
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Gateway;
+import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.exception.ResourceNotFoundException;
+import com.proyecto.entrega.exception.ValidationException;
+import com.proyecto.entrega.repository.ActivityRepository;
+import com.proyecto.entrega.repository.GatewayRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PositionWriteBehindTest {
+
+    @Mock ActivityRepository activityRepository;
+    @Mock GatewayRepository gatewayRepository;
+    @Mock PlatformTransactionManager transactionManager;
+    @Mock ApplicationEventPublisher eventPublisher;
+
+    // Sin start(): los flush se disparan a mano
+    @InjectMocks PositionWriteBehind writeBehind = new PositionWriteBehind(Duration.ofMinutes(1));
+
+    private Activity activity(Long id) {
+        Process p = new Process(); p.setId(5L);
+        Activity a = new Activity();
+        a.setId(id); a.setX(0.0); a.setY(0.0); a.setWidth(100.0); a.setHeight(50.0); a.setProcess(p);
+        return a;
+    }
+
+    @Test
+    void move_variasVecesElMismoNodo_unaSolaEscrituraConLaUltimaPosicion() {
+        Activity a = activity(1L);
+        when(activityRepository.existsById(1L)).thenReturn(true);
+        when(activityRepository.findAllById(Set.of(1L))).thenReturn(List.of(a));
+
+        writeBehind.moveActivity(1L, new PositionDTO(10.0, 10.0, null, null));
+        writeBehind.moveActivity(1L, new PositionDTO(20.0, 25.0, null, null));
+        writeBehind.moveActivity(1L, new PositionDTO(30.0, 35.0, 120.0, null));
+        writeBehind.flush();
+
+        assertThat(a.getX()).isEqualTo(30.0);
+        assertThat(a.getY()).isEqualTo(35.0);
+        assertThat(a.getWidth()).isEqualTo(120.0);
+        assertThat(a.getHeight()).isEqualTo(50.0);
+        // La existencia se valida solo la primera vez en la ventana
+        verify(activityRepository, times(1)).existsById(1L);
+        verify(activityRepository).flush();
+        assertThat(writeBehind.coalesced()).isEqualTo(2);
+        assertThat(writeBehind.written()).isEqualTo(1);
+        assertThat(writeBehind.pending()).isZero();
+
+        ArgumentCaptor<DiagramChangeEvent> event = ArgumentCaptor.forClass(DiagramChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getProcessId()).isEqualTo(5L);
+        assertThat(event.getValue().getX()).isEqualTo(30.0);
+    }
+
+    @Test
+    void flush_activitiesYGateways_unaQueryPorTipo() {
+        Gateway g = new Gateway(); g.setId(2L);
+        when(activityRepository.existsById(1L)).thenReturn(true);
+        when(gatewayRepository.existsById(2L)).thenReturn(true);
+        when(activityRepository.findAllById(Set.of(1L))).thenReturn(List.of(activity(1L)));
+        when(gatewayRepository.findAllById(Set.of(2L))).thenReturn(List.of(g));
+
+        writeBehind.moveActivity(1L, new PositionDTO(1.0, 1.0, null, null));
+        writeBehind.moveGateway(2L, new PositionDTO(7.0, 8.0, null, null));
+        writeBehind.flush();
+
+        assertThat(g.getX()).isEqualTo(7.0);
+        assertThat(g.getY()).isEqualTo(8.0);
+        verify(transactionManager).commit(any());
+        assertThat(writeBehind.written()).isEqualTo(2);
+    }
+
+    @Test
+    void flush_sinPendientes_noAbreTransaccion() {
+        writeBehind.flush();
+
+        verifyNoInteractions(transactionManager, activityRepository, gatewayRepository);
+    }
+
+    @Test
+    void flush_falla_reencolaSalvoPosicionMasNueva() {
+        when(activityRepository.existsById(1L)).thenReturn(true);
+        when(activityRepository.findAllById(Set.of(1L))).thenThrow(new QueryTimeoutException("timeout"));
+
+        writeBehind.moveActivity(1L, new PositionDTO(1.0, 1.0, null, null));
+
+        assertThatThrownBy(() -> writeBehind.flush()).isInstanceOf(QueryTimeoutException.class);
+        assertThat(writeBehind.pending()).isEqualTo(1);
+        assertThat(writeBehind.failedFlushes()).isEqualTo(1);
+    }
+
+    @Test
+    void move_nodoInexistente_404() {
+        when(gatewayRepository.existsById(9L)).thenReturn(false);
+
+        assertThatThrownBy(() -> writeBehind.moveGateway(9L, new PositionDTO(1.0, 1.0, null, null)))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(writeBehind.pending()).isZero();
+    }
+
+    @Test
+    void move_sinCoordenadas_validation() {
+        assertThatThrownBy(() -> writeBehind.moveActivity(1L, new PositionDTO(null, 1.0, null, null)))
+                .isInstanceOf(ValidationException.class);
+        verifyNoInteractions(activityRepository);
+    }
+}
@@ -0,0 +1,88 @@
+package com.proyecto.entrega.service;
+
+import com.proyecto.entrega.dto.ProcessGraphDTO;
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Edge;
+import com.proyecto.entrega.entity.Gateway;
+import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.entity.Role;
+import com.proyecto.entrega.exception.ResourceNotFoundException;
+import com.proyecto.entrega.repository.ActivityRepository;
+import com.proyecto.entrega.repository.EdgeRepository;
+import com.proyecto.entrega.repository.GatewayRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessGraphServiceTest {
+
+    @Mock ProcessService processService;
+    @Mock ActivityRepository activityRepository;
+    @Mock GatewayRepository gatewayRepository;
+    @Mock EdgeRepository edgeRepository;
+
+    @InjectMocks ProcessGraphService processGraphService;
+
+    @Test
+    void findProcessGraph_ok_unaQueryPorTipo_yPayloadCompacto() {
+        Process proc = new Process(); proc.setId(5L); proc.setName("P"); proc.setDescription("desc");
+
+        Role role = new Role(); role.setId(3L); role.setNombre("analista");
+        Activity a = new Activity(); a.setId(1L); a.setName("A1"); a.setX(10.0); a.setY(20.0);
+        a.setProcess(proc); a.setRole(role);
+
+        Gateway g = new Gateway(); g.setId(2L); g.setType("exclusive"); g.setProcess(proc);
+
+        Edge e = new Edge(); e.setId(9L); e.setProcess(proc);
+        e.setFromType("activity"); e.setFromId(1L); e.setToType("gateway"); e.setToId(2L);
+
+        when(processService.findProcessEntity(5L)).thenReturn(proc);
+        when(activityRepository.findGraphNodesByProcessId(5L)).thenReturn(List.of(a));
+        when(gatewayRepository.findByProcessId(5L)).thenReturn(List.of(g));
+        when(edgeRepository.findByProcessId(5L)).thenReturn(List.of(e));
+
+        ProcessGraphDTO result = processGraphService.findProcessGraph(5L);
+
+        assertThat(result.getProcess().getId()).isEqualTo(5L);
+        assertThat(result.getProcess().getName()).isEqualTo("P");
+
+        assertThat(result.getActivities()).hasSize(1);
+        assertThat(result.getActivities().get(0).getName()).isEqualTo("A1");
+        assertThat(result.getActivities().get(0).getRole().getNombre()).isEqualTo("analista");
+        // El proceso viaja una sola vez, no por elemento
+        assertThat(result.getActivities().get(0).getProcess()).isNull();
+
+        assertThat(result.getGateways()).hasSize(1);
+        assertThat(result.getGateways().get(0).getProcess()).isNull();
+
+        assertThat(result.getEdges()).hasSize(1);
+        assertThat(result.getEdges().get(0).getFromId()).isEqualTo(1L);
+        assertThat(result.getEdges().get(0).getToType()).isEqualTo("gateway");
+        assertThat(result.getEdges().get(0).getProcess()).isNull();
+
+        verify(activityRepository).findGraphNodesByProcessId(5L);
+        verify(gatewayRepository).findByProcessId(5L);
+        verify(edgeRepository).findByProcessId(5L);
+        verifyNoMoreInteractions(activityRepository, gatewayRepository, edgeRepository);
+    }
+
+    @Test
+    void findProcessGraph_procesoNoExiste_lanzaResourceNotFound() {
+        when(processService.findProcessEntity(404L))
+                .thenThrow(new ResourceNotFoundException("Proceso", "id", 404L));
+
+        assertThatThrownBy(() -> processGraphService.findProcessGraph(404L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("404");
+
+        verifyNoInteractions(activityRepository, gatewayRepository, edgeRepository);
+    }
+}
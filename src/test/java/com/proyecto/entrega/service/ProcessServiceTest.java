@@ -1,20 +1,28 @@
 package com.proyecto.entrega.service;
 
+import com.proyecto.entrega.dto.CascadeResultDTO;
 import com.proyecto.entrega.dto.ProcessDTO;
 import com.proyecto.entrega.dto.ProcessSummaryDTO;
 import com.proyecto.entrega.entity.Company;
 import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.exception.ResourceNotFoundException;
+import com.proyecto.entrega.mapper.DtoMapper;
 import com.proyecto.entrega.repository.ProcessRepository;
+import com.proyecto.entrega.repository.projection.ProcessRow;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.modelmapper.ModelMapper;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -26,7 +34,10 @@ class ProcessServiceTest {
 
     @Mock ProcessRepository processRepository;
     @Mock CompanyService companyService;   // <- ahora depende del service, NO del repo
-    @Mock ModelMapper modelMapper;
+    @Spy DtoMapper dtoMapper = new DtoMapper();
+    @Spy CursorPagination cursorPagination = new CursorPagination();
+    @Mock SoftDeleteCascadeService softDeleteCascadeService;
+    @Mock ChangeVersions changeVersions;
 
     @InjectMocks ProcessService processService;
 
@@ -41,6 +52,17 @@ class ProcessServiceTest {
         return p;
     }
 
+    private ProcessRow row(Long id, String name, String desc, Long companyId) {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("id", id);
+        columns.put("name", name);
+        columns.put("description", desc);
+        columns.put("status", "active");
+        columns.put("companyId", companyId);
+        columns.put("companyName", "Acme");
+        return new SpelAwareProxyProjectionFactory().createProjection(ProcessRow.class, columns);
+    }
+
     private Company comp(Long id) {
         Company c = new Company();
         c.setId(id);
@@ -64,14 +86,10 @@ class ProcessServiceTest {
         ProcessDTO inDto = dto(null, "Proc A", null, "desc A", 77L);
 
         Company company = comp(77L);
-        Process mapped  = proc(null, "Proc A", "desc A", "active", null);
         Process saved   = proc(1L, "Proc A", "desc A", "active", company);
-        ProcessDTO out  = dto(1L, "Proc A", "active", "desc A", 77L);
 
-        when(modelMapper.map(inDto, Process.class)).thenReturn(mapped);
         when(companyService.findCompanyEntity(77L)).thenReturn(company);
         when(processRepository.save(any(Process.class))).thenReturn(saved);
-        when(modelMapper.map(saved, ProcessDTO.class)).thenReturn(out);
 
         ProcessDTO result = processService.createProcess(inDto);
 
@@ -82,6 +100,7 @@ class ProcessServiceTest {
         ArgumentCaptor<Process> captor = ArgumentCaptor.forClass(Process.class);
         verify(processRepository).save(captor.capture());
         assertThat(captor.getValue().getCompany()).isSameAs(company);
+        verify(changeVersions).processChanged(1L);
     }
 
     @Test
@@ -92,7 +111,7 @@ class ProcessServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("CompanyId is required");
 
-        verifyNoInteractions(processRepository, companyService, modelMapper);
+        verifyNoInteractions(processRepository, companyService, dtoMapper);
     }
 
     // =================== UPDATE ===================
@@ -104,12 +123,10 @@ class ProcessServiceTest {
         Company company = comp(77L);
         Process existing = proc(10L, "Old", "old", "active", null);
         Process saved    = proc(10L, "Proc Edit", "d", "active", company);
-        ProcessDTO out   = dto(10L, "Proc Edit", "active", "d", 77L);
 
         when(processRepository.findById(10L)).thenReturn(Optional.of(existing));
         when(companyService.findCompanyEntity(77L)).thenReturn(company);
         when(processRepository.save(existing)).thenReturn(saved);
-        when(modelMapper.map(saved, ProcessDTO.class)).thenReturn(out);
 
         ProcessDTO result = processService.updateProcess(inDto);
 
@@ -128,7 +145,7 @@ class ProcessServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Id is required");
 
-        verifyNoInteractions(processRepository, companyService, modelMapper);
+        verifyNoInteractions(processRepository, companyService, dtoMapper);
     }
 
     @Test
@@ -153,7 +170,7 @@ class ProcessServiceTest {
 
         verify(processRepository).findById(99L);
         verifyNoMoreInteractions(processRepository);
-        verifyNoInteractions(companyService, modelMapper);
+        verifyNoInteractions(companyService, dtoMapper);
     }
 
     // =================== FIND (DTO & ENTITY) ===================
@@ -162,10 +179,8 @@ class ProcessServiceTest {
     void findProcess_found() {
         Company c = comp(50L);
         Process entity = proc(2L, "Proc B", "desc B", "active", c);
-        ProcessDTO dto = dto(2L, "Proc B", "active", "desc B", 50L);
 
         when(processRepository.findById(2L)).thenReturn(Optional.of(entity));
-        when(modelMapper.map(entity, ProcessDTO.class)).thenReturn(dto);
 
         ProcessDTO result = processService.findProcess(2L);
 
@@ -197,89 +212,90 @@ class ProcessServiceTest {
     // =================== DELETE (soft) ===================
 
     @Test
-    void deleteProcess_ok_softDelete() {
-        Process existing = proc(7L, "X", "Y", "active", null);
-        when(processRepository.findById(7L)).thenReturn(Optional.of(existing));
-        when(processRepository.save(existing)).thenReturn(existing);
+    void deleteProcess_ok_cascadaEnBloque() {
+        when(softDeleteCascadeService.deactivateProcess(7L)).thenReturn(new CascadeResultDTO(0, 1, 40, 5, 60));
 
-        processService.deleteProcess(7L);
+        CascadeResultDTO result = processService.deleteProcess(7L);
 
-        assertThat(existing.getStatus()).isEqualTo("inactive");
-        ArgumentCaptor<Process> captor = ArgumentCaptor.forClass(Process.class);
-        verify(processRepository).save(captor.capture());
-        assertThat(captor.getValue().getStatus()).isEqualTo("inactive");
+        assertThat(result.getProcesses()).isEqualTo(1);
+        assertThat(result.getActivities()).isEqualTo(40);
+        assertThat(result.getEdges()).isEqualTo(60);
+        verify(softDeleteCascadeService).deactivateProcess(7L);
+        verify(changeVersions).processChanged(7L);
+        verifyNoInteractions(processRepository);
     }
 
     @Test
     void deleteProcess_notFound() {
-        when(processRepository.findById(404L)).thenReturn(Optional.empty());
+        when(softDeleteCascadeService.deactivateProcess(404L))
+                .thenThrow(new ResourceNotFoundException("Proceso", "id", 404L));
 
         assertThatThrownBy(() -> processService.deleteProcess(404L))
-                .isInstanceOf(EntityNotFoundException.class)
+                .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("404");
-
-        verify(processRepository).findById(404L);
-        verifyNoMoreInteractions(processRepository);
+        verifyNoInteractions(changeVersions);
     }
 
     // =================== LISTS ===================
 
     @Test
     void findProcesses_ok() {
-        Company c = comp(10L);
-        Process a = proc(1L, "Proc X", "dx", "active", c);
-        Process b = proc(2L, "Proc Y", "dy", "active", c);
-        when(processRepository.findAll()).thenReturn(List.of(a, b));
+        ProcessRow a = row(1L, "Proc X", "dx", 10L);
+        ProcessRow b = row(2L, "Proc Y", "dy", 10L);
+        when(processRepository.findRowsByIdGreaterThan(eq(0L), any(Limit.class))).thenReturn(List.of(a, b));
 
-        ProcessDTO da = dto(1L, "Proc X", "active", "dx", 10L);
-        ProcessDTO db = dto(2L, "Proc Y", "active", "dy", 10L);
-        when(modelMapper.map(a, ProcessDTO.class)).thenReturn(da);
-        when(modelMapper.map(b, ProcessDTO.class)).thenReturn(db);
-
-        List<ProcessDTO> result = processService.findProcesses();
+        List<ProcessDTO> result = processService.findProcesses(null, null).getItems();
 
         assertThat(result).hasSize(2);
         assertThat(result.get(0).getName()).isEqualTo("Proc X");
         assertThat(result.get(1).getName()).isEqualTo("Proc Y");
-        verify(processRepository).findAll();
-        verify(modelMapper, atLeast(2)).map(any(Process.class), eq(ProcessDTO.class));
+        assertThat(result.get(0).getCompany().getName()).isEqualTo("Acme");
+        verify(processRepository).findRowsByIdGreaterThan(0L, Limit.of(201));
+        verify(dtoMapper, atLeast(2)).toProcessDTO(any(ProcessRow.class));
     }
 
     @Test
     void getProcessesByCompany_ok() {
-        Company c = comp(77L);
-        Process p1 = proc(1L, "A", "da", "active", c);
-        Process p2 = proc(2L, "B", "db", "active", c);
-        when(processRepository.findByCompanyId(77L)).thenReturn(List.of(p1, p2));
-
-        ProcessDTO d1 = dto(1L, "A", "active", "da", 77L);
-        ProcessDTO d2 = dto(2L, "B", "active", "db", 77L);
-        when(modelMapper.map(p1, ProcessDTO.class)).thenReturn(d1);
-        when(modelMapper.map(p2, ProcessDTO.class)).thenReturn(d2);
+        ProcessRow p1 = row(1L, "A", "da", 77L);
+        ProcessRow p2 = row(2L, "B", "db", 77L);
+        when(processRepository.findRowsByCompanyId(eq(77L), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(p1, p2));
 
-        List<ProcessDTO> result = processService.getProcessesByCompany(77L);
+        List<ProcessDTO> result = processService.getProcessesByCompany(77L, null, null).getItems();
 
         assertThat(result).hasSize(2);
         assertThat(result.get(0).getCompanyId()).isEqualTo(77L);
-        verify(processRepository).findByCompanyId(77L);
+        verify(processRepository).findRowsByCompanyId(77L, 0L, Limit.of(201));
     }
 
     @Test
     void getProcessesSummaryByCompany_ok() {
-        Company c = comp(77L);
-        Process p1 = proc(1L, "S1", "ds1", "active", c);
-        Process p2 = proc(2L, "S2", "ds2", "active", c);
-        when(processRepository.findByCompanyId(77L)).thenReturn(List.of(p1, p2));
+        ProcessSummaryDTO s1 = new ProcessSummaryDTO(1L, "S1", "ds1");
+        ProcessSummaryDTO s2 = new ProcessSummaryDTO(2L, "S2", "ds2");
+        when(processRepository.findSummariesByCompanyId(eq(77L), eq(0L), any(Limit.class)))
+                .thenReturn(List.of(s1, s2));
 
-        List<ProcessSummaryDTO> result = processService.getProcessesSummaryByCompany(77L);
+        List<ProcessSummaryDTO> result = processService.getProcessesSummaryByCompany(77L, null, null).getItems();
 
         assertThat(result).hasSize(2);
         assertThat(result.get(0).getId()).isEqualTo(1L);
         assertThat(result.get(0).getName()).isEqualTo("S1");
         assertThat(result.get(0).getDescription()).isEqualTo("ds1");
         assertThat(result.get(1).getName()).isEqualTo("S2");
-        // no usa ModelMapper en este método
-        verify(processRepository).findByCompanyId(77L);
-        verifyNoInteractions(modelMapper);
+        // la proyección ya es el DTO: no usa el mapper
+        verify(processRepository).findSummariesByCompanyId(77L, 0L, Limit.of(201));
+        verifyNoInteractions(dtoMapper);
+    }
+
+    @Test
+    void getInactiveProcessesByCompany_usaProyeccionNativa() {
+        ProcessRow p = row(5L, "Old", "do", 77L);
+        when(processRepository.findRowPageByCompanyIdAndStatus(77L, "inactive", 0L, 201)).thenReturn(List.of(p));
+
+        List<ProcessDTO> result = processService.getInactiveProcessesByCompany(77L, null, null).getItems();
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getId()).isEqualTo(5L);
+        assertThat(result.get(0).getCompany().getId()).isEqualTo(77L);
     }
 }
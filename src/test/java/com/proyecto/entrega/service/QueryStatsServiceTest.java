@@ -0,0 +1,137 @@
+package com.proyecto.entrega.service;
+
+import com.proyecto.entrega.dto.CacheRegionStatsDTO;
+import com.proyecto.entrega.dto.QueryStatsDTO;
+import com.proyecto.entrega.dto.RepositoryQueryStatsDTO;
+import com.proyecto.entrega.dto.SlowQueryDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.spi.StatisticsImplementor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QueryStatsServiceTest {
+
+    private static final long MS = 1_000_000;
+
+    @Mock EntityManagerFactory entityManagerFactory;
+    @Mock SessionFactoryImplementor sessionFactory;
+    @Mock StatisticsImplementor statistics;
+
+    // Umbral de 50 ms y buffer de 3 lentas; sin registerLoadListener()
+    @InjectMocks QueryStatsService service = new QueryStatsService(Duration.ofMillis(50), 3);
+
+    private QueryStatsDTO report(int top) {
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getQueries()).thenReturn(new String[0]);
+        return service.getReport(top);
+    }
+
+    @Test
+    void record_acumulaPorMetodo() {
+        service.record("EdgeRepository.findByProcessId", 2 * MS, 5, "select 1");
+        service.record("EdgeRepository.findByProcessId", 6 * MS, 3, "select 2");
+
+        RepositoryQueryStatsDTO stats = report(10).getByTotalTime().get(0);
+
+        assertThat(stats.getMethod()).isEqualTo("EdgeRepository.findByProcessId");
+        assertThat(stats.getInvocations()).isEqualTo(2);
+        assertThat(stats.getTotalMs()).isEqualTo(8.0);
+        assertThat(stats.getMaxMs()).isEqualTo(6.0);
+        assertThat(stats.getMeanMs()).isEqualTo(4.0);
+        assertThat(stats.getRows()).isEqualTo(8);
+        assertThat(stats.getSql()).isEqualTo("select 2");
+    }
+
+    @Test
+    void getReport_ordenaPorTotalYPorMaximoYRecorta() {
+        // A: muchas rápidas (total 30, máx 3); B: una lenta (total 20, máx 20); C: poca cosa
+        for (int i = 0; i < 10; i++) {
+            service.record("A", 3 * MS, 1, null);
+        }
+        service.record("B", 20 * MS, 1, null);
+        service.record("C", 1 * MS, 1, null);
+
+        QueryStatsDTO dto = report(2);
+
+        assertThat(dto.getByTotalTime()).extracting(RepositoryQueryStatsDTO::getMethod).containsExactly("A", "B");
+        assertThat(dto.getByMaxTime()).extracting(RepositoryQueryStatsDTO::getMethod).containsExactly("B", "A");
+    }
+
+    @Test
+    void record_soloGuardaLasQueSuperanElUmbral() {
+        service.record("Rapida", 49 * MS, 1, "select rapida");
+        service.record("Lenta", 50 * MS, 7, "select lenta");
+
+        List<SlowQueryDTO> slow = service.slowQueries();
+
+        assertThat(slow).hasSize(1);
+        assertThat(slow.get(0).getMethod()).isEqualTo("Lenta");
+        assertThat(slow.get(0).getDurationMs()).isEqualTo(50.0);
+        assertThat(slow.get(0).getRows()).isEqualTo(7);
+        assertThat(slow.get(0).getSql()).isEqualTo("select lenta");
+    }
+
+    @Test
+    void slowQueries_bufferLlenoPisaLasMasViejas() {
+        for (int i = 1; i <= 5; i++) {
+            service.record("Q" + i, 100 * MS, 0, null);
+        }
+
+        assertThat(service.slowQueries()).extracting(SlowQueryDTO::getMethod).containsExactly("Q5", "Q4", "Q3");
+    }
+
+    @Test
+    void getReport_etiquetaLasQueriesDeHibernateConSuMetodo() {
+        QueryStatistics declared = mock(QueryStatistics.class);
+        when(declared.getExecutionTotalTime()).thenReturn(40L);
+        when(declared.getExecutionMaxTime()).thenReturn(30L);
+        QueryStatistics derived = mock(QueryStatistics.class);
+        when(derived.getExecutionTotalTime()).thenReturn(10L);
+        when(derived.getExecutionMaxTime()).thenReturn(10L);
+
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getQueries()).thenReturn(new String[] { "select u from User u", "select r from Role r" });
+        when(statistics.getQueryStatistics("select u from User u")).thenReturn(declared);
+        when(statistics.getQueryStatistics("select r from Role r")).thenReturn(derived);
+        service.registerQuery("select u from User u", "UserRepository.findSafe");
+
+        QueryStatsDTO dto = service.getReport(10);
+
+        assertThat(dto.getQueriesByTotalTime().get(0).getMethod()).isEqualTo("UserRepository.findSafe");
+        assertThat(dto.getQueriesByTotalTime().get(1).getMethod()).isNull();
+    }
+
+    @Test
+    void getReport_ratiosDeL1YL2() {
+        service.recordLoad(true);
+        service.recordLoad(true);
+        service.recordLoad(true);
+        service.recordLoad(false);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getQueries()).thenReturn(new String[0]);
+        when(statistics.getSecondLevelCacheHitCount()).thenReturn(1L);
+        when(statistics.getSecondLevelCacheMissCount()).thenReturn(1L);
+
+        List<CacheRegionStatsDTO> caches = service.getReport(10).getCaches();
+
+        assertThat(caches).extracting(CacheRegionStatsDTO::getRegion)
+                .containsExactly("persistence-context", "second-level", "query-results");
+        assertThat(caches.get(0).getHitRatio()).isEqualTo(0.75);
+        assertThat(caches.get(1).getHitRatio()).isEqualTo(0.5);
+    }
+}
@@ -3,15 +3,17 @@ package com.proyecto.entrega.service;
 import com.proyecto.entrega.dto.RoleDTO;
 import com.proyecto.entrega.entity.Company;
 import com.proyecto.entrega.entity.Role;
+import com.proyecto.entrega.mapper.DtoMapper;
 import com.proyecto.entrega.repository.RoleRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.modelmapper.ModelMapper;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,7 +27,9 @@ class RoleServiceTest {
 
     @Mock RoleRepository roleRepository;
     @Mock CompanyService companyService; // <- como en Process/Gateway
-    @Mock ModelMapper modelMapper;
+    @Mock ChangeVersions changeVersions;
+    @Spy DtoMapper dtoMapper = new DtoMapper();
+    @Spy CursorPagination cursorPagination = new CursorPagination();
 
     @InjectMocks RoleService roleService;
 
@@ -62,15 +66,11 @@ class RoleServiceTest {
     void createRole_ok_conCompany_statusPorDefectoActive() {
         RoleDTO in = dto(null, "Admin", "Rol admin", null, 100L);
 
-        Role mapped = role(null, "Admin", "Rol admin", null, null); // lo que sale del mapper
         Company comp = company(100L);
         Role saved   = role(1L, "Admin", "Rol admin", "active", comp);
-        RoleDTO out  = dto(1L, "Admin", "Rol admin", "active", 100L);
 
-        when(modelMapper.map(in, Role.class)).thenReturn(mapped);
         when(companyService.findCompanyEntity(100L)).thenReturn(comp);
         when(roleRepository.save(any(Role.class))).thenReturn(saved);
-        when(modelMapper.map(saved, RoleDTO.class)).thenReturn(out);
 
         RoleDTO result = roleService.createRole(in);
 
@@ -91,13 +91,9 @@ class RoleServiceTest {
     void createRole_ok_sinCompanyId_noRevienta() {
         RoleDTO in = dto(null, "Op", "Ops", null, null);
 
-        Role mapped = role(null, "Op", "Ops", null, null);
-        Role saved  = role(2L, "Op", "Ops", "active", null);
-        RoleDTO out = dto(2L, "Op", "Ops", "active", null);
+        Role saved = role(2L, "Op", "Ops", "active", null);
 
-        when(modelMapper.map(in, Role.class)).thenReturn(mapped);
         when(roleRepository.save(any(Role.class))).thenReturn(saved);
-        when(modelMapper.map(saved, RoleDTO.class)).thenReturn(out);
 
         RoleDTO result = roleService.createRole(in);
 
@@ -115,12 +111,10 @@ class RoleServiceTest {
         Role existing = role(10L, "Viejo", "Vieja", "active", null);
         Company comp = company(101L);
         Role saved   = role(10L, "Nuevo", "Nueva desc", "active", comp);
-        RoleDTO out  = dto(10L, "Nuevo", "Nueva desc", "active", 101L);
 
         when(roleRepository.findById(10L)).thenReturn(Optional.of(existing));
         when(companyService.findCompanyEntity(101L)).thenReturn(comp);
         when(roleRepository.save(existing)).thenReturn(saved);
-        when(modelMapper.map(saved, RoleDTO.class)).thenReturn(out);
 
         RoleDTO result = roleService.updateRole(in);
 
@@ -129,6 +123,23 @@ class RoleServiceTest {
         assertThat(existing.getDescripcion()).isEqualTo("Nueva desc");
         assertThat(existing.getCompany()).isSameAs(comp);
         verify(roleRepository).save(existing);
+        verify(changeVersions).companyChanged(101L);
+    }
+
+    @Test
+    void updateRole_cambiaDeCompania_subeLaVersionDeAmbas() {
+        Company before = company(100L);
+        Company after = company(101L);
+        Role existing = role(10L, "Rol", "Desc", "active", before);
+
+        when(roleRepository.findById(10L)).thenReturn(Optional.of(existing));
+        when(companyService.findCompanyEntity(101L)).thenReturn(after);
+        when(roleRepository.save(existing)).thenReturn(existing);
+
+        roleService.updateRole(dto(10L, "Rol", "Desc", null, 101L));
+
+        verify(changeVersions).companyChanged(101L);
+        verify(changeVersions).companyChanged(100L);
     }
 
     @Test
@@ -139,7 +150,7 @@ class RoleServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Id");
 
-        verifyNoInteractions(roleRepository, companyService, modelMapper);
+        verifyNoInteractions(roleRepository, companyService, dtoMapper);
     }
 
     @Test
@@ -153,24 +164,23 @@ class RoleServiceTest {
 
         verify(roleRepository).findById(77L);
         verifyNoMoreInteractions(roleRepository);
-        verifyNoInteractions(companyService, modelMapper);
+        verifyNoInteractions(companyService, dtoMapper);
     }
 
     // =================== FIND ===================
 
     @Test
     void findRole_found() {
-        Role entity = role(2L, "Operador", "Ops", "active", null);
-        RoleDTO dto = dto(2L, "Operador", "Ops", "active", 100L);
+        Role entity = role(2L, "Operador", "Ops", "active", company(100L));
 
         when(roleRepository.findById(2L)).thenReturn(Optional.of(entity));
-        when(modelMapper.map(entity, RoleDTO.class)).thenReturn(dto);
 
         RoleDTO result = roleService.findRole(2L);
 
         assertThat(result.getId()).isEqualTo(2L);
         assertThat(result.getNombre()).isEqualTo("Operador");
         assertThat(result.getStatus()).isEqualTo("active");
+        assertThat(result.getCompanyId()).isEqualTo(100L);
     }
 
     @Test
@@ -186,16 +196,15 @@ class RoleServiceTest {
 
     @Test
     void deleteRole_ok_softDelete() {
-        Role existing = role(7L, "A", "D", "active", null);
+        Role existing = role(7L, "A", "D", "active", company(3L));
         when(roleRepository.findById(7L)).thenReturn(Optional.of(existing));
-        when(roleRepository.save(existing)).thenReturn(existing);
+        when(roleRepository.updateStatus(7L, "inactive")).thenReturn(1);
 
         roleService.deleteRole(7L);
 
-        assertThat(existing.getStatus()).isEqualTo("inactive");
-        ArgumentCaptor<Role> captor = ArgumentCaptor.forClass(Role.class);
-        verify(roleRepository).save(captor.capture());
-        assertThat(captor.getValue().getStatus()).isEqualTo("inactive");
+        verify(roleRepository).updateStatus(7L, "inactive");
+        verify(roleRepository, never()).save(any(Role.class));
+        verify(changeVersions).companyChanged(3L);
     }
 
     @Test
@@ -216,19 +225,14 @@ class RoleServiceTest {
     void findRoles_ok() {
         Role r1 = role(1L, "A", "da", "active", null);
         Role r2 = role(2L, "B", "db", "active", null);
-        when(roleRepository.findAll()).thenReturn(List.of(r1, r2));
-
-        RoleDTO d1 = dto(1L, "A", "da", "active", null);
-        RoleDTO d2 = dto(2L, "B", "db", "active", null);
-        when(modelMapper.map(r1, RoleDTO.class)).thenReturn(d1);
-        when(modelMapper.map(r2, RoleDTO.class)).thenReturn(d2);
+        when(roleRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(r1, r2));
 
-        List<RoleDTO> list = roleService.findRoles();
+        List<RoleDTO> list = roleService.findRoles(null, null).getItems();
 
         assertThat(list).hasSize(2);
         assertThat(list.get(0).getNombre()).isEqualTo("A");
         assertThat(list.get(1).getNombre()).isEqualTo("B");
-        verify(roleRepository).findAll();
-        verify(modelMapper, atLeast(2)).map(any(Role.class), eq(RoleDTO.class));
+        verify(roleRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(201));
+        verify(dtoMapper, atLeast(2)).toRoleDTO(any(Role.class));
     }
 }
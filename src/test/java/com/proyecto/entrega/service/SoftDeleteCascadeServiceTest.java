@@ -0,0 +1,205 @@
+package com.proyecto.entrega.service;
+
+import com.proyecto.entrega.dto.CascadeResultDTO;
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.entity.Edge;
+import com.proyecto.entrega.entity.Gateway;
+import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.exception.ResourceNotFoundException;
+import com.proyecto.entrega.repository.ActivityRepository;
+import com.proyecto.entrega.repository.CompanyRepository;
+import com.proyecto.entrega.repository.EdgeRepository;
+import com.proyecto.entrega.repository.GatewayRepository;
+import com.proyecto.entrega.repository.ProcessRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SoftDeleteCascadeServiceTest {
+
+    @Mock CompanyRepository companyRepository;
+    @Mock ProcessRepository processRepository;
+    @Mock ActivityRepository activityRepository;
+    @Mock GatewayRepository gatewayRepository;
+    @Mock EdgeRepository edgeRepository;
+
+    @InjectMocks SoftDeleteCascadeService softDeleteCascadeService;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(softDeleteCascadeService, "chunkSize", 100);
+    }
+
+    // =================== PROCESS ===================
+
+    @Test
+    void deactivateProcess_actualizaEnLotesHastaLoteIncompleto() {
+        when(processRepository.findById(5L)).thenReturn(Optional.of(new Process()));
+        // 250 edges: dos lotes completos y uno parcial
+        when(edgeRepository.deactivateByProcessIds(List.of(5L), 100)).thenReturn(100, 100, 50);
+        when(activityRepository.deactivateByProcessIds(List.of(5L), 100)).thenReturn(30);
+        when(gatewayRepository.deactivateByProcessIds(List.of(5L), 100)).thenReturn(4);
+        when(processRepository.updateStatus(5L, "inactive")).thenReturn(1);
+
+        CascadeResultDTO result = softDeleteCascadeService.deactivateProcess(5L);
+
+        assertThat(result.getEdges()).isEqualTo(250);
+        assertThat(result.getActivities()).isEqualTo(30);
+        assertThat(result.getGateways()).isEqualTo(4);
+        assertThat(result.getProcesses()).isEqualTo(1);
+        verify(edgeRepository, times(3)).deactivateByProcessIds(List.of(5L), 100);
+        verify(edgeRepository, never()).save(any());
+    }
+
+    @Test
+    void deactivateProcess_notFound_noActualizaNada() {
+        when(processRepository.findById(404L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> softDeleteCascadeService.deactivateProcess(404L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("404");
+
+        verifyNoInteractions(edgeRepository, activityRepository, gatewayRepository);
+    }
+
+    @Test
+    void restoreProcess_reactivaNodosAntesQueEdges() {
+        when(processRepository.findByIdIgnoreStatus(5L)).thenReturn(Optional.of(new Process()));
+        when(processRepository.updateStatus(5L, "active")).thenReturn(1);
+        when(activityRepository.reactivateByProcessIds(List.of(5L), 100)).thenReturn(3);
+        when(gatewayRepository.reactivateByProcessIds(List.of(5L), 100)).thenReturn(1);
+        when(edgeRepository.reactivateByProcessIds(List.of(5L), 100)).thenReturn(2);
+
+        CascadeResultDTO result = softDeleteCascadeService.restoreProcess(5L);
+
+        assertThat(result.getProcesses()).isEqualTo(1);
+        assertThat(result.getEdges()).isEqualTo(2);
+        InOrder order = inOrder(processRepository, activityRepository, gatewayRepository, edgeRepository);
+        order.verify(processRepository).updateStatus(5L, "active");
+        order.verify(activityRepository).reactivateByProcessIds(List.of(5L), 100);
+        order.verify(gatewayRepository).reactivateByProcessIds(List.of(5L), 100);
+        order.verify(edgeRepository).reactivateByProcessIds(List.of(5L), 100);
+    }
+
+    // =================== COMPANY ===================
+
+    @Test
+    void deactivateCompany_cascadaSobreTodosSusProcesos() {
+        when(companyRepository.findById(1L)).thenReturn(Optional.of(new Company()));
+        when(processRepository.findIdsByCompanyId(1L)).thenReturn(List.of(5L, 6L));
+        when(edgeRepository.deactivateByProcessIds(List.of(5L, 6L), 100)).thenReturn(7);
+        when(activityRepository.deactivateByProcessIds(List.of(5L, 6L), 100)).thenReturn(6);
+        when(gatewayRepository.deactivateByProcessIds(List.of(5L, 6L), 100)).thenReturn(2);
+        when(processRepository.deactivateByCompanyId(1L)).thenReturn(2);
+        when(companyRepository.updateStatus(1L, "inactive")).thenReturn(1);
+
+        CascadeResultDTO result = softDeleteCascadeService.deactivateCompany(1L);
+
+        assertThat(result.getCompanies()).isEqualTo(1);
+        assertThat(result.getProcesses()).isEqualTo(2);
+        assertThat(result.getActivities()).isEqualTo(6);
+        assertThat(result.getGateways()).isEqualTo(2);
+        assertThat(result.getEdges()).isEqualTo(7);
+    }
+
+    @Test
+    void restoreCompany_soloRestauraElContenidoDeLosProcesosReactivados() {
+        when(companyRepository.findByIdIgnoreStatus(1L)).thenReturn(Optional.of(new Company()));
+        when(companyRepository.updateStatus(1L, "active")).thenReturn(1);
+        when(processRepository.reactivateByCompanyId(1L)).thenReturn(1);
+        // El proceso 6 se había eliminado a propósito y sigue inactivo
+        when(processRepository.findActiveIdsByCompanyId(1L)).thenReturn(List.of(5L));
+        when(activityRepository.reactivateByProcessIds(List.of(5L), 100)).thenReturn(3);
+        when(gatewayRepository.reactivateByProcessIds(List.of(5L), 100)).thenReturn(1);
+        when(edgeRepository.reactivateByProcessIds(List.of(5L), 100)).thenReturn(2);
+
+        CascadeResultDTO result = softDeleteCascadeService.restoreCompany(1L);
+
+        assertThat(result.getProcesses()).isEqualTo(1);
+        assertThat(result.getActivities()).isEqualTo(3);
+        verify(processRepository, never()).findIdsByCompanyId(any());
+    }
+
+    @Test
+    void deactivateCompany_sinProcesos_noEjecutaUpdatesDeContenido() {
+        when(companyRepository.findById(1L)).thenReturn(Optional.of(new Company()));
+        when(processRepository.findIdsByCompanyId(1L)).thenReturn(List.of());
+        when(companyRepository.updateStatus(1L, "inactive")).thenReturn(1);
+
+        CascadeResultDTO result = softDeleteCascadeService.deactivateCompany(1L);
+
+        assertThat(result.getCompanies()).isEqualTo(1);
+        verifyNoInteractions(edgeRepository, activityRepository, gatewayRepository);
+    }
+
+    // =================== ACTIVITY / GATEWAY ===================
+
+    @Test
+    void deactivateActivity_desactivaEdgesConectados() {
+        when(activityRepository.findById(7L)).thenReturn(Optional.of(new Activity()));
+        when(edgeRepository.deactivateByActivityIds(List.of(7L), 100)).thenReturn(3);
+        when(activityRepository.updateStatus(7L, "inactive")).thenReturn(1);
+
+        CascadeResultDTO result = softDeleteCascadeService.deactivateActivity(7L);
+
+        assertThat(result.getActivities()).isEqualTo(1);
+        assertThat(result.getEdges()).isEqualTo(3);
+        verify(edgeRepository, never()).findByActivityId(any());
+    }
+
+    @Test
+    void restoreGateway_buscaIgnorandoStatus() {
+        when(gatewayRepository.findByIdIgnoreStatus(8L)).thenReturn(Optional.of(new Gateway()));
+        when(gatewayRepository.updateStatus(8L, "active")).thenReturn(1);
+        when(edgeRepository.reactivateByGatewayId(8L, 100)).thenReturn(2);
+
+        CascadeResultDTO result = softDeleteCascadeService.restoreGateway(8L);
+
+        assertThat(result.getGateways()).isEqualTo(1);
+        assertThat(result.getEdges()).isEqualTo(2);
+        verify(gatewayRepository, never()).findById(any());
+    }
+
+    // =================== EDGE / ELEMENTOS DE UN DIAGRAMA ===================
+
+    @Test
+    void deactivateEdge_cambiaElStatusConUpdateDirecto() {
+        when(edgeRepository.findById(9L)).thenReturn(Optional.of(new Edge()));
+        when(edgeRepository.updateStatus(9L, "inactive")).thenReturn(1);
+
+        CascadeResultDTO result = softDeleteCascadeService.deactivateEdge(9L);
+
+        assertThat(result.getEdges()).isEqualTo(1);
+        verify(edgeRepository, never()).save(any());
+    }
+
+    @Test
+    void deactivateDiagramElements_edgesDirectosAntesQueLaCascada() {
+        when(edgeRepository.updateStatusByIds(List.of(20L), "inactive")).thenReturn(1);
+        when(edgeRepository.deactivateByActivityIds(List.of(7L), 100)).thenReturn(2);
+        when(activityRepository.updateStatusByIds(List.of(7L), "inactive")).thenReturn(1);
+
+        CascadeResultDTO result = softDeleteCascadeService.deactivateDiagramElements(List.of(7L), List.of(),
+                List.of(20L));
+
+        assertThat(result.getActivities()).isEqualTo(1);
+        assertThat(result.getEdges()).isEqualTo(3);
+        InOrder order = inOrder(edgeRepository);
+        order.verify(edgeRepository).updateStatusByIds(List.of(20L), "inactive");
+        order.verify(edgeRepository).deactivateByActivityIds(List.of(7L), 100);
+        verifyNoInteractions(gatewayRepository);
+    }
+}
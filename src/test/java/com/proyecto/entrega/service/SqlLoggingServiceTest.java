@@ -0,0 +1,50 @@
+package com.proyecto.entrega.service;
+
+import com.proyecto.entrega.dto.SqlLoggingDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SqlLoggingServiceTest {
+
+    @Mock LoggingSystem loggingSystem;
+
+    @InjectMocks SqlLoggingService sqlLoggingService;
+
+    @Test
+    void setState_activaSentenciasYParametros() {
+        when(loggingSystem.getLoggerConfiguration(SqlLoggingService.SQL_LOGGER))
+                .thenReturn(new LoggerConfiguration(SqlLoggingService.SQL_LOGGER, LogLevel.DEBUG, LogLevel.DEBUG));
+        when(loggingSystem.getLoggerConfiguration(SqlLoggingService.BIND_LOGGER))
+                .thenReturn(new LoggerConfiguration(SqlLoggingService.BIND_LOGGER, LogLevel.TRACE, LogLevel.TRACE));
+
+        SqlLoggingDTO state = sqlLoggingService.setState(true, true);
+
+        verify(loggingSystem).setLogLevel(SqlLoggingService.SQL_LOGGER, LogLevel.DEBUG);
+        verify(loggingSystem).setLogLevel(SqlLoggingService.BIND_LOGGER, LogLevel.TRACE);
+        assertThat(state.isEnabled()).isTrue();
+        assertThat(state.isParameters()).isTrue();
+    }
+
+    @Test
+    void setState_parametrosSinSentencias_noSeActivan() {
+        when(loggingSystem.getLoggerConfiguration(anyString()))
+                .thenReturn(new LoggerConfiguration("x", null, LogLevel.INFO));
+
+        SqlLoggingDTO state = sqlLoggingService.setState(false, true);
+
+        verify(loggingSystem).setLogLevel(SqlLoggingService.SQL_LOGGER, null);
+        verify(loggingSystem).setLogLevel(SqlLoggingService.BIND_LOGGER, null);
+        assertThat(state.isEnabled()).isFalse();
+        assertThat(state.isParameters()).isFalse();
+    }
+}
@@ -5,16 +5,21 @@ import com.proyecto.entrega.dto.UserSafeDTO;
 import com.proyecto.entrega.entity.Company;
 import com.proyecto.entrega.entity.Role;
 import com.proyecto.entrega.entity.User;
+import com.proyecto.entrega.mapper.DtoMapper;
 import com.proyecto.entrega.repository.UserRepository;
+import com.proyecto.entrega.security.PasswordHasher;
+import com.proyecto.entrega.security.PrincipalCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.modelmapper.ModelMapper;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,7 +33,10 @@ class UserServiceTest {
     @Mock UserRepository userRepository;
     @Mock CompanyService companyService; // ← carga la empresa por id
     @Mock RoleService roleService;       // ← carga el rol por id
-    @Mock ModelMapper modelMapper;
+    @Mock PasswordHasher passwordHasher;
+    @Spy DtoMapper dtoMapper = new DtoMapper();
+    @Spy CursorPagination cursorPagination = new CursorPagination();
+    @Spy PrincipalCache principalCache = new PrincipalCache(100, Duration.ofMinutes(10));
 
     @InjectMocks UserService userService;
 
@@ -50,13 +58,6 @@ class UserServiceTest {
         return d;
     }
 
-    private UserSafeDTO safe(Long id, String nombre, String correo, String status, Long companyId, Long roleId){
-        UserSafeDTO s = new UserSafeDTO();
-        s.setId(id); s.setNombre(nombre); s.setCorreo(correo); s.setStatus(status);
-        s.setCompanyId(companyId); s.setRoleId(roleId);
-        return s;
-    }
-
     // ---------- createUser ----------
     @Test
     void createUser_ok_statusPorDefectoActive_y_relacionesSeteadas() {
@@ -65,15 +66,11 @@ class UserServiceTest {
         Company c = comp(10L);
         Role r = role(20L);
 
-        User mapped   = user(null, "Juan", "juan@acme.com", "secreta", null, null, null); // mapper pone lo básico
-        User persisted= user(1L, "Juan", "juan@acme.com", "secreta", "active", c, r);
-        UserDTO outDto= dto(1L, "Juan", "juan@acme.com", "secreta", "active", 10L, 20L);
+        User persisted = user(1L, "Juan", "juan@acme.com", "secreta", "active", c, r);
 
-        when(modelMapper.map(inDto, User.class)).thenReturn(mapped);
         when(companyService.findCompanyEntity(10L)).thenReturn(c);
         when(roleService.findRoleEntity(20L)).thenReturn(r);
         when(userRepository.save(any(User.class))).thenReturn(persisted);
-        when(modelMapper.map(persisted, UserDTO.class)).thenReturn(outDto);
 
         UserDTO result = userService.createUser(inDto);
 
@@ -97,7 +94,7 @@ class UserServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Company ID");
 
-        verifyNoInteractions(userRepository, companyService, roleService, modelMapper);
+        verifyNoInteractions(userRepository, companyService, roleService, dtoMapper);
     }
 
     @Test
@@ -108,7 +105,7 @@ class UserServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Role ID");
 
-        verifyNoInteractions(userRepository, companyService, roleService, modelMapper);
+        verifyNoInteractions(userRepository, companyService, roleService, dtoMapper);
     }
 
     // ---------- updateUser ----------
@@ -120,24 +117,12 @@ class UserServiceTest {
         Company c = comp(11L);
         Role r = role(22L);
         User saved = user(10L, "Nuevo Nombre", "nuevo@correo.com", "secreta", "active", c, r);
-        UserDTO outDto = dto(10L, "Nuevo Nombre", "nuevo@correo.com", "secreta", "active", 11L, 22L);
 
         when(userRepository.findById(10L)).thenReturn(Optional.of(existing));
         when(companyService.findCompanyEntity(11L)).thenReturn(c);
         when(roleService.findRoleEntity(22L)).thenReturn(r);
 
-        // ModelMapper.map(sourceDTO, destinationEntity) (void)
-        doAnswer(inv -> {
-            UserDTO src = inv.getArgument(0);
-            User dest  = inv.getArgument(1);
-            dest.setNombre(src.getNombre());
-            dest.setCorreo(src.getCorreo());
-            dest.setContrasena(src.getContrasena());
-            return null;
-        }).when(modelMapper).map(eq(inDto), same(existing));
-
         when(userRepository.save(existing)).thenReturn(saved);
-        when(modelMapper.map(saved, UserDTO.class)).thenReturn(outDto);
 
         UserDTO result = userService.updateUser(inDto);
 
@@ -148,7 +133,6 @@ class UserServiceTest {
         assertThat(existing.getCompany()).isSameAs(c);
         assertThat(existing.getRole()).isSameAs(r);
 
-        verify(modelMapper).map(eq(inDto), same(existing));
         verify(userRepository).save(existing);
     }
 
@@ -160,7 +144,7 @@ class UserServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("User ID");
 
-        verifyNoInteractions(userRepository, companyService, roleService, modelMapper);
+        verifyNoInteractions(userRepository, companyService, roleService, dtoMapper);
     }
 
     @Test
@@ -202,16 +186,16 @@ class UserServiceTest {
     @Test
     void findUser_found_returnsSafeDTO_sinContrasena() {
         User entity = user(2L, "Ana", "ana@acme.com", "topsecret", "active", comp(11L), role(22L));
-        UserSafeDTO safe = safe(2L, "Ana", "ana@acme.com", "active", 11L, 22L);
 
         when(userRepository.findById(2L)).thenReturn(Optional.of(entity));
-        when(modelMapper.map(entity, UserSafeDTO.class)).thenReturn(safe);
 
         UserSafeDTO result = userService.findUser(2L);
 
         assertThat(result.getId()).isEqualTo(2L);
         assertThat(result.getNombre()).isEqualTo("Ana");
         assertThat(result.getCorreo()).isEqualTo("ana@acme.com");
+        assertThat(result.getCompanyId()).isEqualTo(11L);
+        assertThat(result.getRole().getId()).isEqualTo(22L);
         // No hay contraseña en el SAFE DTO
         verify(userRepository).findById(2L);
     }
@@ -228,6 +212,49 @@ class UserServiceTest {
         verifyNoMoreInteractions(userRepository);
     }
 
+    // ---------- findPrincipal (cache) ----------
+    @Test
+    void findPrincipal_segundaLlamada_noConsultaLaBase() {
+        User entity = user(2L, "Ana", "ana@acme.com", "topsecret", "active", comp(11L), role(22L));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(entity));
+
+        UserSafeDTO first = userService.findPrincipal(2L);
+        UserSafeDTO second = userService.findPrincipal(2L);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.getCompanyId()).isEqualTo(11L);
+        verify(userRepository, times(1)).findById(2L);
+    }
+
+    @Test
+    void findPrincipal_trasUpdateUser_vuelveAConsultar() {
+        User entity = user(10L, "Viejo", "viejo@correo.com", "old", "active", comp(11L), role(22L));
+        when(userRepository.findById(10L)).thenReturn(Optional.of(entity));
+        when(companyService.findCompanyEntity(11L)).thenReturn(comp(11L));
+        when(roleService.findRoleEntity(22L)).thenReturn(role(22L));
+        when(userRepository.save(entity)).thenReturn(entity);
+
+        userService.findPrincipal(10L);
+        userService.updateUser(dto(10L, "Nuevo", "nuevo@correo.com", null, null, 11L, 22L));
+        UserSafeDTO refreshed = userService.findPrincipal(10L);
+
+        assertThat(refreshed.getNombre()).isEqualTo("Nuevo");
+        verify(principalCache).invalidate(10L);
+    }
+
+    @Test
+    void deleteUser_invalidaElPrincipal() {
+        User entity = user(7L, "Luis", "luis@acme.com", "pass", "active", null, null);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(entity));
+        when(userRepository.save(any(User.class))).thenReturn(entity);
+
+        userService.findPrincipal(7L);
+        userService.deleteUser(7L);
+
+        verify(principalCache).invalidate(7L);
+        assertThat(principalCache.size()).isZero();
+    }
+
     // ---------- deleteUser (soft) ----------
     @Test
     void deleteUser_softDelete_setsInactiveAndSaves() {
@@ -260,17 +287,14 @@ class UserServiceTest {
     @Test
     void findAllUsers_ok_returnsSafeDTOs() {
         User u = user(1L, "Pepe", "pepe@acme.com", "p", "active", comp(50L), role(60L));
-        when(userRepository.findAll()).thenReturn(List.of(u));
-
-        UserSafeDTO safe = safe(1L, "Pepe", "pepe@acme.com", "active", 50L, 60L);
-        when(modelMapper.map(u, UserSafeDTO.class)).thenReturn(safe);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(u));
 
-        List<UserSafeDTO> result = userService.findAllUsers();
+        List<UserSafeDTO> result = userService.findAllUsers(null, null).getItems();
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getNombre()).isEqualTo("Pepe");
         assertThat(result.get(0).getStatus()).isEqualTo("active");
-        verify(userRepository).findAll();
-        verify(modelMapper, atLeastOnce()).map(any(User.class), eq(UserSafeDTO.class));
+        verify(userRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(201));
+        verify(dtoMapper, atLeastOnce()).toUserSafeDTO(any(User.class));
     }
 }
@@ -0,0 +1,262 @@
+package com.proyecto.entrega.support;
+
+import com.proyecto.entrega.dto.UserSafeDTO;
+import com.proyecto.entrega.entity.Activity;
+import com.proyecto.entrega.entity.Company;
+import com.proyecto.entrega.entity.Edge;
+import com.proyecto.entrega.entity.Gateway;
+import com.proyecto.entrega.entity.Process;
+import com.proyecto.entrega.entity.Role;
+import com.proyecto.entrega.entity.User;
+import com.proyecto.entrega.security.JwtUtil;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+/**
+ * Base de las suites de número de queries por endpoint (paquete querycount).
+ *
+ * Levanta la aplicación completa contra H2 en modo PostgreSQL (las queries
+ * nativas corren igual que en producción), sin cache de segundo nivel para
+ * contar el peor caso. Cada petición pasa por MockMvc con un JWT real y se
+ * cuentan las sentencias JDBC que Hibernate prepara entre el inicio y el
+ * fin de la petición (statistics.getPrepareStatementCount()).
+ *
+ * No hay transacción de test: como en producción, cada petición abre su
+ * propia sesión y no encuentra nada en el contexto de persistencia. Los
+ * datos se borran después de cada test.
+ *
+ * Dos formas de afirmar:
+ *  - assertStatements(request, max): tope absoluto de sentencias.
+ *  - assertStatementsIndependentOf(moreRows, request, max): además repite
+ *    la petición después de agregar filas y exige el mismo número; un N+1
+ *    falla aquí aunque el tope sea holgado.
+ *
+ * Los GET con ETag cuentan también la consulta de la versión de cambios
+ * (ChangeVersions), que corre antes que la del listado.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.password.bcrypt-cost=4",
+        "app.rate-limit.enabled=false",
+        "app.admin.operator-ids=" + QueryCountTest.OPERATOR_ID
+})
+@AutoConfigureMockMvc
+public abstract class QueryCountTest {
+
+    /** Filas de cada tipo (activities, gateways, edges) en el diagrama inicial */
+    protected static final int ROWS = 5;
+
+    /** Filas que se agregan para comprobar que el número de sentencias no crece */
+    protected static final int MORE_ROWS = 15;
+
+    protected static final String PASSWORD = "Secreta123";
+
+    /** Id de usuario configurado como operador de la plataforma (no existe en la base) */
+    protected static final long OPERATOR_ID = 1_000_000L;
+
+    @Autowired protected MockMvc mockMvc;
+    @Autowired protected JwtUtil jwtUtil;
+    @Autowired protected PasswordEncoder passwordEncoder;
+    @Autowired protected JdbcTemplate jdbcTemplate;
+    @Autowired protected TransactionTemplate transactionTemplate;
+    @Autowired private EntityManagerFactory emf;
+
+    @PersistenceContext
+    protected EntityManager em;
+
+    protected Long companyId;
+    protected Long roleId;
+    protected Long userId;
+    protected Long processId;
+    protected String userEmail;
+    protected final List<Long> activityIds = new ArrayList<>();
+    protected final List<Long> gatewayIds = new ArrayList<>();
+    protected final List<Long> edgeIds = new ArrayList<>();
+
+    private Statistics statistics;
+    private String token;
+
+    @BeforeEach
+    void seedCompany() {
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        userEmail = "admin@acme.com";
+        transactionTemplate.executeWithoutResult(tx -> {
+            Company company = new Company();
+            company.setName("Acme"); company.setNit(900L); company.setCorreoContacto("contacto@acme.com");
+            em.persist(company);
+
+            Role role = new Role();
+            role.setNombre("ADMIN"); role.setCompany(company);
+            em.persist(role);
+
+            User user = new User();
+            user.setNombre("Admin"); user.setCorreo(userEmail);
+            user.setContrasena(passwordEncoder.encode(PASSWORD));
+            user.setCompany(company); user.setRole(role);
+            em.persist(user);
+
+            Process process = new Process();
+            process.setName("Proceso"); process.setCompany(company);
+            em.persist(process);
+
+            companyId = company.getId();
+            roleId = role.getId();
+            userId = user.getId();
+            processId = process.getId();
+        });
+
+        UserSafeDTO principal = new UserSafeDTO();
+        principal.setId(userId); principal.setCorreo(userEmail); principal.setNombre("Admin");
+        principal.setCompanyId(companyId); principal.setRoleId(roleId);
+        token = jwtUtil.generateToken(principal, "ADMIN");
+
+        addDiagramRows(ROWS, "active");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM edge");
+        jdbcTemplate.update("DELETE FROM activity");
+        jdbcTemplate.update("DELETE FROM gateway");
+        jdbcTemplate.update("DELETE FROM usuarios");
+        jdbcTemplate.update("DELETE FROM process");
+        jdbcTemplate.update("DELETE FROM role");
+        jdbcTemplate.update("DELETE FROM company");
+        activityIds.clear();
+        gatewayIds.clear();
+        edgeIds.clear();
+    }
+
+    /**
+     * Agrega al proceso n activities, n gateways y n edges (activity →
+     * activity y activity → gateway, legacy y tipados) con el status dado.
+     */
+    protected void addDiagramRows(int n, String status) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            Process process = em.getReference(Process.class, processId);
+            Role role = em.getReference(Role.class, roleId);
+            List<Activity> activities = new ArrayList<>();
+            List<Gateway> gateways = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                Activity a = new Activity();
+                a.setName("A" + i); a.setX(10.0 * i); a.setY(20.0);
+                a.setWidth(100.0); a.setHeight(50.0);
+                a.setProcess(process); a.setRole(role); a.setStatus(status);
+                em.persist(a);
+                activities.add(a);
+
+                Gateway g = new Gateway();
+                g.setType("exclusive"); g.setX(10.0 * i); g.setY(80.0);
+                g.setProcess(process); g.setStatus(status);
+                em.persist(g);
+                gateways.add(g);
+            }
+            for (int i = 0; i < n; i++) {
+                Activity from = activities.get(i);
+                Edge e = new Edge();
+                e.setProcess(process); e.setStatus(status);
+                e.setFromType("activity"); e.setFromId(from.getId());
+                e.setActivitySource(from);
+                if (i % 2 == 0) {
+                    Activity to = activities.get((i + 1) % n);
+                    e.setToType("activity"); e.setToId(to.getId());
+                    e.setActivityDestiny(to);
+                } else {
+                    e.setToType("gateway"); e.setToId(gateways.get(i).getId());
+                }
+                em.persist(e);
+                edgeIds.add(e.getId());
+            }
+            em.flush();
+            activities.forEach(a -> activityIds.add(a.getId()));
+            gateways.forEach(g -> gatewayIds.add(g.getId()));
+        });
+    }
+
+    /** Las peticiones siguientes van con el token de un operador de la plataforma */
+    protected void asOperator() {
+        UserSafeDTO operator = new UserSafeDTO();
+        operator.setId(OPERATOR_ID); operator.setCompanyId(companyId); operator.setRoleId(roleId);
+        token = jwtUtil.generateToken(operator, "ADMIN");
+    }
+
+    /**
+     * Ejecuta la petición autenticada (completando el despacho asíncrono de
+     * las exportaciones) y devuelve cuántas sentencias JDBC preparó.
+     */
+    protected long statements(MockHttpServletRequestBuilder request) throws Exception {
+        statistics.clear();
+        MvcResult result = mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        assertThat(result.getResponse().getStatus())
+                .as("%s %s: %s", result.getRequest().getMethod(), result.getRequest().getRequestURI(),
+                        result.getResponse().getContentAsString())
+                .isBetween(200, 299);
+        return statistics.getPrepareStatementCount();
+    }
+
+    /** Status de la petición autenticada, sin exigir que sea 2xx */
+    protected int status(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andReturn().getResponse().getStatus();
+    }
+
+    protected void assertStatements(MockHttpServletRequestBuilder request, long max) throws Exception {
+        assertThat(statements(request)).as("sentencias").isLessThanOrEqualTo(max);
+    }
+
+    /**
+     * Tope de sentencias, y el mismo número después de moreRows (que agrega
+     * filas a lo que devuelve la petición).
+     */
+    protected void assertStatementsIndependentOf(Runnable moreRows,
+            Supplier<MockHttpServletRequestBuilder> request, long max) throws Exception {
+        long before = statements(request.get());
+        assertThat(before).as("sentencias").isLessThanOrEqualTo(max);
+
+        moreRows.run();
+
+        assertThat(statements(request.get()))
+                .as("sentencias con más filas (antes %d)", before)
+                .isEqualTo(before);
+    }
+
+    /** MORE_ROWS activities, gateways y edges más en el proceso */
+    protected Runnable moreDiagramRows(String status) {
+        return () -> addDiagramRows(MORE_ROWS, status);
+    }
+}